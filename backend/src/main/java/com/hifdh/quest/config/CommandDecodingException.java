@@ -0,0 +1,26 @@
+package com.hifdh.quest.config;
+
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MessageConversionException;
+
+/**
+ * A command frame that could not be decoded into its command type.
+ */
+public class CommandDecodingException extends MessageConversionException {
+
+    private final String command;
+
+    public CommandDecodingException(Message<?> failedMessage, String command, String description, Throwable cause) {
+        super(failedMessage, command + ": " + description, cause);
+        this.command = command;
+    }
+
+    /**
+     * Command type that failed to decode.
+     *
+     * @return Simple name of the command record
+     */
+    public String getCommand() {
+        return command;
+    }
+}
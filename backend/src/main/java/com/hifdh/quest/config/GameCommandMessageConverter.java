@@ -0,0 +1,178 @@
+package com.hifdh.quest.config;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.GameCommand;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.RecordComponent;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Decodes GameCommand records straight from STOMP frame bytes.
+ * Each command type gets a decoder on first use that maps every JSON field name to its
+ * record component and a reader for that component's type, so decoding is one pass of the
+ * streaming parser with no intermediate map or tree. Numbers may also arrive as strings,
+ * as older clients send them. A malformed frame fails with a CommandDecodingException and
+ * is counted in game.commands.decode.failures, tagged with the command type.
+ */
+@Component
+public class GameCommandMessageConverter extends AbstractMessageConverter {
+
+    private final JsonFactory jsonFactory;
+    private final MeterRegistry meterRegistry;
+    private final Map<Class<?>, CommandDecoder> decoders = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Counter> failureCounters = new ConcurrentHashMap<>();
+
+    public GameCommandMessageConverter(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        super(MimeTypeUtils.APPLICATION_JSON);
+        this.jsonFactory = objectMapper.getFactory();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return clazz.isRecord() && GameCommand.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    protected boolean canConvertTo(Object payload, MessageHeaders headers) {
+        // Commands are only ever received
+        return false;
+    }
+
+    @Override
+    protected Object convertFromInternal(Message<?> message, Class<?> targetClass, Object conversionHint) {
+        CommandDecoder decoder = decoders.computeIfAbsent(targetClass, CommandDecoder::new);
+        Object payload = message.getPayload();
+        byte[] body = payload instanceof byte[] bytes ? bytes : payload.toString().getBytes(StandardCharsets.UTF_8);
+
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            return decoder.decode(parser);
+        } catch (IOException | IllegalArgumentException e) {
+            throw failure(message, targetClass, e.getMessage(), e);
+        } catch (InvocationTargetException e) {
+            // Rejected by the record's compact constructor
+            throw failure(message, targetClass, e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw failure(message, targetClass, e.toString(), e);
+        }
+    }
+
+    private CommandDecodingException failure(Message<?> message, Class<?> command, String description, Throwable cause) {
+        failureCounters.computeIfAbsent(command, type -> Counter.builder("game.commands.decode.failures")
+            .description("Command frames that could not be decoded")
+            .tag("command", type.getSimpleName())
+            .register(meterRegistry)).increment();
+        return new CommandDecodingException(message, command.getSimpleName(), description, cause);
+    }
+
+    /**
+     * Field readers and canonical constructor of one command record.
+     */
+    private static final class CommandDecoder {
+
+        private final Constructor<?> constructor;
+        private final Map<String, Slot> fields = new HashMap<>();
+        private final int arity;
+
+        CommandDecoder(Class<?> type) {
+            RecordComponent[] components = type.getRecordComponents();
+            Class<?>[] types = new Class<?>[components.length];
+            for (int i = 0; i < components.length; i++) {
+                types[i] = components[i].getType();
+                fields.put(components[i].getName(), new Slot(i, readerFor(type, components[i])));
+            }
+            try {
+                this.constructor = type.getDeclaredConstructor(types);
+            } catch (NoSuchMethodException e) {
+                throw new IllegalStateException("No canonical constructor on " + type.getName(), e);
+            }
+            this.arity = components.length;
+        }
+
+        Object decode(JsonParser parser) throws IOException, ReflectiveOperationException {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("expected a JSON object");
+            }
+            Object[] values = new Object[arity];
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                Slot slot = fields.get(parser.currentName());
+                JsonToken token = parser.nextToken();
+                if (slot == null) {
+                    parser.skipChildren();
+                } else if (token != JsonToken.VALUE_NULL) {
+                    values[slot.index()] = slot.reader().read(parser, token);
+                }
+            }
+            return constructor.newInstance(values);
+        }
+
+        private static FieldReader readerFor(Class<?> command, RecordComponent component) {
+            Class<?> type = component.getType();
+            String name = component.getName();
+            if (type == Long.class) {
+                return (parser, token) -> switch (token) {
+                    case VALUE_NUMBER_INT -> parser.getLongValue();
+                    case VALUE_STRING -> Long.valueOf(parser.getText().trim());
+                    default -> throw unexpected(name, token);
+                };
+            }
+            if (type == Integer.class) {
+                return (parser, token) -> switch (token) {
+                    case VALUE_NUMBER_INT -> parser.getIntValue();
+                    case VALUE_STRING -> Integer.valueOf(parser.getText().trim());
+                    default -> throw unexpected(name, token);
+                };
+            }
+            if (type == Boolean.class) {
+                return (parser, token) -> switch (token) {
+                    case VALUE_TRUE -> Boolean.TRUE;
+                    case VALUE_FALSE -> Boolean.FALSE;
+                    default -> throw unexpected(name, token);
+                };
+            }
+            if (type == String.class) {
+                return (parser, token) -> switch (token) {
+                    case VALUE_STRING -> parser.getText();
+                    default -> throw unexpected(name, token);
+                };
+            }
+            if (type == UUID.class) {
+                return (parser, token) -> switch (token) {
+                    case VALUE_STRING -> UUID.fromString(parser.getText());
+                    default -> throw unexpected(name, token);
+                };
+            }
+            throw new IllegalStateException("Unsupported field type " + type.getName() + " of " + command.getName()
+                + "." + name);
+        }
+
+        private static IllegalArgumentException unexpected(String field, JsonToken token) {
+            return new IllegalArgumentException("unexpected " + token + " for " + field);
+        }
+    }
+
+    private record Slot(int index, FieldReader reader) {
+    }
+
+    @FunctionalInterface
+    private interface FieldReader {
+        Object read(JsonParser parser, JsonToken token) throws IOException;
+    }
+}
@@ -0,0 +1,123 @@
+package com.hifdh.quest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToIntFunction;
+
+/**
+ * Outbound queues of the open WebSocket connections on this instance.
+ * Every connection gets an OutboundQueueSession (see WebSocketBrokerConfiguration) bounded by
+ * game.outbound.max-queued-frames, game.outbound.max-queued-bytes and
+ * game.outbound.send-time-limit-ms. The queues are exposed as metrics: the deepest and the
+ * total queue in game.outbound.queue.depth, queued bytes in game.outbound.queue.bytes, and
+ * frames coalesced, dropped and connections closed for falling behind as counters.
+ */
+@Component
+@Slf4j
+public class OutboundQueueRegistry {
+
+    private final int maxQueuedFrames;
+    private final int maxQueuedBytes;
+    private final long sendTimeLimitMillis;
+
+    private final Map<String, OutboundQueueSession> queues = new ConcurrentHashMap<>();
+
+    private final Counter supersededFrames;
+    private final Counter droppedFrames;
+    private final Counter slowConsumers;
+
+    public OutboundQueueRegistry(
+        MeterRegistry meterRegistry,
+        @Value("${game.outbound.max-queued-frames:256}") int maxQueuedFrames,
+        @Value("${game.outbound.max-queued-bytes:524288}") int maxQueuedBytes,
+        @Value("${game.outbound.send-time-limit-ms:10000}") long sendTimeLimitMillis
+    ) {
+        this.maxQueuedFrames = maxQueuedFrames;
+        this.maxQueuedBytes = maxQueuedBytes;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+
+        Gauge.builder("game.outbound.queue.depth", this, registry -> registry.max(OutboundQueueSession::getQueuedFrames))
+            .description("Frames waiting to be written on the most backed-up connection")
+            .tag("stat", "max")
+            .register(meterRegistry);
+        Gauge.builder("game.outbound.queue.depth", this, registry -> registry.total(OutboundQueueSession::getQueuedFrames))
+            .description("Frames waiting to be written on all connections")
+            .tag("stat", "total")
+            .register(meterRegistry);
+        Gauge.builder("game.outbound.queue.bytes", this, registry -> registry.total(OutboundQueueSession::getQueuedBytes))
+            .description("Bytes waiting to be written on all connections")
+            .register(meterRegistry);
+        this.supersededFrames = Counter.builder("game.outbound.frames.superseded")
+            .description("Queued frames replaced by a newer frame for the same destination")
+            .register(meterRegistry);
+        this.droppedFrames = Counter.builder("game.outbound.frames.dropped")
+            .description("Queued periodic frames dropped from connections over their limit")
+            .register(meterRegistry);
+        this.slowConsumers = Counter.builder("game.outbound.slow-consumers")
+            .description("Connections closed for falling too far behind")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Put a new connection behind an outbound queue.
+     *
+     * @param session Connection as opened by the transport
+     * @return Session to send through
+     */
+    public WebSocketSession open(WebSocketSession session) {
+        OutboundQueueSession queue = new OutboundQueueSession(session, this);
+        queues.put(session.getId(), queue);
+        return queue;
+    }
+
+    /**
+     * Forget a closed connection.
+     *
+     * @param connectionId WebSocket session ID
+     */
+    public void closed(String connectionId) {
+        queues.remove(connectionId);
+    }
+
+    int getMaxQueuedFrames() {
+        return maxQueuedFrames;
+    }
+
+    int getMaxQueuedBytes() {
+        return maxQueuedBytes;
+    }
+
+    long getSendTimeLimitMillis() {
+        return sendTimeLimitMillis;
+    }
+
+    void superseded() {
+        supersededFrames.increment();
+    }
+
+    void dropped(int frames) {
+        droppedFrames.increment(frames);
+    }
+
+    void slowConsumer(OutboundQueueSession queue, String reason) {
+        slowConsumers.increment();
+        log.warn("Closing connection {} ({} frames, {} bytes queued): {}",
+            queue.getId(), queue.getQueuedFrames(), queue.getQueuedBytes(), reason);
+    }
+
+    private int max(ToIntFunction<OutboundQueueSession> stat) {
+        return queues.values().stream().mapToInt(stat).max().orElse(0);
+    }
+
+    private long total(ToIntFunction<OutboundQueueSession> stat) {
+        return queues.values().stream().mapToLong(stat::applyAsInt).sum();
+    }
+}
@@ -0,0 +1,273 @@
+package com.hifdh.quest.config;
+
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Outbound queue of one WebSocket connection, used instead of Spring's
+ * ConcurrentWebSocketSessionDecorator. As there, frames are written by whichever sending
+ * thread holds the flush lock and the others only queue theirs. While the connection is
+ * backed up:
+ * - a frame that supersedes one still queued (the next timer tick, clock-sync reply,
+ *   scoreboard snapshot or the player's own standing) takes that frame's place;
+ * - over the frame or byte limit, queued periodic frames (timer ticks, clock-sync replies,
+ *   heartbeats) are dropped first;
+ * - if that is not enough, or one write has been blocked longer than the send time limit,
+ *   the connection is closed with TOO_FAR_BEHIND and the client reconnects and resumes from
+ *   its last event seq.
+ * Sequenced session events are never coalesced or dropped; a gap would only make the client
+ * ask for them again.
+ */
+public class OutboundQueueSession extends WebSocketSessionDecorator {
+
+    /** Close status of connections that fell too far behind */
+    public static final CloseStatus TOO_FAR_BEHIND = new CloseStatus(4001, "Too far behind; reconnect and resume");
+
+    private static final String HEARTBEAT = "heartbeat";
+    private static final String DESTINATION_HEADER = "\ndestination:";
+    private static final String TIMER_SUFFIX = "/timer";
+    private static final String CLOCK_QUEUE = "/user/queue/clock";
+    private static final String SCOREBOARD_QUEUE = "/user/queue/scoreboard";
+    private static final String PLAYER_QUEUE = "/user/queue/player";
+    private static final String STANDING_TYPE = "\"type\":\"PLAYER_STANDING\"";
+
+    private final OutboundQueueRegistry registry;
+
+    // Guarded by queueLock
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private final Map<String, Frame> queuedByKey = new HashMap<>();
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean closing = new AtomicBoolean();
+
+    private volatile int queuedFrames;
+    private volatile int queuedBytes;
+    private volatile long sendStartTime;
+
+    public OutboundQueueSession(WebSocketSession delegate, OutboundQueueRegistry registry) {
+        super(delegate);
+        this.registry = registry;
+    }
+
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing.get()) {
+            return;
+        }
+        enqueue(message);
+        do {
+            if (!tryFlush()) {
+                // Another thread is writing; it will pick this frame up
+                checkLimits();
+                break;
+            }
+        } while (queuedFrames > 0 && !closing.get());
+    }
+
+    @Override
+    public void close(CloseStatus status) throws IOException {
+        closing.set(true);
+        discard();
+        super.close(status);
+    }
+
+    public int getQueuedFrames() {
+        return queuedFrames;
+    }
+
+    public int getQueuedBytes() {
+        return queuedBytes;
+    }
+
+    private void enqueue(WebSocketMessage<?> message) {
+        queueLock.lock();
+        try {
+            // Only classify while backed up; otherwise the frame is written straight away
+            boolean backedUp = !queue.isEmpty() || flushLock.isLocked();
+            Frame frame = new Frame(message, backedUp ? supersedeKey(message) : null);
+            if (frame.key != null) {
+                Frame queued = queuedByKey.get(frame.key);
+                if (queued != null) {
+                    queuedBytes += frame.size - queued.size;
+                    queued.message = frame.message;
+                    queued.size = frame.size;
+                    registry.superseded();
+                    return;
+                }
+                queuedByKey.put(frame.key, frame);
+            }
+            queue.add(frame);
+            queuedFrames = queue.size();
+            queuedBytes += frame.size;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private Frame poll() {
+        queueLock.lock();
+        try {
+            Frame frame = queue.poll();
+            if (frame != null) {
+                if (frame.key != null) {
+                    queuedByKey.remove(frame.key);
+                }
+                queuedFrames = queue.size();
+                queuedBytes -= frame.size;
+            }
+            return frame;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private boolean tryFlush() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            Frame frame;
+            while (!closing.get() && (frame = poll()) != null) {
+                sendStartTime = System.currentTimeMillis();
+                getDelegate().sendMessage(frame.message);
+                sendStartTime = 0;
+            }
+        } finally {
+            sendStartTime = 0;
+            flushLock.unlock();
+        }
+        return true;
+    }
+
+    private void checkLimits() {
+        if (closing.get()) {
+            return;
+        }
+        long started = sendStartTime;
+        if (started > 0 && System.currentTimeMillis() - started > registry.getSendTimeLimitMillis()) {
+            tooFarBehind("write blocked for more than " + registry.getSendTimeLimitMillis() + " ms");
+        }
+        if (overLimit()) {
+            dropPeriodic();
+            if (overLimit()) {
+                tooFarBehind("outbound queue over its limit");
+            }
+        }
+    }
+
+    private boolean overLimit() {
+        return queuedFrames > registry.getMaxQueuedFrames() || queuedBytes > registry.getMaxQueuedBytes();
+    }
+
+    private void dropPeriodic() {
+        int dropped = 0;
+        queueLock.lock();
+        try {
+            Iterator<Frame> frames = queue.iterator();
+            while (frames.hasNext()) {
+                Frame frame = frames.next();
+                if (frame.periodic) {
+                    frames.remove();
+                    queuedByKey.remove(frame.key);
+                    queuedBytes -= frame.size;
+                    dropped++;
+                }
+            }
+            queuedFrames = queue.size();
+        } finally {
+            queueLock.unlock();
+        }
+        if (dropped > 0) {
+            registry.dropped(dropped);
+        }
+    }
+
+    // Hands the close to SubProtocolWebSocketHandler, which closes the session with the status
+    private void tooFarBehind(String reason) {
+        if (!closing.compareAndSet(false, true)) {
+            return;
+        }
+        registry.slowConsumer(this, reason);
+        discard();
+        throw new SessionLimitExceededException(reason, TOO_FAR_BEHIND);
+    }
+
+    private void discard() {
+        queueLock.lock();
+        try {
+            queue.clear();
+            queuedByKey.clear();
+            queuedFrames = 0;
+            queuedBytes = 0;
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * What a frame supersedes: frames with the same key carry state where only the latest
+     * matters.
+     *
+     * @param message Encoded STOMP frame
+     * @return Key, or null if every frame of this kind must be delivered
+     */
+    static String supersedeKey(WebSocketMessage<?> message) {
+        if (!(message instanceof TextMessage text)) {
+            return null;
+        }
+        String payload = text.getPayload();
+        if (payload.isBlank()) {
+            return HEARTBEAT;
+        }
+        int headersEnd = payload.indexOf("\n\n");
+        int start = payload.indexOf(DESTINATION_HEADER);
+        if (start < 0 || (headersEnd >= 0 && start > headersEnd)) {
+            return null;
+        }
+        start += DESTINATION_HEADER.length();
+        int end = payload.indexOf('\n', start);
+        String destination = payload.substring(start, end < 0 ? payload.length() : end);
+
+        if (destination.endsWith(TIMER_SUFFIX) || destination.equals(CLOCK_QUEUE)
+                || destination.equals(SCOREBOARD_QUEUE)) {
+            return destination;
+        }
+        if (destination.equals(PLAYER_QUEUE) && headersEnd >= 0 && payload.indexOf(STANDING_TYPE, headersEnd) >= 0) {
+            return destination + "#standing";
+        }
+        return null;
+    }
+
+    // Re-sent periodically anyway, so these can be dropped rather than only coalesced
+    private static boolean isPeriodic(String key) {
+        return key.equals(HEARTBEAT) || key.endsWith(TIMER_SUFFIX) || key.equals(CLOCK_QUEUE);
+    }
+
+    private static final class Frame {
+        private final String key;
+        private final boolean periodic;
+        private WebSocketMessage<?> message;
+        private int size;
+
+        Frame(WebSocketMessage<?> message, String key) {
+            this.key = key;
+            this.periodic = key != null && isPeriodic(key);
+            this.message = message;
+            this.size = message.getPayloadLength();
+        }
+    }
+}
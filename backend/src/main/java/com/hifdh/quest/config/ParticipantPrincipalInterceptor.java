@@ -0,0 +1,97 @@
+package com.hifdh.quest.config;
+
+import com.hifdh.quest.service.ParticipantPrincipal;
+import com.hifdh.quest.service.ParticipantTokenService;
+import com.hifdh.quest.service.SessionCommandForwarder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Binds a player's STOMP connection to their participant at CONNECT.
+ * Player clients send the "participant-token" issued when they joined; it is verified once
+ * here and the connection then carries a ParticipantPrincipal for its whole life (also kept in
+ * the WebSocket session attributes), so player commands get a verified identity without any
+ * lookup and user destinations reach exactly that participant's devices. A bad token refuses
+ * the connection. Connections without a token (admin screens) stay anonymous; while tokens
+ * are optional, the unsigned "participant-id" and "game-session-id" headers still bind.
+ * Frames that claim to be forwarded from another instance lose that header here: only
+ * SessionCommandForwarder may mark a command as forwarded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ParticipantPrincipalInterceptor implements ChannelInterceptor {
+
+    static final String PARTICIPANT_TOKEN_HEADER = "participant-token";
+
+    private final ParticipantTokenService participantTokenService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null) {
+            return message;
+        }
+        if (accessor.getCommand() != StompCommand.CONNECT) {
+            return stripForwardedHeader(accessor, message);
+        }
+
+        ParticipantPrincipal principal = resolve(accessor, message);
+        if (principal != null) {
+            accessor.setUser(principal);
+            Map<String, Object> attributes = accessor.getSessionAttributes();
+            if (attributes != null) {
+                attributes.put(ParticipantPrincipal.SESSION_ATTRIBUTE, principal);
+            }
+        }
+        return message;
+    }
+
+    // @Header arguments fall back to native headers, so a client could otherwise pose as a forwarded command
+    private Message<?> stripForwardedHeader(StompHeaderAccessor accessor, Message<?> message) {
+        if (!accessor.containsNativeHeader(SessionCommandForwarder.FORWARDED_HEADER)) {
+            return message;
+        }
+        log.warn("Removed a forwarded header sent by connection {}", accessor.getSessionId());
+        StompHeaderAccessor mutable = accessor.isMutable() ? accessor : StompHeaderAccessor.wrap(message);
+        mutable.removeNativeHeader(SessionCommandForwarder.FORWARDED_HEADER);
+        return MessageBuilder.createMessage(message.getPayload(), mutable.getMessageHeaders());
+    }
+
+    private ParticipantPrincipal resolve(StompHeaderAccessor accessor, Message<?> message) {
+        String token = accessor.getFirstNativeHeader(PARTICIPANT_TOKEN_HEADER);
+        if (token != null) {
+            try {
+                return participantTokenService.verify(token);
+            } catch (IllegalArgumentException e) {
+                log.warn("Refused connection {}: {}", accessor.getSessionId(), e.getMessage());
+                throw new MessageDeliveryException(message, "Invalid participant token");
+            }
+        }
+
+        String participantId = accessor.getFirstNativeHeader(PresenceChannelInterceptor.PARTICIPANT_ID_HEADER);
+        String gameSessionId = accessor.getFirstNativeHeader(PresenceChannelInterceptor.GAME_SESSION_ID_HEADER);
+        if (participantId == null || gameSessionId == null || participantTokenService.isRequired()) {
+            return null;
+        }
+
+        try {
+            return new ParticipantPrincipal(UUID.fromString(gameSessionId), Long.valueOf(participantId));
+        } catch (IllegalArgumentException e) {
+            log.warn("Connection {} sent invalid participant headers: {}", accessor.getSessionId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.hifdh.quest.config;
+
+import com.hifdh.quest.service.ParticipantPrincipal;
+import com.hifdh.quest.service.PresenceTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+/**
+ * Feeds STOMP connection activity into the PresenceTracker.
+ * A player's connection is registered once ParticipantPrincipalInterceptor has bound it to
+ * its participant on CONNECT; after that, every inbound frame on the connection (including
+ * native heartbeats) counts as a sign of life.
+ */
+@Component
+@RequiredArgsConstructor
+public class PresenceChannelInterceptor implements ChannelInterceptor {
+
+    static final String PARTICIPANT_ID_HEADER = "participant-id";
+    static final String GAME_SESSION_ID_HEADER = "game-session-id";
+
+    private final PresenceTracker presenceTracker;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        String connectionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (connectionId == null) {
+            return message;
+        }
+
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.CONNECT) {
+            // Admin screens and older clients aren't bound to a participant
+            if (SimpMessageHeaderAccessor.getUser(message.getHeaders()) instanceof ParticipantPrincipal participant) {
+                presenceTracker.connected(connectionId, participant.gameSessionId(), participant.participantId());
+            }
+            return message;
+        }
+
+        presenceTracker.touch(connectionId);
+        return message;
+    }
+
+    @EventListener
+    public void onSessionDisconnect(SessionDisconnectEvent event) {
+        presenceTracker.disconnected(event.getSessionId());
+    }
+}
@@ -0,0 +1,38 @@
+package com.hifdh.quest.config;
+
+import com.hifdh.quest.service.RedisEventRelay;
+import com.hifdh.quest.service.SessionCommandForwarder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+/**
+ * Redis pub/sub subscriptions for multi-instance mode (game.broker.mode=redis): session
+ * events and per-player deliveries fanned out by every instance, and commands forwarded to
+ * this instance.
+ * Listener calls run on the subscription thread itself, one message at a time, so events
+ * reach the local broker (and forwarded commands the inbound channel) in the order Redis
+ * delivered them.
+ */
+@Configuration
+@ConditionalOnProperty(name = "game.broker.mode", havingValue = "redis")
+public class RedisBrokerConfig {
+
+    @Bean
+    public RedisMessageListenerContainer gameEventListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                   RedisEventRelay redisEventRelay,
+                                                                   SessionCommandForwarder sessionCommandForwarder) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setTaskExecutor(new SyncTaskExecutor());
+        container.addMessageListener(redisEventRelay, new PatternTopic(RedisEventRelay.CHANNEL_PATTERN));
+        container.addMessageListener(redisEventRelay, new ChannelTopic(RedisEventRelay.USER_CHANNEL));
+        container.addMessageListener(sessionCommandForwarder, new ChannelTopic(sessionCommandForwarder.getLocalChannel()));
+        return container;
+    }
+}
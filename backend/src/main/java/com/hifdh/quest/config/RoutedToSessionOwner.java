@@ -0,0 +1,15 @@
+package com.hifdh.quest.config;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a REST handler that changes a session's state, so it only runs on the instance that
+ * owns the session (see SessionOwnerRoutingInterceptor).
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RoutedToSessionOwner {
+}
@@ -0,0 +1,43 @@
+package com.hifdh.quest.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Worker pool shared by all per-session command mailboxes.
+ * Each session runs on at most one worker at a time, so the pool size bounds
+ * how many sessions make progress in parallel.
+ *
+ * With spring.threads.virtual.enabled (on Java 21+), every mailbox turn runs on its own
+ * virtual thread instead: a session waiting on a slow query no longer holds one of a few
+ * workers, and the mailbox still keeps each session's commands in order.
+ */
+@Configuration
+public class SessionExecutorConfig {
+
+    @Value("${game.commands.pool-size:0}")
+    private int poolSize;
+
+    @Bean
+    public TaskExecutor sessionCommandPool(Environment environment) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return new VirtualThreadTaskExecutor("game-session-");
+        }
+
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("game-session-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        return executor;
+    }
+}
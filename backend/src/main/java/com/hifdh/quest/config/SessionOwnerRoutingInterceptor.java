@@ -0,0 +1,71 @@
+package com.hifdh.quest.config;
+
+import com.hifdh.quest.service.SessionOwnershipService;
+import com.hifdh.quest.service.SessionRequestForwarder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Routes REST requests marked @RoutedToSessionOwner to the instance that owns their session,
+ * the HTTP counterpart of SessionRoutingInterceptor. Requests for sessions owned here, and
+ * requests already forwarded once, run locally. If the owner cannot be reached the request
+ * fails with 503 rather than running here, where it would fork the session's live state.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionOwnerRoutingInterceptor implements HandlerInterceptor {
+
+    private final SessionOwnershipService sessionOwnershipService;
+    private final SessionRequestForwarder sessionRequestForwarder;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!sessionOwnershipService.isClustered()
+                || !(handler instanceof HandlerMethod method)
+                || !method.hasMethodAnnotation(RoutedToSessionOwner.class)
+                || request.getHeader(SessionRequestForwarder.FORWARDED_HEADER) != null) {
+            return true;
+        }
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+            (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        UUID sessionId = pathVariables != null ? sessionRequestForwarder.resolveSessionId(pathVariables) : null;
+        if (sessionId == null || sessionOwnershipService.isLocal(sessionId)) {
+            return true;
+        }
+
+        String owner = sessionOwnershipService.ownerOf(sessionId);
+        try {
+            ResponseEntity<byte[]> forwarded = sessionRequestForwarder.forward(owner, request,
+                StreamUtils.copyToByteArray(request.getInputStream()));
+            response.setStatus(forwarded.getStatusCode().value());
+            if (forwarded.getHeaders().getContentType() != null) {
+                response.setContentType(forwarded.getHeaders().getContentType().toString());
+            }
+            if (forwarded.getBody() != null) {
+                response.getOutputStream().write(forwarded.getBody());
+            }
+            log.debug("Forwarded {} {} for session {} to node {}", request.getMethod(), request.getRequestURI(),
+                sessionId, owner);
+        } catch (IllegalStateException e) {
+            log.error("Cannot route {} to the owner of session {}: {}", request.getRequestURI(), sessionId, e.getMessage());
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+        return false;
+    }
+}
@@ -0,0 +1,119 @@
+package com.hifdh.quest.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.service.ParticipantPrincipal;
+import com.hifdh.quest.service.ParticipantTokenService;
+import com.hifdh.quest.service.SessionCommandForwarder;
+import com.hifdh.quest.service.SessionOwnershipService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes state-changing client commands to the instance that owns their session.
+ * Commands for sessions owned by this instance pass through untouched; others are handed
+ * to SessionCommandForwarder and dropped here. Per-connection requests (heartbeats, resume,
+ * scoreboard resync, status) are always answered locally. Player commands are only forwarded
+ * if they act for the participant their connection was bound to, and they carry that identity
+ * to the owner, which cannot see the connection; anything else is left to the local handler,
+ * which rejects it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SessionRoutingInterceptor implements ChannelInterceptor {
+
+    // Commands that change session state, and so must run where the session lives
+    private static final List<String> ROUTED_PREFIXES = List.of(
+        "/app/admin/", "/app/player/buzz", "/app/player/submit-answer"
+    );
+    private static final Pattern ROUTED_GAME_DESTINATION = Pattern.compile(
+        "^/app/game/([^/]+)/(buzz|start-round|end-round|score|give-chance|answer)$");
+
+    private final SessionOwnershipService sessionOwnershipService;
+    private final SessionCommandForwarder sessionCommandForwarder;
+    private final ObjectMapper objectMapper;
+    private final ParticipantTokenService participantTokenService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.MESSAGE
+                || message.getHeaders().containsKey(SessionCommandForwarder.FORWARDED_HEADER)
+                || !(message.getPayload() instanceof byte[] payload)) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(message.getHeaders());
+        UUID sessionId = destination != null ? resolveSessionId(destination, payload) : null;
+        if (sessionId == null || sessionOwnershipService.isLocal(sessionId)) {
+            return message;
+        }
+
+        if (isPlayerCommand(destination) && !actsForBoundParticipant(message, sessionId, payload)) {
+            return message;
+        }
+
+        String owner = sessionOwnershipService.ownerOf(sessionId);
+        ParticipantPrincipal participant = SimpMessageHeaderAccessor.getUser(message.getHeaders())
+            instanceof ParticipantPrincipal bound ? bound : null;
+        try {
+            sessionCommandForwarder.forward(owner, destination, participant, payload);
+            log.debug("Forwarded {} for session {} to node {}", destination, sessionId, owner);
+            return null;
+        } catch (IllegalStateException e) {
+            // Better processed on the wrong node than lost
+            log.error("Processing {} locally: {}", destination, e.getMessage());
+            return message;
+        }
+    }
+
+    private static boolean isPlayerCommand(String destination) {
+        return destination.startsWith("/app/player/")
+            || (destination.startsWith("/app/game/") && destination.endsWith("/buzz"));
+    }
+
+    private boolean actsForBoundParticipant(Message<?> message, UUID sessionId, byte[] payload) {
+        if (!(SimpMessageHeaderAccessor.getUser(message.getHeaders()) instanceof ParticipantPrincipal bound)) {
+            return !participantTokenService.isRequired();
+        }
+        if (!bound.gameSessionId().equals(sessionId)) {
+            return false;
+        }
+        try {
+            JsonNode participantId = objectMapper.readTree(payload).get("participantId");
+            return participantId != null && bound.getName().equals(participantId.asText());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private UUID resolveSessionId(String destination, byte[] payload) {
+        try {
+            Matcher matcher = ROUTED_GAME_DESTINATION.matcher(destination);
+            if (matcher.matches()) {
+                return UUID.fromString(matcher.group(1));
+            }
+            if (ROUTED_PREFIXES.stream().noneMatch(destination::startsWith)) {
+                return null;
+            }
+
+            JsonNode sessionId = objectMapper.readTree(payload).get("sessionId");
+            return sessionId != null && !sessionId.isNull() ? UUID.fromString(sessionId.asText()) : null;
+        } catch (IOException | IllegalArgumentException e) {
+            // Left to the handler, which rejects it with its usual error
+            return null;
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.hifdh.quest.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Reports virtual threads that stay pinned to their carrier thread.
+ * When virtual threads are enabled, a JFR stream watches jdk.VirtualThreadPinned events (a
+ * virtual thread blocking inside a synchronized block or native frame) longer than
+ * game.threads.pinned-threshold-ms. Each one is logged with the top of its stack and counted
+ * in game.threads.pinned, tagged jdbc=true when the stack passes through the JDBC driver or
+ * connection pool, so pinning in the database path can be told apart from the rest.
+ */
+@Component
+@Slf4j
+public class VirtualThreadPinningMonitor {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final List<String> JDBC_PACKAGES = List.of("org.postgresql.", "com.zaxxer.hikari.", "java.sql.");
+    private static final int LOGGED_FRAMES = 12;
+
+    private final boolean enabled;
+    private final long thresholdMillis;
+    private final Counter jdbcPins;
+    private final Counter otherPins;
+
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(Environment environment, MeterRegistry meterRegistry,
+                                       @Value("${game.threads.pinned-threshold-ms:20}") long thresholdMillis) {
+        this.enabled = Threading.VIRTUAL.isActive(environment) && thresholdMillis > 0;
+        this.thresholdMillis = thresholdMillis;
+        this.jdbcPins = pinCounter(meterRegistry, true);
+        this.otherPins = pinCounter(meterRegistry, false);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(Duration.ofMillis(thresholdMillis)).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::report);
+        stream.startAsync();
+        log.info("Watching for virtual threads pinned longer than {} ms", thresholdMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (stream != null) {
+            stream.close();
+        }
+    }
+
+    private void report(RecordedEvent event) {
+        List<RecordedFrame> frames = event.getStackTrace() != null ? event.getStackTrace().getFrames() : List.of();
+        boolean jdbc = frames.stream().anyMatch(frame -> isJdbc(frame.getMethod().getType().getName()));
+        (jdbc ? jdbcPins : otherPins).increment();
+
+        String stack = frames.stream()
+            .limit(LOGGED_FRAMES)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                + ":" + frame.getLineNumber())
+            .collect(Collectors.joining("\n    at "));
+        log.warn("Virtual thread {} pinned for {} ms{}:\n    at {}",
+            event.getThread() != null ? event.getThread().getJavaName() : "?",
+            event.getDuration().toMillis(), jdbc ? " in the JDBC path" : "", stack);
+    }
+
+    private static boolean isJdbc(String className) {
+        return JDBC_PACKAGES.stream().anyMatch(className::startsWith);
+    }
+
+    private static Counter pinCounter(MeterRegistry meterRegistry, boolean jdbc) {
+        return Counter.builder("game.threads.pinned")
+            .description("Virtual threads pinned to their carrier longer than the threshold")
+            .tag("jdbc", String.valueOf(jdbc))
+            .register(meterRegistry);
+    }
+}
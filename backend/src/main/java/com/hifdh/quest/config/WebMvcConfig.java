@@ -0,0 +1,19 @@
+package com.hifdh.quest.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final SessionOwnerRoutingInterceptor sessionOwnerRoutingInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Session-changing REST calls run where the session lives
+        registry.addInterceptor(sessionOwnerRoutingInterceptor).addPathPatterns("/api/game/**");
+    }
+}
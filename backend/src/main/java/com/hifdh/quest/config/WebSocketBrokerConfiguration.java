@@ -0,0 +1,47 @@
+package com.hifdh.quest.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Enables the STOMP broker (what @EnableWebSocketMessageBroker would import) with one change:
+ * every connection sends through an OutboundQueueSession instead of Spring's default send
+ * buffer, so slow consumers are handled by the outbound queue policy. The broker itself is
+ * configured in WebSocketConfig.
+ */
+@Configuration
+public class WebSocketBrokerConfiguration extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private final OutboundQueueRegistry outboundQueues;
+
+    public WebSocketBrokerConfiguration(OutboundQueueRegistry outboundQueues) {
+        this.outboundQueues = outboundQueues;
+    }
+
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+        @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+        @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel
+    ) {
+        return new SubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel) {
+            @Override
+            protected WebSocketSession decorateSession(WebSocketSession session) {
+                return outboundQueues.open(session);
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                outboundQueues.closed(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+}
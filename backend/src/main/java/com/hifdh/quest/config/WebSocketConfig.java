@@ -1,27 +1,111 @@
 package com.hifdh.quest.config;
 
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
+import java.util.List;
+
+// The broker is enabled by WebSocketBrokerConfiguration, which adds the outbound queue policy
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
     @Value("${cors.allowed-origins}")
     private String allowedOriginsStr;
 
+    // STOMP heartbeat interval in both directions (0 disables native heartbeats)
+    @Value("${presence.stomp-heartbeat-ms:4000}")
+    private long heartbeatMillis;
+
+    // With virtual threads: how many inbound (or outbound) frames are handled at once
+    @Value("${game.threads.channel-concurrency:256}")
+    private int channelConcurrency;
+
+    private final TaskScheduler taskScheduler;
+    private final PresenceChannelInterceptor presenceChannelInterceptor;
+    private final SessionRoutingInterceptor sessionRoutingInterceptor;
+    private final AudienceChannelInterceptor audienceChannelInterceptor;
+    private final ParticipantPrincipalInterceptor participantPrincipalInterceptor;
+    private final GameCommandMessageConverter gameCommandMessageConverter;
+    private final boolean virtualThreads;
+
+    // Constructor with @Lazy so the scheduler isn't created while the broker is being configured
+    public WebSocketConfig(@Lazy TaskScheduler taskScheduler,
+                           PresenceChannelInterceptor presenceChannelInterceptor,
+                           SessionRoutingInterceptor sessionRoutingInterceptor,
+                           AudienceChannelInterceptor audienceChannelInterceptor,
+                           ParticipantPrincipalInterceptor participantPrincipalInterceptor,
+                           GameCommandMessageConverter gameCommandMessageConverter,
+                           Environment environment) {
+        this.taskScheduler = taskScheduler;
+        this.presenceChannelInterceptor = presenceChannelInterceptor;
+        this.sessionRoutingInterceptor = sessionRoutingInterceptor;
+        this.audienceChannelInterceptor = audienceChannelInterceptor;
+        this.participantPrincipalInterceptor = participantPrincipalInterceptor;
+        this.gameCommandMessageConverter = gameCommandMessageConverter;
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+    }
+
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Enable a simple in-memory message broker to send messages to clients
         // on destinations prefixed with "/topic" or "/queue"
-        registry.enableSimpleBroker("/topic", "/queue");
+        // Native STOMP heartbeats keep idle connections alive and drive presence tracking
+        registry.enableSimpleBroker("/topic", "/queue")
+                .setHeartbeatValue(new long[] { heartbeatMillis, heartbeatMillis })
+                .setTaskScheduler(taskScheduler);
 
         // Designate the "/app" prefix for messages bound for @MessageMapping methods
         registry.setApplicationDestinationPrefixes("/app");
+
+        // Deliver each client's messages in publish order, so event seq numbers arrive in order
+        registry.setPreservePublishOrder(true);
+    }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        // Identity first (bound on CONNECT), then presence, so forwarded commands still count
+        // as activity on this connection
+        registration.interceptors(participantPrincipalInterceptor, presenceChannelInterceptor,
+            audienceChannelInterceptor, sessionRoutingInterceptor);
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadPool("ws-inbound-"));
+        }
+    }
+
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        if (virtualThreads) {
+            registration.taskExecutor(virtualThreadPool("ws-outbound-"));
+        }
+    }
+
+    // The channels only accept a ThreadPoolTaskExecutor, so virtual threads come in through its
+    // thread factory; the pool size then only limits how many frames are handled at once
+    private ThreadPoolTaskExecutor virtualThreadPool(String namePrefix) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadFactory(new VirtualThreadTaskExecutor(namePrefix).getVirtualThreadFactory());
+        executor.setCorePoolSize(channelConcurrency);
+        executor.setMaxPoolSize(channelConcurrency);
+        executor.setAllowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        // Typed commands first; everything else keeps the default converters
+        messageConverters.add(gameCommandMessageConverter);
+        return true;
     }
 
     @Override
@@ -36,5 +120,9 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
         registry.addEndpoint("/ws")
                 .setAllowedOriginPatterns(origins)
                 .withSockJS();
+
+        // Frames of one connection must still reach the handlers in order once many
+        // (virtual) threads share the inbound channel
+        registry.setPreserveReceiveOrder(virtualThreads);
     }
 }
@@ -1,16 +1,18 @@
 package com.hifdh.quest.controller;
 
 import com.hifdh.quest.dto.GameRoundDTO;
-import com.hifdh.quest.dto.ParticipantDTO;
 import com.hifdh.quest.dto.websocket.AnswerValidatedEvent;
-import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.dto.websocket.EndRoundCommand;
+import com.hifdh.quest.dto.websocket.StartRoundCommand;
+import com.hifdh.quest.dto.websocket.ValidateAnswerCommand;
 import com.hifdh.quest.model.BuzzerPress;
-import com.hifdh.quest.model.GameParticipant;
 import com.hifdh.quest.model.GameRound;
 import com.hifdh.quest.repository.BuzzerPressRepository;
-import com.hifdh.quest.repository.GameParticipantRepository;
 import com.hifdh.quest.repository.GameRoundRepository;
 import com.hifdh.quest.service.GameSessionService;
+import com.hifdh.quest.service.LiveGameStateService;
+import com.hifdh.quest.service.ScoringEventWriter;
+import com.hifdh.quest.service.SessionCommandExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
@@ -18,10 +20,9 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Controller;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
  * WebSocket controller for admin game control actions.
@@ -33,9 +34,23 @@ import java.util.stream.Collectors;
 public class AdminGameWebSocketController {
 
     private final GameSessionService gameSessionService;
-    private final GameParticipantRepository participantRepository;
+    private final LiveGameStateService liveGameStateService;
     private final GameRoundRepository roundRepository;
     private final BuzzerPressRepository buzzerPressRepository;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final ScoringEventWriter scoringEventWriter;
+
+    /**
+     * Queue an admin command on its session's mailbox so it is serialized with
+     * every other command of the same session.
+     */
+    private void submitCommand(UUID sessionId, Runnable command) {
+        if (sessionId == null) {
+            log.error("Rejected admin command without sessionId");
+            return;
+        }
+        sessionCommandExecutor.execute(sessionId, command);
+    }
 
     /**
      * Start a new round.
@@ -43,18 +58,17 @@ public class AdminGameWebSocketController {
      * Broadcasts ROUND_STARTED event via GameSessionService
      */
     @MessageMapping("/admin/start-round")
-    public void handleStartRound(@Payload Map<String, Object> payload) {
-        try {
-            String sessionId = (String) payload.get("sessionId");
-            String questionType = (String) payload.get("questionType");
-            Long reciterId = payload.get("reciterId") != null
-                ? Long.valueOf(payload.get("reciterId").toString())
-                : null;
+    public void handleStartRound(@Payload StartRoundCommand command) {
+        submitCommand(command.sessionId(), () -> startRound(command));
+    }
 
-            log.info("Admin starting new round for session {} with question type: {}", sessionId, questionType);
+    private void startRound(StartRoundCommand command) {
+        try {
+            log.info("Admin starting new round for session {} with question type: {}",
+                command.sessionId(), command.questionType());
 
             // Create new round (service handles buzzer reset and ROUND_STARTED broadcast)
-            gameSessionService.createRound(UUID.fromString(sessionId), questionType, reciterId);
+            gameSessionService.createRound(command.sessionId(), command.questionType(), command.reciterId());
 
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Failed to start round: {}", e.getMessage());
@@ -66,7 +80,7 @@ public class AdminGameWebSocketController {
     /**
      * Validate a player's answer with advanced scoring system.
      * Client sends to: /app/admin/validate-answer
-     * Broadcasts ANSWER_VALIDATED and SCOREBOARD_UPDATE events
+     * Broadcasts ANSWER_VALIDATED and SCOREBOARD_DELTA events
      *
      * Scoring System:
      * - Base Points: 100 (Surah), 150 (Meaning), 200 (Next Ayat), 250 (Previous Ayat)
@@ -75,12 +89,16 @@ public class AdminGameWebSocketController {
      * - Buzz Rank Bonus: +25 (1st), +10 (2nd)
      */
     @MessageMapping("/admin/validate-answer")
-    public void handleValidateAnswer(@Payload Map<String, Object> payload) {
+    public void handleValidateAnswer(@Payload ValidateAnswerCommand command) {
+        submitCommand(command.sessionId(), () -> validateAnswer(command));
+    }
+
+    private void validateAnswer(ValidateAnswerCommand command) {
         try {
-            String sessionId = (String) payload.get("sessionId");
-            Long roundIdLong = Long.valueOf(payload.get("roundId").toString());
-            Long participantId = Long.valueOf(payload.get("participantId").toString());
-            Boolean isCorrect = (Boolean) payload.get("isCorrect");
+            UUID sessionId = command.sessionId();
+            Long roundIdLong = command.roundId();
+            Long participantId = command.participantId();
+            Boolean isCorrect = command.isCorrect();
 
             log.info("Admin validating answer for participant {} in round {}: correct={}",
                 participantId, roundIdLong, isCorrect);
@@ -89,9 +107,9 @@ public class AdminGameWebSocketController {
             GameRound round = roundRepository.findById(roundIdLong)
                 .orElseThrow(() -> new IllegalArgumentException("Round not found: " + roundIdLong));
 
-            // Get buzzer press to determine buzz time and rank
-            List<BuzzerPress> buzzerPresses = buzzerPressRepository.findByParticipantIdAndRoundId(participantId, roundIdLong);
-            BuzzerPress buzzerPress = buzzerPresses.isEmpty() ? null : buzzerPresses.get(0);
+            // Get buzzer press to determine buzz time and rank (live state first; its row may not be written yet)
+            LiveGameStateService.LivePress buzzerPress =
+                findBuzzerPress(sessionId, roundIdLong, participantId);
 
             int totalPoints = 0;
             int basePoints = 0;
@@ -101,16 +119,15 @@ public class AdminGameWebSocketController {
             int buzzRankBonus = 0;
 
             // Get participant for name and streak calculation
-            GameParticipant participant = participantRepository.findById(participantId)
-                .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+            LiveGameStateService.ParticipantState participant = liveGameStateService.getParticipant(participantId);
 
             if (Boolean.TRUE.equals(isCorrect)) {
                 // 1. Calculate base points based on question type
                 basePoints = getBasePoints(round.getCurrentQuestionType());
 
                 // 2. Apply speed bonus multiplier
-                if (buzzerPress != null && buzzerPress.getBuzzedAtSeconds() != null) {
-                    double buzzTime = buzzerPress.getBuzzedAtSeconds().doubleValue();
+                if (buzzerPress != null && buzzerPress.buzzedAtSeconds() != null) {
+                    double buzzTime = buzzerPress.buzzedAtSeconds();
                     if (buzzTime < 7.0) {
                         speedMultiplier = 1.5;
                     } else if (buzzTime < 14.0) {
@@ -123,7 +140,7 @@ public class AdminGameWebSocketController {
                 timeBonusPoints = pointsAfterSpeed - basePoints;
 
                 // 3. Add accuracy streak bonus
-                int currentStreak = participant.getConsecutiveCorrectAnswers() + 1; // +1 for this correct answer
+                int currentStreak = participant.consecutiveCorrectAnswers() + 1; // +1 for this correct answer
                 if (currentStreak >= 10) {
                     streakBonus = 250;
                 } else if (currentStreak >= 5) {
@@ -133,10 +150,10 @@ public class AdminGameWebSocketController {
                 }
 
                 // 4. Add buzz rank bonus
-                if (buzzerPress != null && buzzerPress.getBuzzRank() != null) {
-                    if (buzzerPress.getBuzzRank() == 1) {
+                if (buzzerPress != null) {
+                    if (buzzerPress.buzzRank() == 1) {
                         buzzRankBonus = 25;
-                    } else if (buzzerPress.getBuzzRank() == 2) {
+                    } else if (buzzerPress.buzzRank() == 2) {
                         buzzRankBonus = 10;
                     }
                 }
@@ -144,57 +161,51 @@ public class AdminGameWebSocketController {
                 // Total points calculation
                 totalPoints = pointsAfterSpeed + streakBonus + buzzRankBonus;
 
-                // Update participant streak and award points
-                participant.setConsecutiveCorrectAnswers(currentStreak);
-                participant.setTotalScore(participant.getTotalScore() + totalPoints);
-                participant = participantRepository.save(participant);
+                // Update participant streak and award points (in memory, written behind)
+                int awardedPoints = totalPoints;
+                participant = liveGameStateService.updateParticipant(participantId, state -> state
+                    .withConsecutiveCorrectAnswers(currentStreak)
+                    .withTotalScore(state.totalScore() + awardedPoints));
 
                 log.info("✅ Awarded {} points to {}: base={}, speed={}x, timebonus={}, streak={}, buzzbonus={}, total={}",
-                    totalPoints, participant.getName(), basePoints, speedMultiplier, timeBonusPoints,
-                    streakBonus, buzzRankBonus, participant.getTotalScore());
+                    totalPoints, participant.name(), basePoints, speedMultiplier, timeBonusPoints,
+                    streakBonus, buzzRankBonus, participant.totalScore());
             } else {
                 // Wrong answer: reset streak
-                participant.setConsecutiveCorrectAnswers(0);
-                participant = participantRepository.save(participant);
-                log.info("❌ Wrong answer from {} - streak reset", participant.getName());
+                participant = liveGameStateService.updateParticipant(participantId,
+                    state -> state.withConsecutiveCorrectAnswers(0));
+                log.info("❌ Wrong answer from {} - streak reset", participant.name());
             }
 
+            // Record the breakdown (inserted in the next batch, together with other sessions')
+            scoringEventWriter.record(new ScoringEventWriter.ScoringEventInsert(roundIdLong, participantId,
+                basePoints, speedMultiplier, timeBonusPoints, buzzRankBonus, streakBonus, totalPoints,
+                buzzerPress != null ? buzzerPress.buzzedAtSeconds() : null,
+                buzzerPress != null ? buzzerPress.buzzRank() : null,
+                Boolean.TRUE.equals(isCorrect), LocalDateTime.now()));
+
             // Broadcast ANSWER_VALIDATED event
             AnswerValidatedEvent answerEvent = AnswerValidatedEvent.builder()
-                .sessionId(sessionId)
+                .sessionId(sessionId.toString())
                 .participantId(participantId)
-                .participantName(participant.getName())
+                .participantName(participant.name())
                 .isCorrect(isCorrect)
                 .basePoints(basePoints)
                 .totalPoints(totalPoints)
                 .timeMultiplier(speedMultiplier)
                 .timeBonusPoints(timeBonusPoints)
                 .buzzRankBonus(buzzRankBonus)
-                .adminBonusPoints(streakBonus) // Using adminBonusPoints field for streak bonus
+                .streakBonus(streakBonus)
+                .adminBonusPoints(0)
                 .feedback(buildFeedbackMessage(isCorrect, totalPoints, speedMultiplier, streakBonus, buzzRankBonus))
                 .build();
 
             gameSessionService.broadcastAnswerValidated(answerEvent);
 
-            // Broadcast updated scoreboard
-            List<ParticipantDTO> scoreboard = gameSessionService.getScoreboard(UUID.fromString(sessionId));
-
-            ScoreboardUpdateEvent scoreboardEvent = ScoreboardUpdateEvent.builder()
-                .sessionId(sessionId)
-                .scores(scoreboard.stream()
-                    .map(p -> ScoreboardUpdateEvent.PlayerScore.builder()
-                        .participantId(p.getId())
-                        .participantName(p.getName())
-                        .totalScore(p.getTotalScore())
-                        .rank(null) // Rank can be calculated on frontend
-                        .roundsWon(0) // Not tracked yet
-                        .isConnected(true) // Default value since not in DTO
-                        .isBlockedNextRound(false) // Default value since not in DTO
-                        .build())
-                    .collect(Collectors.toList()))
-                .build();
-
-            gameSessionService.broadcastScoreboardUpdate(scoreboardEvent);
+            // Broadcast the scoreboard change (wrong answers leave scores untouched)
+            if (Boolean.TRUE.equals(isCorrect)) {
+                gameSessionService.publishScoreChange(sessionId, participant);
+            }
 
         } catch (IllegalArgumentException e) {
             log.error("Failed to validate answer: {}", e.getMessage());
@@ -203,6 +214,22 @@ public class AdminGameWebSocketController {
         }
     }
 
+    private LiveGameStateService.LivePress findBuzzerPress(UUID sessionId, Long roundId, Long participantId) {
+        LiveGameStateService.LivePress press = liveGameStateService.getPress(sessionId, roundId, participantId);
+        if (press != null) {
+            return press;
+        }
+
+        // Rounds from before this node took over the session
+        List<BuzzerPress> buzzerPresses = buzzerPressRepository.findByParticipantIdAndRoundId(participantId, roundId);
+        if (buzzerPresses.isEmpty() || buzzerPresses.get(0).getBuzzRank() == null) {
+            return null;
+        }
+        BuzzerPress buzzerPress = buzzerPresses.get(0);
+        return new LiveGameStateService.LivePress(buzzerPress.getBuzzRank(),
+            buzzerPress.getBuzzedAtSeconds() != null ? buzzerPress.getBuzzedAtSeconds().doubleValue() : null);
+    }
+
     /**
      * Get base points for a question type.
      */
@@ -249,17 +276,21 @@ public class AdminGameWebSocketController {
      * Broadcasts ROUND_ENDED event to all players
      */
     @MessageMapping("/admin/end-round")
-    public void handleEndRound(@Payload Map<String, Object> payload) {
+    public void handleEndRound(@Payload EndRoundCommand command) {
+        submitCommand(command.sessionId(), () -> endRound(command));
+    }
+
+    private void endRound(EndRoundCommand command) {
         try {
-            String sessionId = (String) payload.get("sessionId");
-            Long roundId = Long.valueOf(payload.get("roundId").toString());
+            UUID sessionId = command.sessionId();
+            Long roundId = command.roundId();
 
             log.info("Admin ending round {} for session {}", roundId, sessionId);
 
             GameRoundDTO round = gameSessionService.endRound(roundId);
 
             // Broadcast ROUND_ENDED event to all players
-            gameSessionService.broadcastRoundEnded(sessionId, roundId);
+            gameSessionService.broadcastRoundEnded(sessionId.toString(), roundId);
 
             log.info("Round {} ended successfully", roundId);
 
@@ -0,0 +1,21 @@
+package com.hifdh.quest.controller;
+
+import com.hifdh.quest.config.CommandDecodingException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.handler.annotation.MessageExceptionHandler;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+
+/**
+ * Shared handling of WebSocket command failures.
+ * A command frame that cannot be decoded is dropped with one log line naming the command
+ * type; GameCommandMessageConverter has already counted it.
+ */
+@ControllerAdvice
+@Slf4j
+public class CommandExceptionAdvice {
+
+    @MessageExceptionHandler(CommandDecodingException.class)
+    public void handleDecodingFailure(CommandDecodingException e) {
+        log.warn("Rejected malformed {} command: {}", e.getCommand(), e.getMessage());
+    }
+}
@@ -1,8 +1,17 @@
 package com.hifdh.quest.controller;
 
+import com.hifdh.quest.config.RoutedToSessionOwner;
 import com.hifdh.quest.dto.*;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.service.BuzzArbitrationService;
 import com.hifdh.quest.service.BuzzerService;
+import com.hifdh.quest.service.GameEventStore;
 import com.hifdh.quest.service.GameSessionService;
+import com.hifdh.quest.service.ParticipantTokenService;
+import com.hifdh.quest.service.ScoreboardService;
+import com.hifdh.quest.service.ScoringEventWriter;
+import com.hifdh.quest.service.SessionCommandExecutor;
+import com.hifdh.quest.service.SessionProjection;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -23,6 +32,8 @@ import java.util.UUID;
 /**
  * REST API controller for game session management.
  * Handles game creation, rounds, participants, and scoring.
+ * Handlers that change a session are marked @RoutedToSessionOwner and run on the instance
+ * that owns it.
  */
 @RestController
 @RequestMapping("/api/game")
@@ -34,6 +45,12 @@ public class GameController {
 
     private final GameSessionService gameSessionService;
     private final BuzzerService buzzerService;
+    private final BuzzArbitrationService buzzArbitrationService;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final GameEventStore gameEventStore;
+    private final ScoringEventWriter scoringEventWriter;
+    private final ScoreboardService scoreboardService;
+    private final ParticipantTokenService participantTokenService;
 
     /**
      * Create a new game session.
@@ -82,9 +99,10 @@ public class GameController {
      * POST /api/game/{sessionId}/start
      */
     @PostMapping("/{sessionId}/start")
+    @RoutedToSessionOwner
     public ResponseEntity<GameSessionDTO> startGame(@PathVariable UUID sessionId) {
         try {
-            GameSessionDTO session = gameSessionService.startGame(sessionId);
+            GameSessionDTO session = sessionCommandExecutor.call(sessionId, () -> gameSessionService.startGame(sessionId));
             return ResponseEntity.ok(session);
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Cannot start game: {}", e.getMessage());
@@ -97,9 +115,10 @@ public class GameController {
      * POST /api/game/{sessionId}/end
      */
     @PostMapping("/{sessionId}/end")
+    @RoutedToSessionOwner
     public ResponseEntity<GameSessionDTO> endGame(@PathVariable UUID sessionId) {
         try {
-            GameSessionDTO session = gameSessionService.endGame(sessionId);
+            GameSessionDTO session = sessionCommandExecutor.call(sessionId, () -> gameSessionService.endGame(sessionId));
             return ResponseEntity.ok(session);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -109,8 +128,11 @@ public class GameController {
     /**
      * Add a participant to a game session.
      * POST /api/game/{sessionId}/participants
+     *
+     * The response carries the participant's token, which the player sends on STOMP CONNECT.
      */
     @PostMapping("/{sessionId}/participants")
+    @RoutedToSessionOwner
     public ResponseEntity<ParticipantDTO> addParticipant(
             @PathVariable UUID sessionId,
             @RequestBody Map<String, String> body
@@ -121,7 +143,9 @@ public class GameController {
                 return ResponseEntity.badRequest().build();
             }
 
-            ParticipantDTO participant = gameSessionService.addParticipant(sessionId, participantName);
+            ParticipantDTO participant = sessionCommandExecutor.call(sessionId,
+                () -> gameSessionService.addParticipant(sessionId, participantName));
+            participant.setToken(participantTokenService.issue(sessionId, participant.getId()));
             return ResponseEntity.status(HttpStatus.CREATED).body(participant);
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Cannot add participant: {}", e.getMessage());
@@ -143,12 +167,97 @@ public class GameController {
         }
     }
 
+    /**
+     * Get the top of the live scoreboard with server-computed ranks.
+     * GET /api/game/{sessionId}/scoreboard/top?limit=5 (defaults to the session's scoreboardLimit)
+     */
+    @GetMapping("/{sessionId}/scoreboard/top")
+    public ResponseEntity<ScoreboardUpdateEvent> getTopScores(
+            @PathVariable UUID sessionId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        try {
+            Integer sessionLimit = limit != null ? limit : gameSessionService.getGameSession(sessionId).getScoreboardLimit();
+            int topK = sessionLimit != null ? sessionLimit : Integer.MAX_VALUE;
+            if (topK <= 0) {
+                return ResponseEntity.badRequest().build();
+            }
+            return ResponseEntity.ok(scoreboardService.getSnapshot(sessionId, topK));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    /**
+     * Get one participant's place on the live scoreboard.
+     * GET /api/game/{sessionId}/scoreboard/participants/{participantId}
+     */
+    @GetMapping("/{sessionId}/scoreboard/participants/{participantId}")
+    public ResponseEntity<ScoreboardUpdateEvent.PlayerScore> getStanding(
+            @PathVariable UUID sessionId,
+            @PathVariable Long participantId
+    ) {
+        ScoreboardUpdateEvent.PlayerScore standing = scoreboardService.getStanding(sessionId, participantId);
+        if (standing == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(standing);
+    }
+
+    /**
+     * Get every participant's points summed per component (base, speed, buzz rank, streak, admin bonus).
+     * GET /api/game/{sessionId}/score-breakdown
+     */
+    @GetMapping("/{sessionId}/score-breakdown")
+    public ResponseEntity<List<ScoreBreakdownDTO>> getScoreBreakdown(@PathVariable UUID sessionId) {
+        return ResponseEntity.ok(scoringEventWriter.getBreakdown(sessionId));
+    }
+
+    /**
+     * Get a participant's points breakdown for each validated answer.
+     * GET /api/game/participants/{participantId}/scoring-events
+     */
+    @GetMapping("/participants/{participantId}/scoring-events")
+    public ResponseEntity<List<ScoringEventDTO>> getScoringEvents(@PathVariable Long participantId) {
+        return ResponseEntity.ok(scoringEventWriter.getParticipantEvents(participantId));
+    }
+
+    /**
+     * Get a session's events from the append-only event log, in seq order.
+     * GET /api/game/{sessionId}/events?afterSeq=0&limit=500
+     */
+    @GetMapping("/{sessionId}/events")
+    public ResponseEntity<List<GameEventStore.StoredEvent>> getEvents(
+            @PathVariable UUID sessionId,
+            @RequestParam(defaultValue = "0") long afterSeq,
+            @RequestParam(defaultValue = "500") int limit
+    ) {
+        if (afterSeq < 0 || limit <= 0 || limit > 5000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(gameEventStore.getEvents(sessionId, afterSeq, limit));
+    }
+
+    /**
+     * Get a session's state derived from its event log (latest snapshot plus later events).
+     * GET /api/game/{sessionId}/state
+     */
+    @GetMapping("/{sessionId}/state")
+    public ResponseEntity<SessionProjection> getProjectedState(@PathVariable UUID sessionId) {
+        SessionProjection state = gameEventStore.loadState(sessionId);
+        if (state.getSeq() == 0) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(state);
+    }
+
     /**
      * Create a new round.
      * POST /api/game/{sessionId}/rounds
      * questionType is optional - if not provided, backend auto-selects based on game configuration
      */
     @PostMapping("/{sessionId}/rounds")
+    @RoutedToSessionOwner
     public ResponseEntity<GameRoundDTO> createRound(
             @PathVariable UUID sessionId,
             @RequestBody(required = false) Map<String, Object> body
@@ -163,10 +272,10 @@ public class GameController {
                     Long.valueOf(body.get("reciterId").toString()) : null;
             }
 
-            GameRoundDTO round = gameSessionService.createRound(sessionId, questionType, reciterId);
-
-            // Reset buzzers for new round
-            buzzerService.resetBuzzersForSession(sessionId);
+            String selectedQuestionType = questionType;
+            Long selectedReciterId = reciterId;
+            GameRoundDTO round = sessionCommandExecutor.call(sessionId,
+                () -> gameSessionService.createRound(sessionId, selectedQuestionType, selectedReciterId));
 
             return ResponseEntity.status(HttpStatus.CREATED).body(round);
         } catch (IllegalStateException | IllegalArgumentException e) {
@@ -207,9 +316,11 @@ public class GameController {
      * POST /api/game/rounds/{roundId}/end
      */
     @PostMapping("/rounds/{roundId}/end")
+    @RoutedToSessionOwner
     public ResponseEntity<GameRoundDTO> endRound(@PathVariable Long roundId) {
         try {
-            GameRoundDTO round = gameSessionService.endRound(roundId);
+            UUID sessionId = buzzArbitrationService.getSessionId(roundId);
+            GameRoundDTO round = sessionCommandExecutor.call(sessionId, () -> gameSessionService.endRound(roundId));
             return ResponseEntity.ok(round);
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Cannot end round: {}", e.getMessage());
@@ -222,6 +333,7 @@ public class GameController {
      * POST /api/game/participants/{participantId}/score
      */
     @PostMapping("/participants/{participantId}/score")
+    @RoutedToSessionOwner
     public ResponseEntity<ParticipantDTO> addScore(
             @PathVariable Long participantId,
             @RequestBody Map<String, Integer> body
@@ -232,7 +344,9 @@ public class GameController {
                 return ResponseEntity.badRequest().build();
             }
 
-            ParticipantDTO participant = gameSessionService.addScore(participantId, points);
+            UUID sessionId = buzzerService.getParticipantSessionId(participantId);
+            ParticipantDTO participant = sessionCommandExecutor.call(sessionId,
+                () -> gameSessionService.addScore(participantId, points));
             return ResponseEntity.ok(participant);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -254,6 +368,7 @@ public class GameController {
      * POST /api/game/rounds/{roundId}/buzz
      */
     @PostMapping("/rounds/{roundId}/buzz")
+    @RoutedToSessionOwner
     public ResponseEntity<BuzzerPressDTO> pressBuzzer(
             @PathVariable Long roundId,
             @RequestBody Map<String, Long> body
@@ -264,7 +379,9 @@ public class GameController {
                 return ResponseEntity.badRequest().build();
             }
 
-            com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.pressBuzzer(roundId, participantId);
+            UUID sessionId = buzzArbitrationService.getSessionId(roundId);
+            com.hifdh.quest.model.BuzzerPress buzzerPress = sessionCommandExecutor.call(sessionId,
+                () -> buzzerService.pressBuzzer(roundId, participantId));
             return ResponseEntity.status(HttpStatus.CREATED).body(BuzzerPressDTO.fromEntity(buzzerPress));
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Buzzer press failed: {}", e.getMessage());
@@ -304,9 +421,12 @@ public class GameController {
      * POST /api/game/buzzer-presses/{buzzerPressId}/got-chance
      */
     @PostMapping("/buzzer-presses/{buzzerPressId}/got-chance")
+    @RoutedToSessionOwner
     public ResponseEntity<BuzzerPressDTO> markAsGotChance(@PathVariable Long buzzerPressId) {
         try {
-            com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.markAsGotChance(buzzerPressId);
+            UUID sessionId = buzzerService.getBuzzerPressSessionId(buzzerPressId);
+            com.hifdh.quest.model.BuzzerPress buzzerPress = sessionCommandExecutor.call(sessionId,
+                () -> buzzerService.markAsGotChance(buzzerPressId));
             return ResponseEntity.ok(BuzzerPressDTO.fromEntity(buzzerPress));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -318,6 +438,7 @@ public class GameController {
      * POST /api/game/buzzer-presses/{buzzerPressId}/answer
      */
     @PostMapping("/buzzer-presses/{buzzerPressId}/answer")
+    @RoutedToSessionOwner
     public ResponseEntity<BuzzerPressDTO> recordAnswer(
             @PathVariable Long buzzerPressId,
             @RequestBody Map<String, Object> body
@@ -330,7 +451,9 @@ public class GameController {
                 return ResponseEntity.badRequest().build();
             }
 
-            com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.recordAnswer(buzzerPressId, answerText, isCorrect);
+            UUID sessionId = buzzerService.getBuzzerPressSessionId(buzzerPressId);
+            com.hifdh.quest.model.BuzzerPress buzzerPress = sessionCommandExecutor.call(sessionId,
+                () -> buzzerService.recordAnswer(buzzerPressId, answerText, isCorrect));
             return ResponseEntity.ok(BuzzerPressDTO.fromEntity(buzzerPress));
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -364,9 +487,14 @@ public class GameController {
      * POST /api/game/participants/{participantId}/unblock
      */
     @PostMapping("/participants/{participantId}/unblock")
+    @RoutedToSessionOwner
     public ResponseEntity<Void> unblockParticipant(@PathVariable Long participantId) {
         try {
-            buzzerService.unblockParticipant(participantId);
+            UUID sessionId = buzzerService.getParticipantSessionId(participantId);
+            sessionCommandExecutor.call(sessionId, () -> {
+                buzzerService.unblockParticipant(participantId);
+                return null;
+            });
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -378,9 +506,14 @@ public class GameController {
      * POST /api/game/participants/{participantId}/block
      */
     @PostMapping("/participants/{participantId}/block")
+    @RoutedToSessionOwner
     public ResponseEntity<Void> blockParticipant(@PathVariable Long participantId) {
         try {
-            buzzerService.blockParticipant(participantId);
+            UUID sessionId = buzzerService.getParticipantSessionId(participantId);
+            sessionCommandExecutor.call(sessionId, () -> {
+                buzzerService.blockParticipant(participantId);
+                return null;
+            });
             return ResponseEntity.ok().build();
         } catch (IllegalArgumentException e) {
             return ResponseEntity.notFound().build();
@@ -1,17 +1,33 @@
 package com.hifdh.quest.controller;
 
 import com.hifdh.quest.dto.*;
+import com.hifdh.quest.dto.websocket.BuzzCommand;
+import com.hifdh.quest.dto.websocket.EndRoundCommand;
+import com.hifdh.quest.dto.websocket.GiveChanceCommand;
+import com.hifdh.quest.dto.websocket.RecordAnswerCommand;
+import com.hifdh.quest.dto.websocket.ResumeRequest;
+import com.hifdh.quest.dto.websocket.ScoreCommand;
+import com.hifdh.quest.dto.websocket.StartRoundCommand;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
 import com.hifdh.quest.service.BuzzerService;
+import com.hifdh.quest.service.GameEventBroadcaster;
 import com.hifdh.quest.service.GameSessionService;
+import com.hifdh.quest.service.ParticipantPrincipal;
+import com.hifdh.quest.service.ParticipantTokenService;
+import com.hifdh.quest.service.ScoreboardService;
+import com.hifdh.quest.service.SessionCommandExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.DestinationVariable;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.messaging.handler.annotation.SendTo;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.annotation.SendToUser;
+import org.springframework.messaging.simp.annotation.SubscribeMapping;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -19,6 +35,7 @@ import java.util.UUID;
 /**
  * WebSocket controller for real-time game events.
  * Handles buzzer presses, round updates, scoreboard changes, and timer sync.
+ * State-changing commands run on the session's mailbox (see SessionCommandExecutor).
  */
 @Controller
 @RequiredArgsConstructor
@@ -27,21 +44,48 @@ public class GameWebSocketController {
 
     private final GameSessionService gameSessionService;
     private final BuzzerService buzzerService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final GameEventBroadcaster eventBroadcaster;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final ScoreboardService scoreboardService;
+    private final ParticipantTokenService participantTokenService;
 
     /**
      * Handle buzzer press from a participant.
      * Client sends to: /app/game/{sessionId}/buzz
      * Broadcasts to: /topic/game/{sessionId}/buzzer
+     *
+     * A connection bound to a participant at CONNECT always buzzes for that participant.
      */
     @MessageMapping("/game/{sessionId}/buzz")
     public void handleBuzzerPress(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload BuzzCommand command,
+            Principal principal
     ) {
+        if (principal instanceof ParticipantPrincipal bound) {
+            if (!bound.gameSessionId().equals(sessionId)) {
+                log.warn("Rejected buzzer press for session {} from a connection bound to session {}",
+                    sessionId, bound.gameSessionId());
+                return;
+            }
+            BuzzCommand press = new BuzzCommand(command.roundId(), bound.participantId());
+            sessionCommandExecutor.execute(sessionId, () -> pressBuzzer(sessionId, press));
+            return;
+        }
+        if (participantTokenService.isRequired()) {
+            log.warn("Rejected buzzer press for session {} from a connection without a participant token", sessionId);
+            return;
+        }
+        sessionCommandExecutor.execute(sessionId, () -> pressBuzzer(sessionId, command));
+    }
+
+    private void pressBuzzer(UUID sessionId, BuzzCommand command) {
         try {
-            Long roundId = Long.valueOf(payload.get("roundId").toString());
-            Long participantId = Long.valueOf(payload.get("participantId").toString());
+            Long roundId = command.roundId();
+            Long participantId = command.participantId();
+            if (participantId == null) {
+                throw new IllegalArgumentException("participantId is required");
+            }
 
             log.info("Buzzer press from participant {} in round {}", participantId, roundId);
 
@@ -49,7 +93,7 @@ public class GameWebSocketController {
             com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.pressBuzzer(roundId, participantId);
 
             // Broadcast to all participants in this game
-            messagingTemplate.convertAndSend(
+            eventBroadcaster.publish(
                 "/topic/game/" + sessionId + "/buzzer",
                 Map.of(
                     "type", "BUZZER_PRESS",
@@ -63,7 +107,7 @@ public class GameWebSocketController {
             List<BuzzerPressDTO> buzzerQueueDTOs = buzzerQueue.stream()
                 .map(BuzzerPressDTO::fromEntity)
                 .collect(java.util.stream.Collectors.toList());
-            messagingTemplate.convertAndSend(
+            eventBroadcaster.publish(
                 "/topic/game/" + sessionId + "/buzzer-queue",
                 Map.of(
                     "type", "BUZZER_QUEUE_UPDATE",
@@ -75,15 +119,9 @@ public class GameWebSocketController {
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("Buzzer press failed: {}", e.getMessage());
 
-            // Send error to specific user
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + sessionId + "/errors",
-                Map.of(
-                    "type", "BUZZER_ERROR",
-                    "message", e.getMessage(),
-                    "timestamp", System.currentTimeMillis()
-                )
-            );
+            // Send error to the participant who pressed (the session topic if unknown)
+            gameSessionService.broadcastPlayerError(sessionId.toString(), command.participantId(),
+                "BUZZER_ERROR", e.getMessage());
         }
     }
 
@@ -95,12 +133,15 @@ public class GameWebSocketController {
     @MessageMapping("/game/{sessionId}/start-round")
     public void handleStartRound(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload StartRoundCommand command
     ) {
+        sessionCommandExecutor.execute(sessionId, () -> startRound(sessionId, command));
+    }
+
+    private void startRound(UUID sessionId, StartRoundCommand command) {
         try {
-            String questionType = (String) payload.get("questionType");
-            Long reciterId = payload.get("reciterId") != null ?
-                Long.valueOf(payload.get("reciterId").toString()) : null;
+            String questionType = command.questionType();
+            Long reciterId = command.reciterId();
 
             log.info("Starting new round for session {} with question type: {}", sessionId, questionType);
 
@@ -120,17 +161,21 @@ public class GameWebSocketController {
     @MessageMapping("/game/{sessionId}/end-round")
     public void handleEndRound(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload EndRoundCommand command
     ) {
+        sessionCommandExecutor.execute(sessionId, () -> endRound(sessionId, command));
+    }
+
+    private void endRound(UUID sessionId, EndRoundCommand command) {
         try {
-            Long roundId = Long.valueOf(payload.get("roundId").toString());
+            Long roundId = command.roundId();
 
             log.info("Ending round {} for session {}", roundId, sessionId);
 
             GameRoundDTO round = gameSessionService.endRound(roundId);
 
             // Broadcast round end to all participants
-            messagingTemplate.convertAndSend(
+            eventBroadcaster.publish(
                 "/topic/game/" + sessionId + "/round",
                 Map.of(
                     "type", "ROUND_END",
@@ -147,41 +192,73 @@ public class GameWebSocketController {
     /**
      * Update participant score.
      * Client sends to: /app/game/{sessionId}/score
-     * Broadcasts to: /topic/game/{sessionId}/scoreboard
+     * Broadcasts SCOREBOARD_DELTA to: /topic/game/{sessionId}/events
      */
     @MessageMapping("/game/{sessionId}/score")
     public void handleScoreUpdate(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload ScoreCommand command
     ) {
+        sessionCommandExecutor.execute(sessionId, () -> updateScore(command));
+    }
+
+    private void updateScore(ScoreCommand command) {
         try {
-            Long participantId = Long.valueOf(payload.get("participantId").toString());
-            Integer points = Integer.valueOf(payload.get("points").toString());
+            Long participantId = command.participantId();
+            Integer points = command.points();
 
             log.info("Adding {} points to participant {}", points, participantId);
 
-            // Update score
-            ParticipantDTO participant = gameSessionService.addScore(participantId, points);
-
-            // Get updated scoreboard
-            List<ParticipantDTO> scoreboard = gameSessionService.getScoreboard(sessionId);
-
-            // Broadcast updated scoreboard to all participants
-            messagingTemplate.convertAndSend(
-                "/topic/game/" + sessionId + "/scoreboard",
-                Map.of(
-                    "type", "SCOREBOARD_UPDATE",
-                    "data", scoreboard,
-                    "updatedParticipant", participant,
-                    "timestamp", System.currentTimeMillis()
-                )
-            );
+            // Update score (the service broadcasts the SCOREBOARD_DELTA)
+            gameSessionService.addScore(participantId, points);
 
         } catch (IllegalArgumentException e) {
             log.error("Failed to update score: {}", e.getMessage());
         }
     }
 
+    /**
+     * Catch up after a reconnect.
+     * Client sends to: /app/game/{sessionId}/resume
+     * Replies go to: /user/queue/replay
+     *
+     * Replays every event after the client's last seen seq from memory, or sends a
+     * SESSION_SNAPSHOT if those events are no longer buffered.
+     */
+    @MessageMapping("/game/{sessionId}/resume")
+    public void handleResume(
+            @DestinationVariable UUID sessionId,
+            @Payload ResumeRequest request,
+            SimpMessageHeaderAccessor headerAccessor
+    ) {
+        long lastSeq = request.getLastSeq() != null ? request.getLastSeq() : 0;
+        String simpSessionId = headerAccessor.getSessionId();
+        sessionCommandExecutor.execute(sessionId, () -> gameSessionService.resumeEvents(sessionId, lastSeq, simpSessionId));
+    }
+
+    /**
+     * Full scoreboard snapshot for a new subscriber.
+     * Client subscribes to: /app/game/{sessionId}/scoreboard (one-shot reply)
+     *
+     * Live changes follow as SCOREBOARD_DELTA on /topic/game/{sessionId}/events.
+     */
+    @SubscribeMapping("/game/{sessionId}/scoreboard")
+    public ScoreboardUpdateEvent handleScoreboardSubscribe(@DestinationVariable UUID sessionId) {
+        return scoreboardService.getSnapshot(sessionId);
+    }
+
+    /**
+     * Resend the full scoreboard to a client that missed a delta.
+     * Client sends to: /app/game/{sessionId}/scoreboard/resync
+     * Reply goes to: /user/queue/scoreboard
+     */
+    @MessageMapping("/game/{sessionId}/scoreboard/resync")
+    @SendToUser(destinations = "/queue/scoreboard", broadcast = false)
+    public ScoreboardUpdateEvent handleScoreboardResync(@DestinationVariable UUID sessionId) {
+        log.debug("Scoreboard resync requested for session {}", sessionId);
+        return scoreboardService.getSnapshot(sessionId);
+    }
+
     /**
      * Broadcast timer tick.
      * Client sends to: /app/game/{sessionId}/timer
@@ -206,17 +283,21 @@ public class GameWebSocketController {
     @MessageMapping("/game/{sessionId}/give-chance")
     public void handleGiveChance(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload GiveChanceCommand command
     ) {
+        sessionCommandExecutor.execute(sessionId, () -> giveChance(sessionId, command));
+    }
+
+    private void giveChance(UUID sessionId, GiveChanceCommand command) {
         try {
-            Long buzzerPressId = Long.valueOf(payload.get("buzzerPressId").toString());
+            Long buzzerPressId = command.buzzerPressId();
 
             log.info("Giving chance to buzzer press {}", buzzerPressId);
 
             com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.markAsGotChance(buzzerPressId);
 
             // Broadcast who got the chance
-            messagingTemplate.convertAndSend(
+            eventBroadcaster.publish(
                 "/topic/game/" + sessionId + "/buzzer",
                 Map.of(
                     "type", "GOT_CHANCE",
@@ -238,19 +319,23 @@ public class GameWebSocketController {
     @MessageMapping("/game/{sessionId}/answer")
     public void handleAnswer(
             @DestinationVariable UUID sessionId,
-            @Payload Map<String, Object> payload
+            @Payload RecordAnswerCommand command
     ) {
+        sessionCommandExecutor.execute(sessionId, () -> recordAnswer(sessionId, command));
+    }
+
+    private void recordAnswer(UUID sessionId, RecordAnswerCommand command) {
         try {
-            Long buzzerPressId = Long.valueOf(payload.get("buzzerPressId").toString());
-            String answerText = (String) payload.get("answerText");
-            Boolean isCorrect = (Boolean) payload.get("isCorrect");
+            Long buzzerPressId = command.buzzerPressId();
+            String answerText = command.answerText();
+            Boolean isCorrect = command.isCorrect();
 
             log.info("Recording answer for buzzer press {} - correct: {}", buzzerPressId, isCorrect);
 
             com.hifdh.quest.model.BuzzerPress buzzerPress = buzzerService.recordAnswer(buzzerPressId, answerText, isCorrect);
 
             // Broadcast answer result
-            messagingTemplate.convertAndSend(
+            eventBroadcaster.publish(
                 "/topic/game/" + sessionId + "/answer",
                 Map.of(
                     "type", "ANSWER_RECORDED",
@@ -261,26 +346,11 @@ public class GameWebSocketController {
 
             // If answer was correct, add points and update scoreboard
             if (Boolean.TRUE.equals(isCorrect)) {
-                String questionType = (String) payload.get("questionType");
-                Integer points = gameSessionService.getQuestionPoints(questionType);
+                Integer points = gameSessionService.getQuestionPoints(command.questionType());
 
                 if (points != null && points > 0) {
-                    ParticipantDTO participant = gameSessionService.addScore(
-                        buzzerPress.getParticipant().getId(),
-                        points
-                    );
-
-                    // Broadcast updated scoreboard
-                    List<ParticipantDTO> scoreboard = gameSessionService.getScoreboard(sessionId);
-                    messagingTemplate.convertAndSend(
-                        "/topic/game/" + sessionId + "/scoreboard",
-                        Map.of(
-                            "type", "SCOREBOARD_UPDATE",
-                            "data", scoreboard,
-                            "updatedParticipant", participant,
-                            "timestamp", System.currentTimeMillis()
-                        )
-                    );
+                    // The service broadcasts the SCOREBOARD_DELTA
+                    gameSessionService.addScore(buzzerPress.getParticipant().getId(), points);
                 }
             }
 
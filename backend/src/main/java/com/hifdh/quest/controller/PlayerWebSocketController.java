@@ -2,22 +2,33 @@ package com.hifdh.quest.controller;
 
 import com.hifdh.quest.dto.websocket.*;
 import com.hifdh.quest.model.BuzzerPress;
-import com.hifdh.quest.model.GameParticipant;
-import com.hifdh.quest.repository.GameParticipantRepository;
 import com.hifdh.quest.service.BuzzerService;
-import com.hifdh.quest.service.ConsecutiveBuzzTracker;
+import com.hifdh.quest.service.ClockSyncService;
+import com.hifdh.quest.service.GameSessionService;
+import com.hifdh.quest.service.GameStateWriter;
+import com.hifdh.quest.service.ParticipantPrincipal;
+import com.hifdh.quest.service.ParticipantTokenService;
+import com.hifdh.quest.service.PresenceTracker;
+import com.hifdh.quest.service.SessionCommandExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.stereotype.Controller;
 
-import java.time.LocalDateTime;
+import java.security.Principal;
+import java.util.UUID;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 /**
  * WebSocket controller for player-side game actions.
  * Handles buzzer presses, answer submissions, and heartbeats from players.
+ * Each command acts for the participant its connection was bound to at CONNECT (see
+ * ParticipantPrincipalInterceptor); the participant and session IDs in the payload are only
+ * checked against that identity, never looked up.
  */
 @Controller
 @RequiredArgsConstructor
@@ -25,38 +36,102 @@ import java.time.LocalDateTime;
 public class PlayerWebSocketController {
 
     private final BuzzerService buzzerService;
-    private final GameParticipantRepository participantRepository;
-    private final ConsecutiveBuzzTracker consecutiveBuzzTracker;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final PresenceTracker presenceTracker;
+    private final GameStateWriter gameStateWriter;
+    private final GameSessionService gameSessionService;
+    private final ClockSyncService clockSyncService;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final ParticipantTokenService participantTokenService;
+
+    // How long an answer waits for its press to be written behind
+    @Value("${game.persistence.press-write-timeout-ms:2000}")
+    private long pressWriteTimeoutMillis;
+
+    /**
+     * Queue a player command on its session's mailbox so it is serialized with
+     * admin commands and other players of the same session.
+     */
+    private void submitCommand(String sessionId, Runnable command) {
+        try {
+            sessionCommandExecutor.execute(UUID.fromString(String.valueOf(sessionId)), command);
+        } catch (IllegalArgumentException e) {
+            log.error("Rejected player command with invalid sessionId: {}", sessionId);
+        }
+    }
+
+    /**
+     * Resolve the participant a command acts for.
+     * A bound connection acts for its own participant only; payload IDs may be omitted, and
+     * naming anyone else rejects the command. Forwarded commands carry the participant the
+     * receiving instance verified (see SessionCommandForwarder), so they resolve the same way.
+     * Unbound connections are trusted only while participant tokens are optional.
+     *
+     * @return Verified identity, or null if the command must be rejected
+     */
+    private ParticipantPrincipal resolveParticipant(Principal principal, String sessionId, Long participantId, String action) {
+        if (principal instanceof ParticipantPrincipal bound) {
+            boolean otherParticipant = participantId != null && !bound.participantId().equals(participantId);
+            boolean otherSession = sessionId != null && !bound.gameSessionId().toString().equalsIgnoreCase(sessionId);
+            if (otherParticipant || otherSession) {
+                log.warn("Rejected {} for participant {} of session {} from a connection bound to participant {} of session {}",
+                    action, participantId, sessionId, bound.participantId(), bound.gameSessionId());
+                gameSessionService.broadcastPlayerError(bound.gameSessionId().toString(), bound.participantId(),
+                    "PARTICIPANT_MISMATCH", "This connection cannot act for another participant");
+                return null;
+            }
+            return bound;
+        }
+
+        if (participantTokenService.isRequired()) {
+            log.warn("Rejected {} for participant {} from a connection without a participant token", action, participantId);
+            return null;
+        }
+        if (sessionId == null || participantId == null) {
+            log.error("Rejected {} without sessionId or participantId", action);
+            return null;
+        }
+        try {
+            return new ParticipantPrincipal(UUID.fromString(sessionId), participantId);
+        } catch (IllegalArgumentException e) {
+            log.error("Rejected {} with invalid sessionId: {}", action, sessionId);
+            return null;
+        }
+    }
 
     /**
      * Handle buzzer press from a player.
      * Client sends to: /app/player/buzz
      *
-     * Validates the press, assigns rank, broadcasts BuzzerPressedEvent.
+     * Validates the press and queues it for ranking; BuzzerPressedEvent follows once ranked.
      */
     @MessageMapping("/player/buzz")
-    public void handleBuzzerPress(@Payload BuzzerPressRequest request) {
+    public void handleBuzzerPress(@Payload BuzzerPressRequest request, Principal principal) {
+        ParticipantPrincipal participant = resolveParticipant(principal, request.getSessionId(), request.getParticipantId(), "buzzer press");
+        if (participant == null) {
+            return;
+        }
+        request.setSessionId(participant.gameSessionId().toString());
+        request.setParticipantId(participant.participantId());
+        submitCommand(request.getSessionId(), () -> pressBuzzer(request));
+    }
+
+    private void pressBuzzer(BuzzerPressRequest request) {
         try {
             log.info("🔔 Received buzzer press: participant={}, round={}, sessionId={}, elapsed={}s",
                 request.getParticipantId(), request.getRoundId(), request.getSessionId(),
                 request.getClientElapsedSeconds());
 
-            // Process buzzer press (this also broadcasts the event)
-            BuzzerPressedEvent event = buzzerService.handleBuzzerPress(request);
-
-            // Update consecutive buzz tracking
-            consecutiveBuzzTracker.updateTracking(request.getParticipantId(), event.getBuzzRank());
+            // Admit the press; it is ranked, broadcast and persisted when its arbitration window closes
+            buzzerService.handleBuzzerPress(request);
 
-            log.info("✅ Buzzer press processed successfully: rank={}, participant={}",
-                event.getBuzzRank(), event.getParticipantName());
+            log.info("✅ Buzzer press admitted: participant={}", request.getParticipantId());
 
         } catch (IllegalStateException | IllegalArgumentException e) {
             log.error("❌ Buzzer press failed for participant {}: {}",
                 request.getParticipantId(), e.getMessage());
 
-            // Send error message to all players (so they see error feedback)
-            sendErrorToSession(request.getSessionId(), "BUZZER_ERROR",
+            // Only the player who pressed gets the error
+            gameSessionService.broadcastPlayerError(request.getSessionId(), request.getParticipantId(), "BUZZER_ERROR",
                 "Buzzer press failed: " + e.getMessage());
         } catch (Exception e) {
             log.error("❌ Unexpected error processing buzzer press", e);
@@ -70,17 +145,31 @@ public class PlayerWebSocketController {
      * Saves the answer text and timestamp.
      */
     @MessageMapping("/player/submit-answer")
-    public void handleSubmitAnswer(@Payload SubmitAnswerRequest request) {
+    public void handleSubmitAnswer(@Payload SubmitAnswerRequest request, Principal principal) {
+        ParticipantPrincipal participant = resolveParticipant(principal, request.getSessionId(), request.getParticipantId(), "answer submission");
+        if (participant == null) {
+            return;
+        }
+        request.setSessionId(participant.gameSessionId().toString());
+        request.setParticipantId(participant.participantId());
+        submitCommand(request.getSessionId(), () -> submitAnswer(request));
+    }
+
+    private void submitAnswer(SubmitAnswerRequest request) {
         try {
             log.info("Player answer submission: participant={}, round={}, answer={}",
                 request.getParticipantId(), request.getRoundId(), request.getAnswerText());
 
-            // Find the buzzer press for this participant and round
-            Long buzzerPressId = findBuzzerPressId(request.getParticipantId(), request.getRoundId());
+            // Presses are written behind; make sure this one has its row before attaching the answer
+            Long roundId = Long.parseLong(request.getRoundId());
+            awaitPressWritten(roundId, request.getParticipantId());
 
-            if (buzzerPressId == null) {
+            // Find the buzzer press for this participant and round
+            BuzzerPress press = buzzerService.findBuzzerPress(roundId, request.getParticipantId());
+            if (press == null) {
                 throw new IllegalStateException("No buzzer press found for this participant in this round");
             }
+            Long buzzerPressId = press.getId();
 
             // Submit answer
             BuzzerPress buzzerPress = buzzerService.submitAnswer(buzzerPressId, request.getAnswerText());
@@ -95,7 +184,7 @@ public class PlayerWebSocketController {
             log.error("Answer submission failed for participant {}: {}",
                 request.getParticipantId(), e.getMessage());
 
-            sendErrorToSession(request.getSessionId(), "ANSWER_SUBMIT_ERROR",
+            gameSessionService.broadcastPlayerError(request.getSessionId(), request.getParticipantId(), "ANSWER_SUBMIT_ERROR",
                 "Answer submission failed: " + e.getMessage());
         }
     }
@@ -103,71 +192,62 @@ public class PlayerWebSocketController {
     /**
      * Handle heartbeat from a player.
      * Client sends to: /app/player/heartbeat
+     * Reply goes to: /user/queue/clock
      *
-     * Updates last_heartbeat timestamp and connection status.
+     * Refreshes the player's presence (see PresenceTracker), and takes a clock-sync sample
+     * from the echo of the previous reply.
      */
     @MessageMapping("/player/heartbeat")
-    public void handleHeartbeat(@Payload HeartbeatRequest request) {
-        try {
-            GameParticipant participant = participantRepository.findById(request.getParticipantId())
-                .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + request.getParticipantId()));
-
-            // Update heartbeat timestamp
-            participant.setLastHeartbeat(LocalDateTime.now());
-
-            // Ensure participant is marked as connected
-            if (!participant.getIsConnected()) {
-                participant.setIsConnected(true);
-                participantRepository.save(participant);
-
-                // Broadcast reconnection event
-                log.info("Participant {} reconnected", participant.getName());
-                // Future: broadcast PlayerReconnectedEvent
-            } else {
-                participantRepository.save(participant);
-            }
+    @SendToUser(destinations = "/queue/clock", broadcast = false)
+    public ClockSyncEvent handleHeartbeat(@Payload HeartbeatRequest request, Principal principal) {
+        long receivedAt = System.currentTimeMillis();
 
-            // Log heartbeat at trace level (very frequent, so don't spam logs)
-            log.trace("Heartbeat received from participant {}", request.getParticipantId());
+        ParticipantPrincipal participant = resolveParticipant(principal, request.getSessionId(), request.getParticipantId(), "heartbeat");
+        if (participant == null) {
+            return null;
+        }
+        request.setSessionId(participant.gameSessionId().toString());
+        request.setParticipantId(participant.participantId());
 
-        } catch (IllegalArgumentException e) {
-            log.error("Heartbeat failed for participant {}: {}",
-                request.getParticipantId(), e.getMessage());
+        if (request.getEchoServerTime() != null && request.getClientReceiveTime() != null
+                && request.getClientSendTime() != null) {
+            clockSyncService.recordSample(request.getParticipantId(), request.getEchoServerTime(),
+                request.getClientReceiveTime(), request.getClientSendTime(), receivedAt);
         }
+
+        // Presence is tracked in memory; it bypasses the mailbox and is flushed to the database in batches
+        recordHeartbeat(participant);
+
+        ClockSyncService.ClockEstimate estimate = clockSyncService.getEstimate(request.getParticipantId());
+        return ClockSyncEvent.builder()
+            .sessionId(request.getSessionId())
+            .offsetMillis(estimate != null ? estimate.getOffsetMillis() : null)
+            .rttMillis(estimate != null ? estimate.getRttMillis() : null)
+            .serverTime(System.currentTimeMillis())
+            .build();
     }
 
-    /**
-     * Find buzzer press ID for a participant in a round.
-     * Helper method to locate the buzzer press record.
-     *
-     * @param participantId Participant ID
-     * @param roundId Round ID (as string)
-     * @return Buzzer press ID or null if not found
-     */
-    private Long findBuzzerPressId(Long participantId, String roundId) {
-        Long roundIdLong = Long.parseLong(roundId);
-        var buzzerPresses = buzzerService.getRoundBuzzes(roundIdLong);
-
-        return buzzerPresses.stream()
-            .filter(bp -> bp.getParticipant().getId().equals(participantId))
-            .map(BuzzerPress::getId)
-            .findFirst()
-            .orElse(null);
+    private void recordHeartbeat(ParticipantPrincipal participant) {
+        presenceTracker.touchParticipant(participant.gameSessionId(), participant.participantId());
+        log.trace("Heartbeat received from participant {}", participant.participantId());
     }
 
     /**
-     * Send error message to all players in a session.
+     * Wait until a participant's accepted press in a round is in the database.
      *
-     * @param sessionId Session ID
-     * @param errorType Error type
-     * @param message Error message
+     * @param roundId Round ID
+     * @param participantId Participant ID
+     * @throws IllegalStateException if the press could not be written in time
      */
-    private void sendErrorToSession(String sessionId, String errorType, String message) {
-        String destination = "/topic/game/" + sessionId + "/errors";
-        messagingTemplate.convertAndSend(destination, java.util.Map.of(
-            "type", errorType,
-            "message", message,
-            "timestamp", java.time.Instant.now().toString()
-        ));
+    private void awaitPressWritten(Long roundId, Long participantId) {
+        try {
+            gameStateWriter.writePress(roundId, participantId)
+                .orTimeout(pressWriteTimeoutMillis, TimeUnit.MILLISECONDS)
+                .join();
+        } catch (CompletionException e) {
+            log.warn("Buzzer press of participant {} in round {} not written: {}",
+                participantId, roundId, e.getCause() != null ? e.getCause().toString() : e.toString());
+            throw new IllegalStateException("Buzzer press could not be saved yet, please try again");
+        }
     }
 }
@@ -26,4 +26,5 @@ public class CreateGameRequest {
     private List<String> participantNames;
     private Long reciterId; // Optional reciter for audio
     private List<String> selectedQuestionTypes; // Question types enabled for this game
+    private Long ayatDeckSeed; // Optional: reuse a previous session's seed to replay its verse order
 }
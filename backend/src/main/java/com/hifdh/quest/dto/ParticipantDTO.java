@@ -21,6 +21,7 @@ public class ParticipantDTO {
     private Integer totalScore;
     private Integer buzzerPressCount;
     private Boolean isBlocked;
+    private String token; // Participant token; only set in the join response
 
     /**
      * Convert GameParticipant entity to DTO.
@@ -0,0 +1,27 @@
+package com.hifdh.quest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a participant's points, summed per component over every validated answer.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoreBreakdownDTO {
+
+    private Long participantId;
+    private String participantName;
+    private Integer correctAnswers;
+    private Integer wrongAnswers;
+    private Integer basePoints;
+    private Integer timeBonusPoints;
+    private Integer buzzRankBonus;
+    private Integer streakBonus;
+    private Integer bonusPoints;
+    private Integer totalPoints;
+}
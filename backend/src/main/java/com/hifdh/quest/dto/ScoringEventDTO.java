@@ -0,0 +1,33 @@
+package com.hifdh.quest.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one validated answer's points breakdown (a scoring_events row).
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScoringEventDTO {
+
+    private Long roundId;
+    private Long participantId;
+    private Boolean isCorrect;
+    private Integer basePoints;
+    private BigDecimal timeMultiplier;
+    private Integer timeBonusPoints;
+    private Integer buzzRankBonus;
+    private Integer streakBonus;
+    private Integer bonusPoints;
+    private Integer totalPoints;
+    private BigDecimal buzzTimeSeconds;
+    private Integer buzzRank;
+    private LocalDateTime createdAt;
+}
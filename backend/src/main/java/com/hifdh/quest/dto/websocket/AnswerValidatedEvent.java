@@ -18,6 +18,7 @@ public class AnswerValidatedEvent extends GameEvent {
     private Double timeMultiplier;
     private Integer timeBonusPoints;
     private Integer buzzRankBonus;
+    private Integer streakBonus;
     private Integer adminBonusPoints;
     private Integer totalPoints;
     private String feedback; // Optional admin message
@@ -25,7 +26,7 @@ public class AnswerValidatedEvent extends GameEvent {
     @Builder
     public AnswerValidatedEvent(String sessionId, Long participantId, String participantName,
                                 Boolean isCorrect, Integer basePoints, Double timeMultiplier,
-                                Integer timeBonusPoints, Integer buzzRankBonus,
+                                Integer timeBonusPoints, Integer buzzRankBonus, Integer streakBonus,
                                 Integer adminBonusPoints, Integer totalPoints, String feedback) {
         super("ANSWER_VALIDATED", sessionId);
         this.participantId = participantId;
@@ -35,6 +36,7 @@ public class AnswerValidatedEvent extends GameEvent {
         this.timeMultiplier = timeMultiplier;
         this.timeBonusPoints = timeBonusPoints;
         this.buzzRankBonus = buzzRankBonus;
+        this.streakBonus = streakBonus;
         this.adminBonusPoints = adminBonusPoints;
         this.totalPoints = totalPoints;
         this.feedback = feedback;
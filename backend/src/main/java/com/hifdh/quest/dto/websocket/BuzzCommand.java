@@ -0,0 +1,17 @@
+package com.hifdh.quest.dto.websocket;
+
+/**
+ * Press the buzzer (legacy path).
+ * Sent to /app/game/{sessionId}/buzz.
+ *
+ * @param roundId Round ID
+ * @param participantId Participant pressing (a bound connection's own participant if omitted)
+ */
+public record BuzzCommand(Long roundId, Long participantId) implements GameCommand {
+
+    public BuzzCommand {
+        if (roundId == null) {
+            throw new IllegalArgumentException("roundId is required");
+        }
+    }
+}
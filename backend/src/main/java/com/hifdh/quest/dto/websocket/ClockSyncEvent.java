@@ -0,0 +1,26 @@
+package com.hifdh.quest.dto.websocket;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Clock-sync reply sent to a single player in response to each heartbeat.
+ * The client echoes serverTime back in its next heartbeat together with its own
+ * receive/send times, which lets the server measure the client's clock offset and RTT.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ClockSyncEvent extends GameEvent {
+    private Long serverTime; // Epoch millis when this reply was sent
+    private Long offsetMillis; // Current estimate of client clock minus server clock (null until measured)
+    private Long rttMillis; // Current round-trip estimate (null until measured)
+
+    @Builder
+    public ClockSyncEvent(String sessionId, Long serverTime, Long offsetMillis, Long rttMillis) {
+        super("CLOCK_SYNC", sessionId);
+        this.serverTime = serverTime;
+        this.offsetMillis = offsetMillis;
+        this.rttMillis = rttMillis;
+    }
+}
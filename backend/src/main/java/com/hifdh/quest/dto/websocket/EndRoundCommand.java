@@ -0,0 +1,19 @@
+package com.hifdh.quest.dto.websocket;
+
+import java.util.UUID;
+
+/**
+ * End a round.
+ * Sent to /app/admin/end-round (with sessionId) or /app/game/{sessionId}/end-round.
+ *
+ * @param sessionId Game session ID (the destination's on /app/game/...)
+ * @param roundId Round ID
+ */
+public record EndRoundCommand(UUID sessionId, Long roundId) implements GameCommand {
+
+    public EndRoundCommand {
+        if (roundId == null) {
+            throw new IllegalArgumentException("roundId is required");
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.hifdh.quest.dto.websocket;
+
+/**
+ * Marker for typed admin and game-control commands.
+ * Commands are records decoded straight from the STOMP frame by GameCommandMessageConverter;
+ * a compact constructor rejects a command that is missing a required field.
+ */
+public interface GameCommand {
+}
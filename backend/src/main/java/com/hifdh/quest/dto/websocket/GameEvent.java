@@ -9,6 +9,8 @@ import java.time.Instant;
 /**
  * Base class for all WebSocket game events.
  * All events sent from server to players extend this class.
+ * Events published on a session's event stream carry a per-session sequence number (seq),
+ * which clients use to detect gaps and resume after a reconnect.
  */
 @Data
 @AllArgsConstructor
@@ -17,6 +19,7 @@ public abstract class GameEvent {
     private String type;
     private String sessionId;
     private Instant timestamp = Instant.now();
+    private Long seq;
 
     protected GameEvent(String type, String sessionId) {
         this.type = type;
@@ -0,0 +1,16 @@
+package com.hifdh.quest.dto.websocket;
+
+/**
+ * Give the next player in the buzzer queue their chance to answer.
+ * Sent to /app/game/{sessionId}/give-chance.
+ *
+ * @param buzzerPressId Buzzer press ID
+ */
+public record GiveChanceCommand(Long buzzerPressId) implements GameCommand {
+
+    public GiveChanceCommand {
+        if (buzzerPressId == null) {
+            throw new IllegalArgumentException("buzzerPressId is required");
+        }
+    }
+}
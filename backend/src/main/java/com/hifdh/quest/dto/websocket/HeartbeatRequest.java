@@ -10,6 +10,7 @@ import java.time.Instant;
 /**
  * Periodic heartbeat sent from player to maintain connection status.
  * Sent every 5 seconds to update last_heartbeat timestamp.
+ * Also carries the clock-sync echo of the previous CLOCK_SYNC reply (all epoch millis).
  */
 @Data
 @Builder
@@ -19,4 +20,7 @@ public class HeartbeatRequest {
     private String sessionId;
     private Long participantId;
     private Instant clientTimestamp;
+    private Long echoServerTime; // serverTime from the last CLOCK_SYNC reply
+    private Long clientReceiveTime; // Client clock when that reply arrived
+    private Long clientSendTime; // Client clock when this heartbeat was sent
 }
@@ -0,0 +1,32 @@
+package com.hifdh.quest.dto.websocket;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A player's own score and rank, sent privately to that player's /user/queue/player.
+ * Used in large-session mode, where the shared scoreboard only carries the top rows.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class PlayerStandingEvent extends GameEvent {
+    private Long participantId;
+    private Integer totalScore;
+    private Integer rank;
+    private Integer denseRank;
+    private Integer participantCount;
+    private Long scoreboardVersion;
+
+    @Builder
+    public PlayerStandingEvent(String sessionId, Long participantId, Integer totalScore, Integer rank,
+                               Integer denseRank, Integer participantCount, Long scoreboardVersion) {
+        super("PLAYER_STANDING", sessionId);
+        this.participantId = participantId;
+        this.totalScore = totalScore;
+        this.rank = rank;
+        this.denseRank = denseRank;
+        this.participantCount = participantCount;
+        this.scoreboardVersion = scoreboardVersion;
+    }
+}
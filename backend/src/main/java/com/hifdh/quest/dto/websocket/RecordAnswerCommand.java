@@ -0,0 +1,20 @@
+package com.hifdh.quest.dto.websocket;
+
+/**
+ * Record (and judge) the answer of a buzzer press.
+ * Sent to /app/game/{sessionId}/answer.
+ *
+ * @param buzzerPressId Buzzer press ID
+ * @param answerText Answer given
+ * @param isCorrect Whether the answer was right
+ * @param questionType Question type, for the points of a right answer
+ */
+public record RecordAnswerCommand(Long buzzerPressId, String answerText, Boolean isCorrect, String questionType)
+        implements GameCommand {
+
+    public RecordAnswerCommand {
+        if (buzzerPressId == null) {
+            throw new IllegalArgumentException("buzzerPressId is required");
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.hifdh.quest.dto.websocket;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Sent by a client after (re)connecting to catch up on missed events.
+ * Missed events are replayed to /user/queue/replay; if they are no longer buffered
+ * a SESSION_SNAPSHOT is sent instead.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResumeRequest {
+    private String sessionId;
+    private Long lastSeq; // Highest seq the client has seen (null or 0 if none)
+}
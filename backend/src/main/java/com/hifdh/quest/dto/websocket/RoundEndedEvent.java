@@ -0,0 +1,20 @@
+package com.hifdh.quest.dto.websocket;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Event broadcast to all players when the admin ends the current round.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class RoundEndedEvent extends GameEvent {
+    private String roundId;
+
+    @Builder
+    public RoundEndedEvent(String sessionId, String roundId) {
+        super("ROUND_ENDED", sessionId);
+        this.roundId = roundId;
+    }
+}
@@ -0,0 +1,17 @@
+package com.hifdh.quest.dto.websocket;
+
+/**
+ * Add points to a participant.
+ * Sent to /app/game/{sessionId}/score.
+ *
+ * @param participantId Participant ID
+ * @param points Points to add (negative to deduct)
+ */
+public record ScoreCommand(Long participantId, Integer points) implements GameCommand {
+
+    public ScoreCommand {
+        if (participantId == null || points == null) {
+            throw new IllegalArgumentException("participantId and points are required");
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.hifdh.quest.dto.websocket;
+
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * Event broadcast when scores change, carrying only what changed.
+ * Names the participant whose score changed with its previous and new rank; clients shift
+ * the rows in between by one place. When a participant drops out of a large session's top
+ * rows, the row that moves up into the last one follows.
+ * Versions increase by one per delta; a client that sees a gap should request a resync.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class ScoreboardDeltaEvent extends GameEvent {
+    private Long version;
+    private List<ScoreChange> changes;
+
+    @Builder
+    public ScoreboardDeltaEvent(String sessionId, Long version, List<ScoreChange> changes) {
+        super("SCOREBOARD_DELTA", sessionId);
+        this.version = version;
+        this.changes = changes;
+    }
+
+    @Data
+    @Builder
+    public static class ScoreChange {
+        private Long participantId;
+        private String participantName;
+        private Integer totalScore;
+        private Integer rank;
+        private Integer previousRank; // null for a participant new to the scoreboard
+    }
+}
@@ -7,18 +7,23 @@ import lombok.EqualsAndHashCode;
 import java.util.List;
 
 /**
- * Event broadcast with live scoreboard updates.
- * Sent after answer validation, bonus awards, or round completion.
+ * Full scoreboard snapshot.
+ * Sent to a client when it subscribes or asks for a resync; live changes follow as
+ * ScoreboardDeltaEvent with versions counting up from this snapshot's version.
  */
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class ScoreboardUpdateEvent extends GameEvent {
+    private Long version;
     private List<PlayerScore> scores;
+    private Integer limit; // Only the top rows are kept (large sessions); null = every participant
 
     @Builder
-    public ScoreboardUpdateEvent(String sessionId, List<PlayerScore> scores) {
+    public ScoreboardUpdateEvent(String sessionId, Long version, List<PlayerScore> scores, Integer limit) {
         super("SCOREBOARD_UPDATE", sessionId);
+        this.version = version;
         this.scores = scores;
+        this.limit = limit;
     }
 
     @Data
@@ -27,7 +32,8 @@ public class ScoreboardUpdateEvent extends GameEvent {
         private Long participantId;
         private String participantName;
         private Integer totalScore;
-        private Integer rank;
+        private Integer rank; // Position, ties broken by participant ID (same order as deltas)
+        private Integer denseRank; // Equal scores share a rank
         private Integer roundsWon;
         private Boolean isConnected;
         private Boolean isBlockedNextRound;
@@ -0,0 +1,27 @@
+package com.hifdh.quest.dto.websocket;
+
+import com.hifdh.quest.dto.GameSessionDTO;
+import lombok.Builder;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * Full session state for a client whose missed events are no longer buffered.
+ * Its seq is the last event it covers; the client continues from there.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class SessionSnapshotEvent extends GameEvent {
+    private GameSessionDTO session;
+    private RoundStartedEvent currentRound; // null when no round is in progress
+    private ScoreboardUpdateEvent scoreboard;
+
+    @Builder
+    public SessionSnapshotEvent(String sessionId, GameSessionDTO session, RoundStartedEvent currentRound,
+                                ScoreboardUpdateEvent scoreboard) {
+        super("SESSION_SNAPSHOT", sessionId);
+        this.session = session;
+        this.currentRound = currentRound;
+        this.scoreboard = scoreboard;
+    }
+}
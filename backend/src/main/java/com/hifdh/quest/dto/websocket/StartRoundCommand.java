@@ -0,0 +1,14 @@
+package com.hifdh.quest.dto.websocket;
+
+import java.util.UUID;
+
+/**
+ * Start a new round.
+ * Sent to /app/admin/start-round (with sessionId) or /app/game/{sessionId}/start-round.
+ *
+ * @param sessionId Game session ID (the destination's on /app/game/...)
+ * @param questionType Question type of the round
+ * @param reciterId Reciter of the round's audio (null to pick one)
+ */
+public record StartRoundCommand(UUID sessionId, String questionType, Long reciterId) implements GameCommand {
+}
@@ -11,7 +11,7 @@ import lombok.EqualsAndHashCode;
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class TimerStoppedEvent extends GameEvent {
-    private String reason; // "TIMER_EXPIRED" or "ALL_SLOTS_FILLED"
+    private String reason; // "TIME_UP" or "ALL_SLOTS_FILLED"
     private Integer totalBuzzes;
 
     @Builder
@@ -0,0 +1,22 @@
+package com.hifdh.quest.dto.websocket;
+
+import java.util.UUID;
+
+/**
+ * Mark a player's answer right or wrong.
+ * Sent to /app/admin/validate-answer.
+ *
+ * @param sessionId Game session ID
+ * @param roundId Round ID
+ * @param participantId Participant whose answer is validated
+ * @param isCorrect Whether the answer was right
+ */
+public record ValidateAnswerCommand(UUID sessionId, Long roundId, Long participantId, Boolean isCorrect)
+        implements GameCommand {
+
+    public ValidateAnswerCommand {
+        if (sessionId == null || roundId == null || participantId == null) {
+            throw new IllegalArgumentException("sessionId, roundId and participantId are required");
+        }
+    }
+}
@@ -46,11 +46,12 @@ public class GameParticipant {
     @Column(name = "consecutive_correct_answers")
     private Integer consecutiveCorrectAnswers = 0;
 
-    @Column(name = "is_blocked_next_round")
-    private Boolean isBlockedNextRound = false;
+    // Buzz eligibility relative to round numbers (V008), so starting a round writes nothing here
+    @Column(name = "last_buzzed_round")
+    private Integer lastBuzzedRound;
 
-    @Column(name = "buzzed_in_current_round")
-    private Boolean buzzedInCurrentRound = false;
+    @Column(name = "blocked_until_round")
+    private Integer blockedUntilRound;
 
     @Column(name = "is_connected")
     private Boolean isConnected = true;
@@ -60,4 +61,24 @@ public class GameParticipant {
 
     @OneToMany(mappedBy = "participant", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<BuzzerPress> buzzerPresses = new ArrayList<>();
+
+    /**
+     * Check whether the participant is blocked from buzzing in a round.
+     *
+     * @param roundNumber Round number
+     * @return true if blocked
+     */
+    public boolean isBlockedInRound(int roundNumber) {
+        return blockedUntilRound != null && roundNumber <= blockedUntilRound;
+    }
+
+    /**
+     * Check whether the participant has already buzzed in a round.
+     *
+     * @param roundNumber Round number
+     * @return true if already buzzed
+     */
+    public boolean hasBuzzedInRound(int roundNumber) {
+        return lastBuzzedRound != null && lastBuzzedRound == roundNumber;
+    }
 }
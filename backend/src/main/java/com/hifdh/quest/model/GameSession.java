@@ -71,6 +71,13 @@ public class GameSession {
     @Column(name = "allow_text_answers")
     private Boolean allowTextAnswers = true;
 
+    // Ayat deck state from V009 migration (see AyatDeckService)
+    @Column(name = "ayat_deck_seed")
+    private Long ayatDeckSeed;
+
+    @Column(name = "used_ayat_bitmap")
+    private byte[] usedAyatBitmap;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     private LocalDateTime createdAt;
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface BuzzerPressRepository extends JpaRepository<BuzzerPress, Long> {
@@ -44,4 +46,13 @@ public interface BuzzerPressRepository extends JpaRepository<BuzzerPress, Long>
      */
     @Query("SELECT COALESCE(MAX(bp.buzzRank), 0) + 1 FROM BuzzerPress bp WHERE bp.round.id = :roundId")
     Integer getNextBuzzRank(Long roundId);
+
+    /**
+     * Find the session a buzzer press belongs to.
+     *
+     * @param buzzerPressId Buzzer press ID
+     * @return Optional containing the session ID
+     */
+    @Query("SELECT bp.round.session.id FROM BuzzerPress bp WHERE bp.id = :buzzerPressId")
+    Optional<UUID> findSessionIdById(Long buzzerPressId);
 }
@@ -2,13 +2,34 @@ package com.hifdh.quest.repository;
 
 import com.hifdh.quest.model.GameParticipant;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
 public interface GameParticipantRepository extends JpaRepository<GameParticipant, Long> {
 
     List<GameParticipant> findBySessionIdOrderByTotalScoreDesc(UUID sessionId);
+
+    /**
+     * Find the session a participant belongs to.
+     *
+     * @param participantId Participant ID
+     * @return Optional containing the session ID
+     */
+    @Query("SELECT p.session.id FROM GameParticipant p WHERE p.id = :participantId")
+    Optional<UUID> findSessionIdById(Long participantId);
+
+    /**
+     * Find the IDs of a session's participants.
+     *
+     * @param sessionId Game session ID
+     * @return Participant IDs
+     */
+    @Query("SELECT p.id FROM GameParticipant p WHERE p.session.id = :sessionId")
+    List<Long> findIdsBySessionId(UUID sessionId);
+
 }
@@ -45,4 +45,13 @@ public interface GameRoundRepository extends JpaRepository<GameRound, Long> {
      * @return Number of rounds
      */
     long countBySessionId(UUID sessionId);
+
+    /**
+     * Find the session a round belongs to.
+     *
+     * @param roundId Round ID
+     * @return Optional containing the session ID
+     */
+    @Query("SELECT r.session.id FROM GameRound r WHERE r.id = :roundId")
+    Optional<UUID> findSessionIdById(Long roundId);
 }
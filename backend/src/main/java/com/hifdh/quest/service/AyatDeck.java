@@ -0,0 +1,166 @@
+package com.hifdh.quest.service;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Seeded, lazily shuffled deck of corpus ordinals for one game session.
+ * Each draw performs one step of a Fisher-Yates shuffle, so a draw is O(1) and
+ * allocation-free, and the same seed always yields the same sequence.
+ * Verses already marked in the used bitmap (1 bit per corpus ordinal) are skipped.
+ */
+public class AyatDeck {
+
+    private final long seed;
+    private final SplittableRandom random;
+
+    // Pool of candidate ordinals; [0, drawn) has been dealt, [drawn, length) is still in the deck
+    private final int[] pool;
+    private int drawn;
+
+    // Card dealt by peek() but not yet committed by draw(), or -1
+    private int pending = -1;
+
+    private final byte[] usedBitmap;
+
+    /**
+     * Create a deck over a pool of corpus ordinals.
+     *
+     * @param seed Shuffle seed
+     * @param ordinals Candidate ordinals in mushaf order (copied)
+     * @param corpusSize Number of verses in the corpus (sizes the used bitmap)
+     * @param usedBitmap Persisted used bitmap, or null for a fresh session
+     */
+    public AyatDeck(long seed, int[] ordinals, int corpusSize, byte[] usedBitmap) {
+        this.seed = seed;
+        this.random = new SplittableRandom(seed);
+        this.pool = ordinals.clone();
+        this.usedBitmap = Arrays.copyOf(usedBitmap != null ? usedBitmap : new byte[0], (corpusSize + 7) >>> 3);
+    }
+
+    /**
+     * Create a deck over a contiguous ordinal range.
+     *
+     * @param seed Shuffle seed
+     * @param fromOrdinal First ordinal (inclusive)
+     * @param toOrdinal Last ordinal (exclusive)
+     * @param corpusSize Number of verses in the corpus
+     * @param usedBitmap Persisted used bitmap, or null for a fresh session
+     * @return AyatDeck
+     */
+    public static AyatDeck ofRange(long seed, int fromOrdinal, int toOrdinal, int corpusSize, byte[] usedBitmap) {
+        int[] ordinals = new int[Math.max(toOrdinal - fromOrdinal, 0)];
+        for (int i = 0; i < ordinals.length; i++) {
+            ordinals[i] = fromOrdinal + i;
+        }
+        return new AyatDeck(seed, ordinals, corpusSize, usedBitmap);
+    }
+
+    /**
+     * Deal the next unused ordinal and mark it used.
+     *
+     * @return Corpus ordinal, or -1 once every verse in the pool has been used
+     */
+    public int draw() {
+        if (pending >= 0) {
+            int ordinal = pending;
+            pending = -1;
+            markUsed(ordinal);
+            return ordinal;
+        }
+        while (drawn < pool.length) {
+            int ordinal = dealOne();
+            if (!isUsed(ordinal)) {
+                markUsed(ordinal);
+                return ordinal;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Look at the next unused ordinal without marking it used.
+     * The following draw() returns the same ordinal.
+     *
+     * @return Corpus ordinal, or -1 once every verse in the pool has been used
+     */
+    public int peek() {
+        while (pending < 0 && drawn < pool.length) {
+            int ordinal = dealOne();
+            if (!isUsed(ordinal)) {
+                pending = ordinal;
+            }
+        }
+        return pending;
+    }
+
+    /**
+     * Replay the shuffle up to where a restored session left off.
+     * Deals as many cards as the pool has used verses, without marking anything.
+     */
+    public void fastForward() {
+        int usedInPool = 0;
+        for (int ordinal : pool) {
+            if (isUsed(ordinal)) {
+                usedInPool++;
+            }
+        }
+        for (int i = 0; i < usedInPool && drawn < pool.length; i++) {
+            dealOne();
+        }
+    }
+
+    private int dealOne() {
+        int pick = drawn + random.nextInt(pool.length - drawn);
+        int ordinal = pool[pick];
+        pool[pick] = pool[drawn];
+        pool[drawn] = ordinal;
+        drawn++;
+        return ordinal;
+    }
+
+    /**
+     * Check whether a verse has been used in this session.
+     *
+     * @param ordinal Corpus ordinal
+     * @return true if used
+     */
+    public boolean isUsed(int ordinal) {
+        int slot = ordinal >>> 3;
+        return slot < usedBitmap.length && (usedBitmap[slot] & (1 << (ordinal & 7))) != 0;
+    }
+
+    /**
+     * Mark a verse as used.
+     *
+     * @param ordinal Corpus ordinal
+     */
+    public void markUsed(int ordinal) {
+        int slot = ordinal >>> 3;
+        if (slot < usedBitmap.length) {
+            usedBitmap[slot] |= (byte) (1 << (ordinal & 7));
+        }
+    }
+
+    /**
+     * Copy of the used bitmap for persisting with the session.
+     *
+     * @return Bitmap bytes (bit i of byte i/8 = ordinal i)
+     */
+    public byte[] getUsedBitmap() {
+        return usedBitmap.clone();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Number of cards still in the deck (some may already be used).
+     *
+     * @return Remaining count
+     */
+    public int remaining() {
+        return pool.length - drawn;
+    }
+}
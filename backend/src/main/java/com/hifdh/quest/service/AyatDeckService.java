@@ -0,0 +1,121 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.model.Ayat;
+import com.hifdh.quest.model.GameRound;
+import com.hifdh.quest.model.GameSession;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Registry of per-session ayat decks.
+ * The deck seed and used-verse bitmap live on the GameSession row, so a deck can be
+ * rebuilt after a restart (or on another node) and continues the same sequence.
+ * Callers must hold the session's mailbox (see SessionCommandExecutor).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AyatDeckService {
+
+    private final QuranCorpus quranCorpus;
+
+    private final Map<UUID, AyatDeck> decks = new ConcurrentHashMap<>();
+
+    /**
+     * Generate a seed for a new session's deck.
+     *
+     * @return Seed
+     */
+    public long newSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    /**
+     * Draw the next verse for a session and record it in the session's used bitmap.
+     * The caller is responsible for saving the session.
+     *
+     * @param session GameSession
+     * @return Next Ayat or null if every verse in the session's range has been used
+     */
+    public Ayat drawNext(GameSession session) {
+        AyatDeck deck = decks.computeIfAbsent(session.getId(), id -> restoreDeck(session));
+
+        int ordinal = deck.draw();
+        session.setAyatDeckSeed(deck.getSeed());
+        session.setUsedAyatBitmap(deck.getUsedBitmap());
+
+        if (ordinal < 0) {
+            log.warn("Ayat deck exhausted for session {}", session.getId());
+            return null;
+        }
+        return quranCorpus.get(ordinal);
+    }
+
+    /**
+     * Look at the verse the next drawNext() will return, without using it up.
+     *
+     * @param session GameSession
+     * @return Next Ayat or null if every verse in the session's range has been used
+     */
+    public Ayat peekNext(GameSession session) {
+        AyatDeck deck = decks.computeIfAbsent(session.getId(), id -> restoreDeck(session));
+        int ordinal = deck.peek();
+        return ordinal >= 0 ? quranCorpus.get(ordinal) : null;
+    }
+
+    /**
+     * Drop a finished session's deck.
+     *
+     * @param sessionId Session ID
+     */
+    public void evict(UUID sessionId) {
+        decks.remove(sessionId);
+    }
+
+    private AyatDeck restoreDeck(GameSession session) {
+        boolean hasSeed = session.getAyatDeckSeed() != null;
+        if (!hasSeed) {
+            // Sessions created before decks existed get a seed on first use
+            session.setAyatDeckSeed(newSeed());
+        }
+
+        AyatDeck deck = createDeck(session);
+
+        if (session.getUsedAyatBitmap() == null) {
+            // Older sessions: rebuild the used set from their rounds once
+            for (GameRound round : session.getRounds()) {
+                if (round.getSurahNumber() != null && round.getAyatNumber() != null) {
+                    int ordinal = quranCorpus.ordinalOf(round.getSurahNumber(), round.getAyatNumber());
+                    if (ordinal >= 0) {
+                        deck.markUsed(ordinal);
+                    }
+                }
+            }
+        } else if (hasSeed) {
+            deck.fastForward();
+        }
+
+        log.debug("Restored ayat deck for session {} ({} cards left)", session.getId(), deck.remaining());
+        return deck;
+    }
+
+    private AyatDeck createDeck(GameSession session) {
+        long seed = session.getAyatDeckSeed();
+        int corpusSize = quranCorpus.size();
+
+        if (session.getJuzNumber() != null) {
+            return new AyatDeck(seed, quranCorpus.juzOrdinals(session.getJuzNumber()),
+                corpusSize, session.getUsedAyatBitmap());
+        }
+        return AyatDeck.ofRange(seed,
+            quranCorpus.surahStart(session.getSurahRangeStart()),
+            quranCorpus.surahEnd(session.getSurahRangeEnd()),
+            corpusSize, session.getUsedAyatBitmap());
+    }
+}
@@ -2,7 +2,6 @@ package com.hifdh.quest.service;
 
 import com.hifdh.quest.model.Ayat;
 import com.hifdh.quest.model.Reciter;
-import com.hifdh.quest.repository.AyatRepository;
 import com.hifdh.quest.repository.ReciterRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,6 +13,7 @@ import java.util.*;
 /**
  * Service for managing Quran verses (Ayat) selection and audio generation.
  * Implements random selection logic for game questions.
+ * Verse lookups are served from the in-memory QuranCorpus; only reciters hit the database.
  */
 @Service
 @Transactional(readOnly = true)
@@ -21,7 +21,10 @@ import java.util.*;
 @Slf4j
 public class AyatService {
 
-    private final AyatRepository ayatRepository;
+    // Random draws before falling back to scanning for an unused verse
+    private static final int RANDOM_PICK_ATTEMPTS = 16;
+
+    private final QuranCorpus quranCorpus;
     private final ReciterRepository reciterRepository;
     private final Random random = new Random();
 
@@ -34,22 +37,22 @@ public class AyatService {
      * @return Random Ayat or null if none available
      */
     public Ayat getRandomAyatBySurahRange(Integer surahStart, Integer surahEnd, Set<Long> usedAyatIds) {
-        if (usedAyatIds == null) {
-            usedAyatIds = Collections.emptySet();
+        if (!isValidSurahRange(surahStart, surahEnd)) {
+            log.warn("Invalid Surah range {}-{}", surahStart, surahEnd);
+            return null;
         }
 
-        List<Ayat> availableAyat = ayatRepository.findBySurahNumberBetweenAndIdNotIn(
-            surahStart, surahEnd, usedAyatIds
-        );
+        int from = quranCorpus.surahStart(surahStart);
+        int to = quranCorpus.surahEnd(surahEnd);
 
-        if (availableAyat.isEmpty()) {
+        int ordinal = pickUnused(from, to, null, usedAyatIds);
+        if (ordinal < 0) {
             log.warn("No available Ayat in range {}-{} excluding {} used verses",
-                surahStart, surahEnd, usedAyatIds.size());
+                surahStart, surahEnd, usedAyatIds != null ? usedAyatIds.size() : 0);
             return null;
         }
 
-        int randomIndex = random.nextInt(availableAyat.size());
-        Ayat selectedAyat = availableAyat.get(randomIndex);
+        Ayat selectedAyat = quranCorpus.get(ordinal);
 
         log.debug("Selected Ayat {}/{} from range {}-{}",
             selectedAyat.getSurahNumber(), selectedAyat.getAyatNumber(), surahStart, surahEnd);
@@ -65,20 +68,21 @@ public class AyatService {
      * @return Random Ayat or null if none available
      */
     public Ayat getRandomAyatByJuz(Integer juzNumber, Set<Long> usedAyatIds) {
-        if (usedAyatIds == null) {
-            usedAyatIds = Collections.emptySet();
+        if (!isValidJuz(juzNumber)) {
+            log.warn("Invalid Juz {}", juzNumber);
+            return null;
         }
 
-        List<Ayat> availableAyat = ayatRepository.findByJuzNumberAndIdNotIn(juzNumber, usedAyatIds);
+        int[] members = quranCorpus.juzOrdinals(juzNumber);
 
-        if (availableAyat.isEmpty()) {
+        int ordinal = pickUnused(0, members.length, members, usedAyatIds);
+        if (ordinal < 0) {
             log.warn("No available Ayat in Juz {} excluding {} used verses",
-                juzNumber, usedAyatIds.size());
+                juzNumber, usedAyatIds != null ? usedAyatIds.size() : 0);
             return null;
         }
 
-        int randomIndex = random.nextInt(availableAyat.size());
-        Ayat selectedAyat = availableAyat.get(randomIndex);
+        Ayat selectedAyat = quranCorpus.get(ordinal);
 
         log.debug("Selected Ayat {}/{} from Juz {}",
             selectedAyat.getSurahNumber(), selectedAyat.getAyatNumber(), juzNumber);
@@ -86,6 +90,42 @@ public class AyatService {
         return selectedAyat;
     }
 
+    /**
+     * Pick a random ordinal from a slot range that is not in the used set.
+     * Draws at random first (O(1) expected while most verses are unused) and only
+     * scans the range when the pool is nearly exhausted.
+     *
+     * @param from First slot (inclusive)
+     * @param to Last slot (exclusive)
+     * @param slots Slot-to-ordinal mapping, or null if slots are ordinals
+     * @param usedAyatIds Set of Ayat IDs to exclude (may be null)
+     * @return Ordinal or -1 if every verse in the range is used
+     */
+    private int pickUnused(int from, int to, int[] slots, Set<Long> usedAyatIds) {
+        int count = to - from;
+        if (count <= 0) {
+            return -1;
+        }
+        Set<Long> used = usedAyatIds != null ? usedAyatIds : Collections.emptySet();
+
+        for (int attempt = 0; attempt < RANDOM_PICK_ATTEMPTS; attempt++) {
+            int slot = from + random.nextInt(count);
+            int ordinal = slots != null ? slots[slot] : slot;
+            if (!used.contains(quranCorpus.idAt(ordinal))) {
+                return ordinal;
+            }
+        }
+
+        List<Integer> remaining = new ArrayList<>();
+        for (int slot = from; slot < to; slot++) {
+            int ordinal = slots != null ? slots[slot] : slot;
+            if (!used.contains(quranCorpus.idAt(ordinal))) {
+                remaining.add(ordinal);
+            }
+        }
+        return remaining.isEmpty() ? -1 : remaining.get(random.nextInt(remaining.size()));
+    }
+
     /**
      * Get the next Ayat in sequence.
      * Handles boundary cases (end of Surah, end of Quran).
@@ -98,28 +138,13 @@ public class AyatService {
             return null;
         }
 
-        Integer currentSurah = currentAyat.getSurahNumber();
-        Integer currentAyatNum = currentAyat.getAyatNumber();
-
-        // Try to get next ayat in same surah
-        Ayat nextInSurah = ayatRepository.findBySurahAndAyat(currentSurah, currentAyatNum + 1);
-
-        if (nextInSurah != null) {
-            return nextInSurah;
-        }
-
-        // End of surah reached - move to next surah
-        if (currentSurah < 114) {
-            // Get first ayat of next surah
-            Ayat firstOfNextSurah = ayatRepository.findBySurahAndAyat(currentSurah + 1, 1);
+        int ordinal = quranCorpus.ordinalOf(currentAyat.getSurahNumber(), currentAyat.getAyatNumber());
+        Ayat nextAyat = ordinal >= 0 ? quranCorpus.get(ordinal + 1) : null;
 
-            if (firstOfNextSurah != null) {
-                return firstOfNextSurah;
-            }
+        if (nextAyat == null) {
+            log.debug("No next Ayat found for {}/{}", currentAyat.getSurahNumber(), currentAyat.getAyatNumber());
         }
-
-        log.debug("No next Ayat found for {}/{}", currentSurah, currentAyatNum);
-        return null; // End of Quran
+        return nextAyat; // null at end of Quran
     }
 
     /**
@@ -134,26 +159,13 @@ public class AyatService {
             return null;
         }
 
-        Integer currentSurah = currentAyat.getSurahNumber();
-        Integer currentAyatNum = currentAyat.getAyatNumber();
+        int ordinal = quranCorpus.ordinalOf(currentAyat.getSurahNumber(), currentAyat.getAyatNumber());
+        Ayat previousAyat = ordinal > 0 ? quranCorpus.get(ordinal - 1) : null;
 
-        // If not the first ayat of surah, get previous in same surah
-        if (currentAyatNum > 1) {
-            return ayatRepository.findBySurahAndAyat(currentSurah, currentAyatNum - 1);
+        if (previousAyat == null) {
+            log.debug("No previous Ayat found for {}/{}", currentAyat.getSurahNumber(), currentAyat.getAyatNumber());
         }
-
-        // First ayat of surah - move to previous surah's last ayat
-        if (currentSurah > 1) {
-            List<Ayat> previousSurahAyat = ayatRepository.findBySurahNumber(currentSurah - 1);
-
-            if (!previousSurahAyat.isEmpty()) {
-                // Return the last ayat of previous surah
-                return previousSurahAyat.get(previousSurahAyat.size() - 1);
-            }
-        }
-
-        log.debug("No previous Ayat found for {}/{}", currentSurah, currentAyatNum);
-        return null; // Start of Quran
+        return previousAyat; // null at start of Quran
     }
 
     /**
@@ -199,7 +211,7 @@ public class AyatService {
      * @return Ayat or null if not found
      */
     public Ayat getAyatById(Long ayatId) {
-        return ayatRepository.findById(ayatId).orElse(null);
+        return ayatId != null ? quranCorpus.get(quranCorpus.ordinalOfId(ayatId)) : null;
     }
 
     /**
@@ -209,7 +221,10 @@ public class AyatService {
      * @return List of Ayat in the Surah
      */
     public List<Ayat> getAyatBySurah(Integer surahNumber) {
-        return ayatRepository.findBySurahNumber(surahNumber);
+        if (surahNumber == null || surahNumber < 1 || surahNumber > QuranCorpus.SURAH_COUNT) {
+            return Collections.emptyList();
+        }
+        return quranCorpus.getRange(quranCorpus.surahStart(surahNumber), quranCorpus.surahEnd(surahNumber));
     }
 
     /**
@@ -220,7 +235,10 @@ public class AyatService {
      * @return Ayat or null if not found
      */
     public Ayat getAyatBySurahAndNumber(Integer surahNumber, Integer ayatNumber) {
-        return ayatRepository.findBySurahAndAyat(surahNumber, ayatNumber);
+        if (surahNumber == null || ayatNumber == null) {
+            return null;
+        }
+        return quranCorpus.get(quranCorpus.ordinalOf(surahNumber, ayatNumber));
     }
 
     /**
@@ -0,0 +1,185 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.model.GameParticipant;
+import com.hifdh.quest.model.GameRound;
+import com.hifdh.quest.repository.BuzzerPressRepository;
+import com.hifdh.quest.repository.GameRoundRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Registry of per-round buzz arbiters.
+ * Rounds are registered when they start, so buzzes are ranked entirely in memory.
+ * Rounds that were started before this node came up are loaded lazily on their first buzz.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuzzArbitrationService {
+
+    // Maximum number of players allowed to buzz per round
+    public static final int MAX_BUZZES_PER_ROUND = 3;
+
+    private final GameRoundRepository roundRepository;
+    private final BuzzerPressRepository buzzerPressRepository;
+    private final LiveGameStateService liveGameStateService;
+
+    private final Map<Long, RoundBuzzArbiter> arbitersByRound = new ConcurrentHashMap<>();
+    private final Map<UUID, RoundBuzzArbiter> currentRoundBySession = new ConcurrentHashMap<>();
+
+    /**
+     * Register a freshly created round with the session's current participants, as held in
+     * live state. Replaces the arbiter of the session's previous round.
+     *
+     * @param round Newly created round
+     */
+    public void openRound(GameRound round) {
+        UUID sessionId = round.getSession().getId();
+        List<LiveGameStateService.ParticipantState> participants = liveGameStateService.getParticipants(sessionId);
+
+        RoundBuzzArbiter arbiter = new RoundBuzzArbiter(round.getId(), round.getRoundNumber(), sessionId,
+            MAX_BUZZES_PER_ROUND, toContenders(participants, round.getRoundNumber()), Set.of(), false);
+        arbitersByRound.put(round.getId(), arbiter);
+        makeCurrent(arbiter, false);
+
+        log.debug("Opened buzz arbiter for round {} ({} participants)", round.getId(), participants.size());
+    }
+
+    /**
+     * Get the arbiter for a round, loading it from the database if this node has not seen the round yet.
+     *
+     * @param roundId Round ID
+     * @return RoundBuzzArbiter
+     * @throws IllegalArgumentException if the round does not exist
+     */
+    public RoundBuzzArbiter getArbiter(Long roundId) {
+        RoundBuzzArbiter arbiter = arbitersByRound.get(roundId);
+        if (arbiter != null) {
+            return arbiter;
+        }
+
+        // Load outside the map's bin lock; if two first presses race, the first arbiter registered wins
+        RoundBuzzArbiter loaded = loadArbiter(roundId);
+        arbiter = arbitersByRound.putIfAbsent(roundId, loaded);
+        if (arbiter != null) {
+            return arbiter;
+        }
+        makeCurrent(loaded, true);
+        return loaded;
+    }
+
+    /**
+     * Add a participant who joined a session to the arbiter of its current round, if any.
+     * Presses from participants the arbiter does not know are rejected without a lookup.
+     *
+     * @param participant Newly added participant
+     */
+    public void addParticipant(GameParticipant participant) {
+        RoundBuzzArbiter arbiter = currentRoundBySession.get(participant.getSession().getId());
+        if (arbiter != null) {
+            arbiter.addContender(participant.getId(),
+                toContender(liveGameStateService.stateOf(participant), arbiter.getRoundNumber()));
+        }
+    }
+
+    /**
+     * Find the session a round belongs to, without loading an arbiter for it.
+     *
+     * @param roundId Round ID
+     * @return Session ID
+     * @throws IllegalArgumentException if the round does not exist
+     */
+    public UUID getSessionId(Long roundId) {
+        RoundBuzzArbiter arbiter = arbitersByRound.get(roundId);
+        if (arbiter != null) {
+            return arbiter.getSessionId();
+        }
+        return roundRepository.findSessionIdById(roundId)
+            .orElseThrow(() -> new IllegalArgumentException("Round not found: " + roundId));
+    }
+
+    /**
+     * Close a round so that further presses are rejected.
+     *
+     * @param roundId Round ID
+     */
+    public void closeRound(Long roundId) {
+        RoundBuzzArbiter arbiter = arbitersByRound.get(roundId);
+        if (arbiter != null) {
+            arbiter.close();
+        }
+    }
+
+    /**
+     * Drop all arbiter state for a session (e.g. when the game ends).
+     *
+     * @param sessionId Session ID
+     */
+    public void evictSession(UUID sessionId) {
+        RoundBuzzArbiter arbiter = currentRoundBySession.remove(sessionId);
+        if (arbiter != null) {
+            arbitersByRound.remove(arbiter.getRoundId(), arbiter);
+        }
+    }
+
+    /**
+     * Make an arbiter its session's current round and drop the arbiter of the round it replaces.
+     * A round loaded on a late press only replaces an older round, so it cannot evict the
+     * round in play; otherwise it is not kept.
+     */
+    private void makeCurrent(RoundBuzzArbiter arbiter, boolean onlyIfNewer) {
+        RoundBuzzArbiter[] replaced = new RoundBuzzArbiter[1];
+        RoundBuzzArbiter current = currentRoundBySession.compute(arbiter.getSessionId(), (sessionId, previous) -> {
+            if (previous != null && onlyIfNewer && previous.getRoundNumber() >= arbiter.getRoundNumber()) {
+                return previous;
+            }
+            replaced[0] = previous;
+            return arbiter;
+        });
+
+        RoundBuzzArbiter stale = current == arbiter ? replaced[0] : arbiter;
+        if (stale != null && stale != current) {
+            arbitersByRound.remove(stale.getRoundId(), stale);
+        }
+    }
+
+    private RoundBuzzArbiter loadArbiter(Long roundId) {
+        GameRound round = roundRepository.findById(roundId)
+            .orElseThrow(() -> new IllegalArgumentException("Round not found: " + roundId));
+        UUID sessionId = round.getSession().getId();
+
+        List<LiveGameStateService.ParticipantState> participants = liveGameStateService.getParticipants(sessionId);
+        Set<Long> alreadyBuzzed = buzzerPressRepository.findByRoundIdOrderByPressedAtAsc(roundId).stream()
+            .map(press -> press.getParticipant().getId())
+            .collect(Collectors.toSet());
+
+        log.info("Loaded buzz arbiter for round {} from database ({} presses already recorded)",
+            roundId, alreadyBuzzed.size());
+
+        return new RoundBuzzArbiter(roundId, round.getRoundNumber(), sessionId, MAX_BUZZES_PER_ROUND,
+            toContenders(participants, round.getRoundNumber()), alreadyBuzzed, round.getEndedAt() != null);
+    }
+
+    private Map<Long, RoundBuzzArbiter.Contender> toContenders(
+            List<LiveGameStateService.ParticipantState> participants, int roundNumber) {
+        Map<Long, RoundBuzzArbiter.Contender> contenders = new HashMap<>();
+        for (LiveGameStateService.ParticipantState participant : participants) {
+            contenders.put(participant.participantId(), toContender(participant, roundNumber));
+        }
+        return contenders;
+    }
+
+    private RoundBuzzArbiter.Contender toContender(LiveGameStateService.ParticipantState participant, int roundNumber) {
+        // Blocks are tracked in live state and may not have been written yet
+        return new RoundBuzzArbiter.Contender(participant.name(), participant.isBlockedInRound(roundNumber));
+    }
+}
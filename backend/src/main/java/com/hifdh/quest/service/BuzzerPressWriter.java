@@ -0,0 +1,42 @@
+package com.hifdh.quest.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Records buzzer presses after they have been ranked and broadcast.
+ * The press and the participant's buzz counters are updated in live state; the database
+ * writes happen write-behind in GameStateWriter, so Postgres latency never delays BUZZER_PRESSED.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BuzzerPressWriter {
+
+    private final LiveGameStateService liveGameStateService;
+    private final ConsecutiveBuzzTracker consecutiveBuzzTracker;
+
+    /**
+     * Record an accepted press and update the participant's buzz counters.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param roundNumber Round number (for buzz eligibility)
+     * @param participantId Participant ID
+     * @param buzzRank Rank assigned by the arbiter
+     * @param buzzedAtSeconds Client elapsed seconds since the timer started (may be null)
+     * @param pressedAt Server time the press was accepted
+     */
+    public void recordAcceptedPress(UUID sessionId, Long roundId, int roundNumber, Long participantId, int buzzRank,
+                                    Double buzzedAtSeconds, LocalDateTime pressedAt) {
+        liveGameStateService.recordAcceptedBuzz(sessionId, roundId, roundNumber, participantId, buzzRank,
+            buzzedAtSeconds, pressedAt);
+        consecutiveBuzzTracker.updateTracking(participantId, buzzRank, roundNumber);
+
+        log.debug("Recorded buzzer press: participant={}, round={}, rank={}", participantId, roundId, buzzRank);
+    }
+}
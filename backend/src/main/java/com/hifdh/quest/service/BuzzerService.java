@@ -11,11 +11,15 @@ import com.hifdh.quest.repository.GameParticipantRepository;
 import com.hifdh.quest.repository.GameRoundRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
 import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
 
@@ -33,80 +37,105 @@ public class BuzzerService {
     private final GameParticipantRepository participantRepository;
     private final GameRoundRepository roundRepository;
     private final GameSessionService gameSessionService;
+    private final BuzzArbitrationService buzzArbitrationService;
+    private final BuzzerPressWriter buzzerPressWriter;
+    private final ClockSyncService clockSyncService;
+    private final TaskScheduler taskScheduler;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final RoundTimerService roundTimerService;
+    private final LiveGameStateService liveGameStateService;
 
-    // Maximum number of players allowed to buzz per round (configurable)
-    private static final int MAX_BUZZES_PER_ROUND = 3;
+    // How long presses are collected before being ranked (0 = rank each press on arrival)
+    @Value("${buzzer.arbitration-window-ms:30}")
+    private long arbitrationWindowMillis;
+
+    // Maximum number of players allowed to buzz per round
+    private static final int MAX_BUZZES_PER_ROUND = BuzzArbitrationService.MAX_BUZZES_PER_ROUND;
 
     /**
      * Handle a buzzer press from a player.
-     * Validates the press, assigns rank, saves to database, and broadcasts event.
+     * Admits the press in memory and adds it to the round's arbitration window; ranks are
+     * assigned by latency-compensated press time once the window closes, so a player on a
+     * slower link is not beaten by one who pressed later on a faster link.
      *
      * @param request BuzzerPressRequest from player
-     * @return BuzzerPressedEvent that was broadcast
      * @throws IllegalStateException if buzzer press is invalid
      */
-    public BuzzerPressedEvent handleBuzzerPress(BuzzerPressRequest request) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void handleBuzzerPress(BuzzerPressRequest request) {
+        long receivedAt = System.currentTimeMillis();
         log.info("Processing buzzer press: participant={}, round={}, time={}s",
             request.getParticipantId(), request.getRoundId(), request.getClientElapsedSeconds());
 
-        // Load participant
-        GameParticipant participant = participantRepository.findById(request.getParticipantId())
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + request.getParticipantId()));
-
-        // Load round
-        GameRound round = roundRepository.findById(Long.parseLong(request.getRoundId()))
-            .orElseThrow(() -> new IllegalArgumentException("Round not found: " + request.getRoundId()));
+        RoundBuzzArbiter arbiter = buzzArbitrationService.getArbiter(Long.parseLong(request.getRoundId()));
 
-        // Validation checks
-        validateBuzzerPress(participant, round);
+        // Reserve the player's press (throws if already buzzed, blocked, round ended or slots full)
+        arbiter.admit(request.getParticipantId());
 
-        // Get current buzz count for this round
-        long currentBuzzCount = buzzerPressRepository.countByParticipantIdAndRoundId(
-            request.getParticipantId(), round.getId());
+        long pressedAt = clockSyncService.compensatedPressTime(
+            request.getParticipantId(), request.getClientTimestamp(), receivedAt);
+        boolean windowOpened = arbiter.enqueue(new RoundBuzzArbiter.PendingPress(
+            request.getParticipantId(), request.getClientElapsedSeconds(), pressedAt));
 
-        // Check if player already buzzed in this round
-        if (currentBuzzCount > 0 || participant.getBuzzedInCurrentRound()) {
-            throw new IllegalStateException("Player has already buzzed in this round");
+        if (arbitrationWindowMillis <= 0) {
+            resolveArbitrationWindow(arbiter);
+        } else if (windowOpened) {
+            // Resolve on the session mailbox so ranking stays ordered with the session's other commands
+            taskScheduler.schedule(
+                () -> sessionCommandExecutor.execute(arbiter.getSessionId(), () -> resolveArbitrationWindow(arbiter)),
+                Instant.ofEpochMilli(receivedAt + arbitrationWindowMillis));
         }
+    }
 
-        // Get total buzzes for this round
-        List<BuzzerPress> roundBuzzes = buzzerPressRepository.findByRoundIdOrderByPressedAtAsc(round.getId());
-        int buzzRank = roundBuzzes.size() + 1;
-
-        // Check if max buzzes reached
-        if (buzzRank > MAX_BUZZES_PER_ROUND) {
-            throw new IllegalStateException("Maximum buzzes reached for this round");
+    /**
+     * Rank the presses collected in an arbitration window, then persist and broadcast them.
+     * Presses that lost the race for the last slot are told so privately.
+     *
+     * @param arbiter Arbiter of the round whose window closed
+     */
+    private void resolveArbitrationWindow(RoundBuzzArbiter arbiter) {
+        String sessionId = arbiter.getSessionId().toString();
+
+        for (RoundBuzzArbiter.RankedPress ranked : arbiter.resolveWindow()) {
+            RoundBuzzArbiter.PendingPress press = ranked.press();
+            try {
+                if (!ranked.accepted()) {
+                    log.info("Buzzer press rejected after arbitration: participant={}, round={}",
+                        press.participantId(), arbiter.getRoundId());
+                    gameSessionService.broadcastPlayerError(sessionId, press.participantId(), "BUZZER_ERROR",
+                        "Buzzer press failed: Maximum buzzes reached for this round");
+                    continue;
+                }
+                publishAcceptedPress(arbiter, press, ranked.buzzRank());
+            } catch (RuntimeException e) {
+                log.error("Failed to publish buzzer press: participant={}, round={}",
+                    press.participantId(), arbiter.getRoundId(), e);
+            }
         }
+    }
 
-        // Create buzzer press record
-        BuzzerPress buzzerPress = new BuzzerPress();
-        buzzerPress.setRound(round);
-        buzzerPress.setParticipant(participant);
-        buzzerPress.setBuzzRank(buzzRank);
-        buzzerPress.setPressOrder(buzzRank); // Same as buzz rank for ordering
-        buzzerPress.setBuzzedAtSeconds(BigDecimal.valueOf(request.getClientElapsedSeconds()));
-        buzzerPress.setPressedAt(Instant.now().atZone(java.time.ZoneId.systemDefault()).toLocalDateTime());
-        buzzerPress.setGotChanceToAnswer(buzzRank <= MAX_BUZZES_PER_ROUND);
-        buzzerPressRepository.save(buzzerPress);
+    private void publishAcceptedPress(RoundBuzzArbiter arbiter, RoundBuzzArbiter.PendingPress press, int buzzRank) {
+        String sessionId = arbiter.getSessionId().toString();
+        String participantName = arbiter.getParticipantName(press.participantId());
 
-        // Update participant state
-        participant.setBuzzedInCurrentRound(true);
-        participant.setBuzzerPressCount(participant.getBuzzerPressCount() + 1);
-        participantRepository.save(participant);
+        // Record in live state (persisted write-behind); the arbiter is the source of truth for ranking
+        buzzerPressWriter.recordAcceptedPress(arbiter.getSessionId(), arbiter.getRoundId(), arbiter.getRoundNumber(),
+            press.participantId(), buzzRank, press.buzzedAtSeconds(),
+            LocalDateTime.ofInstant(Instant.ofEpochMilli(press.pressedAtMillis()), ZoneId.systemDefault()));
 
-        log.info("Buzzer press saved: participant={}, rank={}, time={}s",
-            participant.getName(), buzzRank, request.getClientElapsedSeconds());
+        log.info("Buzzer press accepted: participant={}, rank={}, time={}s",
+            participantName, buzzRank, press.buzzedAtSeconds());
 
         // Build and broadcast BUZZER_PRESSED event
         BuzzerPressedEvent event = BuzzerPressedEvent.builder()
-            .sessionId(request.getSessionId())
-            .participantId(participant.getId())
-            .participantName(participant.getName())
+            .sessionId(sessionId)
+            .participantId(press.participantId())
+            .participantName(participantName)
             .buzzRank(buzzRank)
-            .buzzTimeSeconds(request.getClientElapsedSeconds())
+            .buzzTimeSeconds(press.buzzedAtSeconds())
             .totalBuzzesAllowed(MAX_BUZZES_PER_ROUND)
             .remainingSlots(MAX_BUZZES_PER_ROUND - buzzRank)
-            .buzzerPressedAt(Instant.now())
+            .buzzerPressedAt(Instant.ofEpochMilli(press.pressedAtMillis()))
             .build();
 
         gameSessionService.broadcastBuzzerPressed(event);
@@ -114,16 +143,65 @@ public class BuzzerService {
         // If all slots filled, broadcast TIMER_STOPPED
         if (buzzRank == MAX_BUZZES_PER_ROUND) {
             TimerStoppedEvent timerStoppedEvent = TimerStoppedEvent.builder()
-                .sessionId(request.getSessionId())
+                .sessionId(sessionId)
                 .reason("ALL_SLOTS_FILLED")
                 .totalBuzzes(MAX_BUZZES_PER_ROUND)
                 .build();
 
             gameSessionService.broadcastTimerStopped(timerStoppedEvent);
-            log.info("All buzz slots filled for round {}", round.getId());
+            roundTimerService.cancel(arbiter.getRoundId());
+            log.info("All buzz slots filled for round {}", arbiter.getRoundId());
         }
+    }
 
-        return event;
+    /**
+     * Register a newly created round with the buzz arbiter.
+     * Must run before the round is announced so early presses are ranked.
+     *
+     * @param round Newly created round
+     */
+    public void openRound(GameRound round) {
+        buzzArbitrationService.openRound(round);
+    }
+
+    /**
+     * Let a participant who joined the session buzz in its current round.
+     *
+     * @param participant Newly added participant
+     */
+    public void addParticipant(GameParticipant participant) {
+        buzzArbitrationService.addParticipant(participant);
+    }
+
+    /**
+     * Close a round in the buzz arbiter so further presses are rejected.
+     *
+     * @param roundId Round ID
+     */
+    public void closeRound(Long roundId) {
+        buzzArbitrationService.closeRound(roundId);
+    }
+
+    /**
+     * Stop accepting presses for a round whose buzz time ran out.
+     * Presses already admitted are still ranked.
+     *
+     * @param roundId Round ID
+     * @return Number of presses that got a slot
+     */
+    public int closeBuzzing(Long roundId) {
+        RoundBuzzArbiter arbiter = buzzArbitrationService.getArbiter(roundId);
+        arbiter.close();
+        return Math.min(arbiter.getSlotsTaken().get(), arbiter.getMaxSlots());
+    }
+
+    /**
+     * Release in-memory buzz state for a finished session.
+     *
+     * @param sessionId Session ID
+     */
+    public void releaseSession(UUID sessionId) {
+        buzzArbitrationService.evictSession(sessionId);
     }
 
     /**
@@ -134,8 +212,8 @@ public class BuzzerService {
      * @throws IllegalStateException if press is not allowed
      */
     private void validateBuzzerPress(GameParticipant participant, GameRound round) {
-        // Check if participant is blocked for next round
-        if (participant.getIsBlockedNextRound()) {
+        // Check if participant is blocked for this round (live state, may not have been written yet)
+        if (liveGameStateService.stateOf(participant).isBlockedInRound(round.getRoundNumber())) {
             throw new IllegalStateException("Player is blocked from buzzing this round");
         }
 
@@ -156,37 +234,28 @@ public class BuzzerService {
     }
 
     /**
-     * Reset all participants' buzzed_in_current_round flag for a new round.
-     * Called when starting a new round.
+     * Get all buzzer presses for a round, ordered by rank.
      *
-     * @param sessionId Game session ID
+     * @param roundId Round ID
+     * @return List of BuzzerPress
      */
-    public void resetBuzzStateForNewRound(UUID sessionId) {
-        List<GameParticipant> participants = participantRepository.findBySessionIdOrderByTotalScoreDesc(sessionId);
-
-        for (GameParticipant participant : participants) {
-            participant.setBuzzedInCurrentRound(false);
-
-            // Clear block if player was blocked for this round
-            if (participant.getIsBlockedNextRound()) {
-                participant.setIsBlockedNextRound(false);
-                log.info("Cleared block for participant: {}", participant.getName());
-            }
-        }
-
-        participantRepository.saveAll(participants);
-        log.info("Reset buzz state for {} participants in session {}", participants.size(), sessionId);
+    @Transactional(readOnly = true)
+    public List<BuzzerPress> getRoundBuzzes(Long roundId) {
+        return buzzerPressRepository.findByRoundIdOrderByPressedAtAsc(roundId);
     }
 
     /**
-     * Get all buzzer presses for a round, ordered by rank.
+     * Find a participant's press in a round.
      *
      * @param roundId Round ID
-     * @return List of BuzzerPress
+     * @param participantId Participant ID
+     * @return BuzzerPress, or null if the participant has no written press in the round
      */
     @Transactional(readOnly = true)
-    public List<BuzzerPress> getRoundBuzzes(Long roundId) {
-        return buzzerPressRepository.findByRoundIdOrderByPressedAtAsc(roundId);
+    public BuzzerPress findBuzzerPress(Long roundId, Long participantId) {
+        return buzzerPressRepository.findByParticipantIdAndRoundId(participantId, roundId).stream()
+            .findFirst()
+            .orElse(null);
     }
 
     /**
@@ -274,6 +343,32 @@ public class BuzzerService {
             .orElse(null);
     }
 
+    /**
+     * Find the session a participant belongs to, so REST commands can run on its mailbox.
+     *
+     * @param participantId Participant ID
+     * @return Session ID
+     * @throws IllegalArgumentException if the participant does not exist
+     */
+    @Transactional(readOnly = true)
+    public UUID getParticipantSessionId(Long participantId) {
+        return participantRepository.findSessionIdById(participantId)
+            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+    }
+
+    /**
+     * Find the session a buzzer press was made in, so REST commands can run on its mailbox.
+     *
+     * @param buzzerPressId Buzzer press ID
+     * @return Session ID
+     * @throws IllegalArgumentException if the press does not exist
+     */
+    @Transactional(readOnly = true)
+    public UUID getBuzzerPressSessionId(Long buzzerPressId) {
+        return buzzerPressRepository.findSessionIdById(buzzerPressId)
+            .orElseThrow(() -> new IllegalArgumentException("Buzzer press not found: " + buzzerPressId));
+    }
+
     /**
      * Mark buzzer press as "got chance to answer" (legacy method).
      *
@@ -326,25 +421,23 @@ public class BuzzerService {
      */
     @Transactional(readOnly = true)
     public boolean canParticipantBuzz(Long participantId, Long roundId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+        LiveGameStateService.ParticipantState participant = liveGameStateService.getParticipant(participantId);
+        int roundNumber = getRoundNumber(roundId);
 
-        // Check if blocked for next round
-        if (participant.getIsBlockedNextRound()) {
+        // Check if blocked for this round
+        if (participant.isBlockedInRound(roundNumber)) {
             return false;
         }
 
-        // Check if already buzzed in current round
-        if (participant.getBuzzedInCurrentRound()) {
+        // Check if already buzzed in this round
+        if (Integer.valueOf(roundNumber).equals(participant.lastBuzzedRound())) {
             return false;
         }
 
         // Check if disconnected
-        if (!participant.getIsConnected()) {
-            return false;
-        }
-
-        return true;
+        return participantRepository.findById(participantId)
+            .map(GameParticipant::getIsConnected)
+            .orElse(false);
     }
 
     /**
@@ -357,10 +450,15 @@ public class BuzzerService {
      */
     @Transactional(readOnly = true)
     public int getPressesRemaining(Long participantId, Long roundId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+        LiveGameStateService.ParticipantState participant = liveGameStateService.getParticipant(participantId);
+
+        return Integer.valueOf(getRoundNumber(roundId)).equals(participant.lastBuzzedRound()) ? 0 : 1;
+    }
 
-        return participant.getBuzzedInCurrentRound() ? 0 : 1;
+    private int getRoundNumber(Long roundId) {
+        return roundRepository.findById(roundId)
+            .map(GameRound::getRoundNumber)
+            .orElseThrow(() -> new IllegalArgumentException("Round not found: " + roundId));
     }
 
     /**
@@ -369,39 +467,27 @@ public class BuzzerService {
      * @param participantId Participant ID
      */
     public void unblockParticipant(Long participantId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
-
-        participant.setIsBlockedNextRound(false);
-        participantRepository.save(participant);
+        liveGameStateService.updateParticipant(participantId, state -> state.withBlockedUntilRound(null));
 
         log.info("Unblocked participant {}", participantId);
     }
 
     /**
-     * Block a participant (legacy method).
+     * Block a participant from buzzing in the next round (legacy method).
      *
      * @param participantId Participant ID
      */
     public void blockParticipant(Long participantId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+        LiveGameStateService.ParticipantState participant = liveGameStateService.getParticipant(participantId);
 
-        participant.setIsBlockedNextRound(true);
-        participantRepository.save(participant);
+        int latestRoundNumber = roundRepository.findLatestRoundBySessionId(participant.sessionId())
+            .map(GameRound::getRoundNumber)
+            .orElse(0);
+        liveGameStateService.updateParticipant(participantId, state -> state.withBlockedUntilRound(latestRoundNumber + 1));
 
         log.info("Blocked participant {}", participantId);
     }
 
-    /**
-     * Reset buzzers for session (legacy method alias).
-     *
-     * @param sessionId Session ID
-     */
-    public void resetBuzzersForSession(UUID sessionId) {
-        resetBuzzStateForNewRound(sessionId);
-    }
-
     /**
      * Press buzzer (legacy REST API method).
      * Note: New WebSocket-based system uses handleBuzzerPress with BuzzerPressRequest.
@@ -422,17 +508,8 @@ public class BuzzerService {
         // Basic validation
         validateBuzzerPress(participant, round);
 
-        if (participant.getBuzzedInCurrentRound()) {
-            throw new IllegalStateException("Player has already buzzed in this round");
-        }
-
-        // Get buzz rank
-        List<BuzzerPress> roundBuzzes = buzzerPressRepository.findByRoundIdOrderByPressedAtAsc(roundId);
-        int buzzRank = roundBuzzes.size() + 1;
-
-        if (buzzRank > MAX_BUZZES_PER_ROUND) {
-            throw new IllegalStateException("Maximum buzzes reached for this round");
-        }
+        // Get buzz rank from the same arbiter the WebSocket path uses, so ranks never collide
+        int buzzRank = buzzArbitrationService.getArbiter(roundId).claim(participantId);
 
         // Create buzzer press
         BuzzerPress buzzerPress = new BuzzerPress();
@@ -446,9 +523,7 @@ public class BuzzerService {
         buzzerPressRepository.save(buzzerPress);
 
         // Update participant state
-        participant.setBuzzedInCurrentRound(true);
-        participant.setBuzzerPressCount(participant.getBuzzerPressCount() + 1);
-        participantRepository.save(participant);
+        liveGameStateService.updateParticipant(participantId, state -> state.withBuzz(round.getRoundNumber()));
 
         log.info("Legacy buzzer press: participant={}, rank={}", participant.getName(), buzzRank);
 
@@ -0,0 +1,149 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps a per-participant estimate of client clock offset and network round-trip time.
+ * Samples come from the NTP-style exchange piggybacked on /app/player/heartbeat:
+ * the server stamps each heartbeat reply (t1), the client reports when it received it (t2)
+ * and when it sent the next heartbeat (t3), and the server notes when that arrived (t4).
+ */
+@Service
+@Slf4j
+public class ClockSyncService {
+
+    // Number of recent samples kept per participant; the lowest-RTT one wins
+    static final int SAMPLE_WINDOW = 8;
+
+    // Longest round trip a usable sample can have; anything slower says nothing about the offset
+    static final long MAX_SAMPLE_RTT_MILLIS = 10_000;
+
+    @Value("${buzzer.max-compensation-ms:250}")
+    private long maxCompensationMillis;
+
+    private final Map<Long, ClockEstimate> estimates = new ConcurrentHashMap<>();
+
+    /**
+     * Record one clock-sync exchange.
+     * The client's t2 and t3 are not trusted: a sample where the client claims to have sent
+     * before it received, or to have spent longer than the whole round trip, is discarded.
+     *
+     * @param participantId Participant ID
+     * @param t1 Server send time of the previous reply (epoch millis)
+     * @param t2 Client receive time of that reply (client epoch millis)
+     * @param t3 Client send time of this heartbeat (client epoch millis)
+     * @param t4 Server receive time of this heartbeat (epoch millis)
+     */
+    public void recordSample(Long participantId, long t1, long t2, long t3, long t4) {
+        long roundTrip = t4 - t1;
+        long clientProcessing = t3 - t2;
+        if (clientProcessing < 0 || roundTrip < clientProcessing) {
+            log.debug("Discarding inconsistent clock sample for participant {}: round trip {}ms, client {}ms",
+                participantId, roundTrip, clientProcessing);
+            return;
+        }
+
+        long rtt = roundTrip - clientProcessing;
+        if (rtt > MAX_SAMPLE_RTT_MILLIS) {
+            log.debug("Discarding clock sample with {}ms RTT for participant {}", rtt, participantId);
+            return;
+        }
+        long offset = ((t2 - t1) + (t3 - t4)) / 2;
+
+        estimates.computeIfAbsent(participantId, id -> new ClockEstimate()).add(offset, rtt);
+        log.trace("Clock sample for participant {}: offset={}ms, rtt={}ms", participantId, offset, rtt);
+    }
+
+    /**
+     * Get the current estimate for a participant.
+     *
+     * @param participantId Participant ID
+     * @return ClockEstimate or null if no sample has been recorded yet
+     */
+    public ClockEstimate getEstimate(Long participantId) {
+        ClockEstimate estimate = estimates.get(participantId);
+        return estimate != null && estimate.hasSamples() ? estimate : null;
+    }
+
+    /**
+     * Estimate when a press actually happened, on the server clock.
+     * The result never lies later than the arrival time and never earlier than
+     * the measured RTT (capped by buzzer.max-compensation-ms) before it.
+     *
+     * @param participantId Participant ID
+     * @param clientTimestamp Client clock at the moment of the press (may be null)
+     * @param serverReceiveMillis Server time the press arrived (epoch millis)
+     * @return Compensated press time in server epoch millis
+     */
+    public long compensatedPressTime(Long participantId, Instant clientTimestamp, long serverReceiveMillis) {
+        ClockEstimate estimate = getEstimate(participantId);
+        if (estimate == null) {
+            return serverReceiveMillis;
+        }
+
+        long rtt = estimate.getRttMillis();
+        long earliest = serverReceiveMillis - Math.min(rtt, maxCompensationMillis);
+
+        long pressTime = clientTimestamp != null
+            ? clientTimestamp.toEpochMilli() - estimate.getOffsetMillis()
+            : serverReceiveMillis - rtt / 2;
+
+        return Math.max(earliest, Math.min(serverReceiveMillis, pressTime));
+    }
+
+    /**
+     * Forget a participant's estimate (e.g. on disconnect).
+     *
+     * @param participantId Participant ID
+     */
+    public void forget(Long participantId) {
+        estimates.remove(participantId);
+    }
+
+    /**
+     * Rolling offset/RTT estimate. Uses the sample with the lowest RTT among the
+     * most recent ones, since queueing delay only ever inflates RTT and skews offset.
+     */
+    public static class ClockEstimate {
+        private final long[] offsets = new long[SAMPLE_WINDOW];
+        private final long[] rtts = new long[SAMPLE_WINDOW];
+        private volatile int count;
+        private int next;
+        private volatile long offsetMillis;
+        private volatile long rttMillis;
+
+        synchronized void add(long offset, long rtt) {
+            offsets[next] = offset;
+            rtts[next] = rtt;
+            next = (next + 1) % SAMPLE_WINDOW;
+            count = Math.min(count + 1, SAMPLE_WINDOW);
+
+            int best = 0;
+            for (int i = 1; i < count; i++) {
+                if (rtts[i] < rtts[best]) {
+                    best = i;
+                }
+            }
+            offsetMillis = offsets[best];
+            rttMillis = rtts[best];
+        }
+
+        boolean hasSamples() {
+            return count > 0;
+        }
+
+        public long getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        public long getRttMillis() {
+            return rttMillis;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.hifdh.quest.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A session mailbox did not run a command in time (see SessionCommandExecutor#call).
+ * REST callers answer 503 so the client can retry.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class CommandTimeoutException extends RuntimeException {
+
+    public CommandTimeoutException(String message) {
+        super(message);
+    }
+}
@@ -5,19 +5,22 @@ import com.hifdh.quest.repository.GameParticipantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.UUID;
 
 /**
  * Service for tracking consecutive 1st-place buzzes.
  * Blocks players after 3 consecutive 1st-place buzzes to give others a chance.
+ * Counters live in LiveGameStateService and are persisted write-behind.
  */
 @Service
-@Transactional
 @RequiredArgsConstructor
 @Slf4j
 public class ConsecutiveBuzzTracker {
 
     private final GameParticipantRepository participantRepository;
+    private final LiveGameStateService liveGameStateService;
 
     private static final int MAX_CONSECUTIVE_FIRST_BUZZES = 3;
 
@@ -26,33 +29,27 @@ public class ConsecutiveBuzzTracker {
      * Increments consecutive count and blocks if threshold reached.
      *
      * @param participantId Participant ID
+     * @param roundNumber Round number the buzz belongs to
      * @return true if participant is now blocked for next round
      */
-    public boolean recordFirstPlaceBuzz(Long participantId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
-
-        // Increment consecutive first buzzes
-        int consecutiveCount = participant.getConsecutiveFirstBuzzes() + 1;
-        participant.setConsecutiveFirstBuzzes(consecutiveCount);
-
-        log.info("Participant {} has {} consecutive 1st-place buzzes",
-            participant.getName(), consecutiveCount);
-
-        // Check if threshold reached
-        if (consecutiveCount >= MAX_CONSECUTIVE_FIRST_BUZZES) {
-            participant.setIsBlockedNextRound(true);
-            participant.setConsecutiveFirstBuzzes(0); // Reset counter
-
-            participantRepository.save(participant);
-
+    public boolean recordFirstPlaceBuzz(Long participantId, int roundNumber) {
+        LiveGameStateService.ParticipantState participant = liveGameStateService.updateParticipant(participantId,
+            state -> {
+                // Increment consecutive first buzzes; block and reset once the threshold is reached
+                int consecutiveCount = state.consecutiveFirstBuzzes() + 1;
+                return consecutiveCount >= MAX_CONSECUTIVE_FIRST_BUZZES
+                    ? state.withConsecutiveFirstBuzzes(0).withBlockedUntilRound(roundNumber + 1)
+                    : state.withConsecutiveFirstBuzzes(consecutiveCount);
+            });
+
+        if (participant.consecutiveFirstBuzzes() == 0) {
             log.warn("Participant {} blocked for next round after {} consecutive 1st-place buzzes",
-                participant.getName(), MAX_CONSECUTIVE_FIRST_BUZZES);
-
+                participant.name(), MAX_CONSECUTIVE_FIRST_BUZZES);
             return true;
         }
 
-        participantRepository.save(participant);
+        log.info("Participant {} has {} consecutive 1st-place buzzes",
+            participant.name(), participant.consecutiveFirstBuzzes());
         return false;
     }
 
@@ -63,15 +60,13 @@ public class ConsecutiveBuzzTracker {
      * @param participantId Participant ID
      */
     public void recordNonFirstPlaceBuzz(Long participantId) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+        LiveGameStateService.ParticipantState participant = liveGameStateService.getParticipant(participantId);
 
-        if (participant.getConsecutiveFirstBuzzes() > 0) {
+        if (participant.consecutiveFirstBuzzes() > 0) {
             log.info("Participant {} consecutive 1st-place buzzes reset (was {})",
-                participant.getName(), participant.getConsecutiveFirstBuzzes());
+                participant.name(), participant.consecutiveFirstBuzzes());
 
-            participant.setConsecutiveFirstBuzzes(0);
-            participantRepository.save(participant);
+            liveGameStateService.updateParticipant(participantId, state -> state.withConsecutiveFirstBuzzes(0));
         }
     }
 
@@ -81,11 +76,12 @@ public class ConsecutiveBuzzTracker {
      *
      * @param participantId Participant ID
      * @param buzzRank Buzz rank (1, 2, 3, etc.)
+     * @param roundNumber Round number the buzz belongs to
      * @return true if participant is now blocked for next round
      */
-    public boolean updateTracking(Long participantId, Integer buzzRank) {
+    public boolean updateTracking(Long participantId, Integer buzzRank, int roundNumber) {
         if (buzzRank == 1) {
-            return recordFirstPlaceBuzz(participantId);
+            return recordFirstPlaceBuzz(participantId, roundNumber);
         } else {
             recordNonFirstPlaceBuzz(participantId);
             return false;
@@ -98,17 +94,14 @@ public class ConsecutiveBuzzTracker {
      *
      * @param sessionId Session ID (UUID)
      */
-    public void resetAllCounters(java.util.UUID sessionId) {
-        java.util.List<GameParticipant> participants =
-            participantRepository.findBySessionIdOrderByTotalScoreDesc(sessionId);
+    public void resetAllCounters(UUID sessionId) {
+        List<GameParticipant> participants = participantRepository.findBySessionIdOrderByTotalScoreDesc(sessionId);
 
         for (GameParticipant participant : participants) {
-            participant.setConsecutiveFirstBuzzes(0);
-            participant.setIsBlockedNextRound(false);
+            liveGameStateService.updateParticipant(participant.getId(),
+                state -> state.withConsecutiveFirstBuzzes(0).withBlockedUntilRound(null));
         }
 
-        participantRepository.saveAll(participants);
-
         log.info("Reset consecutive buzz counters for {} participants in session {}",
             participants.size(), sessionId);
     }
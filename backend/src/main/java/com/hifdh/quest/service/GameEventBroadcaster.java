@@ -0,0 +1,199 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.hifdh.quest.dto.websocket.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serialize-once publish path for server-to-client game events.
+ * Each event is encoded to JSON bytes exactly once, with an ObjectWriter built once per
+ * event class, and the resulting payload is handed to the broker as-is. The broker fans
+ * the same bytes out to every subscriber, and callers can keep the EncodedEvent (e.g. for
+ * a replay log) without encoding it again.
+ *
+ * With game.broker.mode=redis, session topic events and per-user deliveries are relayed
+ * through RedisEventRelay so that players connected to other backend instances receive them
+ * too.
+ *
+ * Bytes handed to the broker for shared topics are counted in game.events.broadcast.bytes,
+ * so broadcast cost per answer can be watched as sessions grow.
+ */
+@Service
+@Slf4j
+public class GameEventBroadcaster {
+
+    // Event types published on every round; their writers are built up front
+    private static final List<Class<?>> KNOWN_EVENT_TYPES = List.of(
+        RoundStartedEvent.class, BuzzerPressedEvent.class, TimerStoppedEvent.class,
+        AnswerTurnEvent.class, AnswerValidatedEvent.class, AnswerRevealedEvent.class,
+        BonusAwardedEvent.class, ScoreboardUpdateEvent.class, ScoreboardDeltaEvent.class,
+        NextRoundReadyEvent.class, RoundEndedEvent.class, GameEndedEvent.class,
+        PlayerDisconnectedEvent.class, PlayerReconnectedEvent.class, PlayerStandingEvent.class
+    );
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final RedisEventRelay redisEventRelay;
+    private final Counter broadcastBytes;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    public GameEventBroadcaster(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper,
+                                ObjectProvider<RedisEventRelay> redisEventRelay, MeterRegistry meterRegistry) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.broadcastBytes = Counter.builder("game.events.broadcast.bytes")
+            .description("Payload bytes published to shared topics (before fan-out)")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        // Only present in redis broker mode
+        this.redisEventRelay = redisEventRelay.getIfAvailable();
+        KNOWN_EVENT_TYPES.forEach(this::writerFor);
+    }
+
+    /**
+     * Encode an event and send it to a destination.
+     *
+     * @param destination Broker destination (e.g. /topic/game/{id}/events)
+     * @param event Event payload (any Jackson-serializable object)
+     * @return The encoded event, reusable without re-serializing
+     */
+    public EncodedEvent publish(String destination, Object event) {
+        EncodedEvent encoded = encode(destination, event);
+        deliver(encoded);
+        return encoded;
+    }
+
+    /**
+     * Encode an event to its wire bytes without sending it.
+     *
+     * @param destination Broker destination
+     * @param event Event payload
+     * @return EncodedEvent
+     * @throws IllegalArgumentException if the event cannot be serialized
+     */
+    public EncodedEvent encode(String destination, Object event) {
+        try {
+            return new EncodedEvent(destination, writerFor(event.getClass()).writeValueAsBytes(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot serialize " + event.getClass().getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Send an already-encoded event. No conversion takes place.
+     *
+     * @param encoded Encoded event
+     */
+    public void deliver(EncodedEvent encoded) {
+        deliver(encoded.destination(), encoded);
+    }
+
+    /**
+     * Send an already-encoded event to a different destination than it was encoded for
+     * (e.g. replaying it to a single subscriber).
+     *
+     * @param destination Broker destination
+     * @param encoded Encoded event
+     */
+    public void deliver(String destination, EncodedEvent encoded) {
+        if (redisEventRelay != null && redisEventRelay.publish(destination, encoded.payload())) {
+            return;
+        }
+        deliverLocally(destination, encoded.payload());
+    }
+
+    /**
+     * Send encoded bytes to this instance's broker only.
+     *
+     * @param destination Broker destination
+     * @param payload Encoded event
+     */
+    public void deliverLocally(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+        if (destination.startsWith("/topic/")) {
+            broadcastBytes.increment(payload.length);
+        }
+    }
+
+    /**
+     * Send an already-encoded event to one WebSocket session only.
+     *
+     * @param simpSessionId WebSocket session ID of the recipient
+     * @param userDestination User destination without the /user prefix (e.g. /queue/replay)
+     * @param encoded Encoded event
+     */
+    public void deliverToSession(String simpSessionId, String userDestination, EncodedEvent encoded) {
+        // A user destination named after the session ID resolves to that session alone
+        deliverToUserDestination("/user/" + simpSessionId + userDestination, simpSessionId, encoded.payload());
+    }
+
+    /**
+     * Send an already-encoded event to every connection of one user (principal name).
+     *
+     * @param userName Principal name of the recipient (see ParticipantPrincipal)
+     * @param userDestination User destination without the /user prefix (e.g. /queue/player)
+     * @param encoded Encoded event
+     */
+    public void deliverToUser(String userName, String userDestination, EncodedEvent encoded) {
+        deliverToUserDestination("/user/" + userName + userDestination, null, encoded.payload());
+    }
+
+    /**
+     * Send encoded bytes to a user destination on this instance only; users without a
+     * connection here are skipped.
+     *
+     * @param destination Full user destination (e.g. /user/42/queue/player)
+     * @param simpSessionId WebSocket session the destination names, or null for a user name
+     * @param payload Encoded event
+     */
+    public void deliverToUserLocally(String destination, String simpSessionId, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        if (simpSessionId != null) {
+            accessor.setSessionId(simpSessionId);
+        }
+        accessor.setLeaveMutable(true);
+
+        Message<byte[]> message = MessageBuilder.createMessage(payload, accessor.getMessageHeaders());
+        messagingTemplate.send(destination, message);
+    }
+
+    // The recipient may be connected to any instance
+    private void deliverToUserDestination(String destination, String simpSessionId, byte[] payload) {
+        if (redisEventRelay != null && redisEventRelay.publishToUser(destination, simpSessionId, payload)) {
+            return;
+        }
+        deliverToUserLocally(destination, simpSessionId, payload);
+    }
+
+    private ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+
+    /**
+     * Event encoded to its JSON wire bytes. The payload must not be modified.
+     */
+    public record EncodedEvent(String destination, byte[] payload) {
+    }
+}
@@ -0,0 +1,297 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Append-only event log of every session.
+ * Each event published on a session's event stream (see SessionEventLog) is queued here with
+ * its seq and encoded payload and inserted into game_events in JDBC batches. The store also
+ * folds events into a SessionProjection per live session and queues a snapshot of it every
+ * game.events.snapshot-every events, so reading the projected state (GET /state) costs the
+ * latest snapshot plus the events after it. Gameplay and the live scoreboard still read
+ * the session tables and ScoreboardService; the projection is a read model beside them.
+ */
+@Service
+@Slf4j
+public class GameEventStore {
+
+    private static final String INSERT_EVENT_SQL =
+        "INSERT INTO game_events (session_id, seq, event_type, payload, occurred_at) VALUES (?, ?, ?, ?::jsonb, ?) " +
+        "ON CONFLICT (session_id, seq) DO NOTHING";
+
+    private static final String INSERT_SNAPSHOT_SQL =
+        "INSERT INTO game_session_snapshots (session_id, seq, state) VALUES (?, ?, ?::jsonb) " +
+        "ON CONFLICT (session_id, seq) DO NOTHING";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final int snapshotEvery;
+
+    // Guards flushes (see flush); not a monitor, as writes block on JDBC
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Queue<StoredEventRow> pendingEvents = new ConcurrentLinkedQueue<>();
+    private final Queue<SnapshotRow> pendingSnapshots = new ConcurrentLinkedQueue<>();
+    private final Map<UUID, SessionProjection> projections = new ConcurrentHashMap<>();
+
+    public GameEventStore(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                          @Value("${game.events.snapshot-every:100}") int snapshotEvery) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.snapshotEvery = snapshotEvery;
+    }
+
+    /**
+     * Start projecting a session on this instance from whatever is already stored.
+     * Flushes and queries, so call it before publishing the session's first event and
+     * outside any lock the publishing path holds; append itself never touches the database.
+     *
+     * @param sessionId Session ID
+     * @return Last stored seq (0 if none), so a restarted instance continues the sequence
+     */
+    public long open(UUID sessionId) {
+        SessionProjection projection = projections.get(sessionId);
+        if (projection == null) {
+            SessionProjection loaded = loadState(sessionId);
+            projection = projections.putIfAbsent(sessionId, loaded);
+            if (projection == null) {
+                projection = loaded;
+            }
+        }
+        synchronized (projection) {
+            return projection.getSeq();
+        }
+    }
+
+    /**
+     * Append a published event. Must be called in seq order per session, after open.
+     *
+     * @param sessionId Session ID
+     * @param seq Event sequence number
+     * @param type Event type
+     * @param occurredAt When the event happened
+     * @param payload Event encoded as sent to clients (JSON)
+     */
+    public void append(UUID sessionId, long seq, String type, Instant occurredAt, byte[] payload) {
+        pendingEvents.add(new StoredEventRow(sessionId, seq, type, occurredAt != null ? occurredAt : Instant.now(), payload));
+
+        SessionProjection projection = projections.get(sessionId);
+        if (projection == null) {
+            // Not opened (or evicted meanwhile): the row is stored, the projection catches up
+            // from game_events when the session is next opened or read
+            log.warn("Event {} of session {} appended before the session was opened", seq, sessionId);
+            return;
+        }
+        synchronized (projection) {
+            try {
+                projection.apply(seq, type, objectMapper.readTree(payload));
+            } catch (IOException e) {
+                log.error("Cannot project event {} of session {}", seq, sessionId, e);
+            }
+            if (seq % snapshotEvery == 0 || "GAME_ENDED".equals(type)) {
+                queueSnapshot(sessionId, projection);
+            }
+        }
+    }
+
+    /**
+     * Read a session's events in seq order.
+     *
+     * @param sessionId Session ID
+     * @param afterSeq Only events with a higher seq
+     * @param limit Maximum number of events
+     * @return Stored events
+     */
+    public List<StoredEvent> getEvents(UUID sessionId, long afterSeq, int limit) {
+        flush();
+        return jdbcTemplate.query(
+            "SELECT seq, event_type, payload, occurred_at FROM game_events " +
+            "WHERE session_id = ? AND seq > ? ORDER BY seq LIMIT ?",
+            (rs, rowNum) -> new StoredEvent(rs.getLong("seq"), rs.getString("event_type"),
+                rs.getTimestamp("occurred_at").toInstant(), readJson(rs.getString("payload"))),
+            sessionId, afterSeq, limit);
+    }
+
+    /**
+     * Derive a session's current state: latest snapshot plus the events after it.
+     *
+     * @param sessionId Session ID
+     * @return Projected state
+     */
+    public SessionProjection loadState(UUID sessionId) {
+        SessionProjection live = projections.get(sessionId);
+        if (live != null) {
+            return copyOf(live);
+        }
+        flush();
+
+        List<SessionProjection> snapshots = jdbcTemplate.query(
+            "SELECT state FROM game_session_snapshots WHERE session_id = ? ORDER BY seq DESC LIMIT 1",
+            (rs, rowNum) -> readState(rs.getString("state")),
+            sessionId);
+        SessionProjection projection = snapshots.isEmpty() || snapshots.get(0) == null
+            ? new SessionProjection(sessionId.toString())
+            : snapshots.get(0);
+
+        jdbcTemplate.query(
+            "SELECT seq, event_type, payload FROM game_events WHERE session_id = ? AND seq > ? ORDER BY seq",
+            rs -> {
+                projection.apply(rs.getLong("seq"), rs.getString("event_type"), readJson(rs.getString("payload")));
+            },
+            sessionId, projection.getSeq());
+        return projection;
+    }
+
+    /**
+     * Insert queued events, then queued snapshots, in one batch each.
+     * Failed rows stay queued and are retried on the next flush.
+     */
+    @Scheduled(fixedDelayString = "${game.events.flush-interval-ms:200}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void writePending() {
+        // Snapshots are queued after the events they cover, so taking them first means
+        // a snapshot is never written ahead of its events
+        List<SnapshotRow> snapshots = drain(pendingSnapshots);
+        List<StoredEventRow> events = drain(pendingEvents);
+        if (!events.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, events.size(), (ps, event) -> {
+                    ps.setObject(1, event.sessionId());
+                    ps.setLong(2, event.seq());
+                    ps.setString(3, event.type());
+                    ps.setString(4, new String(event.payload(), StandardCharsets.UTF_8));
+                    ps.setTimestamp(5, Timestamp.from(event.occurredAt()));
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} game event(s)", events.size(), e);
+                pendingEvents.addAll(events);
+                pendingSnapshots.addAll(snapshots);
+                return;
+            }
+        }
+
+        if (!snapshots.isEmpty()) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SNAPSHOT_SQL, snapshots, snapshots.size(), (ps, snapshot) -> {
+                    ps.setObject(1, snapshot.sessionId());
+                    ps.setLong(2, snapshot.seq());
+                    ps.setString(3, snapshot.state());
+                });
+            } catch (RuntimeException e) {
+                log.error("Failed to write {} session snapshot(s)", snapshots.size(), e);
+                pendingSnapshots.addAll(snapshots);
+                return;
+            }
+        }
+
+        if (!events.isEmpty()) {
+            log.debug("Stored {} game event(s) and {} snapshot(s)", events.size(), snapshots.size());
+        }
+    }
+
+    /**
+     * Snapshot a finished session and stop projecting it in memory.
+     *
+     * @param sessionId Session ID
+     */
+    public void evict(UUID sessionId) {
+        SessionProjection projection = projections.remove(sessionId);
+        if (projection != null) {
+            synchronized (projection) {
+                queueSnapshot(sessionId, projection);
+            }
+        }
+        flush();
+    }
+
+    /**
+     * Write whatever is left before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void queueSnapshot(UUID sessionId, SessionProjection projection) {
+        try {
+            pendingSnapshots.add(new SnapshotRow(sessionId, projection.getSeq(),
+                objectMapper.writeValueAsString(projection)));
+        } catch (JsonProcessingException e) {
+            log.error("Cannot snapshot session {}", sessionId, e);
+        }
+    }
+
+    private SessionProjection copyOf(SessionProjection projection) {
+        synchronized (projection) {
+            return objectMapper.convertValue(objectMapper.valueToTree(projection), SessionProjection.class);
+        }
+    }
+
+    private SessionProjection readState(String json) {
+        try {
+            return objectMapper.readValue(json, SessionProjection.class);
+        } catch (JsonProcessingException e) {
+            // Unreadable snapshot (e.g. older format): rebuild from the events instead
+            log.warn("Ignoring unreadable session snapshot: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private JsonNode readJson(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored game event is not valid JSON", e);
+        }
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> drained = new ArrayList<>();
+        T item;
+        while ((item = queue.poll()) != null) {
+            drained.add(item);
+        }
+        return drained;
+    }
+
+    /**
+     * Event read back from game_events.
+     */
+    public record StoredEvent(long seq, String type, Instant occurredAt, JsonNode payload) {
+    }
+
+    private record StoredEventRow(UUID sessionId, long seq, String type, Instant occurredAt, byte[] payload) {
+    }
+
+    private record SnapshotRow(UUID sessionId, long seq, String state) {
+    }
+}
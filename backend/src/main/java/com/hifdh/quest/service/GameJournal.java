@@ -0,0 +1,348 @@
+package com.hifdh.quest.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Local append-only journal of live game changes, for crash recovery of the write-behind state.
+ * One memory-mapped segment file per node holds a small header and fixed-size binary records.
+ * An append is a few dozen byte writes into the mapped page cache, so a JVM crash loses
+ * nothing; how often the pages are forced to disk (surviving an OS crash too) is configurable.
+ *
+ * The header holds a checkpoint: every record before it is known to be in Postgres. Once
+ * everything up to the end has been checkpointed, the segment rewinds to the start under a
+ * new epoch; records left over from an older epoch are ignored. On startup the records after
+ * the checkpoint are replayed (see GameStateWriter).
+ *
+ * Record layout (96 bytes): type, CRC32 of bytes 8..95, epoch, timestamp, session UUID,
+ * two longs, six ints and a double, used per record type as documented on each append method.
+ */
+@Service
+@Slf4j
+public class GameJournal {
+
+    public static final int ROUND_STARTED = 1;
+    public static final int BUZZ_ACCEPTED = 2;
+    public static final int PARTICIPANT_UPDATED = 3;
+    public static final int ROUND_ENDED = 4;
+
+    private static final int MAGIC = 0x48514A31; // "HQJ1"
+    private static final int HEADER_SIZE = 64;
+    private static final int RECORD_SIZE = 96;
+    private static final int NO_VALUE = Integer.MIN_VALUE;
+
+    private final boolean enabled;
+    private final FsyncPolicy fsyncPolicy;
+
+    // Not a monitor: appends and checkpoints may force pages to disk, and may run on a virtual thread
+    private final ReentrantLock lock = new ReentrantLock();
+    private MappedByteBuffer buffer;
+    private FileChannel channel;
+
+    private long epoch;
+    private int position;
+    private int forcedUpTo;
+
+    public GameJournal(
+        @Value("${game.journal.enabled:true}") boolean enabled,
+        @Value("${game.journal.path:./data/game-journal.seg}") String path,
+        @Value("${game.journal.segment-size-mb:64}") int segmentSizeMb,
+        @Value("${game.journal.fsync:interval}") String fsyncPolicy
+    ) {
+        this.enabled = enabled;
+        this.fsyncPolicy = FsyncPolicy.valueOf(fsyncPolicy.toUpperCase());
+        if (enabled) {
+            open(Path.of(path), segmentSizeMb * 1024 * 1024);
+        }
+    }
+
+    /**
+     * Journal a round start. Fields: longA = round ID, ints[0] = round number.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param roundNumber Round number
+     */
+    public void appendRoundStarted(UUID sessionId, Long roundId, int roundNumber) {
+        lock.lock();
+        try {
+            append(ROUND_STARTED, System.currentTimeMillis(), sessionId, roundId, 0,
+                new int[] { roundNumber }, Double.NaN);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Journal an accepted buzz. Fields: timestamp = pressed-at millis, longA = round ID,
+     * longB = participant ID, ints[0] = buzz rank, double = client elapsed seconds (NaN if unknown).
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param participantId Participant ID
+     * @param buzzRank Rank assigned by the arbiter
+     * @param buzzedAtSeconds Client elapsed seconds (may be null)
+     * @param pressedAtMillis Server time the press was accepted (epoch millis)
+     */
+    public void appendBuzzAccepted(UUID sessionId, Long roundId, Long participantId, int buzzRank,
+                                               Double buzzedAtSeconds, long pressedAtMillis) {
+        lock.lock();
+        try {
+            append(BUZZ_ACCEPTED, pressedAtMillis, sessionId, roundId, participantId,
+                new int[] { buzzRank }, buzzedAtSeconds != null ? buzzedAtSeconds : Double.NaN);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Journal a participant's new counters (after an answer validation, bonus, score change or buzz).
+     * Fields: longB = participant ID, ints = total score, buzz count, consecutive 1st buzzes,
+     * consecutive correct answers, last buzzed round, blocked-until round.
+     *
+     * @param state New participant state
+     */
+    public void appendParticipantUpdated(LiveGameStateService.ParticipantState state) {
+        lock.lock();
+        try {
+            append(PARTICIPANT_UPDATED, System.currentTimeMillis(), state.sessionId(), 0, state.participantId(),
+                new int[] { state.totalScore(), state.buzzerPressCount(), state.consecutiveFirstBuzzes(),
+                    state.consecutiveCorrectAnswers(), orNoValue(state.lastBuzzedRound()),
+                    orNoValue(state.blockedUntilRound()) },
+                Double.NaN);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Journal a round end. Fields: longA = round ID.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     */
+    public void appendRoundEnded(UUID sessionId, Long roundId) {
+        lock.lock();
+        try {
+            append(ROUND_ENDED, System.currentTimeMillis(), sessionId, roundId, 0, new int[0], Double.NaN);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Current end of the journal.
+     *
+     * @return Offset the next record will be written at
+     */
+    public int position() {
+        lock.lock();
+        try {
+            return position;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mark every record before an offset as persisted in Postgres. If nothing was appended
+     * after it, the segment starts over under a new epoch.
+     *
+     * @param offset Offset returned by position() before the persisted changes were taken
+     */
+    public void checkpoint(int offset) {
+        lock.lock();
+        try {
+            if (!enabled || (offset == HEADER_SIZE && position == HEADER_SIZE)) {
+                return;
+            }
+            if (offset == position) {
+                epoch++;
+                position = HEADER_SIZE;
+                forcedUpTo = HEADER_SIZE;
+                buffer.putLong(8, epoch);
+                buffer.putInt(16, HEADER_SIZE);
+            } else {
+                buffer.putInt(16, offset);
+            }
+            if (fsyncPolicy != FsyncPolicy.NEVER) {
+                buffer.force(0, HEADER_SIZE);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Read the records written after the last checkpoint, oldest first.
+     *
+     * @return Records to replay
+     */
+    public List<Entry> readSinceCheckpoint() {
+        lock.lock();
+        try {
+            List<Entry> entries = new ArrayList<>();
+            if (!enabled) {
+                return entries;
+            }
+            for (int offset = buffer.getInt(16); offset + RECORD_SIZE <= position; offset += RECORD_SIZE) {
+                entries.add(read(offset));
+            }
+            return entries;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Force appended records to disk (fsync policy "interval").
+     */
+    @Scheduled(fixedDelayString = "${game.journal.fsync-interval-ms:100}")
+    public void forceToDisk() {
+        lock.lock();
+        try {
+            if (enabled && fsyncPolicy == FsyncPolicy.INTERVAL && forcedUpTo < position) {
+                buffer.force(forcedUpTo, position - forcedUpTo);
+                forcedUpTo = position;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            if (enabled) {
+                buffer.force();
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void append(int type, long timestamp, UUID sessionId, long longA, long longB, int[] ints, double value) {
+        if (!enabled) {
+            return;
+        }
+        if (position + RECORD_SIZE > buffer.capacity()) {
+            // The writer checkpoints several times a second, so this means Postgres is down
+            log.error("Game journal full; record of type {} for session {} not journaled", type, sessionId);
+            return;
+        }
+
+        int offset = position;
+        buffer.putLong(offset + 8, epoch);
+        buffer.putLong(offset + 16, timestamp);
+        buffer.putLong(offset + 24, sessionId.getMostSignificantBits());
+        buffer.putLong(offset + 32, sessionId.getLeastSignificantBits());
+        buffer.putLong(offset + 40, longA);
+        buffer.putLong(offset + 48, longB);
+        for (int i = 0; i < 6; i++) {
+            buffer.putInt(offset + 56 + i * 4, i < ints.length ? ints[i] : 0);
+        }
+        buffer.putDouble(offset + 80, value);
+        buffer.putLong(offset + 88, 0);
+        buffer.putInt(offset + 4, checksum(offset));
+        // Type last: a record is only valid once it is fully written
+        buffer.putInt(offset, type);
+
+        position += RECORD_SIZE;
+        if (fsyncPolicy == FsyncPolicy.ALWAYS) {
+            buffer.force(offset, RECORD_SIZE);
+            forcedUpTo = position;
+        }
+    }
+
+    private void open(Path path, int size) {
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open game journal " + path, e);
+        }
+
+        if (buffer.getInt(0) != MAGIC) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, 1);
+            buffer.putLong(8, 0);
+            buffer.putInt(16, HEADER_SIZE);
+            buffer.force(0, HEADER_SIZE);
+        }
+        epoch = buffer.getLong(8);
+
+        // The end is the first slot that is empty, torn, or left over from an older epoch
+        position = Math.max(buffer.getInt(16), HEADER_SIZE);
+        while (position + RECORD_SIZE <= size && isValid(position)) {
+            position += RECORD_SIZE;
+        }
+        forcedUpTo = position;
+
+        log.info("Game journal {} opened: epoch {}, {} record(s) after checkpoint, fsync {}",
+            path, epoch, (position - buffer.getInt(16)) / RECORD_SIZE, fsyncPolicy);
+    }
+
+    private boolean isValid(int offset) {
+        int type = buffer.getInt(offset);
+        return type >= ROUND_STARTED && type <= ROUND_ENDED
+            && buffer.getLong(offset + 8) == epoch
+            && buffer.getInt(offset + 4) == checksum(offset);
+    }
+
+    private Entry read(int offset) {
+        int[] ints = new int[6];
+        for (int i = 0; i < ints.length; i++) {
+            ints[i] = buffer.getInt(offset + 56 + i * 4);
+        }
+        return new Entry(buffer.getInt(offset), buffer.getLong(offset + 16),
+            new UUID(buffer.getLong(offset + 24), buffer.getLong(offset + 32)),
+            buffer.getLong(offset + 40), buffer.getLong(offset + 48), ints, buffer.getDouble(offset + 80));
+    }
+
+    private int checksum(int offset) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.slice(offset + 8, RECORD_SIZE - 8));
+        return (int) crc.getValue();
+    }
+
+    private static int orNoValue(Integer value) {
+        return value != null ? value : NO_VALUE;
+    }
+
+    /**
+     * Decoded journal record; see the append methods for what each field holds.
+     */
+    public record Entry(int type, long timestamp, UUID sessionId, long longA, long longB, int[] ints, double value) {
+
+        public Integer intOrNull(int index) {
+            return ints[index] != NO_VALUE ? ints[index] : null;
+        }
+    }
+
+    private enum FsyncPolicy {
+        ALWAYS, // Force every record (survives an OS crash, slowest)
+        INTERVAL, // Force on a timer (game.journal.fsync-interval-ms)
+        NEVER // Leave it to the OS (survives a JVM crash only)
+    }
+}
@@ -9,12 +9,13 @@ import com.hifdh.quest.model.*;
 import com.hifdh.quest.repository.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -30,10 +31,20 @@ public class GameSessionService {
     private final GameParticipantRepository participantRepository;
     private final GameRoundRepository roundRepository;
     private final GameQuestionRepository questionRepository;
-    private final AyatRepository ayatRepository;
     private final AyatService ayatService;
-    private final SimpMessagingTemplate messagingTemplate;
+    private final AyatDeckService ayatDeckService;
+    private final RoundPrefetcher roundPrefetcher;
+    private final ScoreboardService scoreboardService;
+    private final RoundTimerService roundTimerService;
+    private final SessionEventLog sessionEventLog;
+    private final GameEventBroadcaster eventBroadcaster;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final PresenceTracker presenceTracker;
+    private final LiveGameStateService liveGameStateService;
+    private final GameJournal gameJournal;
+    private final SessionAudienceTracker audienceTracker;
     private final BuzzerService buzzerService;
+    private final ClockSyncService clockSyncService;
 
     // Constructor with @Lazy to break circular dependency with BuzzerService
     public GameSessionService(
@@ -41,21 +52,45 @@ public class GameSessionService {
         GameParticipantRepository participantRepository,
         GameRoundRepository roundRepository,
         GameQuestionRepository questionRepository,
-        AyatRepository ayatRepository,
         AyatService ayatService,
-        SimpMessagingTemplate messagingTemplate,
-        @Lazy BuzzerService buzzerService
+        AyatDeckService ayatDeckService,
+        RoundPrefetcher roundPrefetcher,
+        ScoreboardService scoreboardService,
+        RoundTimerService roundTimerService,
+        SessionEventLog sessionEventLog,
+        GameEventBroadcaster eventBroadcaster,
+        SessionCommandExecutor sessionCommandExecutor,
+        PresenceTracker presenceTracker,
+        LiveGameStateService liveGameStateService,
+        GameJournal gameJournal,
+        SessionAudienceTracker audienceTracker,
+        @Lazy BuzzerService buzzerService,
+        ClockSyncService clockSyncService
     ) {
         this.sessionRepository = sessionRepository;
         this.participantRepository = participantRepository;
         this.roundRepository = roundRepository;
         this.questionRepository = questionRepository;
-        this.ayatRepository = ayatRepository;
         this.ayatService = ayatService;
-        this.messagingTemplate = messagingTemplate;
+        this.ayatDeckService = ayatDeckService;
+        this.roundPrefetcher = roundPrefetcher;
+        this.scoreboardService = scoreboardService;
+        this.roundTimerService = roundTimerService;
+        this.sessionEventLog = sessionEventLog;
+        this.eventBroadcaster = eventBroadcaster;
+        this.sessionCommandExecutor = sessionCommandExecutor;
+        this.presenceTracker = presenceTracker;
+        this.liveGameStateService = liveGameStateService;
+        this.gameJournal = gameJournal;
+        this.audienceTracker = audienceTracker;
         this.buzzerService = buzzerService;
+        this.clockSyncService = clockSyncService;
     }
 
+    // End the round as soon as its timer runs out instead of waiting for the admin
+    @Value("${game.timer.auto-end-round:false}")
+    private boolean autoEndRound;
+
     // Question types with their points
     private static final Map<String, Integer> QUESTION_POINTS = Map.of(
         "guess_surah", 10,
@@ -96,6 +131,9 @@ public class GameSessionService {
         session.setGameMode(request.getGameMode());
         session.setScoreboardLimit(request.getScoreboardLimit() != null ? request.getScoreboardLimit() : 5);
         session.setStatus("setup");
+        session.setAyatDeckSeed(request.getAyatDeckSeed() != null
+            ? request.getAyatDeckSeed()
+            : ayatDeckService.newSeed());
 
         // Store selected question types (default to all if not specified)
         if (request.getSelectedQuestionTypes() != null && !request.getSelectedQuestionTypes().isEmpty()) {
@@ -159,10 +197,17 @@ public class GameSessionService {
 
         log.info("Started game session {}", sessionId);
 
+        // Prepare the first round with the game's question type and the default reciter
+        String firstQuestionType = session.getSelectedQuestionTypes() != null && !session.getSelectedQuestionTypes().isEmpty()
+            ? session.getSelectedQuestionTypes().split(",")[0]
+            : QUESTION_POINTS.keySet().iterator().next();
+        roundPrefetcher.prefetch(sessionId, (int) roundRepository.countBySessionId(sessionId) + 1,
+            firstQuestionType, null);
+
         GameSessionDTO dto = GameSessionDTO.fromEntity(session);
 
         // Broadcast game session update via WebSocket
-        messagingTemplate.convertAndSend("/topic/game/" + sessionId, dto);
+        eventBroadcaster.publish("/topic/game/" + sessionId, dto);
 
         return dto;
     }
@@ -192,15 +237,24 @@ public class GameSessionService {
             throw new IllegalStateException("No question types selected for this game");
         }
 
+        // Use the single selected question type (no random selection needed)
+        String nextQuestionType = selectedQuestionTypes.get(0);
+
+        // Use the round prepared in the background if it is still valid, otherwise prepare it now
+        RoundPrefetcher.PreparedRound prepared = roundPrefetcher.take(sessionId, nextQuestionType, reciterId);
+
         // Always select a new ayat for each round (one question per verse)
-        Ayat ayat = getNextAyat(session);
+        Ayat ayat = ayatDeckService.drawNext(session);
 
         if (ayat == null) {
             throw new IllegalStateException("No available Ayat for round");
         }
 
-        // Use the single selected question type (no random selection needed)
-        String nextQuestionType = selectedQuestionTypes.get(0);
+        if (prepared == null || !prepared.ayat().getId().equals(ayat.getId())) {
+            int roundNumber = (int) roundRepository.countBySessionId(sessionId) + 1;
+            prepared = roundPrefetcher.prepare(ayat, roundNumber, nextQuestionType, reciterId);
+        }
+        int nextRoundNumber = prepared.roundNumber();
 
         // Update session's current verse
         session.setCurrentSurahNumber(ayat.getSurahNumber());
@@ -208,13 +262,6 @@ public class GameSessionService {
         session.setAskedQuestionTypes(nextQuestionType); // Store the single question asked
         session = sessionRepository.save(session);
 
-        // Get next round number
-        long roundCount = roundRepository.countBySessionId(sessionId);
-        int nextRoundNumber = (int) roundCount + 1;
-
-        // Generate audio URL
-        String audioUrl = ayatService.generateAudioUrl(ayat, reciterId);
-
         // Create round
         GameRound round = new GameRound();
         round.setSession(session);
@@ -225,27 +272,23 @@ public class GameSessionService {
         round.setAyatNumber(ayat.getAyatNumber());
         round.setArabicText(ayat.getArabicText());
         round.setTranslation(ayat.getTranslationEn());
-        round.setAudioUrl(audioUrl);
+        round.setAudioUrl(prepared.audioUrl());
         round.setCurrentQuestionType(nextQuestionType);
         round.setStartedAt(LocalDateTime.now());
 
-        // Fetch previous and next ayahs for navigation (only for guess_next_ayat and guess_previous_ayat)
-        if ("guess_next_ayat".equals(nextQuestionType) || "guess_previous_ayat".equals(nextQuestionType)) {
-            // Fetch previous ayah
-            Ayat previousAyat = getPreviousAyah(ayat);
-            if (previousAyat != null) {
-                round.setPreviousAyatNumber(previousAyat.getAyatNumber());
-                round.setPreviousArabicText(previousAyat.getArabicText());
-                round.setPreviousTranslation(previousAyat.getTranslationEn());
-            }
+        // Previous and next ayahs for navigation (only prepared for guess_next_ayat and guess_previous_ayat)
+        Ayat previousAyat = prepared.previousAyat();
+        if (previousAyat != null) {
+            round.setPreviousAyatNumber(previousAyat.getAyatNumber());
+            round.setPreviousArabicText(previousAyat.getArabicText());
+            round.setPreviousTranslation(previousAyat.getTranslationEn());
+        }
 
-            // Fetch next ayah
-            Ayat nextAyat = getNextAyah(ayat);
-            if (nextAyat != null) {
-                round.setNextAyatNumber(nextAyat.getAyatNumber());
-                round.setNextArabicText(nextAyat.getArabicText());
-                round.setNextTranslation(nextAyat.getTranslationEn());
-            }
+        Ayat nextAyat = prepared.nextAyat();
+        if (nextAyat != null) {
+            round.setNextAyatNumber(nextAyat.getAyatNumber());
+            round.setNextArabicText(nextAyat.getArabicText());
+            round.setNextTranslation(nextAyat.getTranslationEn());
         }
 
         round = roundRepository.save(round);
@@ -253,11 +296,21 @@ public class GameSessionService {
         log.info("Created round {} for session {} with Ayat {}/{} and question type: {}",
             nextRoundNumber, sessionId, ayat.getSurahNumber(), ayat.getAyatNumber(), nextQuestionType);
 
-        // Reset buzzer state for new round
-        buzzerService.resetBuzzStateForNewRound(sessionId);
+        // Register the round with the buzz arbiter before announcing it.
+        // Eligibility is keyed by round number, so no participant rows need resetting.
+        buzzerService.openRound(round);
+        gameJournal.appendRoundStarted(sessionId, round.getId(), round.getRoundNumber());
+
+        // Broadcast ROUND_STARTED event to all players and start the server-side timer
+        RoundStartedEvent startedEvent = buildRoundStartedEvent(round, session);
+        broadcastRoundStarted(startedEvent);
+        if (startedEvent.getTimerSeconds() != null) {
+            roundTimerService.start(sessionId, round.getId(),
+                startedEvent.getTimerStartsAt().plusSeconds(startedEvent.getTimerSeconds()));
+        }
 
-        // Broadcast ROUND_STARTED event to all players
-        broadcastRoundStarted(buildRoundStartedEvent(round, session));
+        // Get the following round ready while this one is being played
+        roundPrefetcher.prefetch(sessionId, nextRoundNumber + 1, nextQuestionType, reciterId);
 
         return GameRoundDTO.fromEntity(round);
     }
@@ -283,95 +336,10 @@ public class GameSessionService {
             .audioMode(session.getAudioMode() != null ? session.getAudioMode() : "ALL_DEVICES")
             .autoPlayAudio(true)
             .timerSeconds(session.getTimerSeconds())
-            .timerStartsAt(java.time.Instant.now())
+            .timerStartsAt(round.getStartedAt().atZone(ZoneId.systemDefault()).toInstant())
             .build();
     }
 
-    /**
-     * Get the next available ayat for the session.
-     *
-     * @param session GameSession
-     * @return Next Ayat
-     */
-    private Ayat getNextAyat(GameSession session) {
-        // Get used ayat IDs to avoid repetition
-        Set<Long> usedAyatIds = session.getRounds().stream()
-            .filter(r -> r.getSurahNumber() != null && r.getAyatNumber() != null)
-            .map(r -> ayatService.getAyatBySurahAndNumber(r.getSurahNumber(), r.getAyatNumber()))
-            .filter(Objects::nonNull)
-            .map(Ayat::getId)
-            .collect(Collectors.toSet());
-
-        // Select random Ayat based on game configuration
-        Ayat ayat;
-        if (session.getJuzNumber() != null) {
-            ayat = ayatService.getRandomAyatByJuz(session.getJuzNumber(), usedAyatIds);
-        } else {
-            ayat = ayatService.getRandomAyatBySurahRange(
-                session.getSurahRangeStart(),
-                session.getSurahRangeEnd(),
-                usedAyatIds
-            );
-        }
-
-        return ayat;
-    }
-
-    /**
-     * Get the previous ayah (ayah before the given ayah).
-     * Returns null if this is the first ayah of the Quran.
-     *
-     * @param currentAyat Current ayah
-     * @return Previous Ayat or null
-     */
-    private Ayat getPreviousAyah(Ayat currentAyat) {
-        Integer currentSurah = currentAyat.getSurahNumber();
-        Integer currentAyatNumber = currentAyat.getAyatNumber();
-
-        // Try to get previous ayah in same surah
-        if (currentAyatNumber > 1) {
-            return ayatRepository.findBySurahAndAyat(currentSurah, currentAyatNumber - 1);
-        }
-
-        // First ayah of current surah - get last ayah of previous surah
-        if (currentSurah > 1) {
-            List<Ayat> previousSurahAyats = ayatRepository.findBySurahNumber(currentSurah - 1);
-            if (!previousSurahAyats.isEmpty()) {
-                // Return the last ayah of previous surah
-                return previousSurahAyats.get(previousSurahAyats.size() - 1);
-            }
-        }
-
-        // First ayah of Quran (1:1) - no previous
-        return null;
-    }
-
-    /**
-     * Get the next ayah (ayah after the given ayah).
-     * Returns null if this is the last ayah of the Quran.
-     *
-     * @param currentAyat Current ayah
-     * @return Next Ayat or null
-     */
-    private Ayat getNextAyah(Ayat currentAyat) {
-        Integer currentSurah = currentAyat.getSurahNumber();
-        Integer currentAyatNumber = currentAyat.getAyatNumber();
-
-        // Try to get next ayah in same surah
-        Ayat nextInSameSurah = ayatRepository.findBySurahAndAyat(currentSurah, currentAyatNumber + 1);
-        if (nextInSameSurah != null) {
-            return nextInSameSurah;
-        }
-
-        // Last ayah of current surah - get first ayah of next surah
-        if (currentSurah < 114) {
-            return ayatRepository.findBySurahAndAyat(currentSurah + 1, 1);
-        }
-
-        // Last ayah of Quran (114:6) - no next
-        return null;
-    }
-
     /**
      * End the current round.
      *
@@ -389,6 +357,10 @@ public class GameSessionService {
         round.setEndedAt(LocalDateTime.now());
         round = roundRepository.save(round);
 
+        buzzerService.closeRound(roundId);
+        roundTimerService.cancel(roundId);
+        gameJournal.appendRoundEnded(round.getSession().getId(), roundId);
+
         log.info("Ended round {} for session {}", roundId, round.getSession().getId());
 
         return GameRoundDTO.fromEntity(round);
@@ -406,6 +378,82 @@ public class GameSessionService {
         return round.map(GameRoundDTO::fromEntity).orElse(null);
     }
 
+    /**
+     * Send a reconnecting client the events it missed, or a SESSION_SNAPSHOT if they are no
+     * longer buffered. Runs on the session's mailbox, so nothing is published in between.
+     *
+     * @param sessionId Game session ID
+     * @param lastSeq Highest sequence number the client has seen
+     * @param simpSessionId WebSocket session of the client
+     */
+    @Transactional(readOnly = true)
+    public void resumeEvents(UUID sessionId, long lastSeq, String simpSessionId) {
+        List<GameEventBroadcaster.EncodedEvent> missed = sessionEventLog.getEventsAfter(sessionId, lastSeq);
+        if (missed != null) {
+            missed.forEach(event -> eventBroadcaster.deliverToSession(simpSessionId, "/queue/replay", event));
+            log.info("Replayed {} event(s) after seq {} for session {}", missed.size(), lastSeq, sessionId);
+            return;
+        }
+
+        SessionSnapshotEvent snapshot = buildSessionSnapshot(sessionId);
+        eventBroadcaster.deliverToSession(simpSessionId, "/queue/replay",
+            eventBroadcaster.encode("/queue/replay", snapshot));
+        log.info("Sent snapshot at seq {} for session {} (events after {} no longer buffered)",
+            snapshot.getSeq(), sessionId, lastSeq);
+    }
+
+    /**
+     * Build the full state of a session as of its latest event.
+     */
+    private SessionSnapshotEvent buildSessionSnapshot(UUID sessionId) {
+        GameSession session = getSessionOrThrow(sessionId);
+
+        RoundStartedEvent currentRound = roundRepository.findLatestRoundBySessionId(sessionId)
+            .filter(round -> round.getEndedAt() == null)
+            .map(round -> buildRoundStartedEvent(round, session))
+            .orElse(null);
+
+        SessionSnapshotEvent snapshot = SessionSnapshotEvent.builder()
+            .sessionId(sessionId.toString())
+            .session(GameSessionDTO.fromEntity(session))
+            .currentRound(currentRound)
+            .scoreboard(scoreboardService.getSnapshot(sessionId))
+            .build();
+        snapshot.setSeq(sessionEventLog.getLastSeq(sessionId));
+        return snapshot;
+    }
+
+    /**
+     * Handle a round whose timer ran out. Runs on the session's mailbox.
+     * Closes buzzing, broadcasts TIMER_STOPPED("TIME_UP") and, if game.timer.auto-end-round
+     * is set, ends the round.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     */
+    public void handleRoundTimeUp(UUID sessionId, Long roundId) {
+        GameRound round = roundRepository.findById(roundId).orElse(null);
+        if (round == null || round.getEndedAt() != null) {
+            return;
+        }
+
+        int totalBuzzes = buzzerService.closeBuzzing(roundId);
+
+        TimerStoppedEvent event = TimerStoppedEvent.builder()
+            .sessionId(sessionId.toString())
+            .reason("TIME_UP")
+            .totalBuzzes(totalBuzzes)
+            .build();
+        broadcastTimerStopped(event);
+
+        log.info("Time up for round {} of session {} ({} buzzes)", roundId, sessionId, totalBuzzes);
+
+        if (autoEndRound) {
+            endRound(roundId);
+            broadcastRoundEnded(sessionId.toString(), roundId);
+        }
+    }
+
     /**
      * Add points to a participant's score.
      *
@@ -414,16 +462,17 @@ public class GameSessionService {
      * @return Updated ParticipantDTO
      */
     public ParticipantDTO addScore(Long participantId, Integer points) {
-        GameParticipant participant = participantRepository.findById(participantId)
-            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
-
-        participant.setTotalScore(participant.getTotalScore() + points);
-        participant = participantRepository.save(participant);
+        // Applied in memory and written behind
+        LiveGameStateService.ParticipantState participant = liveGameStateService.updateParticipant(participantId,
+            state -> state.withTotalScore(state.totalScore() + points));
 
         log.info("Added {} points to participant {} (total: {})",
-            points, participantId, participant.getTotalScore());
+            points, participantId, participant.totalScore());
 
-        return ParticipantDTO.fromEntity(participant);
+        publishScoreChange(participant.sessionId(), participant);
+
+        return toParticipantDTO(participantRepository.findById(participantId)
+            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId)));
     }
 
     /**
@@ -437,11 +486,39 @@ public class GameSessionService {
         List<GameParticipant> participants =
             participantRepository.findBySessionIdOrderByTotalScoreDesc(sessionId);
 
+        // Rows may lag behind the live scores, so rank by the live ones
         return participants.stream()
-            .map(ParticipantDTO::fromEntity)
+            .map(this::toParticipantDTO)
+            .sorted(Comparator.comparing(ParticipantDTO::getTotalScore).reversed())
             .collect(Collectors.toList());
     }
 
+    /**
+     * Apply a participant's new total score to the live scoreboard and broadcast the delta.
+     * Must run on the session's mailbox, so deltas go out in version order.
+     *
+     * @param sessionId Game session ID
+     * @param participant Live state of the participant with its updated total score
+     */
+    public void publishScoreChange(UUID sessionId, LiveGameStateService.ParticipantState participant) {
+        broadcastScoreboardDelta(scoreboardService.recordScore(sessionId, participant));
+
+        // Large sessions only broadcast the top rows; the player gets their own place privately
+        if (audienceTracker.isLargeSession(sessionId)) {
+            ScoreboardUpdateEvent.PlayerScore standing =
+                scoreboardService.getStanding(sessionId, participant.participantId());
+            if (standing != null) {
+                sendToParticipant(participant.participantId(), PlayerStandingEvent.builder()
+                    .sessionId(sessionId.toString())
+                    .participantId(participant.participantId())
+                    .totalScore(standing.getTotalScore())
+                    .rank(standing.getRank())
+                    .denseRank(standing.getDenseRank())
+                    .build());
+            }
+        }
+    }
+
     /**
      * End a game session (change status to 'completed').
      *
@@ -454,6 +531,18 @@ public class GameSessionService {
         session.setStatus("completed");
         session = sessionRepository.save(session);
 
+        buzzerService.releaseSession(sessionId);
+        roundTimerService.cancelSession(sessionId);
+        sessionEventLog.evict(sessionId);
+        ayatDeckService.evict(sessionId);
+        roundPrefetcher.evict(sessionId);
+        scoreboardService.evict(sessionId);
+        presenceTracker.evictSession(sessionId);
+        liveGameStateService.evictSession(sessionId);
+        audienceTracker.evictSession(sessionId);
+        participantRepository.findIdsBySessionId(sessionId).forEach(clockSyncService::forget);
+        sessionCommandExecutor.release(sessionId);
+
         log.info("Ended game session {}", sessionId);
 
         return GameSessionDTO.fromEntity(session);
@@ -509,12 +598,15 @@ public class GameSessionService {
         participant.setIsBlocked(false);
 
         participant = participantRepository.save(participant);
+        LiveGameStateService.ParticipantState state = liveGameStateService.addParticipant(participant);
+        buzzerService.addParticipant(participant);
 
         log.info("Added participant {} to session {}", participantName, sessionId);
 
         // Broadcast updated game session via WebSocket
         GameSessionDTO sessionDTO = GameSessionDTO.fromEntity(session);
-        messagingTemplate.convertAndSend("/topic/game/" + sessionId, sessionDTO);
+        eventBroadcaster.publish("/topic/game/" + sessionId, sessionDTO);
+        publishScoreChange(sessionId, state);
 
         return ParticipantDTO.fromEntity(participant);
     }
@@ -531,6 +623,14 @@ public class GameSessionService {
 
     // Private helper methods
 
+    private ParticipantDTO toParticipantDTO(GameParticipant participant) {
+        LiveGameStateService.ParticipantState state = liveGameStateService.stateOf(participant);
+        ParticipantDTO dto = ParticipantDTO.fromEntity(participant);
+        dto.setTotalScore(state.totalScore());
+        dto.setBuzzerPressCount(state.buzzerPressCount());
+        return dto;
+    }
+
     private GameSession getSessionOrThrow(UUID sessionId) {
         return sessionRepository.findById(sessionId)
             .orElseThrow(() -> new IllegalArgumentException("Game session not found: " + sessionId));
@@ -579,7 +679,7 @@ public class GameSessionService {
      */
     public void broadcastRoundStarted(RoundStartedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast ROUND_STARTED to {}", destination);
     }
 
@@ -589,7 +689,7 @@ public class GameSessionService {
      */
     public void broadcastBuzzerPressed(BuzzerPressedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.info("📢 Broadcasting BUZZER_PRESSED (rank {}, participant {}) to {}",
             event.getBuzzRank(), event.getParticipantName(), destination);
     }
@@ -600,19 +700,18 @@ public class GameSessionService {
      */
     public void broadcastTimerStopped(TimerStoppedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast TIMER_STOPPED ({}) to {}", event.getReason(), destination);
     }
 
     /**
-     * Broadcast ANSWER_TURN event to specific player.
-     * Sent when it's a player's turn to answer.
+     * Send ANSWER_TURN event to the player whose turn it is.
+     * Goes to that participant's /user/queue/player only; the admin drives turns and other
+     * players learn the outcome from ANSWER_VALIDATED.
      */
     public void broadcastAnswerTurn(AnswerTurnEvent event) {
-        // Send to all players (so everyone knows whose turn it is)
-        String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
-        log.debug("Broadcast ANSWER_TURN (participant {}) to {}", event.getParticipantId(), destination);
+        sendToParticipant(event.getParticipantId(), event);
+        log.debug("Sent ANSWER_TURN to participant {}", event.getParticipantId());
     }
 
     /**
@@ -621,7 +720,7 @@ public class GameSessionService {
      */
     public void broadcastAnswerValidated(AnswerValidatedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast ANSWER_VALIDATED (participant {}, correct: {}) to {}",
             event.getParticipantId(), event.getIsCorrect(), destination);
     }
@@ -632,7 +731,7 @@ public class GameSessionService {
      */
     public void broadcastAnswerRevealed(AnswerRevealedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast ANSWER_REVEALED to {}", destination);
     }
 
@@ -642,33 +741,43 @@ public class GameSessionService {
      */
     public void broadcastBonusAwarded(BonusAwardedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast BONUS_AWARDED (participant {}, +{} points) to {}",
             event.getParticipantId(), event.getBonusPoints(), destination);
     }
 
     /**
-     * Broadcast SCOREBOARD_UPDATE event to all players in session.
-     * Sent after answer validation, bonus awards, or round completion.
+     * Broadcast a full SCOREBOARD_UPDATE snapshot to all players in session.
+     * Live score changes go out as SCOREBOARD_DELTA instead (see broadcastScoreboardDelta).
      */
     public void broadcastScoreboardUpdate(ScoreboardUpdateEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast SCOREBOARD_UPDATE ({} players) to {}", event.getScores().size(), destination);
     }
 
+    /**
+     * Broadcast SCOREBOARD_DELTA event to all players in session.
+     * Sent whenever a participant's score changes or a participant joins.
+     */
+    public void broadcastScoreboardDelta(ScoreboardDeltaEvent event) {
+        String destination = "/topic/game/" + event.getSessionId() + "/events";
+        publishSessionEvent(destination, event);
+        log.debug("Broadcast SCOREBOARD_DELTA (version {}, {} rows) to {}",
+            event.getVersion(), event.getChanges().size(), destination);
+    }
+
     /**
      * Broadcast ROUND_ENDED event to all players in session.
      * Sent when admin ends the current round.
      */
     public void broadcastRoundEnded(String sessionId, Long roundId) {
         String destination = "/topic/game/" + sessionId + "/events";
-        Map<String, Object> event = Map.of(
-            "type", "ROUND_ENDED",
-            "sessionId", sessionId,
-            "roundId", roundId.toString()
-        );
-        messagingTemplate.convertAndSend(destination, event);
+        RoundEndedEvent event = RoundEndedEvent.builder()
+            .sessionId(sessionId)
+            .roundId(roundId.toString())
+            .build();
+        publishSessionEvent(destination, event);
         log.info("📢 Broadcast ROUND_ENDED (round {}) to {}", roundId, destination);
     }
 
@@ -678,7 +787,7 @@ public class GameSessionService {
      */
     public void broadcastNextRoundReady(NextRoundReadyEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast NEXT_ROUND_READY (round {}) to {}", event.getNextRoundNumber(), destination);
     }
 
@@ -688,7 +797,7 @@ public class GameSessionService {
      */
     public void broadcastGameEnded(GameEndedEvent event) {
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast GAME_ENDED ({}) to {}", event.getReason(), destination);
     }
 
@@ -697,8 +806,11 @@ public class GameSessionService {
      * Sent when a player's WebSocket connection is lost.
      */
     public void broadcastPlayerDisconnected(PlayerDisconnectedEvent event) {
+        if (audienceTracker.isLargeSession(UUID.fromString(event.getSessionId()))) {
+            return; // Presence churn of a large audience is not broadcast
+        }
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast PLAYER_DISCONNECTED (participant {}) to {}", event.getParticipantId(), destination);
     }
 
@@ -707,8 +819,55 @@ public class GameSessionService {
      * Sent when a previously disconnected player reconnects.
      */
     public void broadcastPlayerReconnected(PlayerReconnectedEvent event) {
+        if (audienceTracker.isLargeSession(UUID.fromString(event.getSessionId()))) {
+            return;
+        }
         String destination = "/topic/game/" + event.getSessionId() + "/events";
-        messagingTemplate.convertAndSend(destination, event);
+        publishSessionEvent(destination, event);
         log.debug("Broadcast PLAYER_RECONNECTED (participant {}) to {}", event.getParticipantId(), destination);
     }
+
+    /**
+     * Send an event to every connection of one participant on /user/queue/player (see
+     * ParticipantPrincipal). Outside the session's sequenced stream, so it never creates a
+     * gap for other players.
+     */
+    private void sendToParticipant(Long participantId, Object event) {
+        GameEventBroadcaster.EncodedEvent encoded = eventBroadcaster.encode("/queue/player", event);
+        eventBroadcaster.deliverToUser(ParticipantPrincipal.nameOf(participantId), "/queue/player", encoded);
+    }
+
+    /**
+     * Publish an event on a session's sequenced event stream (see SessionEventLog).
+     */
+    private void publishSessionEvent(String destination, GameEvent event) {
+        sessionEventLog.publish(UUID.fromString(event.getSessionId()), destination, event);
+    }
+
+    /**
+     * Send an error message to the player it concerns, on their /user/queue/errors.
+     * Errors without a participant go to the session's error topic.
+     *
+     * @param sessionId Session ID
+     * @param participantId Participant the error concerns (may be null)
+     * @param errorType Error type
+     * @param message Error message
+     */
+    public void broadcastPlayerError(String sessionId, Long participantId, String errorType, String message) {
+        Map<String, Object> payload = new HashMap<>();
+        payload.put("type", errorType);
+        payload.put("message", message);
+        payload.put("participantId", participantId);
+        payload.put("timestamp", java.time.Instant.now().toString());
+
+        if (participantId != null) {
+            GameEventBroadcaster.EncodedEvent encoded = eventBroadcaster.encode("/queue/errors", payload);
+            eventBroadcaster.deliverToUser(ParticipantPrincipal.nameOf(participantId), "/queue/errors", encoded);
+            log.debug("Sent {} to participant {}", errorType, participantId);
+            return;
+        }
+        String destination = "/topic/game/" + sessionId + "/errors";
+        eventBroadcaster.publish(destination, payload);
+        log.debug("Broadcast {} to {}", errorType, destination);
+    }
 }
@@ -0,0 +1,408 @@
+package com.hifdh.quest.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind persistence of live game state.
+ * Accepted buzzer presses and participant score/streak/buzz counters are changed in memory
+ * (see LiveGameStateService) and queued here; a flusher writes them to Postgres in JDBC
+ * batches every flush interval, or sooner once enough changes pile up. Participant updates
+ * are coalesced, so only the latest state of a participant is written.
+ *
+ * Every queued change is first appended to the GameJournal, and the journal is checkpointed
+ * after each successful flush; changes journaled but not yet written when the JVM died are
+ * replayed into Postgres on startup.
+ *
+ * Lag is exported as game.persistence.flush.lag (age of the oldest unflushed change, ms).
+ */
+@Service
+@Slf4j
+public class GameStateWriter {
+
+    private static final String INSERT_PRESS_SQL =
+        "INSERT INTO buzzer_presses (round_id, participant_id, buzz_rank, press_order, buzzed_at_seconds, " +
+        "pressed_at, got_chance_to_answer, points_awarded) VALUES (?, ?, ?, ?, ?, ?, ?, 0) " +
+        "ON CONFLICT (round_id, participant_id) DO NOTHING";
+
+    private static final String UPDATE_PARTICIPANT_SQL =
+        "UPDATE game_participants SET total_score = ?, buzzer_press_count = ?, consecutive_first_buzzes = ?, " +
+        "consecutive_correct_answers = ?, last_buzzed_round = ?, blocked_until_round = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskScheduler taskScheduler;
+    private final GameJournal gameJournal;
+    private final int maxPending;
+
+    // Not synchronized: a flush waits on JDBC and may run on a virtual thread
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Makes journal append + enqueue atomic with respect to taking a flush's changes; a lock,
+    // not a monitor, as the journal append may force the segment to disk
+    private final ReentrantLock queueLock = new ReentrantLock();
+
+    private final Queue<PressInsert> pendingPresses = new ConcurrentLinkedQueue<>();
+    // Completed once the press is in the database, whichever write gets it there
+    private final Map<PressKey, CompletableFuture<Void>> unwrittenPresses = new ConcurrentHashMap<>();
+    private final Map<Long, LiveGameStateService.ParticipantState> pendingParticipants = new ConcurrentHashMap<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private final AtomicBoolean earlyFlushScheduled = new AtomicBoolean();
+
+    // Enqueue time of the oldest change not yet written (0 = nothing pending)
+    private volatile long oldestPendingMillis;
+
+    public GameStateWriter(
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        TaskScheduler taskScheduler,
+        GameJournal gameJournal,
+        MeterRegistry meterRegistry,
+        @Value("${game.persistence.max-pending:500}") int maxPending
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        // Batches commit on their own, whatever transaction the caller is in
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.taskScheduler = taskScheduler;
+        this.gameJournal = gameJournal;
+        this.maxPending = maxPending;
+
+        Gauge.builder("game.persistence.flush.lag", this, GameStateWriter::getLagMillis)
+            .description("Age of the oldest live game change not yet written to the database")
+            .baseUnit("milliseconds")
+            .register(meterRegistry);
+        Gauge.builder("game.persistence.pending", pendingCount, AtomicInteger::get)
+            .description("Live game changes waiting to be written to the database")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue the insert of an accepted buzzer press.
+     *
+     * @param press Press to insert
+     */
+    public void enqueuePress(PressInsert press) {
+        queueLock.lock();
+        try {
+            gameJournal.appendBuzzAccepted(press.sessionId(), press.roundId(), press.participantId(), press.buzzRank(),
+                press.buzzedAtSeconds(), Timestamp.valueOf(press.pressedAt()).getTime());
+            queuePress(press);
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Queue the latest state of a participant; replaces any state still waiting.
+     *
+     * @param state Participant state to write
+     */
+    public void enqueueParticipant(LiveGameStateService.ParticipantState state) {
+        queueLock.lock();
+        try {
+            gameJournal.appendParticipantUpdated(state);
+            if (pendingParticipants.put(state.participantId(), state) == null) {
+                changed();
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    /**
+     * Write one accepted press now instead of with the next batch, for a command that needs
+     * its row (e.g. to attach the player's answer).
+     *
+     * @param roundId Round ID
+     * @param participantId Participant ID
+     * @return Future completed once the press is in the database: already completed if it is
+     *         (or was never queued), else when this write or the batch that took it succeeds.
+     *         A failed write stays queued, and the future completes with its retry.
+     */
+    public CompletableFuture<Void> writePress(Long roundId, Long participantId) {
+        PressKey key = new PressKey(roundId, participantId);
+        CompletableFuture<Void> written = unwrittenPresses.get(key);
+        if (written == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        PressInsert press = null;
+        queueLock.lock();
+        try {
+            Iterator<PressInsert> queued = pendingPresses.iterator();
+            while (queued.hasNext()) {
+                PressInsert candidate = queued.next();
+                if (PressKey.of(candidate).equals(key)) {
+                    queued.remove();
+                    press = candidate;
+                    break;
+                }
+            }
+        } finally {
+            queueLock.unlock();
+        }
+
+        // Not queued: a running flush has it, and completes the future when its batch is written
+        if (press != null) {
+            pendingCount.decrementAndGet();
+            // The journal record stays until the next checkpoint; replaying it is a no-op insert
+            if (writePresses(List.of(press))) {
+                pressesWritten(List.of(press));
+            } else {
+                requeue(List.of(press), List.of(), System.currentTimeMillis());
+            }
+        }
+        // A copy, so a caller timing out its wait does not complete the shared future
+        return written.copy();
+    }
+
+    /**
+     * Replay changes that were journaled but never written, e.g. after a crash.
+     */
+    @PostConstruct
+    public void recover() {
+        int rounds = 0;
+        for (GameJournal.Entry entry : gameJournal.readSinceCheckpoint()) {
+            switch (entry.type()) {
+                case GameJournal.BUZZ_ACCEPTED -> queuePress(new PressInsert(entry.sessionId(), entry.longA(),
+                    entry.longB(), entry.ints()[0], Double.isNaN(entry.value()) ? null : entry.value(),
+                    new Timestamp(entry.timestamp()).toLocalDateTime()));
+                case GameJournal.PARTICIPANT_UPDATED -> {
+                    // Later records win; the name is not part of the row update
+                    LiveGameStateService.ParticipantState state = new LiveGameStateService.ParticipantState(
+                        entry.longB(), entry.sessionId(), null, entry.ints()[0], entry.ints()[1], entry.ints()[2],
+                        entry.ints()[3], entry.intOrNull(4), entry.intOrNull(5));
+                    if (pendingParticipants.put(state.participantId(), state) == null) {
+                        changed();
+                    }
+                }
+                // Rounds are written synchronously; their records only mark where they began and ended
+                default -> rounds++;
+            }
+        }
+
+        if (pendingCount.get() > 0) {
+            log.warn("Recovering {} unwritten live game change(s) from the journal ({} round record(s))",
+                pendingCount.get(), rounds);
+        }
+        flush();
+    }
+
+    /**
+     * Write every queued change in batches. Failed batches stay queued and are retried.
+     */
+    @Scheduled(fixedDelayString = "${game.persistence.flush-interval-ms:250}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushQueued();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQueued() {
+        earlyFlushScheduled.set(false);
+
+        // Everything journaled before this offset is in the batches taken below
+        int journalOffset;
+        long startedAt;
+        List<PressInsert> presses = new ArrayList<>();
+        List<LiveGameStateService.ParticipantState> participants = new ArrayList<>();
+        queueLock.lock();
+        try {
+            journalOffset = gameJournal.position();
+            startedAt = oldestPendingMillis;
+            if (startedAt == 0) {
+                // Nothing queued, so everything journaled so far (e.g. round records) is covered
+                gameJournal.checkpoint(journalOffset);
+                return;
+            }
+            oldestPendingMillis = 0;
+
+            PressInsert press;
+            while ((press = pendingPresses.poll()) != null) {
+                presses.add(press);
+            }
+            participants.addAll(pendingParticipants.values());
+            pendingParticipants.clear();
+        } finally {
+            queueLock.unlock();
+        }
+        pendingCount.addAndGet(-(presses.size() + participants.size()));
+
+        boolean pressesWritten = writePresses(presses);
+        boolean participantsWritten = writeParticipants(participants);
+        if (pressesWritten) {
+            pressesWritten(presses);
+        }
+
+        if (!pressesWritten || !participantsWritten) {
+            requeue(pressesWritten ? List.of() : presses, participantsWritten ? List.of() : participants, startedAt);
+            return;
+        }
+        gameJournal.checkpoint(journalOffset);
+
+        log.debug("Flushed {} press(es) and {} participant(s), lag {} ms",
+            presses.size(), participants.size(), System.currentTimeMillis() - startedAt);
+    }
+
+    /**
+     * Write whatever is left before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+        if (oldestPendingMillis != 0) {
+            log.error("{} live game change(s) could not be written on shutdown", pendingCount.get());
+        }
+    }
+
+    /**
+     * Age of the oldest unflushed change.
+     *
+     * @return Lag in milliseconds (0 if everything is written)
+     */
+    public double getLagMillis() {
+        long oldest = oldestPendingMillis;
+        return oldest == 0 ? 0 : System.currentTimeMillis() - oldest;
+    }
+
+    // Callers hold the queue lock
+    private void queuePress(PressInsert press) {
+        unwrittenPresses.putIfAbsent(PressKey.of(press), new CompletableFuture<>());
+        pendingPresses.add(press);
+        changed();
+    }
+
+    // Callers hold the queue lock, except recovery, which runs before anything else
+    private void changed() {
+        if (oldestPendingMillis == 0) {
+            oldestPendingMillis = System.currentTimeMillis();
+        }
+        if (pendingCount.incrementAndGet() >= maxPending && earlyFlushScheduled.compareAndSet(false, true)) {
+            taskScheduler.schedule(this::flush, Instant.now());
+        }
+    }
+
+    /**
+     * Put changes whose write failed back in the queue for the next flush.
+     * Newer participant states queued meanwhile win over the failed ones.
+     */
+    private void requeue(List<PressInsert> presses, List<LiveGameStateService.ParticipantState> participants,
+                         long enqueuedAt) {
+        queueLock.lock();
+        try {
+            presses.forEach(press -> {
+                pendingPresses.add(press);
+                pendingCount.incrementAndGet();
+            });
+            participants.forEach(state -> {
+                if (pendingParticipants.putIfAbsent(state.participantId(), state) == null) {
+                    pendingCount.incrementAndGet();
+                }
+            });
+            if (oldestPendingMillis == 0 || enqueuedAt < oldestPendingMillis) {
+                oldestPendingMillis = enqueuedAt;
+            }
+        } finally {
+            queueLock.unlock();
+        }
+    }
+
+    private void pressesWritten(List<PressInsert> presses) {
+        for (PressInsert press : presses) {
+            CompletableFuture<Void> written = unwrittenPresses.remove(PressKey.of(press));
+            if (written != null) {
+                written.complete(null);
+            }
+        }
+    }
+
+    private boolean writePresses(List<PressInsert> presses) {
+        if (presses.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(INSERT_PRESS_SQL, presses, presses.size(), (ps, press) -> {
+                    ps.setLong(1, press.roundId());
+                    ps.setLong(2, press.participantId());
+                    ps.setInt(3, press.buzzRank());
+                    ps.setInt(4, press.buzzRank()); // Same as buzz rank for ordering
+                    ps.setBigDecimal(5, press.buzzedAtSeconds() != null ? BigDecimal.valueOf(press.buzzedAtSeconds()) : null);
+                    ps.setTimestamp(6, Timestamp.valueOf(press.pressedAt()));
+                    ps.setBoolean(7, true); // Every accepted press holds an answer slot
+                }));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} buzzer press(es)", presses.size(), e);
+            return false;
+        }
+    }
+
+    private boolean writeParticipants(List<LiveGameStateService.ParticipantState> participants) {
+        if (participants.isEmpty()) {
+            return true;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate(UPDATE_PARTICIPANT_SQL, participants, participants.size(), (ps, state) -> {
+                    ps.setInt(1, state.totalScore());
+                    ps.setInt(2, state.buzzerPressCount());
+                    ps.setInt(3, state.consecutiveFirstBuzzes());
+                    ps.setInt(4, state.consecutiveCorrectAnswers());
+                    ps.setObject(5, state.lastBuzzedRound());
+                    ps.setObject(6, state.blockedUntilRound());
+                    ps.setLong(7, state.participantId());
+                }));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to write {} participant(s)", participants.size(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Accepted buzzer press waiting to be inserted.
+     */
+    public record PressInsert(UUID sessionId, Long roundId, Long participantId, int buzzRank, Double buzzedAtSeconds,
+                              LocalDateTime pressedAt) {
+    }
+
+    private record PressKey(Long roundId, Long participantId) {
+
+        static PressKey of(PressInsert press) {
+            return new PressKey(press.roundId(), press.participantId());
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel for large numbers of coarse timeouts.
+ * Timeouts are hashed by deadline tick into a fixed ring of buckets; each tick only visits
+ * one bucket, so scheduling, cancelling and expiring are O(1) regardless of how many timers
+ * are pending. Deadlines further away than one revolution carry a remaining-rounds count.
+ *
+ * schedule() and cancel() may be called from any thread. advance() must be driven by a
+ * single ticker at a time; expired tasks run on the ticker and must return quickly.
+ */
+@Slf4j
+public class HashedTimingWheel {
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final Queue<Timeout>[] buckets;
+    private final int mask;
+
+    // Timeouts scheduled since the last tick; placed into buckets by the ticker
+    private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger activeCount = new AtomicInteger();
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * Schedule a task. It fires on the first tick at or after its deadline.
+     *
+     * @param deadlineMillis Deadline (epoch millis)
+     * @param task Task to run on expiry
+     * @return Timeout handle for cancellation
+     */
+    public Timeout schedule(long deadlineMillis, Runnable task) {
+        Timeout timeout = new Timeout(deadlineMillis, task);
+        activeCount.incrementAndGet();
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Run every tick up to the given time and fire the timeouts that expired.
+     *
+     * @param nowMillis Current time (epoch millis)
+     */
+    public synchronized void advance(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        while (currentTick <= targetTick) {
+            placePendingTimeouts();
+            expireBucket(buckets[(int) (currentTick & mask)]);
+            currentTick++;
+        }
+    }
+
+    /**
+     * Number of scheduled timeouts that have neither fired nor been cancelled.
+     *
+     * @return Pending timeout count
+     */
+    public int size() {
+        return activeCount.get();
+    }
+
+    private void placePendingTimeouts() {
+        Timeout timeout;
+        while ((timeout = pendingTimeouts.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            // Round the deadline up to a tick; anything already due fires on the current tick
+            long deadlineTick = Math.max(
+                Math.floorDiv(timeout.deadlineMillis - startMillis + tickMillis - 1, tickMillis), currentTick);
+            timeout.remainingRounds = (deadlineTick - currentTick) / buckets.length;
+            buckets[(int) (deadlineTick & mask)].add(timeout);
+        }
+    }
+
+    private void expireBucket(Queue<Timeout> bucket) {
+        for (int remaining = bucket.size(); remaining > 0; remaining--) {
+            Timeout timeout = bucket.poll();
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.remainingRounds > 0) {
+                timeout.remainingRounds--;
+                bucket.add(timeout);
+                continue;
+            }
+            if (timeout.expire()) {
+                try {
+                    timeout.task.run();
+                } catch (RuntimeException e) {
+                    log.error("Timer task failed", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Handle of a scheduled task.
+     */
+    public final class Timeout {
+        private static final int PENDING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final long deadlineMillis;
+        private final Runnable task;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private long remainingRounds;
+
+        private Timeout(long deadlineMillis, Runnable task) {
+            this.deadlineMillis = deadlineMillis;
+            this.task = task;
+        }
+
+        /**
+         * Cancel the task if it has not fired yet.
+         *
+         * @return true if this call cancelled it
+         */
+        public boolean cancel() {
+            if (state.compareAndSet(PENDING, CANCELLED)) {
+                activeCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        public long getDeadlineMillis() {
+            return deadlineMillis;
+        }
+
+        private boolean expire() {
+            if (state.compareAndSet(PENDING, EXPIRED)) {
+                activeCount.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.model.GameParticipant;
+import com.hifdh.quest.repository.GameParticipantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * Authoritative live state of active sessions: participant scores, streaks and buzz
+ * counters, and the accepted presses of each session's current round.
+ * Commands read and change this state in memory and are acknowledged right away; every
+ * change is handed to GameStateWriter, which persists it asynchronously in batches.
+ * Participants are loaded from the database the first time a session touches them; a
+ * session's roster is loaded once and then kept current as participants join.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LiveGameStateService {
+
+    private final GameParticipantRepository participantRepository;
+    private final GameStateWriter gameStateWriter;
+
+    private final Map<Long, ParticipantState> participants = new ConcurrentHashMap<>();
+    private final Map<UUID, Set<Long>> rosters = new ConcurrentHashMap<>();
+    private final Map<UUID, RoundPresses> currentRoundPresses = new ConcurrentHashMap<>();
+
+    /**
+     * Get a participant's live state, loading it on first use.
+     *
+     * @param participantId Participant ID
+     * @return Current state
+     * @throws IllegalArgumentException if the participant does not exist
+     */
+    public ParticipantState getParticipant(Long participantId) {
+        ParticipantState state = participants.get(participantId);
+        if (state != null) {
+            return state;
+        }
+        GameParticipant participant = participantRepository.findById(participantId)
+            .orElseThrow(() -> new IllegalArgumentException("Participant not found: " + participantId));
+        return participants.computeIfAbsent(participantId, id -> ParticipantState.of(participant));
+    }
+
+    /**
+     * Get the live state of every participant of a session, loading the roster on first use.
+     *
+     * @param sessionId Session ID
+     * @return Current states, in no particular order
+     */
+    public List<ParticipantState> getParticipants(UUID sessionId) {
+        Set<Long> roster = rosters.get(sessionId);
+        if (roster == null) {
+            Set<Long> loaded = ConcurrentHashMap.newKeySet();
+            for (GameParticipant participant : participantRepository.findBySessionIdOrderByTotalScoreDesc(sessionId)) {
+                // A participant already live keeps its newer state
+                participants.putIfAbsent(participant.getId(), ParticipantState.of(participant));
+                loaded.add(participant.getId());
+            }
+            roster = rosters.putIfAbsent(sessionId, loaded);
+            if (roster == null) {
+                roster = loaded;
+            }
+        }
+        return roster.stream().map(participants::get).filter(Objects::nonNull).toList();
+    }
+
+    /**
+     * Start tracking a participant who was just added to a session.
+     *
+     * @param participant Saved participant entity
+     * @return Initial state
+     */
+    public ParticipantState addParticipant(GameParticipant participant) {
+        ParticipantState state = ParticipantState.of(participant);
+        participants.putIfAbsent(participant.getId(), state);
+        Set<Long> roster = rosters.get(state.sessionId());
+        if (roster != null) {
+            roster.add(participant.getId());
+        }
+        return state;
+    }
+
+    /**
+     * Change a participant's live state and queue the result for persistence.
+     *
+     * @param participantId Participant ID
+     * @param change Function from the current to the new state
+     * @return New state
+     * @throws IllegalArgumentException if the participant does not exist
+     */
+    public ParticipantState updateParticipant(Long participantId, UnaryOperator<ParticipantState> change) {
+        getParticipant(participantId);
+        ParticipantState updated = participants.computeIfPresent(participantId, (id, state) -> change.apply(state));
+        gameStateWriter.enqueueParticipant(updated);
+        return updated;
+    }
+
+    /**
+     * Record an accepted buzz: queue the press insert and count the buzz on the participant.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param roundNumber Round number
+     * @param participantId Participant ID
+     * @param buzzRank Rank assigned by the arbiter
+     * @param buzzedAtSeconds Client elapsed seconds since the timer started (may be null)
+     * @param pressedAt Server time the press was accepted
+     * @return New participant state
+     */
+    public ParticipantState recordAcceptedBuzz(UUID sessionId, Long roundId, int roundNumber, Long participantId,
+                                               int buzzRank, Double buzzedAtSeconds, LocalDateTime pressedAt) {
+        currentRoundPresses.compute(sessionId, (id, presses) ->
+            presses != null && presses.roundId().equals(roundId) ? presses : new RoundPresses(roundId))
+            .presses().put(participantId, new LivePress(buzzRank, buzzedAtSeconds));
+        gameStateWriter.enqueuePress(
+            new GameStateWriter.PressInsert(sessionId, roundId, participantId, buzzRank, buzzedAtSeconds, pressedAt));
+
+        return updateParticipant(participantId, state -> state.withBuzz(roundNumber));
+    }
+
+    /**
+     * Get a participant's accepted press in the session's current round.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param participantId Participant ID
+     * @return The press, or null if not known in memory
+     */
+    public LivePress getPress(UUID sessionId, Long roundId, Long participantId) {
+        RoundPresses presses = currentRoundPresses.get(sessionId);
+        return presses != null && presses.roundId().equals(roundId) ? presses.presses().get(participantId) : null;
+    }
+
+    /**
+     * Get the live state of a participant loaded from the database, whose row may not have
+     * caught up with the latest changes yet. The entity is left untouched.
+     *
+     * @param participant Participant entity
+     * @return Live state if the participant is active, else the state as loaded
+     */
+    public ParticipantState stateOf(GameParticipant participant) {
+        ParticipantState state = participants.get(participant.getId());
+        return state != null ? state : ParticipantState.of(participant);
+    }
+
+    /**
+     * Write out and forget the live state of a finished session.
+     *
+     * @param sessionId Session ID
+     */
+    public void evictSession(UUID sessionId) {
+        gameStateWriter.flush();
+        participants.values().removeIf(state -> state.sessionId().equals(sessionId));
+        rosters.remove(sessionId);
+        currentRoundPresses.remove(sessionId);
+    }
+
+    /**
+     * Live counters of one participant. Immutable; every change produces a new state.
+     */
+    public record ParticipantState(Long participantId, UUID sessionId, String name, int totalScore,
+                                   int buzzerPressCount, int consecutiveFirstBuzzes, int consecutiveCorrectAnswers,
+                                   Integer lastBuzzedRound, Integer blockedUntilRound) {
+
+        public static ParticipantState of(GameParticipant participant) {
+            return new ParticipantState(participant.getId(), participant.getSession().getId(), participant.getName(),
+                valueOf(participant.getTotalScore()), valueOf(participant.getBuzzerPressCount()),
+                valueOf(participant.getConsecutiveFirstBuzzes()), valueOf(participant.getConsecutiveCorrectAnswers()),
+                participant.getLastBuzzedRound(), participant.getBlockedUntilRound());
+        }
+
+        public boolean isBlockedInRound(int roundNumber) {
+            return blockedUntilRound != null && roundNumber <= blockedUntilRound;
+        }
+
+        public ParticipantState withTotalScore(int score) {
+            return new ParticipantState(participantId, sessionId, name, score, buzzerPressCount,
+                consecutiveFirstBuzzes, consecutiveCorrectAnswers, lastBuzzedRound, blockedUntilRound);
+        }
+
+        public ParticipantState withConsecutiveCorrectAnswers(int streak) {
+            return new ParticipantState(participantId, sessionId, name, totalScore, buzzerPressCount,
+                consecutiveFirstBuzzes, streak, lastBuzzedRound, blockedUntilRound);
+        }
+
+        public ParticipantState withConsecutiveFirstBuzzes(int count) {
+            return new ParticipantState(participantId, sessionId, name, totalScore, buzzerPressCount,
+                count, consecutiveCorrectAnswers, lastBuzzedRound, blockedUntilRound);
+        }
+
+        public ParticipantState withBlockedUntilRound(Integer roundNumber) {
+            return new ParticipantState(participantId, sessionId, name, totalScore, buzzerPressCount,
+                consecutiveFirstBuzzes, consecutiveCorrectAnswers, lastBuzzedRound, roundNumber);
+        }
+
+        public ParticipantState withBuzz(int roundNumber) {
+            return new ParticipantState(participantId, sessionId, name, totalScore, buzzerPressCount + 1,
+                consecutiveFirstBuzzes, consecutiveCorrectAnswers, roundNumber, blockedUntilRound);
+        }
+
+        private static int valueOf(Integer value) {
+            return value != null ? value : 0;
+        }
+    }
+
+    /**
+     * Accepted press of the current round, as needed for scoring.
+     */
+    public record LivePress(int buzzRank, Double buzzedAtSeconds) {
+    }
+
+    private record RoundPresses(Long roundId, Map<Long, LivePress> presses) {
+        RoundPresses(Long roundId) {
+            this(roundId, new ConcurrentHashMap<>());
+        }
+    }
+}
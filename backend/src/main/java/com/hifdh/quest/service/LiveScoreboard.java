@@ -0,0 +1,158 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent.ScoreChange;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-memory, versioned scoreboard of one session.
+ * Participants are kept in rank order (score descending, then participant ID) in an
+ * order-statistic tree, so a score change costs O(log n) and is reported as one row: the
+ * participant's previous and new place. Everyone in between shifts by one place, which
+ * clients apply themselves. A second tree over the distinct scores gives dense ranks (equal
+ * scores share a rank) in O(log n). Every change bumps the version by one.
+ */
+public class LiveScoreboard {
+
+    private static final Comparator<Entry> RANK_ORDER = Comparator
+        .comparingInt(Entry::totalScore).reversed()
+        .thenComparingLong(Entry::participantId);
+
+    private final OrderStatisticTree<Entry> ranking = new OrderStatisticTree<>(RANK_ORDER);
+    private final OrderStatisticTree<Integer> distinctScores = new OrderStatisticTree<>(Comparator.reverseOrder());
+    private final Map<Integer, Integer> participantsPerScore = new HashMap<>();
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long version;
+
+    public LiveScoreboard(List<LiveGameStateService.ParticipantState> participants) {
+        for (LiveGameStateService.ParticipantState participant : participants) {
+            add(new Entry(participant.participantId(), participant.name(), participant.totalScore()));
+        }
+    }
+
+    /**
+     * Record a participant's new total score.
+     *
+     * @param participantId Participant ID
+     * @param participantName Participant name
+     * @param totalScore New total score
+     * @param visibleRows Number of top rows clients hold (Integer.MAX_VALUE for all of them)
+     * @param changes Receives the changed participant; if it dropped out of the visible rows,
+     *                also the row that moved up into the last one, which clients cannot shift in
+     * @return New version
+     */
+    public synchronized long apply(Long participantId, String participantName, int totalScore, int visibleRows,
+                                   List<ScoreChange> changes) {
+        Entry previous = entries.get(participantId);
+        int oldPosition = -1;
+        if (previous != null) {
+            oldPosition = ranking.rankOf(previous);
+            remove(previous);
+        }
+
+        Entry updated = new Entry(participantId, participantName, totalScore);
+        add(updated);
+        int newPosition = ranking.rankOf(updated);
+
+        changes.add(toChange(updated, newPosition, oldPosition >= 0 ? oldPosition + 1 : null));
+        if (oldPosition >= 0 && oldPosition < visibleRows && newPosition >= visibleRows) {
+            changes.add(toChange(ranking.get(visibleRows - 1), visibleRows - 1, visibleRows + 1));
+        }
+
+        return ++version;
+    }
+
+    /**
+     * Get the current ranking with its version.
+     *
+     * @param sink Receives the entries in rank order
+     * @return Version of the returned ranking
+     */
+    public synchronized long snapshot(List<Entry> sink) {
+        return snapshot(Integer.MAX_VALUE, sink);
+    }
+
+    /**
+     * Get the top of the current ranking with its version.
+     *
+     * @param limit Maximum number of entries
+     * @param sink Receives the first entries in rank order
+     * @return Version of the returned ranking
+     */
+    public synchronized long snapshot(int limit, List<Entry> sink) {
+        ranking.forFirst(limit, sink::add);
+        return version;
+    }
+
+    /**
+     * Look up one participant's standing.
+     *
+     * @param participantId Participant ID
+     * @return Standing, or null if the participant is not on the scoreboard
+     */
+    public synchronized Standing standingOf(Long participantId) {
+        Entry entry = entries.get(participantId);
+        if (entry == null) {
+            return null;
+        }
+        return new Standing(entry, ranking.rankOf(entry) + 1, distinctScores.rankOf(entry.totalScore()) + 1,
+            ranking.size(), version);
+    }
+
+    /**
+     * Dense rank of a score: 1 + the number of distinct higher scores.
+     *
+     * @param totalScore Score
+     * @return Dense rank
+     */
+    public synchronized int denseRankOf(int totalScore) {
+        return distinctScores.rankOf(totalScore) + 1;
+    }
+
+    public synchronized int size() {
+        return ranking.size();
+    }
+
+    private void add(Entry entry) {
+        ranking.add(entry);
+        entries.put(entry.participantId(), entry);
+        if (participantsPerScore.merge(entry.totalScore(), 1, Integer::sum) == 1) {
+            distinctScores.add(entry.totalScore());
+        }
+    }
+
+    private void remove(Entry entry) {
+        ranking.remove(entry);
+        entries.remove(entry.participantId());
+        if (participantsPerScore.merge(entry.totalScore(), -1, Integer::sum) == 0) {
+            participantsPerScore.remove(entry.totalScore());
+            distinctScores.remove(entry.totalScore());
+        }
+    }
+
+    private static ScoreChange toChange(Entry entry, int position, Integer previousRank) {
+        return ScoreChange.builder()
+            .participantId(entry.participantId())
+            .participantName(entry.participantName())
+            .totalScore(entry.totalScore())
+            .rank(position + 1)
+            .previousRank(previousRank)
+            .build();
+    }
+
+    /**
+     * One scoreboard row.
+     */
+    public record Entry(long participantId, String participantName, int totalScore) {
+    }
+
+    /**
+     * One participant's place: position (1-based, ties broken by participant ID) and
+     * dense rank (equal scores share a rank).
+     */
+    public record Standing(Entry entry, int position, int denseRank, int participantCount, long version) {
+    }
+}
@@ -0,0 +1,194 @@
+package com.hifdh.quest.service;
+
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.function.Consumer;
+
+/**
+ * Sorted multiset with positional access (an order-statistic treap).
+ * Every node keeps the size of its subtree, so insert, remove, "how many elements sort
+ * before x" and "element at position i" all run in O(log n) expected time, and the first
+ * k elements can be visited in O(k + log n).
+ *
+ * Not thread-safe; callers synchronize.
+ */
+public class OrderStatisticTree<T> {
+
+    private final Comparator<? super T> comparator;
+    private Node<T> root;
+    private long seed = 0x9E3779B97F4A7C15L;
+
+    public OrderStatisticTree(Comparator<? super T> comparator) {
+        this.comparator = comparator;
+    }
+
+    /**
+     * Add an element (duplicates are kept).
+     *
+     * @param value Element
+     */
+    public void add(T value) {
+        Node<T> node = new Node<>(value, nextPriority());
+        Split<T> split = split(root, value, false);
+        root = merge(merge(split.left, node), split.right);
+    }
+
+    /**
+     * Remove one element equal to the given one.
+     *
+     * @param value Element
+     * @return true if an element was removed
+     */
+    public boolean remove(T value) {
+        Split<T> below = split(root, value, false);
+        Split<T> equal = split(below.right, value, true);
+        if (equal.left == null) {
+            root = merge(below.left, equal.right);
+            return false;
+        }
+        Node<T> rest = merge(equal.left.left, equal.left.right);
+        root = merge(below.left, merge(rest, equal.right));
+        return true;
+    }
+
+    /**
+     * Number of elements that sort strictly before the given one (its 0-based position
+     * if it is in the tree).
+     *
+     * @param value Element
+     * @return Count of smaller elements
+     */
+    public int rankOf(T value) {
+        int rank = 0;
+        Node<T> node = root;
+        while (node != null) {
+            if (comparator.compare(value, node.value) <= 0) {
+                node = node.left;
+            } else {
+                rank += size(node.left) + 1;
+                node = node.right;
+            }
+        }
+        return rank;
+    }
+
+    /**
+     * Element at a position.
+     *
+     * @param index 0-based position
+     * @return Element
+     * @throws IndexOutOfBoundsException if index is outside the tree
+     */
+    public T get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + size());
+        }
+        Node<T> node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (index < leftSize) {
+                node = node.left;
+            } else if (index == leftSize) {
+                return node.value;
+            } else {
+                index -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Visit the first elements in order.
+     *
+     * @param limit Maximum number of elements to visit
+     * @param visitor Receives the elements
+     */
+    public void forFirst(int limit, Consumer<? super T> visitor) {
+        Deque<Node<T>> path = new ArrayDeque<>();
+        Node<T> node = root;
+        int visited = 0;
+        while (visited < limit && (node != null || !path.isEmpty())) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            visitor.accept(node.value);
+            visited++;
+            node = node.right;
+        }
+    }
+
+    public int size() {
+        return size(root);
+    }
+
+    // Split into (elements < value, the rest), or (elements <= value, the rest) if inclusive
+    private Split<T> split(Node<T> node, T value, boolean inclusive) {
+        if (node == null) {
+            return new Split<>(null, null);
+        }
+        int compared = comparator.compare(node.value, value);
+        if (compared < 0 || (inclusive && compared == 0)) {
+            Split<T> split = split(node.right, value, inclusive);
+            node.right = split.left;
+            node.update();
+            return new Split<>(node, split.right);
+        }
+        Split<T> split = split(node.left, value, inclusive);
+        node.left = split.right;
+        node.update();
+        return new Split<>(split.left, node);
+    }
+
+    // Every element of left sorts before every element of right
+    private Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private long nextPriority() {
+        // xorshift64; priorities only need to be well spread, not secure
+        seed ^= seed << 13;
+        seed ^= seed >>> 7;
+        seed ^= seed << 17;
+        return seed;
+    }
+
+    private static int size(Node<?> node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static final class Node<T> {
+        private final T value;
+        private final long priority;
+        private int size = 1;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(T value, long priority) {
+            this.value = value;
+            this.priority = priority;
+        }
+
+        void update() {
+            size = 1 + size(left) + size(right);
+        }
+    }
+
+    private record Split<T>(Node<T> left, Node<T> right) {
+    }
+}
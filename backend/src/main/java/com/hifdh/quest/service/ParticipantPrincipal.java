@@ -0,0 +1,30 @@
+package com.hifdh.quest.service;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * Identity of a player's STOMP connection, bound once at CONNECT.
+ * The principal name is the participant ID, so /user/{participantId}/queue/... reaches every
+ * connection of that participant and nobody else.
+ */
+public record ParticipantPrincipal(UUID gameSessionId, Long participantId) implements Principal {
+
+    // WebSocket session attribute holding the identity verified at CONNECT
+    public static final String SESSION_ATTRIBUTE = "participantPrincipal";
+
+    @Override
+    public String getName() {
+        return nameOf(participantId);
+    }
+
+    /**
+     * User name of a participant's connections.
+     *
+     * @param participantId Participant ID
+     * @return Principal name
+     */
+    public static String nameOf(Long participantId) {
+        return String.valueOf(participantId);
+    }
+}
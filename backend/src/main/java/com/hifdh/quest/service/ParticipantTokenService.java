@@ -0,0 +1,94 @@
+package com.hifdh.quest.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.UUID;
+
+/**
+ * Signed participant tokens.
+ * A token is issued when a player joins a session and names that participant and session;
+ * the player presents it once, on STOMP CONNECT, and the connection is bound to the
+ * identity it carries (see ParticipantPrincipalInterceptor). Tokens are HMAC-signed JWTs
+ * with the jwt.secret key, so any instance can verify them without a database lookup.
+ */
+@Service
+public class ParticipantTokenService {
+
+    private static final String SESSION_CLAIM = "sid";
+
+    private final SecretKey signingKey;
+    private final long expirationMillis;
+    private final boolean required;
+
+    public ParticipantTokenService(
+        @Value("${jwt.secret}") String secret,
+        @Value("${jwt.expiration:86400000}") long expirationMillis,
+        @Value("${game.participant-token.required:true}") boolean required
+    ) {
+        this.signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        this.expirationMillis = expirationMillis;
+        this.required = required;
+    }
+
+    /**
+     * Issue a token for a participant that just joined.
+     *
+     * @param sessionId Game session ID
+     * @param participantId Participant ID
+     * @return Compact signed token
+     */
+    public String issue(UUID sessionId, Long participantId) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+            .subject(ParticipantPrincipal.nameOf(participantId))
+            .claim(SESSION_CLAIM, sessionId.toString())
+            .issuedAt(new Date(now))
+            .expiration(new Date(now + expirationMillis))
+            .signWith(signingKey)
+            .compact();
+    }
+
+    /**
+     * Verify a token and read the identity it carries.
+     *
+     * @param token Compact signed token
+     * @return Participant the token was issued to
+     * @throws IllegalArgumentException if the token is malformed, forged or expired
+     */
+    public ParticipantPrincipal verify(String token) {
+        Claims claims;
+        try {
+            claims = Jwts.parser()
+                .verifyWith(signingKey)
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid participant token: " + e.getMessage(), e);
+        }
+
+        String sessionId = claims.get(SESSION_CLAIM, String.class);
+        if (sessionId == null || claims.getSubject() == null) {
+            throw new IllegalArgumentException("Participant token does not name a participant and session");
+        }
+        return new ParticipantPrincipal(UUID.fromString(sessionId), Long.valueOf(claims.getSubject()));
+    }
+
+    /**
+     * Whether player commands must come from a connection bound with a token. While false,
+     * connections that only send the unsigned participant headers are still accepted.
+     *
+     * @return true if tokens are required
+     */
+    public boolean isRequired() {
+        return required;
+    }
+}
@@ -0,0 +1,286 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.PlayerDisconnectedEvent;
+import com.hifdh.quest.dto.websocket.PlayerReconnectedEvent;
+import com.hifdh.quest.model.GameParticipant;
+import com.hifdh.quest.repository.GameParticipantRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory player presence.
+ * Every inbound STOMP frame (including native heartbeats) from a participant's connection
+ * refreshes their last-seen time in memory; nothing is written per heartbeat. A sweeper
+ * marks participants disconnected once they go quiet and broadcasts PLAYER_DISCONNECTED /
+ * PLAYER_RECONNECTED, and changes are written to game_participants in periodic batches.
+ */
+@Service
+@Slf4j
+public class PresenceTracker {
+
+    private static final String FLUSH_SQL =
+        "UPDATE game_participants SET last_heartbeat = ?, is_connected = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final GameParticipantRepository participantRepository;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final GameSessionService gameSessionService;
+    private final ClockSyncService clockSyncService;
+
+    // A lock instead of a monitor, so a virtual thread blocked in JDBC here is not pinned
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // Silence after which a participant counts as gone, even if the socket still looks open
+    @Value("${presence.timeout-ms:15000}")
+    private long timeoutMillis;
+
+    // Shorter grace period once every connection of a participant has closed
+    @Value("${presence.disconnect-grace-ms:5000}")
+    private long disconnectGraceMillis;
+
+    private final Map<String, Long> participantsByConnection = new ConcurrentHashMap<>();
+    private final Map<Long, Presence> presenceByParticipant = new ConcurrentHashMap<>();
+
+    // Constructor with @Lazy to break circular dependency with GameSessionService
+    public PresenceTracker(
+        JdbcTemplate jdbcTemplate,
+        GameParticipantRepository participantRepository,
+        SessionCommandExecutor sessionCommandExecutor,
+        @Lazy GameSessionService gameSessionService,
+        ClockSyncService clockSyncService
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.participantRepository = participantRepository;
+        this.sessionCommandExecutor = sessionCommandExecutor;
+        this.gameSessionService = gameSessionService;
+        this.clockSyncService = clockSyncService;
+    }
+
+    /**
+     * Bind a STOMP connection to a participant (from the CONNECT frame).
+     *
+     * @param connectionId STOMP session ID
+     * @param gameSessionId Game session ID
+     * @param participantId Participant ID
+     */
+    public void connected(String connectionId, UUID gameSessionId, Long participantId) {
+        if (participantsByConnection.put(connectionId, participantId) == null) {
+            getPresence(gameSessionId, participantId).connections.incrementAndGet();
+        }
+        seen(participantId);
+    }
+
+    /**
+     * Record activity on a STOMP connection (any inbound frame, including heartbeats).
+     *
+     * @param connectionId STOMP session ID
+     */
+    public void touch(String connectionId) {
+        Long participantId = participantsByConnection.get(connectionId);
+        if (participantId != null) {
+            seen(participantId);
+        }
+    }
+
+    /**
+     * Record activity of a participant whose connection did not identify itself on CONNECT
+     * (e.g. the application-level heartbeat of an older client).
+     *
+     * @param gameSessionId Game session ID
+     * @param participantId Participant ID
+     */
+    public void touchParticipant(UUID gameSessionId, Long participantId) {
+        getPresence(gameSessionId, participantId);
+        seen(participantId);
+    }
+
+    /**
+     * Unbind a closed STOMP connection. The participant is marked disconnected by the
+     * sweeper if no other connection of theirs shows activity within the grace period.
+     * Their clock estimate goes with their last connection; a new one re-syncs.
+     *
+     * @param connectionId STOMP session ID
+     */
+    public void disconnected(String connectionId) {
+        Long participantId = participantsByConnection.remove(connectionId);
+        if (participantId != null) {
+            Presence presence = presenceByParticipant.get(participantId);
+            if (presence == null || presence.connections.decrementAndGet() <= 0) {
+                clockSyncService.forget(participantId);
+            }
+        }
+    }
+
+    /**
+     * Check whether a participant is currently connected.
+     *
+     * @param participantId Participant ID
+     * @return true if connected (or never seen by this instance)
+     */
+    public boolean isConnected(Long participantId) {
+        Presence presence = presenceByParticipant.get(participantId);
+        return presence == null || presence.connected;
+    }
+
+    /**
+     * Mark participants that went quiet as disconnected.
+     */
+    @Scheduled(fixedDelayString = "${presence.sweep-interval-ms:2000}")
+    public void sweep() {
+        long now = System.currentTimeMillis();
+        for (Presence presence : presenceByParticipant.values()) {
+            long silence = now - presence.lastSeenMillis;
+            boolean gone = silence > timeoutMillis
+                || (presence.connections.get() <= 0 && silence > disconnectGraceMillis);
+
+            if (!gone || !presence.connected) {
+                continue;
+            }
+            synchronized (presence) {
+                if (!presence.connected) {
+                    continue;
+                }
+                presence.connected = false;
+            }
+            log.info("Participant {} disconnected ({} ms without activity)", presence.participantId, silence);
+            broadcastChange(presence, false);
+        }
+    }
+
+    /**
+     * Write changed presence to game_participants in one batch.
+     */
+    @Scheduled(fixedDelayString = "${presence.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushPresence();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushPresence() {
+        List<Object[]> updates = new ArrayList<>();
+        List<Runnable> commits = new ArrayList<>();
+
+        for (Presence presence : presenceByParticipant.values()) {
+            long lastSeen = presence.lastSeenMillis;
+            boolean connected = presence.connected;
+            if (lastSeen == presence.flushedSeenMillis && connected == presence.flushedConnected) {
+                continue;
+            }
+
+            LocalDateTime lastHeartbeat = LocalDateTime.ofInstant(Instant.ofEpochMilli(lastSeen), ZoneId.systemDefault());
+            updates.add(new Object[] { Timestamp.valueOf(lastHeartbeat), connected, presence.participantId });
+            commits.add(() -> {
+                presence.flushedSeenMillis = lastSeen;
+                presence.flushedConnected = connected;
+            });
+        }
+
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, updates);
+            commits.forEach(Runnable::run);
+            log.debug("Flushed presence of {} participant(s)", updates.size());
+        } catch (RuntimeException e) {
+            // Left dirty; retried on the next flush
+            log.error("Failed to flush presence of {} participant(s)", updates.size(), e);
+        }
+    }
+
+    /**
+     * Forget every participant of a finished session.
+     *
+     * @param gameSessionId Game session ID
+     */
+    public void evictSession(UUID gameSessionId) {
+        flush();
+        presenceByParticipant.values().removeIf(presence -> presence.gameSessionId.equals(gameSessionId));
+    }
+
+    private Presence getPresence(UUID gameSessionId, Long participantId) {
+        return presenceByParticipant.computeIfAbsent(participantId, id -> new Presence(id, gameSessionId));
+    }
+
+    private void seen(Long participantId) {
+        Presence presence = presenceByParticipant.get(participantId);
+        if (presence == null) {
+            return;
+        }
+        presence.lastSeenMillis = System.currentTimeMillis();
+
+        if (!presence.connected) {
+            synchronized (presence) {
+                if (presence.connected) {
+                    return;
+                }
+                presence.connected = true;
+            }
+            log.info("Participant {} reconnected", participantId);
+            broadcastChange(presence, true);
+        }
+    }
+
+    private void broadcastChange(Presence presence, boolean connected) {
+        UUID gameSessionId = presence.gameSessionId;
+        Long participantId = presence.participantId;
+
+        sessionCommandExecutor.execute(gameSessionId, () -> {
+            String name = participantRepository.findById(participantId).map(GameParticipant::getName).orElse(null);
+            if (connected) {
+                gameSessionService.broadcastPlayerReconnected(PlayerReconnectedEvent.builder()
+                    .sessionId(gameSessionId.toString())
+                    .participantId(participantId)
+                    .participantName(name)
+                    .build());
+            } else {
+                gameSessionService.broadcastPlayerDisconnected(PlayerDisconnectedEvent.builder()
+                    .sessionId(gameSessionId.toString())
+                    .participantId(participantId)
+                    .participantName(name)
+                    .build());
+            }
+        });
+    }
+
+    /**
+     * Live presence of one participant.
+     */
+    private static final class Presence {
+        private final Long participantId;
+        private final UUID gameSessionId;
+        private final AtomicInteger connections = new AtomicInteger();
+        private volatile long lastSeenMillis = System.currentTimeMillis();
+        private volatile boolean connected = true;
+
+        // State last written to the database (only touched by the flusher)
+        private long flushedSeenMillis;
+        private boolean flushedConnected = true;
+
+        Presence(Long participantId, UUID gameSessionId) {
+            this.participantId = participantId;
+            this.gameSessionId = gameSessionId;
+        }
+    }
+}
@@ -0,0 +1,302 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.model.Ayat;
+import com.hifdh.quest.model.Surah;
+import com.hifdh.quest.repository.AyatRepository;
+import com.hifdh.quest.repository.SurahRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable in-memory index of the Quran corpus.
+ * Verses are loaded once, in mushaf order, into primitive arrays addressed by a global
+ * ordinal (0-based position in the mushaf). Surah and Juz boundaries are kept as ordinal
+ * offsets, so neighbour and range lookups never touch the database.
+ * Returned Ayat objects are detached copies carrying their Surah.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class QuranCorpus {
+
+    public static final int SURAH_COUNT = 114;
+    public static final int JUZ_COUNT = 30;
+
+    private final AyatRepository ayatRepository;
+    private final SurahRepository surahRepository;
+
+    private volatile Index index;
+
+    /**
+     * Load the corpus once the application has started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        getIndex();
+    }
+
+    /**
+     * Rebuild the index from the database (e.g. after the ayat table was re-seeded).
+     */
+    public synchronized void reload() {
+        List<Ayat> verses = ayatRepository.findAll(Sort.by("surahNumber", "ayatNumber"));
+        List<Surah> surahs = surahRepository.findAll();
+        index = new Index(verses, surahs);
+
+        if (index.size < 6236) {
+            log.warn("Quran corpus is partial: loaded {} verses", index.size);
+        } else {
+            log.info("Loaded Quran corpus: {} verses, {} surahs", index.size, surahs.size());
+        }
+    }
+
+    /**
+     * Number of verses in the corpus.
+     *
+     * @return Verse count
+     */
+    public int size() {
+        return getIndex().size;
+    }
+
+    /**
+     * Get the ordinal of a verse.
+     *
+     * @param surahNumber Surah number (1-114)
+     * @param ayatNumber Ayat number within the surah
+     * @return Ordinal or -1 if the verse is not in the corpus
+     */
+    public int ordinalOf(int surahNumber, int ayatNumber) {
+        return getIndex().ordinalOf(surahNumber, ayatNumber);
+    }
+
+    /**
+     * Get the ordinal of a verse by its database ID.
+     *
+     * @param ayatId Ayat ID
+     * @return Ordinal or -1 if unknown
+     */
+    public int ordinalOfId(long ayatId) {
+        return getIndex().ordinalOfId(ayatId);
+    }
+
+    /**
+     * Get the database ID of the verse at an ordinal.
+     *
+     * @param ordinal Ordinal
+     * @return Ayat ID
+     */
+    public long idAt(int ordinal) {
+        return getIndex().ids[ordinal];
+    }
+
+    /**
+     * Materialize the verse at an ordinal.
+     *
+     * @param ordinal Ordinal
+     * @return Detached Ayat or null if the ordinal is out of range
+     */
+    public Ayat get(int ordinal) {
+        Index current = getIndex();
+        return ordinal >= 0 && ordinal < current.size ? current.toAyat(ordinal) : null;
+    }
+
+    /**
+     * First ordinal of a surah range (inclusive).
+     *
+     * @param surahNumber Surah number (1-114)
+     * @return Ordinal of the surah's first verse
+     */
+    public int surahStart(int surahNumber) {
+        return getIndex().surahOffsets[surahNumber];
+    }
+
+    /**
+     * Ordinal just past the last verse of a surah (exclusive).
+     *
+     * @param surahNumber Surah number (1-114)
+     * @return Ordinal after the surah's last verse
+     */
+    public int surahEnd(int surahNumber) {
+        return getIndex().surahOffsets[surahNumber + 1];
+    }
+
+    /**
+     * Ordinals of all verses in a Juz, in mushaf order.
+     *
+     * @param juzNumber Juz number (1-30)
+     * @return Ordinals (do not modify)
+     */
+    public int[] juzOrdinals(int juzNumber) {
+        return getIndex().juzMembers[juzNumber];
+    }
+
+    /**
+     * Materialize a range of ordinals.
+     *
+     * @param fromOrdinal First ordinal (inclusive)
+     * @param toOrdinal Last ordinal (exclusive)
+     * @return Detached Ayat in mushaf order
+     */
+    public List<Ayat> getRange(int fromOrdinal, int toOrdinal) {
+        Index current = getIndex();
+        List<Ayat> result = new ArrayList<>(Math.max(toOrdinal - fromOrdinal, 0));
+        for (int ordinal = Math.max(fromOrdinal, 0); ordinal < Math.min(toOrdinal, current.size); ordinal++) {
+            result.add(current.toAyat(ordinal));
+        }
+        return result;
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                if (index == null) {
+                    reload();
+                }
+                current = index;
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Snapshot of the corpus. Never mutated after construction.
+     */
+    private static final class Index {
+        private final int size;
+        private final long[] ids;
+        private final short[] surahNumbers;
+        private final short[] ayatNumbers;
+        private final byte[] juzNumbers;
+        private final String[] arabicTexts;
+        private final String[] translations;
+
+        // surahOffsets[s] = first ordinal of surah s; surahOffsets[s + 1] = one past its last verse
+        private final int[] surahOffsets = new int[SURAH_COUNT + 2];
+        private final int[][] juzMembers = new int[JUZ_COUNT + 1][];
+        private final Surah[] surahs = new Surah[SURAH_COUNT + 1];
+
+        // ID -> ordinal; a dense array when IDs are compact, otherwise a map
+        private final long minId;
+        private final int[] ordinalsById;
+        private final Map<Long, Integer> ordinalsByIdSparse;
+
+        Index(List<Ayat> verses, List<Surah> surahList) {
+            size = verses.size();
+            ids = new long[size];
+            surahNumbers = new short[size];
+            ayatNumbers = new short[size];
+            juzNumbers = new byte[size];
+            arabicTexts = new String[size];
+            translations = new String[size];
+
+            int[] surahCounts = new int[SURAH_COUNT + 2];
+            int[] juzCounts = new int[JUZ_COUNT + 1];
+            long lowestId = Long.MAX_VALUE;
+            long highestId = Long.MIN_VALUE;
+
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                Ayat ayat = verses.get(ordinal);
+                ids[ordinal] = ayat.getId();
+                surahNumbers[ordinal] = ayat.getSurahNumber().shortValue();
+                ayatNumbers[ordinal] = ayat.getAyatNumber().shortValue();
+                juzNumbers[ordinal] = ayat.getJuzNumber() != null ? ayat.getJuzNumber().byteValue() : 0;
+                arabicTexts[ordinal] = ayat.getArabicText();
+                translations[ordinal] = ayat.getTranslationEn();
+
+                surahCounts[ayat.getSurahNumber()]++;
+                juzCounts[juzNumbers[ordinal]]++;
+                lowestId = Math.min(lowestId, ayat.getId());
+                highestId = Math.max(highestId, ayat.getId());
+            }
+
+            // Prefix sums give each surah's ordinal range (empty for surahs missing from a partial corpus)
+            for (int surah = 1; surah <= SURAH_COUNT + 1; surah++) {
+                surahOffsets[surah] = surahOffsets[surah - 1] + surahCounts[surah - 1];
+            }
+
+            int[] juzFill = new int[JUZ_COUNT + 1];
+            for (int juz = 1; juz <= JUZ_COUNT; juz++) {
+                juzMembers[juz] = new int[juzCounts[juz]];
+            }
+            juzMembers[0] = new int[0];
+            for (int ordinal = 0; ordinal < size; ordinal++) {
+                int juz = juzNumbers[ordinal];
+                if (juz > 0) {
+                    juzMembers[juz][juzFill[juz]++] = ordinal;
+                }
+            }
+
+            for (Surah surah : surahList) {
+                if (surah.getSurahNumber() >= 1 && surah.getSurahNumber() <= SURAH_COUNT) {
+                    surahs[surah.getSurahNumber()] = surah;
+                }
+            }
+
+            minId = size > 0 ? lowestId : 0;
+            long span = size > 0 ? highestId - lowestId + 1 : 0;
+            if (span <= 4L * Math.max(size, 1)) {
+                ordinalsById = new int[(int) span];
+                Arrays.fill(ordinalsById, -1);
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    ordinalsById[(int) (ids[ordinal] - minId)] = ordinal;
+                }
+                ordinalsByIdSparse = null;
+            } else {
+                ordinalsById = null;
+                ordinalsByIdSparse = new HashMap<>(size * 2);
+                for (int ordinal = 0; ordinal < size; ordinal++) {
+                    ordinalsByIdSparse.put(ids[ordinal], ordinal);
+                }
+            }
+        }
+
+        int ordinalOf(int surahNumber, int ayatNumber) {
+            if (surahNumber < 1 || surahNumber > SURAH_COUNT || ayatNumber < 1) {
+                return -1;
+            }
+            int start = surahOffsets[surahNumber];
+            int end = surahOffsets[surahNumber + 1];
+
+            // Complete surahs are addressed directly; gaps in a partial corpus fall back to a search
+            int guess = start + ayatNumber - 1;
+            if (guess < end && ayatNumbers[guess] == ayatNumber) {
+                return guess;
+            }
+            int found = Arrays.binarySearch(ayatNumbers, start, end, (short) ayatNumber);
+            return found >= 0 ? found : -1;
+        }
+
+        int ordinalOfId(long ayatId) {
+            if (ordinalsById != null) {
+                long slot = ayatId - minId;
+                return slot >= 0 && slot < ordinalsById.length ? ordinalsById[(int) slot] : -1;
+            }
+            return ordinalsByIdSparse.getOrDefault(ayatId, -1);
+        }
+
+        Ayat toAyat(int ordinal) {
+            int surahNumber = surahNumbers[ordinal];
+            return new Ayat(
+                ids[ordinal],
+                surahNumber,
+                (int) ayatNumbers[ordinal],
+                arabicTexts[ordinal],
+                translations[ordinal],
+                juzNumbers[ordinal] > 0 ? (int) juzNumbers[ordinal] : null,
+                surahs[surahNumber]
+            );
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Cross-node fan-out of game events over Redis pub/sub (game.broker.mode=redis).
+ * Every event for a session's /topic/game/{id} destinations is published once to that
+ * session's Redis channel; each backend instance, including the publishing one, receives it
+ * and hands the bytes to its own simple broker, which delivers them to the players connected
+ * to that instance. Redis keeps publish order per channel and messages are dispatched on the
+ * subscription thread, so per-session ordering is preserved end to end.
+ *
+ * Deliveries to one player (/user/... destinations) go over a single channel that every
+ * instance receives; each hands them to its user destination resolver, which only delivers to
+ * the connections it has, so the player gets them whichever instance they are connected to.
+ */
+@Service
+@ConditionalOnProperty(name = "game.broker.mode", havingValue = "redis")
+@Slf4j
+public class RedisEventRelay implements MessageListener {
+
+    public static final String CHANNEL_PREFIX = "game:events:";
+    public static final String CHANNEL_PATTERN = CHANNEL_PREFIX + "*";
+    public static final String USER_CHANNEL = "game:user-events";
+
+    private static final Pattern SESSION_DESTINATION = Pattern.compile("^/topic/game/([^/]+)(/.*)?$");
+    static final byte SEPARATOR = '\n';
+    private static final String SESSION_SEPARATOR = " ";
+
+    private final StringRedisTemplate redisTemplate;
+    private final GameEventBroadcaster eventBroadcaster;
+
+    // Constructor with @Lazy to break circular dependency with GameEventBroadcaster
+    public RedisEventRelay(StringRedisTemplate redisTemplate, @Lazy GameEventBroadcaster eventBroadcaster) {
+        this.redisTemplate = redisTemplate;
+        this.eventBroadcaster = eventBroadcaster;
+    }
+
+    /**
+     * Publish an event to every node, if it belongs to a session topic.
+     *
+     * @param destination Broker destination
+     * @param payload Encoded event
+     * @return true if it was published to Redis; false if the caller must deliver it locally
+     */
+    public boolean publish(String destination, byte[] payload) {
+        Matcher matcher = SESSION_DESTINATION.matcher(destination);
+        if (!matcher.matches()) {
+            return false;
+        }
+
+        byte[] channel = (CHANNEL_PREFIX + matcher.group(1)).getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = toEnvelope(destination, payload);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, envelope));
+            return true;
+        } catch (RuntimeException e) {
+            // Players on this node still get the event; other nodes miss it and resync on the seq gap
+            log.error("Failed to publish event for {} to Redis, delivering locally only", destination, e);
+            return false;
+        }
+    }
+
+    /**
+     * Publish a delivery to one user or WebSocket session to every node.
+     *
+     * @param destination Full user destination (e.g. /user/42/queue/player)
+     * @param simpSessionId WebSocket session the destination names, or null for a user name
+     * @param payload Encoded event
+     * @return true if it was published to Redis; false if the caller must deliver it locally
+     */
+    public boolean publishToUser(String destination, String simpSessionId, byte[] payload) {
+        byte[] channel = USER_CHANNEL.getBytes(StandardCharsets.UTF_8);
+        String header = simpSessionId == null ? destination : destination + SESSION_SEPARATOR + simpSessionId;
+        byte[] envelope = toEnvelope(header, payload);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, envelope));
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to publish {} to Redis, delivering locally only", destination, e);
+            return false;
+        }
+    }
+
+    /**
+     * Deliver an event received from Redis to this node's subscribers.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] envelope = message.getBody();
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        int separator = indexOf(envelope, SEPARATOR);
+        if (separator < 0) {
+            log.warn("Dropping malformed event on channel {}", channel);
+            return;
+        }
+
+        String header = new String(envelope, 0, separator, StandardCharsets.UTF_8);
+        byte[] payload = Arrays.copyOfRange(envelope, separator + 1, envelope.length);
+        if (USER_CHANNEL.equals(channel)) {
+            String[] parts = header.split(SESSION_SEPARATOR);
+            eventBroadcaster.deliverToUserLocally(parts[0], parts.length > 1 ? parts[1] : null, payload);
+            return;
+        }
+        eventBroadcaster.deliverLocally(header, payload);
+    }
+
+    // Envelope: destination, newline, JSON payload
+    static byte[] toEnvelope(String destination, byte[] payload) {
+        byte[] header = destination.getBytes(StandardCharsets.UTF_8);
+        byte[] envelope = new byte[header.length + 1 + payload.length];
+        System.arraycopy(header, 0, envelope, 0, header.length);
+        envelope[header.length] = SEPARATOR;
+        System.arraycopy(payload, 0, envelope, header.length + 1, payload.length);
+        return envelope;
+    }
+
+    static int indexOf(byte[] bytes, byte value) {
+        for (int i = 0; i < bytes.length; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,195 @@
+package com.hifdh.quest.service;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory buzz arbiter for a single round.
+ * Hands out buzz ranks 1..maxSlots without touching the database, using an
+ * atomic slot counter and a per-participant "already buzzed" set.
+ * Presses are collected in short arbitration windows and ranked by their
+ * latency-compensated press time rather than by arrival order.
+ */
+@Getter
+public class RoundBuzzArbiter {
+
+    private final Long roundId;
+    private final int roundNumber;
+    private final UUID sessionId;
+    private final int maxSlots;
+
+    // Participants of the session when the round was opened, plus late joiners (see addContender)
+    private final Map<Long, Contender> contenders;
+
+    private final Set<Long> buzzedParticipants = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger slotsTaken;
+    private volatile boolean closed;
+
+    // Presses admitted during the current arbitration window, ranked when it closes
+    private final Queue<PendingPress> pendingPresses = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean windowOpen = new AtomicBoolean();
+
+    public RoundBuzzArbiter(Long roundId, int roundNumber, UUID sessionId, int maxSlots,
+                            Map<Long, Contender> contenders, Set<Long> alreadyBuzzed, boolean closed) {
+        this.roundId = roundId;
+        this.roundNumber = roundNumber;
+        this.sessionId = sessionId;
+        this.maxSlots = maxSlots;
+        this.contenders = new ConcurrentHashMap<>(contenders);
+        this.buzzedParticipants.addAll(alreadyBuzzed);
+        this.slotsTaken = new AtomicInteger(alreadyBuzzed.size());
+        this.closed = closed;
+    }
+
+    /**
+     * Claim the next buzz slot for a participant immediately, without an arbitration window.
+     *
+     * @param participantId Participant ID
+     * @return Buzz rank (1-based)
+     * @throws IllegalStateException if the press is not allowed
+     */
+    public int claim(Long participantId) {
+        admit(participantId);
+
+        int buzzRank = slotsTaken.incrementAndGet();
+        if (buzzRank > maxSlots) {
+            // Lost the last slot to a concurrent press, so this participant has not buzzed
+            buzzedParticipants.remove(participantId);
+            throw new IllegalStateException("Maximum buzzes reached for this round");
+        }
+
+        return buzzRank;
+    }
+
+    /**
+     * Check that a participant may buzz and reserve their one press for this round.
+     * The rank is assigned later, when the arbitration window is resolved.
+     *
+     * @param participantId Participant ID
+     * @throws IllegalStateException if the press is not allowed
+     */
+    public void admit(Long participantId) {
+        if (closed) {
+            throw new IllegalStateException("Cannot buzz - round has ended");
+        }
+
+        Contender contender = contenders.get(participantId);
+        if (contender == null) {
+            throw new IllegalStateException("Participant does not belong to this game session");
+        }
+
+        if (contender.blocked()) {
+            throw new IllegalStateException("Player is blocked from buzzing this round");
+        }
+
+        // Cheap early rejection once every slot is gone
+        if (slotsTaken.get() >= maxSlots) {
+            throw new IllegalStateException("Maximum buzzes reached for this round");
+        }
+
+        if (!buzzedParticipants.add(participantId)) {
+            throw new IllegalStateException("Player has already buzzed in this round");
+        }
+    }
+
+    /**
+     * Add an admitted press to the current arbitration window.
+     *
+     * @param press Admitted press
+     * @return true if this press opened a new window (the caller must schedule its resolution)
+     */
+    public boolean enqueue(PendingPress press) {
+        pendingPresses.add(press);
+        return windowOpen.compareAndSet(false, true);
+    }
+
+    /**
+     * Close the current arbitration window and rank its presses by compensated press time.
+     * Presses that find no free slot are returned with rank 0.
+     *
+     * @return Presses of the window in rank order
+     */
+    public List<RankedPress> resolveWindow() {
+        windowOpen.set(false);
+
+        List<PendingPress> window = new ArrayList<>();
+        PendingPress press;
+        while ((press = pendingPresses.poll()) != null) {
+            window.add(press);
+        }
+        window.sort(Comparator.comparingLong(PendingPress::pressedAtMillis));
+
+        List<RankedPress> ranked = new ArrayList<>(window.size());
+        for (PendingPress pending : window) {
+            int buzzRank = slotsTaken.incrementAndGet();
+            ranked.add(new RankedPress(pending, buzzRank <= maxSlots ? buzzRank : 0));
+        }
+        return ranked;
+    }
+
+    /**
+     * Add a participant who joined the session after the round was opened.
+     * A contender already known keeps its snapshot.
+     *
+     * @param participantId Participant ID
+     * @param contender Participant's buzz eligibility
+     */
+    public void addContender(Long participantId, Contender contender) {
+        contenders.putIfAbsent(participantId, contender);
+    }
+
+    /**
+     * Get the display name of a participant in this round.
+     *
+     * @param participantId Participant ID
+     * @return Participant name or null if unknown
+     */
+    public String getParticipantName(Long participantId) {
+        Contender contender = contenders.get(participantId);
+        return contender != null ? contender.name() : null;
+    }
+
+    /**
+     * Mark the round as ended. Further presses are rejected.
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    /**
+     * Press admitted into an arbitration window.
+     *
+     * @param participantId Participant ID
+     * @param buzzedAtSeconds Client elapsed seconds since the timer started (may be null)
+     * @param pressedAtMillis Latency-compensated press time on the server clock
+     */
+    public record PendingPress(Long participantId, Double buzzedAtSeconds, long pressedAtMillis) {
+    }
+
+    /**
+     * Press with its resolved rank (0 if no slot was left).
+     */
+    public record RankedPress(PendingPress press, int buzzRank) {
+
+        public boolean accepted() {
+            return buzzRank > 0;
+        }
+    }
+
+    /**
+     * Snapshot of a participant's buzz eligibility when the round was opened (or they joined).
+     */
+    public record Contender(String name, boolean blocked) {
+    }
+}
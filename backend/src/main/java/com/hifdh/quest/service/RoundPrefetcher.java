@@ -0,0 +1,130 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.model.Ayat;
+import com.hifdh.quest.model.GameSession;
+import com.hifdh.quest.repository.GameSessionRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Prepares each session's next round in the background while the current one runs.
+ * Verse selection, neighbour lookup and audio URL generation happen ahead of time, so
+ * start-round only has to commit and broadcast. A prepared round is keyed by its question
+ * type and reciter and is discarded if start-round asks for anything else.
+ */
+@Service
+@Slf4j
+public class RoundPrefetcher {
+
+    private final GameSessionRepository sessionRepository;
+    private final AyatDeckService ayatDeckService;
+    private final AyatService ayatService;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private final Map<UUID, PreparedRound> preparedRounds = new ConcurrentHashMap<>();
+
+    public RoundPrefetcher(GameSessionRepository sessionRepository, AyatDeckService ayatDeckService,
+                           AyatService ayatService, SessionCommandExecutor sessionCommandExecutor,
+                           PlatformTransactionManager transactionManager) {
+        this.sessionRepository = sessionRepository;
+        this.ayatDeckService = ayatDeckService;
+        this.ayatService = ayatService;
+        this.sessionCommandExecutor = sessionCommandExecutor;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Prepare a session's next round on its mailbox, after the current command has finished.
+     *
+     * @param sessionId Session ID
+     * @param roundNumber Number the next round will get
+     * @param questionType Question type the next round is expected to use
+     * @param reciterId Reciter the next round is expected to use (may be null)
+     */
+    public void prefetch(UUID sessionId, int roundNumber, String questionType, Long reciterId) {
+        sessionCommandExecutor.execute(sessionId, () -> readOnlyTransaction.executeWithoutResult(status -> {
+            GameSession session = sessionRepository.findById(sessionId).orElse(null);
+            if (session == null || !"active".equals(session.getStatus())) {
+                return;
+            }
+
+            Ayat ayat = ayatDeckService.peekNext(session);
+            if (ayat == null) {
+                return;
+            }
+
+            preparedRounds.put(sessionId, prepare(ayat, roundNumber, questionType, reciterId));
+            log.debug("Prepared round {} for session {} with Ayat {}/{}",
+                roundNumber, sessionId, ayat.getSurahNumber(), ayat.getAyatNumber());
+        }));
+    }
+
+    /**
+     * Take the prepared round for a session if it matches what start-round needs.
+     * A mismatching round is discarded.
+     *
+     * @param sessionId Session ID
+     * @param questionType Requested question type
+     * @param reciterId Requested reciter (may be null)
+     * @return PreparedRound or null if none matches
+     */
+    public PreparedRound take(UUID sessionId, String questionType, Long reciterId) {
+        PreparedRound prepared = preparedRounds.remove(sessionId);
+        if (prepared == null) {
+            return null;
+        }
+        if (!prepared.questionType().equals(questionType) || !Objects.equals(prepared.reciterId(), reciterId)) {
+            log.info("Discarding prepared round for session {}: question type or reciter changed", sessionId);
+            return null;
+        }
+        return prepared;
+    }
+
+    /**
+     * Build everything a round needs from its verse.
+     *
+     * @param ayat Verse of the round
+     * @param roundNumber Round number
+     * @param questionType Question type
+     * @param reciterId Reciter (may be null)
+     * @return PreparedRound
+     */
+    public PreparedRound prepare(Ayat ayat, int roundNumber, String questionType, Long reciterId) {
+        String audioUrl = ayatService.generateAudioUrl(ayat, reciterId);
+
+        // Previous and next ayahs are only shown for guess_next_ayat and guess_previous_ayat
+        Ayat previousAyat = null;
+        Ayat nextAyat = null;
+        if ("guess_next_ayat".equals(questionType) || "guess_previous_ayat".equals(questionType)) {
+            previousAyat = ayatService.getPreviousAyat(ayat);
+            nextAyat = ayatService.getNextAyat(ayat);
+        }
+
+        return new PreparedRound(roundNumber, questionType, reciterId, ayat, audioUrl, previousAyat, nextAyat);
+    }
+
+    /**
+     * Drop a finished session's prepared round.
+     *
+     * @param sessionId Session ID
+     */
+    public void evict(UUID sessionId) {
+        preparedRounds.remove(sessionId);
+    }
+
+    /**
+     * Round contents prepared ahead of start-round.
+     */
+    public record PreparedRound(int roundNumber, String questionType, Long reciterId, Ayat ayat,
+                                String audioUrl, Ayat previousAyat, Ayat nextAyat) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-authoritative round timers.
+ * Every active round's buzz deadline sits on one hashed timing wheel, advanced by a single
+ * periodic task on the shared game scheduler, so thousands of concurrent rounds cost no
+ * extra threads. When a deadline passes, time-up handling is queued on the session's
+ * mailbox like any other command.
+ */
+@Service
+@Slf4j
+public class RoundTimerService {
+
+    private final TaskScheduler taskScheduler;
+    private final SessionCommandExecutor sessionCommandExecutor;
+    private final GameSessionService gameSessionService;
+    private final long tickMillis;
+    private final HashedTimingWheel wheel;
+
+    private final Map<Long, RoundTimer> roundTimers = new ConcurrentHashMap<>();
+
+    // Constructor with @Lazy to break circular dependency with GameSessionService
+    public RoundTimerService(
+        TaskScheduler taskScheduler,
+        SessionCommandExecutor sessionCommandExecutor,
+        @Lazy GameSessionService gameSessionService,
+        @Value("${game.timer.tick-ms:100}") long tickMillis,
+        @Value("${game.timer.wheel-size:512}") int wheelSize
+    ) {
+        this.taskScheduler = taskScheduler;
+        this.sessionCommandExecutor = sessionCommandExecutor;
+        this.gameSessionService = gameSessionService;
+        this.tickMillis = tickMillis;
+        this.wheel = new HashedTimingWheel(tickMillis, wheelSize, System.currentTimeMillis());
+    }
+
+    /**
+     * Start turning the wheel once the application is up.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        taskScheduler.scheduleAtFixedRate(() -> wheel.advance(System.currentTimeMillis()),
+            Duration.ofMillis(tickMillis));
+        log.info("Round timer wheel started ({} ms ticks)", tickMillis);
+    }
+
+    /**
+     * Start (or restart) a round's timer.
+     *
+     * @param sessionId Session ID
+     * @param roundId Round ID
+     * @param deadline When the round's buzz time runs out
+     */
+    public void start(UUID sessionId, Long roundId, Instant deadline) {
+        cancel(roundId);
+
+        HashedTimingWheel.Timeout timeout = wheel.schedule(deadline.toEpochMilli(), () -> {
+            roundTimers.remove(roundId);
+            sessionCommandExecutor.execute(sessionId, () -> gameSessionService.handleRoundTimeUp(sessionId, roundId));
+        });
+        roundTimers.put(roundId, new RoundTimer(sessionId, timeout));
+
+        log.debug("Round {} timer set for {} ({} timers active)", roundId, deadline, wheel.size());
+    }
+
+    /**
+     * Stop a round's timer (round ended, or every buzz slot was taken).
+     *
+     * @param roundId Round ID
+     * @return true if a running timer was cancelled
+     */
+    public boolean cancel(Long roundId) {
+        RoundTimer timer = roundTimers.remove(roundId);
+        return timer != null && timer.timeout().cancel();
+    }
+
+    /**
+     * Stop every timer of a session (e.g. when the game ends).
+     *
+     * @param sessionId Session ID
+     */
+    public void cancelSession(UUID sessionId) {
+        roundTimers.entrySet().removeIf(entry -> {
+            if (!entry.getValue().sessionId().equals(sessionId)) {
+                return false;
+            }
+            entry.getValue().timeout().cancel();
+            return true;
+        });
+    }
+
+    /**
+     * Number of round timers currently running.
+     *
+     * @return Active timer count
+     */
+    public int getActiveTimerCount() {
+        return wheel.size();
+    }
+
+    private record RoundTimer(UUID sessionId, HashedTimingWheel.Timeout timeout) {
+    }
+}
@@ -0,0 +1,173 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.model.GameSession;
+import com.hifdh.quest.repository.GameSessionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned live scoreboards.
+ * Clients get a full snapshot when they subscribe (or resync) and compact deltas afterwards,
+ * instead of the whole scoreboard after every answer. A session's scoreboard is loaded from
+ * the database on first use and then kept up to date in memory.
+ *
+ * In large-session mode (see SessionAudienceTracker) snapshots only cover the top
+ * scoreboardLimit rows. Deltas still name every score change, so the session's event log
+ * keeps the full history; clients keep their top rows current from them and drop rows that
+ * fall below. Each player learns their own place from a private standing update.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScoreboardService {
+
+    // Same as the default scoreboardLimit of a new session
+    private static final int DEFAULT_TOP_LIMIT = 5;
+
+    private final LiveGameStateService liveGameStateService;
+    private final GameSessionRepository sessionRepository;
+    private final SessionAudienceTracker audienceTracker;
+
+    private final Map<UUID, LiveScoreboard> scoreboards = new ConcurrentHashMap<>();
+    private final Map<UUID, Integer> topLimits = new ConcurrentHashMap<>();
+
+    /**
+     * Get a scoreboard snapshot for subscribers: every row, or the top rows only in a
+     * large session.
+     *
+     * @param sessionId Session ID
+     * @return ScoreboardUpdateEvent with ranks and the current version
+     */
+    public ScoreboardUpdateEvent getSnapshot(UUID sessionId) {
+        return getSnapshot(sessionId, audienceTracker.isLargeSession(sessionId) ? getTopLimit(sessionId) : Integer.MAX_VALUE);
+    }
+
+    /**
+     * Get the top of the scoreboard (e.g. the session's scoreboardLimit).
+     *
+     * @param sessionId Session ID
+     * @param limit Maximum number of rows
+     * @return ScoreboardUpdateEvent with the first rows, their ranks and the current version
+     */
+    public ScoreboardUpdateEvent getSnapshot(UUID sessionId, int limit) {
+        List<LiveScoreboard.Entry> entries = new ArrayList<>();
+        long version = getScoreboard(sessionId).snapshot(limit, entries);
+
+        List<ScoreboardUpdateEvent.PlayerScore> scores = new ArrayList<>(entries.size());
+        int denseRank = 0;
+        Integer previousScore = null;
+        for (int i = 0; i < entries.size(); i++) {
+            LiveScoreboard.Entry entry = entries.get(i);
+            // Rows start at the top, so dense ranks can be counted along the way
+            if (previousScore == null || entry.totalScore() != previousScore) {
+                denseRank++;
+                previousScore = entry.totalScore();
+            }
+            scores.add(toPlayerScore(entry, i + 1, denseRank));
+        }
+
+        return ScoreboardUpdateEvent.builder()
+            .sessionId(sessionId.toString())
+            .version(version)
+            .scores(scores)
+            .limit(limit == Integer.MAX_VALUE ? null : limit)
+            .build();
+    }
+
+    /**
+     * Record a participant's current total score and build the resulting delta.
+     * Callers run on the session's mailbox, so deltas are published in version order.
+     *
+     * @param sessionId Session ID
+     * @param participant Live state of the participant with its updated total score
+     * @return ScoreboardDeltaEvent for the change
+     */
+    public ScoreboardDeltaEvent recordScore(UUID sessionId, LiveGameStateService.ParticipantState participant) {
+        int visibleRows = audienceTracker.isLargeSession(sessionId) ? getTopLimit(sessionId) : Integer.MAX_VALUE;
+        List<ScoreboardDeltaEvent.ScoreChange> changes = new ArrayList<>(2);
+        long version = getScoreboard(sessionId).apply(participant.participantId(), participant.name(),
+            participant.totalScore(), visibleRows, changes);
+
+        log.debug("Scoreboard of session {} at version {}: {} row(s) changed", sessionId, version, changes.size());
+
+        return ScoreboardDeltaEvent.builder()
+            .sessionId(sessionId.toString())
+            .version(version)
+            .changes(changes)
+            .build();
+    }
+
+    /**
+     * Look up one participant's place on the scoreboard.
+     *
+     * @param sessionId Session ID
+     * @param participantId Participant ID
+     * @return Scoreboard row with rank and dense rank, or null if not on the scoreboard
+     */
+    public ScoreboardUpdateEvent.PlayerScore getStanding(UUID sessionId, Long participantId) {
+        LiveScoreboard.Standing standing = getScoreboard(sessionId).standingOf(participantId);
+        if (standing == null) {
+            return null;
+        }
+        return toPlayerScore(standing.entry(), standing.position(), standing.denseRank());
+    }
+
+    /**
+     * Drop a finished session's scoreboard.
+     *
+     * @param sessionId Session ID
+     */
+    public void evict(UUID sessionId) {
+        scoreboards.remove(sessionId);
+        topLimits.remove(sessionId);
+    }
+
+    private static ScoreboardUpdateEvent.PlayerScore toPlayerScore(LiveScoreboard.Entry entry, int rank,
+                                                                   int denseRank) {
+        return ScoreboardUpdateEvent.PlayerScore.builder()
+            .participantId(entry.participantId())
+            .participantName(entry.participantName())
+            .totalScore(entry.totalScore())
+            .rank(rank)
+            .denseRank(denseRank)
+            .roundsWon(0) // Not tracked yet
+            .isConnected(true) // Default value, presence is not part of the scoreboard
+            .isBlockedNextRound(false) // Default value, blocking is not part of the scoreboard
+            .build();
+    }
+
+    private int getTopLimit(UUID sessionId) {
+        Integer limit = topLimits.get(sessionId);
+        if (limit != null) {
+            return limit;
+        }
+        // Loaded outside the map's bin lock; a duplicate load on a race is harmless
+        int loaded = sessionRepository.findById(sessionId)
+            .map(GameSession::getScoreboardLimit)
+            .filter(value -> value > 0)
+            .orElse(DEFAULT_TOP_LIMIT);
+        topLimits.putIfAbsent(sessionId, loaded);
+        return loaded;
+    }
+
+    private LiveScoreboard getScoreboard(UUID sessionId) {
+        LiveScoreboard scoreboard = scoreboards.get(sessionId);
+        if (scoreboard != null) {
+            return scoreboard;
+        }
+        // Built outside the map's bin lock from live state, as scores changed in memory may not
+        // have been written yet; if two callers race, the first scoreboard registered wins
+        LiveScoreboard loaded = new LiveScoreboard(liveGameStateService.getParticipants(sessionId));
+        scoreboard = scoreboards.putIfAbsent(sessionId, loaded);
+        return scoreboard != null ? scoreboard : loaded;
+    }
+}
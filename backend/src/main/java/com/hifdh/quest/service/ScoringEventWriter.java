@@ -0,0 +1,183 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.ScoreBreakdownDTO;
+import com.hifdh.quest.dto.ScoringEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Batched writer (and reader) of scoring_events.
+ * Every validated answer queues its points breakdown here; a flusher inserts everything
+ * queued by all sessions in one JDBC batch every few milliseconds, so validating an answer
+ * issues no insert of its own. Breakdown queries flush first and then aggregate the table.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScoringEventWriter {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO scoring_events (round_id, participant_id, base_points, time_multiplier, time_bonus_points, " +
+        "buzz_rank_bonus, streak_bonus, total_points, buzz_time_seconds, buzz_rank, is_correct, created_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String BREAKDOWN_SQL =
+        "SELECT p.id, p.name, " +
+        "COUNT(e.id) FILTER (WHERE e.is_correct) AS correct_answers, " +
+        "COUNT(e.id) FILTER (WHERE NOT e.is_correct) AS wrong_answers, " +
+        "COALESCE(SUM(e.base_points), 0) AS base_points, " +
+        "COALESCE(SUM(e.time_bonus_points), 0) AS time_bonus_points, " +
+        "COALESCE(SUM(e.buzz_rank_bonus), 0) AS buzz_rank_bonus, " +
+        "COALESCE(SUM(e.streak_bonus), 0) AS streak_bonus, " +
+        "COALESCE(SUM(e.bonus_points), 0) AS bonus_points, " +
+        "COALESCE(SUM(e.total_points), 0) AS total_points " +
+        "FROM game_participants p LEFT JOIN scoring_events e ON e.participant_id = p.id " +
+        "WHERE p.session_id = ? GROUP BY p.id, p.name ORDER BY total_points DESC, p.id";
+
+    private static final String PARTICIPANT_EVENTS_SQL =
+        "SELECT round_id, participant_id, is_correct, base_points, time_multiplier, time_bonus_points, " +
+        "buzz_rank_bonus, streak_bonus, bonus_points, total_points, buzz_time_seconds, buzz_rank, created_at " +
+        "FROM scoring_events WHERE participant_id = ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Held across the batch insert; a ReentrantLock keeps virtual threads unpinned while they wait
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    private final Queue<ScoringEventInsert> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queue a validated answer's breakdown.
+     *
+     * @param event Breakdown to insert
+     */
+    public void record(ScoringEventInsert event) {
+        pending.add(event);
+    }
+
+    /**
+     * Insert every queued breakdown in one batch. A failed batch stays queued.
+     */
+    @Scheduled(fixedDelayString = "${game.scoring.flush-interval-ms:20}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            insertPending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void insertPending() {
+        List<ScoringEventInsert> events = new ArrayList<>();
+        ScoringEventInsert event;
+        while ((event = pending.poll()) != null) {
+            events.add(event);
+        }
+        if (events.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(INSERT_SQL, events, events.size(), (ps, row) -> {
+                ps.setLong(1, row.roundId());
+                ps.setLong(2, row.participantId());
+                ps.setInt(3, row.basePoints());
+                ps.setBigDecimal(4, BigDecimal.valueOf(row.timeMultiplier()).setScale(2, RoundingMode.HALF_UP));
+                ps.setInt(5, row.timeBonusPoints());
+                ps.setInt(6, row.buzzRankBonus());
+                ps.setInt(7, row.streakBonus());
+                ps.setInt(8, row.totalPoints());
+                ps.setBigDecimal(9, row.buzzTimeSeconds() != null
+                    ? BigDecimal.valueOf(row.buzzTimeSeconds()).setScale(3, RoundingMode.HALF_UP) : null);
+                ps.setObject(10, row.buzzRank());
+                ps.setBoolean(11, row.correct());
+                ps.setTimestamp(12, Timestamp.valueOf(row.createdAt()));
+            });
+            log.debug("Inserted {} scoring event(s)", events.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to insert {} scoring event(s)", events.size(), e);
+            pending.addAll(events);
+        }
+    }
+
+    /**
+     * Write whatever is left before the application stops.
+     */
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    /**
+     * Sum every participant's points per component, highest total first.
+     *
+     * @param sessionId Session ID
+     * @return One row per participant (participants without validated answers have zeros)
+     */
+    public List<ScoreBreakdownDTO> getBreakdown(UUID sessionId) {
+        flush();
+        return jdbcTemplate.query(BREAKDOWN_SQL, (rs, rowNum) -> ScoreBreakdownDTO.builder()
+            .participantId(rs.getLong("id"))
+            .participantName(rs.getString("name"))
+            .correctAnswers(rs.getInt("correct_answers"))
+            .wrongAnswers(rs.getInt("wrong_answers"))
+            .basePoints(rs.getInt("base_points"))
+            .timeBonusPoints(rs.getInt("time_bonus_points"))
+            .buzzRankBonus(rs.getInt("buzz_rank_bonus"))
+            .streakBonus(rs.getInt("streak_bonus"))
+            .bonusPoints(rs.getInt("bonus_points"))
+            .totalPoints(rs.getInt("total_points"))
+            .build(), sessionId);
+    }
+
+    /**
+     * Get a participant's validated answers in order.
+     *
+     * @param participantId Participant ID
+     * @return Breakdown of each answer
+     */
+    public List<ScoringEventDTO> getParticipantEvents(Long participantId) {
+        flush();
+        return jdbcTemplate.query(PARTICIPANT_EVENTS_SQL, (rs, rowNum) -> ScoringEventDTO.builder()
+            .roundId(rs.getLong("round_id"))
+            .participantId(rs.getLong("participant_id"))
+            .isCorrect(rs.getBoolean("is_correct"))
+            .basePoints(rs.getInt("base_points"))
+            .timeMultiplier(rs.getBigDecimal("time_multiplier"))
+            .timeBonusPoints(rs.getInt("time_bonus_points"))
+            .buzzRankBonus(rs.getInt("buzz_rank_bonus"))
+            .streakBonus(rs.getInt("streak_bonus"))
+            .bonusPoints(rs.getInt("bonus_points"))
+            .totalPoints(rs.getInt("total_points"))
+            .buzzTimeSeconds(rs.getBigDecimal("buzz_time_seconds"))
+            .buzzRank((Integer) rs.getObject("buzz_rank"))
+            .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+            .build(), participantId);
+    }
+
+    /**
+     * Points breakdown of one validated answer waiting to be inserted.
+     * Admin bonus_points are never part of answer validation, so they are left at 0.
+     */
+    public record ScoringEventInsert(Long roundId, Long participantId, int basePoints, double timeMultiplier,
+                                     int timeBonusPoints, int buzzRankBonus, int streakBonus, int totalPoints,
+                                     Double buzzTimeSeconds, Integer buzzRank, boolean correct,
+                                     LocalDateTime createdAt) {
+    }
+}
@@ -0,0 +1,156 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Subscriber accounting for session event topics.
+ * Counts the subscriptions to each /topic/game/{id}/events on this instance. A session whose
+ * audience reaches game.large-session.threshold switches to large-session mode for the rest
+ * of the game: the topic then only carries round lifecycle events and the top of the
+ * scoreboard, and per-player updates go to each player's own queue. Subscriptions beyond
+ * game.large-session.max-subscribers are refused, which caps the fan-out of every event.
+ */
+@Service
+@Slf4j
+public class SessionAudienceTracker {
+
+    private static final Pattern EVENTS_TOPIC = Pattern.compile("^/topic/game/([0-9a-fA-F-]{36})/events$");
+
+    private final int largeSessionThreshold;
+    private final int maxSubscribers;
+
+    private final Map<UUID, AtomicInteger> subscriberCounts = new ConcurrentHashMap<>();
+    private final Set<UUID> largeSessions = ConcurrentHashMap.newKeySet();
+    // Connection ID -> (subscription ID -> session ID)
+    private final Map<String, Map<String, UUID>> subscriptions = new ConcurrentHashMap<>();
+
+    public SessionAudienceTracker(
+        @Value("${game.large-session.threshold:300}") int largeSessionThreshold,
+        @Value("${game.large-session.max-subscribers:5000}") int maxSubscribers
+    ) {
+        this.largeSessionThreshold = largeSessionThreshold;
+        this.maxSubscribers = maxSubscribers;
+    }
+
+    /**
+     * Check whether a new subscription fits the session's fan-out budget.
+     *
+     * @param destination Subscription destination
+     * @return false if it is a session events topic that is already full
+     */
+    public boolean canSubscribe(String destination) {
+        UUID sessionId = sessionOf(destination);
+        return sessionId == null || getSubscriberCount(sessionId) < maxSubscribers;
+    }
+
+    /**
+     * Count a subscription.
+     *
+     * @param connectionId STOMP session ID
+     * @param subscriptionId STOMP subscription ID
+     * @param destination Subscription destination
+     */
+    public void subscribed(String connectionId, String subscriptionId, String destination) {
+        UUID sessionId = sessionOf(destination);
+        if (sessionId == null || connectionId == null || subscriptionId == null) {
+            return;
+        }
+        if (subscriptions.computeIfAbsent(connectionId, id -> new ConcurrentHashMap<>())
+                .put(subscriptionId, sessionId) != null) {
+            return;
+        }
+
+        int count = subscriberCounts.computeIfAbsent(sessionId, id -> new AtomicInteger()).incrementAndGet();
+        if (largeSessionThreshold > 0 && count >= largeSessionThreshold && largeSessions.add(sessionId)) {
+            log.info("Session {} switched to large-session mode ({} subscribers)", sessionId, count);
+        }
+    }
+
+    /**
+     * Stop counting a subscription.
+     *
+     * @param connectionId STOMP session ID
+     * @param subscriptionId STOMP subscription ID
+     */
+    public void unsubscribed(String connectionId, String subscriptionId) {
+        Map<String, UUID> connectionSubscriptions = subscriptions.get(connectionId);
+        if (connectionSubscriptions == null || subscriptionId == null) {
+            return;
+        }
+        UUID sessionId = connectionSubscriptions.remove(subscriptionId);
+        if (sessionId != null) {
+            decrement(sessionId);
+        }
+    }
+
+    /**
+     * Stop counting every subscription of a closed connection.
+     *
+     * @param connectionId STOMP session ID
+     */
+    public void disconnected(String connectionId) {
+        Map<String, UUID> connectionSubscriptions = subscriptions.remove(connectionId);
+        if (connectionSubscriptions != null) {
+            connectionSubscriptions.values().forEach(this::decrement);
+        }
+    }
+
+    /**
+     * Check whether a session is in large-session mode.
+     *
+     * @param sessionId Session ID
+     * @return true once the session's audience has reached the threshold
+     */
+    public boolean isLargeSession(UUID sessionId) {
+        return largeSessions.contains(sessionId);
+    }
+
+    /**
+     * Number of subscribers to a session's events topic on this instance.
+     *
+     * @param sessionId Session ID
+     * @return Subscriber count
+     */
+    public int getSubscriberCount(UUID sessionId) {
+        AtomicInteger count = subscriberCounts.get(sessionId);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * Forget a finished session.
+     *
+     * @param sessionId Session ID
+     */
+    public void evictSession(UUID sessionId) {
+        largeSessions.remove(sessionId);
+    }
+
+    private void decrement(UUID sessionId) {
+        subscriberCounts.computeIfPresent(sessionId, (id, count) -> count.decrementAndGet() <= 0 ? null : count);
+    }
+
+    private static UUID sessionOf(String destination) {
+        if (destination == null) {
+            return null;
+        }
+        Matcher matcher = EVENTS_TOPIC.matcher(destination);
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(matcher.group(1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs every state-changing command of a game session on that session's serial mailbox.
+ * Commands for one session execute one at a time in submission order; different sessions
+ * share a worker pool and run in parallel. No locks are taken - a mailbox is simply never
+ * scheduled on more than one worker at once.
+ */
+@Service
+@Slf4j
+public class SessionCommandExecutor {
+
+    // Commands run per turn before a busy mailbox yields its worker to other sessions
+    private static final int MAX_COMMANDS_PER_TURN = 64;
+
+    private final Executor workerPool;
+    private final long callTimeoutMillis;
+    private final Map<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+
+    public SessionCommandExecutor(@Qualifier("sessionCommandPool") Executor workerPool,
+                                  @Value("${game.commands.call-timeout-ms:10000}") long callTimeoutMillis) {
+        this.workerPool = workerPool;
+        this.callTimeoutMillis = callTimeoutMillis;
+    }
+
+    /**
+     * Queue a command on a session's mailbox. Failures are logged, never propagated.
+     *
+     * @param sessionId Session ID
+     * @param command Command to run
+     */
+    public void execute(UUID sessionId, Runnable command) {
+        mailboxes.computeIfAbsent(sessionId, Mailbox::new).enqueue(command);
+    }
+
+    /**
+     * Queue a command on a session's mailbox and expose its result.
+     *
+     * @param sessionId Session ID
+     * @param command Command to run
+     * @return Future completed with the command's result or failure. A command whose future is
+     *         already complete when its turn comes (e.g. timed out) is skipped.
+     */
+    public <T> CompletableFuture<T> submit(UUID sessionId, Callable<T> command) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        execute(sessionId, () -> {
+            if (result.isDone()) {
+                return;
+            }
+            try {
+                result.complete(command.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Run a command on a session's mailbox and wait for it (for request/response callers such as REST).
+     * Runtime exceptions thrown by the command are rethrown unchanged. The wait is bounded by
+     * game.commands.call-timeout-ms; a command still queued by then is dropped, one already
+     * running finishes but its result is lost.
+     *
+     * @param sessionId Session ID
+     * @param command Command to run
+     * @return Command result
+     * @throws CommandTimeoutException if the command did not complete in time
+     */
+    public <T> T call(UUID sessionId, Callable<T> command) {
+        try {
+            return submit(sessionId, command).orTimeout(callTimeoutMillis, TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new CommandTimeoutException(
+                    "Session " + sessionId + " did not run the command within " + callTimeoutMillis + " ms");
+            }
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drop a finished session's mailbox once its already queued commands have run.
+     *
+     * @param sessionId Session ID
+     */
+    public void release(UUID sessionId) {
+        Mailbox mailbox = mailboxes.get(sessionId);
+        if (mailbox != null) {
+            mailbox.enqueue(() -> mailboxes.remove(sessionId, mailbox));
+        }
+    }
+
+    /**
+     * FIFO of commands for one session plus a flag saying whether a worker currently owns it.
+     */
+    private final class Mailbox {
+        private final UUID sessionId;
+        private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Mailbox(UUID sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        void enqueue(Runnable command) {
+            commands.add(command);
+            trySchedule();
+        }
+
+        private void trySchedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                workerPool.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Runnable command;
+                int executed = 0;
+                while (executed < MAX_COMMANDS_PER_TURN && (command = commands.poll()) != null) {
+                    executed++;
+                    try {
+                        command.run();
+                    } catch (RuntimeException e) {
+                        log.error("Command failed for session {}", sessionId, e);
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+                // A command may have arrived after the last poll but before the flag was cleared
+                if (!commands.isEmpty()) {
+                    trySchedule();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.hifdh.quest.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Service;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Hands client commands to the instance that owns their session.
+ * A command received for a session owned elsewhere is published to the owner's Redis
+ * command channel; the owner feeds it into its own inbound channel as if its client had
+ * sent it there, so the usual @MessageMapping handlers and session mailbox process it.
+ * Commands from one connection keep their order, as Redis delivers per channel in order.
+ * A player command carries the participant its connection was bound to, verified by the
+ * receiving instance; the owner runs it as that participant (the message user), so identity
+ * never depends on anything the client can put in a frame.
+ */
+@Service
+@Slf4j
+public class SessionCommandForwarder implements MessageListener {
+
+    public static final String CHANNEL_PREFIX = "game:commands:";
+
+    // Marks a command that was already routed once, so it is never forwarded again. Clients
+    // cannot set it: ParticipantPrincipalInterceptor strips it from every incoming frame
+    public static final String FORWARDED_HEADER = "forwarded";
+
+    private static final String IDENTITY_SEPARATOR = " ";
+
+    private final StringRedisTemplate redisTemplate;
+    private final MessageChannel clientInboundChannel;
+    private final SessionOwnershipService sessionOwnershipService;
+
+    // Constructor with @Lazy: the inbound channel is created by the WebSocket configuration
+    public SessionCommandForwarder(
+        StringRedisTemplate redisTemplate,
+        @Lazy @Qualifier("clientInboundChannel") MessageChannel clientInboundChannel,
+        SessionOwnershipService sessionOwnershipService
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.clientInboundChannel = clientInboundChannel;
+        this.sessionOwnershipService = sessionOwnershipService;
+    }
+
+    /**
+     * Redis channel on which this instance receives forwarded commands.
+     *
+     * @return Channel name
+     */
+    public String getLocalChannel() {
+        return CHANNEL_PREFIX + sessionOwnershipService.getNodeId();
+    }
+
+    /**
+     * Send a command to another instance.
+     *
+     * @param ownerNodeId Owning node ID
+     * @param destination Application destination (e.g. /app/player/buzz)
+     * @param participant Participant the sending connection is bound to, or null
+     * @param payload Raw command body
+     * @throws IllegalStateException if the command cannot be handed to Redis
+     */
+    public void forward(String ownerNodeId, String destination, ParticipantPrincipal participant, byte[] payload) {
+        byte[] channel = (CHANNEL_PREFIX + ownerNodeId).getBytes(StandardCharsets.UTF_8);
+        // Envelope header: destination, then the bound participant's session and ID if any
+        String header = participant == null ? destination
+            : destination + IDENTITY_SEPARATOR + participant.gameSessionId() + IDENTITY_SEPARATOR + participant.participantId();
+        byte[] envelope = RedisEventRelay.toEnvelope(header, payload);
+        try {
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.publish(channel, envelope));
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Cannot forward " + destination + " to node " + ownerNodeId, e);
+        }
+    }
+
+    /**
+     * Process a command forwarded by another instance.
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        byte[] envelope = message.getBody();
+        int separator = RedisEventRelay.indexOf(envelope, RedisEventRelay.SEPARATOR);
+        if (separator < 0) {
+            log.warn("Dropping malformed forwarded command");
+            return;
+        }
+
+        String[] header = new String(envelope, 0, separator, StandardCharsets.UTF_8).split(IDENTITY_SEPARATOR);
+        byte[] payload = Arrays.copyOfRange(envelope, separator + 1, envelope.length);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(header[0]);
+        if (header.length == 3) {
+            try {
+                accessor.setUser(new ParticipantPrincipal(UUID.fromString(header[1]), Long.valueOf(header[2])));
+            } catch (IllegalArgumentException e) {
+                log.warn("Dropping forwarded command with a malformed participant: {}", e.getMessage());
+                return;
+            }
+        }
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setHeader(FORWARDED_HEADER, Boolean.TRUE);
+        clientInboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+}
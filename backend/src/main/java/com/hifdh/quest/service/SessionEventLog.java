@@ -0,0 +1,159 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.GameEvent;
+import com.hifdh.quest.service.GameEventBroadcaster.EncodedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sequenced event stream of each session.
+ * Every event published to a session's /events topic gets the next per-session sequence
+ * number and is kept, already encoded, in a bounded ring buffer so that a reconnecting
+ * client can be sent exactly the events it missed without touching the database.
+ * Every event is also appended to the session's durable log (GameEventStore), and a session
+ * first seen by this instance continues the sequence from the last stored seq.
+ */
+@Service
+@Slf4j
+public class SessionEventLog {
+
+    private final GameEventBroadcaster eventBroadcaster;
+    private final GameEventStore gameEventStore;
+    private final int capacity;
+
+    private final Map<UUID, EventRing> rings = new ConcurrentHashMap<>();
+
+    public SessionEventLog(GameEventBroadcaster eventBroadcaster, GameEventStore gameEventStore,
+                           @Value("${game.events.replay-buffer-size:256}") int capacity) {
+        this.eventBroadcaster = eventBroadcaster;
+        this.gameEventStore = gameEventStore;
+        this.capacity = capacity;
+    }
+
+    /**
+     * Assign the next sequence number to an event, encode it, keep it for replay and send it.
+     *
+     * @param sessionId Session ID
+     * @param destination Broker destination
+     * @param event Event to publish (its seq is overwritten)
+     * @return The encoded event
+     */
+    public EncodedEvent publish(UUID sessionId, String destination, GameEvent event) {
+        EventRing ring = rings.get(sessionId);
+        if (ring == null) {
+            // Load outside the map's bin lock; only the session's mailbox publishes, so a
+            // duplicate load is rare and harmless
+            EventRing opened = new EventRing(capacity, gameEventStore.open(sessionId));
+            ring = rings.putIfAbsent(sessionId, opened);
+            if (ring == null) {
+                ring = opened;
+            }
+        }
+
+        // Sequence, buffer and send under one lock so subscribers see events in seq order
+        ring.lock.lock();
+        try {
+            event.setSeq(ring.lastSeq + 1);
+            EncodedEvent encoded = eventBroadcaster.encode(destination, event);
+            ring.append(encoded);
+            gameEventStore.append(sessionId, ring.lastSeq, event.getType(), event.getTimestamp(), encoded.payload());
+            eventBroadcaster.deliver(encoded);
+            return encoded;
+        } finally {
+            ring.lock.unlock();
+        }
+    }
+
+    /**
+     * Get the events published after a given sequence number.
+     *
+     * @param sessionId Session ID
+     * @param lastSeq Highest sequence number the client has seen
+     * @return Missed events in order (empty if none), or null if they are no longer buffered
+     */
+    public List<EncodedEvent> getEventsAfter(UUID sessionId, long lastSeq) {
+        EventRing ring = rings.get(sessionId);
+        if (ring == null) {
+            return lastSeq == 0 ? List.of() : null;
+        }
+        ring.lock.lock();
+        try {
+            return ring.eventsAfter(lastSeq);
+        } finally {
+            ring.lock.unlock();
+        }
+    }
+
+    /**
+     * Sequence number of the latest event of a session.
+     *
+     * @param sessionId Session ID
+     * @return Last sequence number (0 if nothing was published yet)
+     */
+    public long getLastSeq(UUID sessionId) {
+        EventRing ring = rings.get(sessionId);
+        if (ring == null) {
+            return 0;
+        }
+        ring.lock.lock();
+        try {
+            return ring.lastSeq;
+        } finally {
+            ring.lock.unlock();
+        }
+    }
+
+    /**
+     * Drop a finished session's buffered events (they stay in the durable log).
+     *
+     * @param sessionId Session ID
+     */
+    public void evict(UUID sessionId) {
+        rings.remove(sessionId);
+        gameEventStore.evict(sessionId);
+    }
+
+    /**
+     * Fixed-size ring of the most recent events; slot = seq modulo capacity.
+     */
+    private static final class EventRing {
+        // Publishing may block (Redis relay); a lock, not a monitor, so a
+        // virtual thread waiting here does not pin its carrier
+        private final ReentrantLock lock = new ReentrantLock();
+        private final EncodedEvent[] events;
+        private final long firstSeq;
+        private long lastSeq;
+
+        EventRing(int capacity, long startSeq) {
+            this.events = new EncodedEvent[capacity];
+            this.firstSeq = startSeq + 1;
+            this.lastSeq = startSeq;
+        }
+
+        void append(EncodedEvent event) {
+            lastSeq++;
+            events[(int) (lastSeq % events.length)] = event;
+        }
+
+        List<EncodedEvent> eventsAfter(long seq) {
+            long oldestSeq = Math.max(lastSeq - events.length + 1, firstSeq);
+            // Too old, or from before a server restart (the sequence started over)
+            if (seq + 1 < oldestSeq || seq > lastSeq) {
+                return null;
+            }
+            List<EncodedEvent> missed = new ArrayList<>((int) (lastSeq - seq));
+            for (long next = seq + 1; next <= lastSeq; next++) {
+                missed.add(events[(int) (next % events.length)]);
+            }
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.hifdh.quest.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Assigns every game session to exactly one backend instance (game.broker.mode=redis).
+ * Live instances heartbeat into a Redis sorted set scored by last-seen time; entries older
+ * than the node TTL are dropped, so a vanished instance loses its sessions within seconds.
+ * Sessions are mapped to instances with a consistent-hash ring over the live set, so only
+ * the sessions of a joining or leaving instance change owner. Each instance also publishes
+ * the HTTP address its peers use to forward REST requests to it (see SessionRequestForwarder).
+ *
+ * In the default single-instance mode this instance owns every session.
+ */
+@Service
+@Slf4j
+public class SessionOwnershipService {
+
+    private static final String NODES_KEY = "game:nodes";
+    private static final String NODE_URLS_KEY = "game:node-urls";
+
+    private final StringRedisTemplate redisTemplate;
+    private final boolean clustered;
+    private final String nodeId;
+    private final long nodeTtlMillis;
+    private final int virtualNodes;
+    private final String advertisedUrl;
+
+    private volatile ConsistentHashRing ring;
+    private volatile Map<String, String> nodeUrls = Map.of();
+
+    public SessionOwnershipService(
+        StringRedisTemplate redisTemplate,
+        @Value("${game.broker.mode:simple}") String brokerMode,
+        @Value("${game.cluster.node-id:}") String nodeId,
+        @Value("${game.cluster.node-ttl-ms:6000}") long nodeTtlMillis,
+        @Value("${game.cluster.virtual-nodes:64}") int virtualNodes,
+        @Value("${game.cluster.advertised-url:}") String advertisedUrl,
+        @Value("${server.port:8080}") int serverPort
+    ) {
+        this.redisTemplate = redisTemplate;
+        this.clustered = "redis".equalsIgnoreCase(brokerMode);
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.nodeTtlMillis = nodeTtlMillis;
+        this.virtualNodes = virtualNodes;
+        this.ring = new ConsistentHashRing(List.of(this.nodeId), virtualNodes);
+        this.advertisedUrl = advertisedUrl.isBlank() ? defaultUrl(serverPort) : advertisedUrl;
+    }
+
+    /**
+     * ID of this instance.
+     *
+     * @return Node ID
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Find the instance that owns a session.
+     *
+     * @param sessionId Session ID
+     * @return Owning node ID
+     */
+    public String ownerOf(UUID sessionId) {
+        return ring.ownerOf(sessionId.toString());
+    }
+
+    /**
+     * Check whether sessions are spread over several instances (game.broker.mode=redis).
+     *
+     * @return true in multi-instance mode
+     */
+    public boolean isClustered() {
+        return clustered;
+    }
+
+    /**
+     * Find the HTTP address another instance published.
+     *
+     * @param nodeId Node ID
+     * @return Base URL (scheme, host and port), or null if the node has not announced one
+     */
+    public String urlOf(String nodeId) {
+        return nodeId.equals(this.nodeId) ? advertisedUrl : nodeUrls.get(nodeId);
+    }
+
+    /**
+     * Check whether this instance owns a session.
+     *
+     * @param sessionId Session ID
+     * @return true if commands for the session are processed here
+     */
+    public boolean isLocal(UUID sessionId) {
+        return !clustered || nodeId.equals(ownerOf(sessionId));
+    }
+
+    /**
+     * Announce this instance and refresh the ring from the live membership.
+     */
+    @Scheduled(fixedDelayString = "${game.cluster.heartbeat-ms:2000}")
+    public void heartbeat() {
+        if (!clustered) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        try {
+            redisTemplate.opsForZSet().add(NODES_KEY, nodeId, now);
+            redisTemplate.opsForHash().put(NODE_URLS_KEY, nodeId, advertisedUrl);
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - nodeTtlMillis);
+            Set<String> live = redisTemplate.opsForZSet().rangeByScore(NODES_KEY, now - nodeTtlMillis, Double.MAX_VALUE);
+            if (live == null || live.isEmpty()) {
+                return;
+            }
+            refreshNodeUrls(live);
+
+            if (!live.equals(ring.getNodes())) {
+                log.info("Cluster membership changed: {} -> {}", ring.getNodes(), live);
+                ring = new ConsistentHashRing(live, virtualNodes);
+            }
+        } catch (RuntimeException e) {
+            // Keep the last known ring; ownership only moves once Redis is reachable again
+            log.error("Cluster heartbeat failed", e);
+        }
+    }
+
+    /**
+     * Leave the ring right away on shutdown instead of waiting for the TTL.
+     */
+    @PreDestroy
+    public void leave() {
+        if (!clustered) {
+            return;
+        }
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, nodeId);
+            redisTemplate.opsForHash().delete(NODE_URLS_KEY, nodeId);
+        } catch (RuntimeException e) {
+            log.warn("Could not leave cluster cleanly: {}", e.getMessage());
+        }
+    }
+
+    // Addresses of the live nodes; entries of nodes that left are removed from Redis
+    private void refreshNodeUrls(Set<String> live) {
+        Map<String, String> urls = new HashMap<>();
+        redisTemplate.<String, String>opsForHash().entries(NODE_URLS_KEY).forEach((node, url) -> {
+            if (live.contains(node)) {
+                urls.put(node, url);
+            } else {
+                redisTemplate.opsForHash().delete(NODE_URLS_KEY, node);
+            }
+        });
+        nodeUrls = urls;
+    }
+
+    private static String defaultUrl(int serverPort) {
+        try {
+            return "http://" + InetAddress.getLocalHost().getHostAddress() + ":" + serverPort;
+        } catch (UnknownHostException e) {
+            return "http://localhost:" + serverPort;
+        }
+    }
+}
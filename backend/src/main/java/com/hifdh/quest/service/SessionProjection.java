@@ -0,0 +1,125 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Session state derived from the session's game_events.
+ * Built by folding events in seq order over the latest snapshot (see GameEventStore); the
+ * class itself is what gets stored as a snapshot, so every field must stay JSON-friendly.
+ */
+@Data
+@NoArgsConstructor
+public class SessionProjection {
+
+    private String sessionId;
+    private long seq;
+    private String status = "ACTIVE";
+    private String currentRoundId;
+    private Integer currentRoundNumber;
+    private int roundsPlayed;
+    private long scoreboardVersion;
+    private Map<Long, ParticipantView> participants = new LinkedHashMap<>();
+
+    public SessionProjection(String sessionId) {
+        this.sessionId = sessionId;
+    }
+
+    /**
+     * Apply one event. Events at or below the current seq are ignored, so overlapping
+     * snapshot and tail reads are harmless.
+     *
+     * @param eventSeq Event sequence number
+     * @param type Event type
+     * @param event Event payload as sent to clients
+     */
+    public void apply(long eventSeq, String type, JsonNode event) {
+        if (eventSeq <= seq) {
+            return;
+        }
+        seq = eventSeq;
+
+        switch (type) {
+            case "ROUND_STARTED" -> {
+                currentRoundId = event.path("roundId").asText(null);
+                currentRoundNumber = event.path("roundNumber").isNumber() ? event.path("roundNumber").asInt() : null;
+                roundsPlayed = currentRoundNumber != null ? Math.max(roundsPlayed, currentRoundNumber) : roundsPlayed + 1;
+            }
+            case "BUZZER_PRESSED" -> participant(event).buzzes++;
+            case "ANSWER_VALIDATED" -> {
+                ParticipantView participant = participant(event);
+                if (event.path("isCorrect").asBoolean()) {
+                    participant.correctAnswers++;
+                } else {
+                    participant.wrongAnswers++;
+                }
+            }
+            case "BONUS_AWARDED" -> participant(event).bonusPoints += event.path("bonusPoints").asInt();
+            case "SCOREBOARD_DELTA" -> {
+                scoreboardVersion = event.path("version").asLong(scoreboardVersion);
+                for (JsonNode change : event.path("changes")) {
+                    participant(change).totalScore = change.path("totalScore").asInt();
+                }
+            }
+            case "PLAYER_DISCONNECTED" -> participant(event).connected = false;
+            case "PLAYER_RECONNECTED" -> participant(event).connected = true;
+            case "ROUND_ENDED" -> currentRoundId = null;
+            case "GAME_ENDED" -> {
+                status = "ENDED";
+                currentRoundId = null;
+            }
+            default -> {
+                // Timer, turn and reveal events do not change the projected state
+            }
+        }
+    }
+
+    /**
+     * Participants in rank order (score descending, then participant ID).
+     *
+     * @return Scoreboard rows
+     */
+    public List<ParticipantView> scoreboard() {
+        List<ParticipantView> rows = new ArrayList<>(participants.values());
+        rows.sort(Comparator.comparingInt(ParticipantView::getTotalScore).reversed()
+            .thenComparingLong(ParticipantView::getParticipantId));
+        return rows;
+    }
+
+    private ParticipantView participant(JsonNode node) {
+        long participantId = node.path("participantId").asLong();
+        ParticipantView participant = participants.computeIfAbsent(participantId, ParticipantView::new);
+        String name = node.path("participantName").asText(null);
+        if (name != null) {
+            participant.name = name;
+        }
+        return participant;
+    }
+
+    /**
+     * Projected state of one participant.
+     */
+    @Data
+    @NoArgsConstructor
+    public static class ParticipantView {
+        private long participantId;
+        private String name;
+        private int totalScore;
+        private int buzzes;
+        private int correctAnswers;
+        private int wrongAnswers;
+        private int bonusPoints;
+        private boolean connected = true;
+
+        ParticipantView(long participantId) {
+            this.participantId = participantId;
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.repository.BuzzerPressRepository;
+import com.hifdh.quest.repository.GameParticipantRepository;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Hands REST requests that change a session to the instance that owns it.
+ * The request is replayed over HTTP on the owner's published address (see
+ * SessionOwnershipService), marked so that it is never forwarded again, and the owner's
+ * response is returned as is. The session is found from the request's path: a session ID
+ * directly, or the session of a round, participant or buzzer press.
+ */
+@Service
+@Slf4j
+public class SessionRequestForwarder {
+
+    // Marks a request already routed once; its value is the forwarding node's ID
+    public static final String FORWARDED_HEADER = "X-Game-Forwarded-By";
+
+    private static final List<String> FORWARDED_REQUEST_HEADERS = List.of(
+        HttpHeaders.CONTENT_TYPE, HttpHeaders.ACCEPT, HttpHeaders.AUTHORIZATION);
+
+    private final SessionOwnershipService sessionOwnershipService;
+    private final BuzzArbitrationService buzzArbitrationService;
+    private final GameParticipantRepository participantRepository;
+    private final BuzzerPressRepository buzzerPressRepository;
+    private final RestClient restClient;
+
+    public SessionRequestForwarder(
+        SessionOwnershipService sessionOwnershipService,
+        BuzzArbitrationService buzzArbitrationService,
+        GameParticipantRepository participantRepository,
+        BuzzerPressRepository buzzerPressRepository,
+        @Value("${game.cluster.forward-timeout-ms:15000}") int forwardTimeoutMillis
+    ) {
+        this.sessionOwnershipService = sessionOwnershipService;
+        this.buzzArbitrationService = buzzArbitrationService;
+        this.participantRepository = participantRepository;
+        this.buzzerPressRepository = buzzerPressRepository;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(forwardTimeoutMillis);
+        requestFactory.setReadTimeout(forwardTimeoutMillis);
+        this.restClient = RestClient.builder().requestFactory(requestFactory).build();
+    }
+
+    /**
+     * Find the session a request acts on.
+     *
+     * @param pathVariables URI template variables of the matched handler
+     * @return Session ID, or null if the path names none (or names something that does not exist)
+     */
+    public UUID resolveSessionId(Map<String, String> pathVariables) {
+        try {
+            if (pathVariables.containsKey("sessionId")) {
+                return UUID.fromString(pathVariables.get("sessionId"));
+            }
+            if (pathVariables.containsKey("roundId")) {
+                return buzzArbitrationService.getSessionId(Long.valueOf(pathVariables.get("roundId")));
+            }
+            if (pathVariables.containsKey("participantId")) {
+                return participantRepository.findSessionIdById(Long.valueOf(pathVariables.get("participantId")))
+                    .orElse(null);
+            }
+            if (pathVariables.containsKey("buzzerPressId")) {
+                return buzzerPressRepository.findSessionIdById(Long.valueOf(pathVariables.get("buzzerPressId")))
+                    .orElse(null);
+            }
+        } catch (IllegalArgumentException e) {
+            // Left to the handler, which answers with its usual error
+            return null;
+        }
+        return null;
+    }
+
+    /**
+     * Replay a request on another instance.
+     *
+     * @param ownerNodeId Owning node ID
+     * @param request Incoming request
+     * @param body Request body (empty if none)
+     * @return The owner's response
+     * @throws IllegalStateException if the owner has no known address or cannot be reached
+     */
+    public ResponseEntity<byte[]> forward(String ownerNodeId, HttpServletRequest request, byte[] body) {
+        String ownerUrl = sessionOwnershipService.urlOf(ownerNodeId);
+        if (ownerUrl == null) {
+            throw new IllegalStateException("No address known for node " + ownerNodeId);
+        }
+
+        String query = request.getQueryString();
+        URI uri = URI.create(ownerUrl + request.getRequestURI() + (query != null ? "?" + query : ""));
+        try {
+            return restClient.method(HttpMethod.valueOf(request.getMethod()))
+                .uri(uri)
+                .headers(headers -> {
+                    for (String name : FORWARDED_REQUEST_HEADERS) {
+                        String value = request.getHeader(name);
+                        if (value != null) {
+                            headers.set(name, value);
+                        }
+                    }
+                    headers.set(FORWARDED_HEADER, sessionOwnershipService.getNodeId());
+                })
+                .body(body)
+                .exchange((clientRequest, response) -> ResponseEntity.status(response.getStatusCode())
+                    .contentType(response.getHeaders().getContentType())
+                    .body(response.getBody().readAllBytes()));
+        } catch (RestClientException e) {
+            throw new IllegalStateException("Cannot forward " + request.getRequestURI() + " to node " + ownerNodeId, e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+-- Migration: Express buzz eligibility relative to round numbers
+-- Date: 2026-10-16
+-- Description: Replaces the per-round buzzed/blocked flags (which had to be cleared for every
+--              participant at round start) with round numbers that simply go stale
+
+-- Round number the participant last buzzed in
+ALTER TABLE game_participants
+ADD COLUMN IF NOT EXISTS last_buzzed_round INTEGER;
+
+-- Participant may not buzz in any round up to and including this one
+ALTER TABLE game_participants
+ADD COLUMN IF NOT EXISTS blocked_until_round INTEGER;
+
+-- Carry over the state of sessions that are in progress
+UPDATE game_participants p
+SET last_buzzed_round = CASE WHEN p.buzzed_in_current_round THEN latest.round_number END,
+    blocked_until_round = CASE WHEN p.is_blocked_next_round THEN latest.round_number + 1 END
+FROM (
+    SELECT session_id, MAX(round_number) AS round_number
+    FROM game_rounds
+    GROUP BY session_id
+) latest
+WHERE latest.session_id = p.session_id
+  AND (p.buzzed_in_current_round OR p.is_blocked_next_round);
+
+-- Add comments for documentation
+COMMENT ON COLUMN game_participants.last_buzzed_round IS 'Round number of the participant''s last buzz (one buzz per round)';
+COMMENT ON COLUMN game_participants.blocked_until_round IS 'Last round number the participant is blocked from buzzing in (3 consecutive 1st-place buzzes)';
+COMMENT ON COLUMN game_participants.is_blocked_next_round IS 'Deprecated: superseded by blocked_until_round';
+COMMENT ON COLUMN game_participants.buzzed_in_current_round IS 'Deprecated: superseded by last_buzzed_round';
@@ -0,0 +1,14 @@
+-- Migration: Add per-session ayat deck state to game_sessions
+-- Date: 2026-10-16
+-- Description: Stores the shuffle seed and a bitmap of used verses (1 bit per corpus ordinal)
+--              so verse selection no longer needs to scan previous rounds
+
+ALTER TABLE game_sessions
+ADD COLUMN IF NOT EXISTS ayat_deck_seed BIGINT;
+
+ALTER TABLE game_sessions
+ADD COLUMN IF NOT EXISTS used_ayat_bitmap BYTEA;
+
+-- Add comments for documentation
+COMMENT ON COLUMN game_sessions.ayat_deck_seed IS 'Seed of the session''s shuffled ayat deck (same seed = same verse order)';
+COMMENT ON COLUMN game_sessions.used_ayat_bitmap IS 'Bitmap of verses already used in this session, bit i = verse at mushaf ordinal i';
@@ -0,0 +1,32 @@
+-- Migration: Create append-only game event log with per-session snapshots
+-- Date: 2026-10-16
+-- Description: One row per domain event published on a session's event stream, in the
+--              session's sequence order. Snapshots hold the projected session state at a
+--              given seq, so reading state is latest snapshot plus the events after it.
+
+CREATE TABLE IF NOT EXISTS game_events (
+    id BIGSERIAL PRIMARY KEY,
+    session_id UUID NOT NULL REFERENCES game_sessions(id) ON DELETE CASCADE,
+    seq BIGINT NOT NULL,
+    event_type VARCHAR(40) NOT NULL,
+    payload JSONB NOT NULL,
+    occurred_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_game_events_session_seq UNIQUE (session_id, seq)
+);
+
+CREATE TABLE IF NOT EXISTS game_session_snapshots (
+    session_id UUID NOT NULL REFERENCES game_sessions(id) ON DELETE CASCADE,
+    seq BIGINT NOT NULL,
+    state JSONB NOT NULL,
+    created_at TIMESTAMP DEFAULT NOW(),
+    PRIMARY KEY (session_id, seq)
+);
+
+-- Create indexes
+CREATE INDEX IF NOT EXISTS idx_game_events_type ON game_events(event_type);
+
+-- Add comments for documentation
+COMMENT ON TABLE game_events IS 'Append-only log of session events (never updated); id order is insertion order for sequential scans';
+COMMENT ON COLUMN game_events.seq IS 'Per-session sequence number, same as the seq clients see on the event stream';
+COMMENT ON COLUMN game_events.payload IS 'Event as sent to clients';
+COMMENT ON TABLE game_session_snapshots IS 'Projected session state after every event up to and including seq';
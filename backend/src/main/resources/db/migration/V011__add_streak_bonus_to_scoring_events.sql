@@ -0,0 +1,14 @@
+-- Migration: Add streak_bonus column to scoring_events table
+-- Date: 2026-10-16
+-- Description: Keeps the accuracy streak bonus apart from admin-awarded bonus_points.
+--              Rows recorded so far by answer validation carried the streak bonus in
+--              bonus_points, so it is moved over.
+
+ALTER TABLE scoring_events ADD COLUMN IF NOT EXISTS streak_bonus INTEGER DEFAULT 0;
+
+UPDATE scoring_events SET streak_bonus = bonus_points, bonus_points = 0
+WHERE bonus_points <> 0 AND streak_bonus = 0;
+
+ALTER TABLE scoring_events ALTER COLUMN streak_bonus SET NOT NULL;
+
+COMMENT ON COLUMN scoring_events.streak_bonus IS 'Bonus for consecutive correct answers (50, 100 or 250)';
@@ -0,0 +1,98 @@
+package com.hifdh.quest.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.BuzzCommand;
+import com.hifdh.quest.dto.websocket.RecordAnswerCommand;
+import com.hifdh.quest.dto.websocket.ScoreCommand;
+import com.hifdh.quest.dto.websocket.StartRoundCommand;
+import com.hifdh.quest.dto.websocket.ValidateAnswerCommand;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GameCommandMessageConverterTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final GameCommandMessageConverter converter =
+        new GameCommandMessageConverter(new ObjectMapper(), meterRegistry);
+
+    @Test
+    void decodesEveryFieldOfACommand() {
+        UUID sessionId = UUID.randomUUID();
+
+        Object command = decode("{\"sessionId\":\"" + sessionId + "\",\"roundId\":12,\"participantId\":34,"
+            + "\"isCorrect\":true}", ValidateAnswerCommand.class);
+
+        assertThat(command).isEqualTo(new ValidateAnswerCommand(sessionId, 12L, 34L, true));
+    }
+
+    @Test
+    void acceptsNumbersSentAsStrings() {
+        assertThat(decode("{\"participantId\":\" 7 \",\"points\":\"-50\"}", ScoreCommand.class))
+            .isEqualTo(new ScoreCommand(7L, -50));
+    }
+
+    @Test
+    void skipsUnknownFieldsAndLeavesNullsAndMissingFieldsUnset() {
+        Object command = decode("{\"questionType\":\"guess_surah\",\"extra\":{\"nested\":[1,2,{\"a\":null}]},"
+            + "\"reciterId\":null,\"ignored\":[true]}", StartRoundCommand.class);
+
+        assertThat(command).isEqualTo(new StartRoundCommand(null, "guess_surah", null));
+    }
+
+    @Test
+    void decodesStringPayloadsToo() {
+        Message<String> message = MessageBuilder.withPayload("{\"buzzerPressId\":5,\"answerText\":\"Al-Fatiha\"}")
+            .build();
+
+        assertThat(converter.fromMessage(message, RecordAnswerCommand.class))
+            .isEqualTo(new RecordAnswerCommand(5L, "Al-Fatiha", null, null));
+    }
+
+    @Test
+    void rejectsACommandMissingARequiredFieldAndCountsIt() {
+        assertThatThrownBy(() -> decode("{\"participantId\":7}", BuzzCommand.class))
+            .isInstanceOf(CommandDecodingException.class)
+            .hasMessageContaining("BuzzCommand: roundId is required")
+            .satisfies(e -> assertThat(((CommandDecodingException) e).getCommand()).isEqualTo("BuzzCommand"));
+
+        assertThat(meterRegistry.counter("game.commands.decode.failures", "command", "BuzzCommand").count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void rejectsMalformedFrames() {
+        assertThatThrownBy(() -> decode("{\"roundId\":true}", BuzzCommand.class))
+            .isInstanceOf(CommandDecodingException.class)
+            .hasMessageContaining("unexpected VALUE_TRUE for roundId");
+        assertThatThrownBy(() -> decode("{\"roundId\":\"twelve\"}", BuzzCommand.class))
+            .isInstanceOf(CommandDecodingException.class);
+        assertThatThrownBy(() -> decode("[1, 2]", BuzzCommand.class))
+            .isInstanceOf(CommandDecodingException.class)
+            .hasMessageContaining("expected a JSON object");
+        assertThatThrownBy(() -> decode("{\"roundId\":", BuzzCommand.class))
+            .isInstanceOf(CommandDecodingException.class);
+
+        assertThat(meterRegistry.counter("game.commands.decode.failures", "command", "BuzzCommand").count())
+            .isEqualTo(4);
+    }
+
+    @Test
+    void leavesOtherPayloadTypesToOtherConverters() {
+        assertThat(decode("{\"a\":1}", Map.class)).isNull();
+        assertThat(converter.toMessage(new BuzzCommand(1L, 2L), null)).isNull();
+    }
+
+    private Object decode(String json, Class<?> type) {
+        Message<byte[]> message = MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8)).build();
+        return converter.fromMessage(message, type);
+    }
+}
@@ -0,0 +1,93 @@
+package com.hifdh.quest.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.BuzzCommand;
+import com.hifdh.quest.dto.websocket.ValidateAnswerCommand;
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Decode cost per command: a Map payload picked apart with toString and valueOf, as the
+ * handlers did, against the typed converter. Run with mvn test -Pthroughput.
+ */
+@Tag("throughput")
+class GameCommandMessageConverterThroughputTest {
+
+    private static final int WARM_UP = 50_000;
+    private static final int MEASURED = 500_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final GameCommandMessageConverter converter =
+        new GameCommandMessageConverter(objectMapper, new SimpleMeterRegistry());
+    private final MappingJackson2MessageConverter mapConverter = new MappingJackson2MessageConverter();
+
+    @Test
+    void decodesTypedCommandsForLessThanAMapPayload() {
+        mapConverter.setObjectMapper(objectMapper);
+        UUID sessionId = UUID.randomUUID();
+
+        Message<byte[]> validate = message("{\"sessionId\":\"" + sessionId + "\",\"roundId\":12,"
+            + "\"participantId\":34,\"isCorrect\":true}");
+        Cost mapValidate = measure(() -> {
+            Map<?, ?> payload = (Map<?, ?>) mapConverter.fromMessage(validate, Map.class);
+            return new ValidateAnswerCommand(UUID.fromString(payload.get("sessionId").toString()),
+                Long.valueOf(payload.get("roundId").toString()),
+                Long.valueOf(payload.get("participantId").toString()),
+                Boolean.valueOf(payload.get("isCorrect").toString()));
+        });
+        Cost typedValidate = measure(() -> converter.fromMessage(validate, ValidateAnswerCommand.class));
+
+        Message<byte[]> buzz = message("{\"roundId\":12,\"participantId\":34}");
+        Cost mapBuzz = measure(() -> {
+            Map<?, ?> payload = (Map<?, ?>) mapConverter.fromMessage(buzz, Map.class);
+            return new BuzzCommand(Long.valueOf(payload.get("roundId").toString()),
+                Long.valueOf(payload.get("participantId").toString()));
+        });
+        Cost typedBuzz = measure(() -> converter.fromMessage(buzz, BuzzCommand.class));
+
+        System.out.printf("validate-answer: Map %,d ns %,d B, typed %,d ns %,d B per decode%n",
+            mapValidate.nanos(), mapValidate.bytes(), typedValidate.nanos(), typedValidate.bytes());
+        System.out.printf("buzz: Map %,d ns %,d B, typed %,d ns %,d B per decode%n",
+            mapBuzz.nanos(), mapBuzz.bytes(), typedBuzz.nanos(), typedBuzz.bytes());
+
+        assertThat(typedValidate.bytes()).isLessThan(mapValidate.bytes());
+        assertThat(typedBuzz.bytes()).isLessThan(mapBuzz.bytes());
+    }
+
+    private static Message<byte[]> message(String json) {
+        return MessageBuilder.withPayload(json.getBytes(StandardCharsets.UTF_8)).build();
+    }
+
+    private static Cost measure(Supplier<Object> decode) {
+        Object last = null;
+        for (int i = 0; i < WARM_UP; i++) {
+            last = decode.get();
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED; i++) {
+            last = decode.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        assertThat(last).isNotNull();
+        return new Cost(elapsed / MEASURED, allocated / MEASURED);
+    }
+
+    private record Cost(long nanos, long bytes) {
+    }
+}
@@ -0,0 +1,160 @@
+package com.hifdh.quest.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.SessionLimitExceededException;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Drives an OutboundQueueSession whose transport write blocks until released, as a slow
+ * client's would, and sends more frames from the test thread meanwhile.
+ */
+class OutboundQueueSessionTest {
+
+    private static final String EVENTS = "/topic/game/abc/events";
+    private static final String TIMER = "/topic/game/abc/timer";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final WebSocketSession transport = mock(WebSocketSession.class);
+    private final Queue<String> written = new ConcurrentLinkedQueue<>();
+    private final CountDownLatch writing = new CountDownLatch(1);
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private Thread writer;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        when(transport.getId()).thenReturn("ws-1");
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            writing.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            written.add(((TextMessage) message).getPayload());
+            return null;
+        }).when(transport).sendMessage(any());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (writer != null) {
+            writer.join(10_000);
+        }
+    }
+
+    @Test
+    void closesAConnectionThatFallsTooFarBehind() throws Exception {
+        OutboundQueueSession queue = backedUp(registry(3, 1 << 20, 60_000));
+        queue.sendMessage(frame(EVENTS, "1"));
+        queue.sendMessage(frame(EVENTS, "2"));
+        queue.sendMessage(frame(EVENTS, "3"));
+
+        assertThatThrownBy(() -> queue.sendMessage(frame(EVENTS, "4")))
+            .isInstanceOfSatisfying(SessionLimitExceededException.class,
+                e -> assertThat(e.getStatus()).isEqualTo(OutboundQueueSession.TOO_FAR_BEHIND));
+
+        assertThat(queue.getQueuedFrames()).isZero();
+        assertThat(meterRegistry.counter("game.outbound.slow-consumers").count()).isEqualTo(1);
+
+        // Nothing more is queued for a connection that is being closed
+        queue.sendMessage(frame(EVENTS, "5"));
+        assertThat(queue.getQueuedFrames()).isZero();
+    }
+
+    @Test
+    void closesAConnectionWhoseWriteIsBlockedTooLong() throws Exception {
+        OutboundQueueSession queue = backedUp(registry(100, 1 << 20, 50));
+        Thread.sleep(100);
+
+        assertThatThrownBy(() -> queue.sendMessage(frame(EVENTS, "1")))
+            .isInstanceOf(SessionLimitExceededException.class);
+        assertThat(meterRegistry.counter("game.outbound.slow-consumers").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keepsOnlyTheLatestOfFramesThatSupersedeEachOther() throws Exception {
+        OutboundQueueSession queue = backedUp(registry(100, 1 << 20, 60_000));
+        queue.sendMessage(frame(TIMER, "9"));
+        queue.sendMessage(frame(EVENTS, "seq-1"));
+        queue.sendMessage(frame(TIMER, "8"));
+        queue.sendMessage(frame(TIMER, "7"));
+
+        assertThat(queue.getQueuedFrames()).isEqualTo(2);
+        assertThat(meterRegistry.counter("game.outbound.frames.superseded").count()).isEqualTo(2);
+
+        release.countDown();
+        writer.join(10_000);
+        assertThat(written).extracting(OutboundQueueSessionTest::body).containsExactly("first", "7", "seq-1");
+    }
+
+    @Test
+    void dropsPeriodicFramesBeforeClosing() throws Exception {
+        OutboundQueueSession queue = backedUp(registry(3, 1 << 20, 60_000));
+        queue.sendMessage(new TextMessage("\n"));
+        queue.sendMessage(frame(TIMER, "9"));
+        queue.sendMessage(frame(EVENTS, "seq-1"));
+        queue.sendMessage(frame(EVENTS, "seq-2"));
+
+        assertThat(queue.getQueuedFrames()).isEqualTo(2);
+        assertThat(meterRegistry.counter("game.outbound.frames.dropped").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("game.outbound.slow-consumers").count()).isZero();
+
+        release.countDown();
+        writer.join(10_000);
+        assertThat(written).extracting(OutboundQueueSessionTest::body).containsExactly("first", "seq-1", "seq-2");
+    }
+
+    @Test
+    void neverCoalescesSequencedEvents() {
+        assertThat(OutboundQueueSession.supersedeKey(frame(EVENTS, "1"))).isNull();
+        assertThat(OutboundQueueSession.supersedeKey(frame("/user/queue/player", "{\"type\":\"ANSWER_TURN\"}")))
+            .isNull();
+        assertThat(OutboundQueueSession.supersedeKey(frame("/user/queue/player", "{\"type\":\"PLAYER_STANDING\"}")))
+            .isEqualTo("/user/queue/player#standing");
+        assertThat(OutboundQueueSession.supersedeKey(frame(TIMER, "1"))).isEqualTo(TIMER);
+    }
+
+    // Starts a write that blocks in the transport; later frames queue behind it
+    private OutboundQueueSession backedUp(OutboundQueueRegistry registry) throws Exception {
+        OutboundQueueSession queue = (OutboundQueueSession) registry.open(transport);
+        writer = new Thread(() -> {
+            try {
+                queue.sendMessage(frame(EVENTS, "first"));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        writer.start();
+        assertThat(writing.await(10, TimeUnit.SECONDS)).isTrue();
+        return queue;
+    }
+
+    private OutboundQueueRegistry registry(int maxFrames, int maxBytes, long sendTimeLimitMillis) {
+        return new OutboundQueueRegistry(meterRegistry, maxFrames, maxBytes, sendTimeLimitMillis);
+    }
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n"
+            + body + "\u0000");
+    }
+
+    private static String body(String frame) {
+        return frame.substring(frame.indexOf("\n\n") + 2, frame.length() - 1);
+    }
+}
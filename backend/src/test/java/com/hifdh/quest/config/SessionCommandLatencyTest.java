@@ -0,0 +1,114 @@
+package com.hifdh.quest.config;
+
+import com.hifdh.quest.service.SessionCommandExecutor;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Buzz latency at 500 concurrent sessions while half of them wait on a slow query, with
+ * mailbox turns on the platform pool (sized like the default sessionCommandPool) and on
+ * virtual threads. Run with mvn test -Pthroughput on Java 21.
+ */
+@Tag("throughput")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class SessionCommandLatencyTest {
+
+    private static final int SESSIONS = 500;
+    private static final int BUZZES_PER_SESSION = 4;
+    private static final long SLOW_QUERY_MILLIS = 5;
+
+    @Test
+    void keepsBuzzesMovingWhileOtherSessionsWaitOnTheDatabase() throws Exception {
+        ThreadPoolTaskExecutor platform = new ThreadPoolTaskExecutor();
+        platform.setCorePoolSize(Runtime.getRuntime().availableProcessors());
+        platform.setMaxPoolSize(Runtime.getRuntime().availableProcessors());
+        platform.initialize();
+
+        try {
+            // Warm up both paths
+            run(platform);
+            run(new VirtualThreadTaskExecutor("game-session-"));
+
+            long[] platformLatencies = run(platform);
+            long[] virtualLatencies = run(new VirtualThreadTaskExecutor("game-session-"));
+
+            System.out.printf("%d sessions, %d platform workers: p50 %.1f ms, p99 %.1f ms%n", SESSIONS,
+                platform.getCorePoolSize(), percentile(platformLatencies, 50), percentile(platformLatencies, 99));
+            System.out.printf("%d sessions, virtual threads: p50 %.1f ms, p99 %.1f ms%n", SESSIONS,
+                percentile(virtualLatencies, 50), percentile(virtualLatencies, 99));
+
+            assertThat(percentile(virtualLatencies, 99)).isLessThan(percentile(platformLatencies, 99));
+        } finally {
+            platform.shutdown();
+        }
+    }
+
+    // Every other session first runs a blocking query; returns the buzz latencies of the rest in nanos
+    private static long[] run(TaskExecutor workers) throws InterruptedException {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 60_000);
+        List<UUID> sessions = new ArrayList<>();
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions.add(UUID.randomUUID());
+        }
+
+        int buzzingSessions = SESSIONS / 2;
+        long[] latencies = new long[buzzingSessions * BUZZES_PER_SESSION];
+        int[] lastBuzz = new int[SESSIONS];
+        Arrays.fill(lastBuzz, -1);
+        CountDownLatch done = new CountDownLatch(latencies.length);
+
+        for (int session = 0; session < SESSIONS; session += 2) {
+            executor.execute(sessions.get(session), SessionCommandLatencyTest::slowQuery);
+        }
+        for (int buzz = 0; buzz < BUZZES_PER_SESSION; buzz++) {
+            for (int session = 1; session < SESSIONS; session += 2) {
+                int sessionIndex = session;
+                int buzzIndex = buzz;
+                int slot = (session / 2) * BUZZES_PER_SESSION + buzz;
+                long submittedAt = System.nanoTime();
+                executor.execute(sessions.get(session), () -> {
+                    latencies[slot] = System.nanoTime() - submittedAt;
+                    // Mailbox order holds on either kind of thread
+                    assertThat(buzzIndex).isGreaterThan(lastBuzz[sessionIndex]);
+                    lastBuzz[sessionIndex] = buzzIndex;
+                    done.countDown();
+                });
+            }
+        }
+
+        assertThat(done.await(60, TimeUnit.SECONDS)).isTrue();
+        for (UUID sessionId : sessions) {
+            executor.call(sessionId, () -> null);
+        }
+        return latencies;
+    }
+
+    private static void slowQuery() {
+        try {
+            Thread.sleep(SLOW_QUERY_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static double percentile(long[] latencies, int percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, (int) Math.ceil(percentile / 100.0 * sorted.length) - 1);
+        return sorted[index] / 1e6;
+    }
+}
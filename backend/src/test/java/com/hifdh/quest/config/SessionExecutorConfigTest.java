@@ -0,0 +1,48 @@
+package com.hifdh.quest.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionExecutorConfigTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withUserConfiguration(SessionExecutorConfig.class);
+
+    @Test
+    void usesAFixedPoolOfTheConfiguredSize() {
+        contextRunner.withPropertyValues("game.commands.pool-size=3").run(context -> {
+            ThreadPoolTaskExecutor pool = context.getBean("sessionCommandPool", ThreadPoolTaskExecutor.class);
+            assertThat(pool.getCorePoolSize()).isEqualTo(3);
+            assertThat(pool.getMaxPoolSize()).isEqualTo(3);
+        });
+    }
+
+    @Test
+    void sizesThePoolToTheCpuCountByDefault() {
+        contextRunner.run(context -> assertThat(context.getBean("sessionCommandPool", ThreadPoolTaskExecutor.class)
+            .getCorePoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors()));
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    void runsMailboxTurnsOnVirtualThreadsWhenEnabled() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+            assertThat(context.getBean("sessionCommandPool", TaskExecutor.class))
+                .isInstanceOf(VirtualThreadTaskExecutor.class));
+    }
+
+    @Test
+    @EnabledForJreRange(max = JRE.JAVA_20)
+    void keepsThePoolWhereVirtualThreadsAreUnavailable() {
+        contextRunner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+            assertThat(context.getBean("sessionCommandPool", TaskExecutor.class))
+                .isInstanceOf(ThreadPoolTaskExecutor.class));
+    }
+}
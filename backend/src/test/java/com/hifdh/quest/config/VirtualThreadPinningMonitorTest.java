@@ -0,0 +1,24 @@
+package com.hifdh.quest.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadPinningMonitorTest {
+
+    @Test
+    void staysIdleWithoutVirtualThreadsButExposesItsCounters() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(new MockEnvironment(), meterRegistry, 20);
+
+        monitor.start();
+        monitor.stop();
+
+        assertThat(meterRegistry.find("game.threads.pinned").tag("jdbc", "true").counter()).isNotNull();
+        assertThat(meterRegistry.find("game.threads.pinned").tag("jdbc", "false").counter()).isNotNull();
+        assertThat(meterRegistry.get("game.threads.pinned").counters())
+            .allSatisfy(counter -> assertThat(counter.count()).isZero());
+    }
+}
@@ -0,0 +1,69 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClockSyncServiceTest {
+
+    private static final long PARTICIPANT_ID = 1L;
+
+    private final ClockSyncService clockSyncService = new ClockSyncService();
+
+    @Test
+    void estimatesOffsetAndRttFromOneExchange() {
+        // Client clock runs 500ms ahead; 40ms each way, 100ms spent on the client
+        clockSyncService.recordSample(PARTICIPANT_ID, 1_000, 1_540, 1_640, 1_180);
+
+        ClockSyncService.ClockEstimate estimate = clockSyncService.getEstimate(PARTICIPANT_ID);
+        assertThat(estimate.getRttMillis()).isEqualTo(80);
+        assertThat(estimate.getOffsetMillis()).isEqualTo(500);
+    }
+
+    @Test
+    void discardsSamplesTheClientCouldNotHaveProduced() {
+        // Sent before it was received
+        clockSyncService.recordSample(PARTICIPANT_ID, 1_000, 1_500, 1_400, 1_200);
+        // Spent longer on the client than the whole round trip
+        clockSyncService.recordSample(PARTICIPANT_ID, 1_000, 1_500, 1_800, 1_200);
+        // Server clock went backwards between t1 and t4
+        clockSyncService.recordSample(PARTICIPANT_ID, 1_000, 1_500, 1_500, 900);
+        // Too slow to say anything about the offset
+        clockSyncService.recordSample(PARTICIPANT_ID, 0, 0, 0, ClockSyncService.MAX_SAMPLE_RTT_MILLIS + 1);
+
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID)).isNull();
+    }
+
+    @Test
+    void usesTheLowestRttAmongTheRecentSamples() {
+        record(30, 7);
+        record(90, 1);
+        record(60, 2);
+
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID).getRttMillis()).isEqualTo(30);
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID).getOffsetMillis()).isEqualTo(7);
+
+        // Once the best sample falls out of the window, the best of the rest takes over
+        for (int i = 1; i < ClockSyncService.SAMPLE_WINDOW; i++) {
+            record(50, 3);
+        }
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID).getRttMillis()).isEqualTo(50);
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID).getOffsetMillis()).isEqualTo(3);
+    }
+
+    @Test
+    void forgetsAParticipant() {
+        record(30, 0);
+
+        clockSyncService.forget(PARTICIPANT_ID);
+
+        assertThat(clockSyncService.getEstimate(PARTICIPANT_ID)).isNull();
+    }
+
+    // One exchange with the given RTT and client offset, and no time spent on the client
+    private void record(long rtt, long offset) {
+        long t1 = 10_000;
+        long t2 = t1 + rtt / 2 + offset;
+        clockSyncService.recordSample(PARTICIPANT_ID, t1, t2, t2, t1 + rtt);
+    }
+}
@@ -0,0 +1,128 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.TimerStoppedEvent;
+import com.hifdh.quest.service.GameEventBroadcaster.EncodedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class GameEventBroadcasterTest {
+
+    private static final String TOPIC = "/topic/game/abc/events";
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private GameEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setUp() {
+        broadcaster = broadcaster(null);
+    }
+
+    @Test
+    void encodesAnEventOnceAndHandsTheSameBytesToEveryDestination() throws Exception {
+        EncodedEvent encoded = broadcaster.publish(TOPIC, event());
+        broadcaster.deliver("/topic/game/abc/replay", encoded);
+
+        List<Message<?>> sent = sentMessages(2);
+        assertThat(sent).allSatisfy(message -> assertThat(message.getPayload()).isSameAs(encoded.payload()));
+
+        JsonNode json = objectMapper.readTree(encoded.payload());
+        assertThat(json.path("type").asText()).isEqualTo("TIMER_STOPPED");
+        assertThat(json.path("reason").asText()).isEqualTo("TIME_UP");
+        assertThat(json.path("totalBuzzes").asInt()).isEqualTo(3);
+    }
+
+    @Test
+    void sendsJsonWithoutConversionAndCountsTopicBytes() {
+        EncodedEvent encoded = broadcaster.publish(TOPIC, event());
+        broadcaster.deliverLocally("/queue/private", encoded.payload());
+
+        Message<?> message = sentMessages(2).get(0);
+        assertThat(message.getHeaders().get(MessageHeaders.CONTENT_TYPE))
+            .isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+        assertThat(meterRegistry.counter("game.events.broadcast.bytes").count())
+            .isEqualTo(encoded.payload().length);
+    }
+
+    @Test
+    void addressesASessionDeliveryToThatWebSocketSession() {
+        EncodedEvent encoded = broadcaster.encode(TOPIC, event());
+
+        broadcaster.deliverToSession("ws-1", "/queue/replay", encoded);
+
+        ArgumentCaptor<Message<?>> message = messageCaptor();
+        verify(messagingTemplate).send(eq("/user/ws-1/queue/replay"), message.capture());
+        assertThat(SimpMessageHeaderAccessor.getSessionId(message.getValue().getHeaders())).isEqualTo("ws-1");
+        assertThat(message.getValue().getPayload()).isSameAs(encoded.payload());
+    }
+
+    @Test
+    void leavesDeliveryToTheRelayWhenItPublished() {
+        RedisEventRelay relay = mock(RedisEventRelay.class);
+        when(relay.publish(any(), any())).thenReturn(true);
+        when(relay.publishToUser(any(), any(), any())).thenReturn(true);
+        GameEventBroadcaster relayed = broadcaster(relay);
+
+        EncodedEvent encoded = relayed.publish(TOPIC, event());
+        relayed.deliverToUser("42", "/queue/player", encoded);
+
+        verify(relay).publish(TOPIC, encoded.payload());
+        verify(relay).publishToUser("/user/42/queue/player", null, encoded.payload());
+        verify(messagingTemplate, never()).send(any(String.class), any(Message.class));
+    }
+
+    @Test
+    void deliversLocallyWhenTheRelayCannotPublish() {
+        RedisEventRelay relay = mock(RedisEventRelay.class);
+        GameEventBroadcaster relayed = broadcaster(relay);
+
+        relayed.publish(TOPIC, event());
+
+        verify(messagingTemplate).send(eq(TOPIC), any(Message.class));
+    }
+
+    private GameEventBroadcaster broadcaster(RedisEventRelay relay) {
+        @SuppressWarnings("unchecked")
+        ObjectProvider<RedisEventRelay> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(relay);
+        return new GameEventBroadcaster(messagingTemplate, objectMapper, provider, meterRegistry);
+    }
+
+    private List<Message<?>> sentMessages(int count) {
+        ArgumentCaptor<Message<?>> messages = messageCaptor();
+        verify(messagingTemplate, times(count)).send(any(String.class), messages.capture());
+        return messages.getAllValues();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ArgumentCaptor<Message<?>> messageCaptor() {
+        return (ArgumentCaptor) ArgumentCaptor.forClass(Message.class);
+    }
+
+    private static TimerStoppedEvent event() {
+        return TimerStoppedEvent.builder().sessionId("abc").reason("TIME_UP").totalBuzzes(3).build();
+    }
+}
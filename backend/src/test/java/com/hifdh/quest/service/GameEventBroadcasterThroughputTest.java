@@ -0,0 +1,131 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.RoundStartedEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.sun.management.ThreadMXBean;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Cost per broadcast of convertAndSend (Jackson conversion on every send) against the
+ * encode-once path, each sending to a destination and re-delivering to a second one
+ * (as a replay does). Run with mvn test -Pthroughput.
+ */
+@Tag("throughput")
+class GameEventBroadcasterThroughputTest {
+
+    private static final String TOPIC = "/topic/game/abc/events";
+    private static final String REPLAY = "/user/ws-1/queue/replay";
+    private static final int WARM_UP = 20_000;
+    private static final int MEASURED = 100_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final AtomicLong sent = new AtomicLong();
+    private final SimpMessagingTemplate messagingTemplate = new SimpMessagingTemplate((message, timeout) -> {
+        sent.incrementAndGet();
+        return true;
+    });
+
+    @Test
+    void encodesOnceForLessThanConvertAndSend() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter();
+        converter.setObjectMapper(objectMapper);
+        messagingTemplate.setMessageConverter(converter);
+
+        @SuppressWarnings("unchecked")
+        ObjectProvider<RedisEventRelay> noRelay = mock(ObjectProvider.class);
+        GameEventBroadcaster broadcaster =
+            new GameEventBroadcaster(messagingTemplate, objectMapper, noRelay, new SimpleMeterRegistry());
+
+        for (Object event : List.of(roundStarted(), scoreboard(50))) {
+            Cost convertAndSend = measure(() -> {
+                messagingTemplate.convertAndSend(TOPIC, event);
+                messagingTemplate.convertAndSend(REPLAY, event);
+            });
+            Cost encodeOnce = measure(() -> broadcaster.deliver(REPLAY, broadcaster.publish(TOPIC, event)));
+
+            System.out.printf("%s: convertAndSend %,d ns %,d B, encode once %,d ns %,d B per broadcast%n",
+                event.getClass().getSimpleName(), convertAndSend.nanos(), convertAndSend.bytes(),
+                encodeOnce.nanos(), encodeOnce.bytes());
+
+            assertThat(encodeOnce.bytes()).isLessThan(convertAndSend.bytes());
+        }
+        assertThat(sent).hasValue(8L * (WARM_UP + MEASURED));
+    }
+
+    private static Cost measure(Runnable broadcast) {
+        for (int i = 0; i < WARM_UP; i++) {
+            broadcast.run();
+        }
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED; i++) {
+            broadcast.run();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+        return new Cost(elapsed / MEASURED, allocated / MEASURED);
+    }
+
+    private static RoundStartedEvent roundStarted() {
+        return RoundStartedEvent.builder()
+            .sessionId(UUID.randomUUID().toString())
+            .roundId("42")
+            .roundNumber(3)
+            .totalRounds(10)
+            .ayat(RoundStartedEvent.AyatData.builder()
+                .surahNumber(2)
+                .ayatNumber(255)
+                .arabicText("ٱللَّهُ لَآ إِلَٰهَ إِلَّا هُوَ ٱلْحَىُّ ٱلْقَيُّومُ ۚ لَا تَأْخُذُهُۥ سِنَةٌ وَلَا نَوْمٌ")
+                .translationEn("Allah - there is no deity except Him, the Ever-Living, the Sustainer of existence.")
+                .surahName("Al-Baqarah")
+                .build())
+            .questionType("guess_surah")
+            .audioUrl("https://everyayah.com/data/Alafasy_128kbps/002255.mp3")
+            .audioMode("once")
+            .autoPlayAudio(true)
+            .timerSeconds(30)
+            .timerStartsAt(Instant.now())
+            .build();
+    }
+
+    private static ScoreboardUpdateEvent scoreboard(int players) {
+        List<ScoreboardUpdateEvent.PlayerScore> scores = new ArrayList<>();
+        for (int i = 1; i <= players; i++) {
+            scores.add(ScoreboardUpdateEvent.PlayerScore.builder()
+                .participantId((long) i)
+                .participantName("Player " + i)
+                .totalScore(10_000 - i * 50)
+                .rank(i)
+                .denseRank(i)
+                .roundsWon(players - i)
+                .isConnected(true)
+                .isBlockedNextRound(false)
+                .build());
+        }
+        return ScoreboardUpdateEvent.builder()
+            .sessionId(UUID.randomUUID().toString())
+            .version(7L)
+            .scores(scores)
+            .build();
+    }
+
+    private record Cost(long nanos, long bytes) {
+    }
+}
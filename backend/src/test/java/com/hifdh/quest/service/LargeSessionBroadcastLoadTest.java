@@ -0,0 +1,107 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.PlayerStandingEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.model.GameSession;
+import com.hifdh.quest.repository.GameSessionRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Bytes a large session puts on its shared topic per answered question, and bytes sent
+ * privately to the player, as the session grows. Run with mvn test -Pthroughput.
+ */
+@Tag("throughput")
+class LargeSessionBroadcastLoadTest {
+
+    private static final int TOP_LIMIT = 10;
+    private static final int ANSWERS = 5_000;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void keepsTopicBytesPerAnswerFlatAsTheSessionGrows() throws Exception {
+        Map<Integer, long[]> bytesPerAnswer = new LinkedHashMap<>();
+        for (int participants : new int[] {1_000, 10_000, 100_000}) {
+            bytesPerAnswer.put(participants, answer(participants));
+        }
+
+        bytesPerAnswer.forEach((participants, bytes) -> System.out.printf(
+            "%,7d participants: topic %,d B per answer, private %,d B per answer, snapshot %,d B%n",
+            participants, bytes[0], bytes[1], bytes[2]));
+
+        long smallest = bytesPerAnswer.get(1_000)[0];
+        assertThat(bytesPerAnswer.values()).allSatisfy(bytes -> {
+            assertThat(bytes[0]).isLessThanOrEqualTo(smallest + smallest / 4);
+            assertThat(bytes[2]).isLessThan(4_096);
+        });
+    }
+
+    // Topic and private bytes per answer, then the bytes of a subscriber's snapshot
+    private long[] answer(int participants) throws Exception {
+        UUID sessionId = UUID.randomUUID();
+        ScoreboardService scoreboardService = largeSession(sessionId, participants);
+        Random random = new Random(participants);
+        int[] totals = new int[participants + 1];
+
+        long topicBytes = 0;
+        long privateBytes = 0;
+        for (int answer = 0; answer < ANSWERS; answer++) {
+            long participantId = 1 + random.nextInt(participants);
+            int totalScore = totals[(int) participantId] += 50 + random.nextInt(300);
+
+            ScoreboardDeltaEvent delta = scoreboardService.recordScore(sessionId, state(sessionId, participantId,
+                totalScore));
+            topicBytes += objectMapper.writeValueAsBytes(delta).length;
+
+            ScoreboardUpdateEvent.PlayerScore standing = scoreboardService.getStanding(sessionId, participantId);
+            privateBytes += objectMapper.writeValueAsBytes(PlayerStandingEvent.builder()
+                .sessionId(sessionId.toString())
+                .participantId(participantId)
+                .totalScore(standing.getTotalScore())
+                .rank(standing.getRank())
+                .denseRank(standing.getDenseRank())
+                .build()).length;
+        }
+
+        int snapshotBytes = objectMapper.writeValueAsBytes(scoreboardService.getSnapshot(sessionId)).length;
+        return new long[] {topicBytes / ANSWERS, privateBytes / ANSWERS, snapshotBytes};
+    }
+
+    private ScoreboardService largeSession(UUID sessionId, int participants) {
+        LiveGameStateService liveGameStateService = mock(LiveGameStateService.class);
+        GameSessionRepository sessionRepository = mock(GameSessionRepository.class);
+        SessionAudienceTracker audienceTracker = mock(SessionAudienceTracker.class);
+
+        List<LiveGameStateService.ParticipantState> states = new ArrayList<>(participants);
+        for (long id = 1; id <= participants; id++) {
+            states.add(state(sessionId, id, 0));
+        }
+        when(liveGameStateService.getParticipants(sessionId)).thenReturn(states);
+        GameSession session = new GameSession();
+        session.setScoreboardLimit(TOP_LIMIT);
+        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(audienceTracker.isLargeSession(sessionId)).thenReturn(true);
+
+        return new ScoreboardService(liveGameStateService, sessionRepository, audienceTracker);
+    }
+
+    private static LiveGameStateService.ParticipantState state(UUID sessionId, long participantId, int totalScore) {
+        return new LiveGameStateService.ParticipantState(participantId, sessionId, "Player " + participantId,
+            totalScore, 0, 0, 0, null, null);
+    }
+}
@@ -0,0 +1,129 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent.ScoreChange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LiveScoreboardTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+
+    @Test
+    void reportsOnlyTheMoverAndLetsClientsShiftTheRest() {
+        int participants = 1_000;
+        Random random = new Random(42);
+        List<LiveGameStateService.ParticipantState> states = new ArrayList<>();
+        for (long id = 1; id <= participants; id++) {
+            states.add(state(id, random.nextInt(500)));
+        }
+        LiveScoreboard scoreboard = new LiveScoreboard(states);
+        List<Long> client = new ArrayList<>(ranking(scoreboard));
+
+        for (int update = 0; update < 2_000; update++) {
+            Map<Long, Integer> before = positions(scoreboard);
+            long participantId = 1 + random.nextInt(participants);
+            int newScore = random.nextInt(500);
+
+            List<ScoreChange> changes = new ArrayList<>();
+            scoreboard.apply(participantId, "Player " + participantId, newScore, Integer.MAX_VALUE, changes);
+
+            assertThat(changes).hasSize(1);
+            ScoreChange change = changes.get(0);
+            assertThat(change.getParticipantId()).isEqualTo(participantId);
+            assertThat(change.getTotalScore()).isEqualTo(newScore);
+            assertThat(change.getPreviousRank()).isEqualTo(before.get(participantId));
+            assertThat(change.getRank()).isEqualTo(positions(scoreboard).get(participantId));
+
+            shift(client, change, Integer.MAX_VALUE);
+            assertThat(client).isEqualTo(ranking(scoreboard));
+        }
+    }
+
+    @Test
+    void keepsAClientsTopRowsCompleteWhenSomeoneDropsOut() {
+        int participants = 200;
+        int visibleRows = 5;
+        Random random = new Random(7);
+        List<LiveGameStateService.ParticipantState> states = new ArrayList<>();
+        for (long id = 1; id <= participants; id++) {
+            states.add(state(id, random.nextInt(100)));
+        }
+        LiveScoreboard scoreboard = new LiveScoreboard(states);
+        List<Long> client = new ArrayList<>(ranking(scoreboard).subList(0, visibleRows));
+
+        for (int update = 0; update < 2_000; update++) {
+            long participantId = 1 + random.nextInt(participants);
+            List<ScoreChange> changes = new ArrayList<>();
+            scoreboard.apply(participantId, "Player " + participantId, random.nextInt(100), visibleRows, changes);
+
+            changes.forEach(change -> shift(client, change, visibleRows));
+            assertThat(client).isEqualTo(ranking(scoreboard).subList(0, visibleRows));
+        }
+    }
+
+    @Test
+    void givesEqualScoresTheSameDenseRank() {
+        LiveScoreboard scoreboard = new LiveScoreboard(List.of(
+            state(1, 300), state(2, 200), state(3, 200), state(4, 100)));
+
+        assertThat(scoreboard.standingOf(2L).denseRank()).isEqualTo(2);
+        assertThat(scoreboard.standingOf(3L).denseRank()).isEqualTo(2);
+        assertThat(scoreboard.standingOf(3L).position()).isEqualTo(3);
+        assertThat(scoreboard.standingOf(4L).denseRank()).isEqualTo(3);
+        assertThat(scoreboard.standingOf(4L).participantCount()).isEqualTo(4);
+    }
+
+    @Test
+    void addsANewParticipantWithoutAPreviousRank() {
+        LiveScoreboard scoreboard = new LiveScoreboard(List.of(state(1, 100)));
+
+        List<ScoreChange> changes = new ArrayList<>();
+        long version = scoreboard.apply(2L, "Late", 150, Integer.MAX_VALUE, changes);
+
+        assertThat(version).isEqualTo(1);
+        assertThat(changes).extracting(ScoreChange::getParticipantId).containsExactly(2L);
+        assertThat(changes.get(0).getPreviousRank()).isNull();
+        assertThat(changes.get(0).getRank()).isEqualTo(1);
+        assertThat(scoreboard.standingOf(1L).position()).isEqualTo(2);
+        assertThat(scoreboard.size()).isEqualTo(2);
+    }
+
+    private static Map<Long, Integer> positions(LiveScoreboard scoreboard) {
+        List<Long> ranking = ranking(scoreboard);
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ranking.size(); i++) {
+            positions.put(ranking.get(i), i + 1);
+        }
+        return positions;
+    }
+
+    private static List<Long> ranking(LiveScoreboard scoreboard) {
+        List<LiveScoreboard.Entry> entries = new ArrayList<>();
+        scoreboard.snapshot(entries);
+        return entries.stream().map(LiveScoreboard.Entry::participantId).toList();
+    }
+
+    // What a client does with a change: take the row out, put it back at its new rank, keep the top rows
+    private static void shift(List<Long> rows, ScoreChange change, int visibleRows) {
+        rows.remove(change.getParticipantId());
+        if (change.getRank() - 1 <= rows.size()) {
+            rows.add(change.getRank() - 1, change.getParticipantId());
+        }
+        while (rows.size() > visibleRows) {
+            rows.remove(rows.size() - 1);
+        }
+    }
+
+    private static LiveGameStateService.ParticipantState state(long participantId, int totalScore) {
+        return new LiveGameStateService.ParticipantState(participantId, SESSION_ID, "Player " + participantId,
+            totalScore, 0, 0, 0, null, null);
+    }
+}
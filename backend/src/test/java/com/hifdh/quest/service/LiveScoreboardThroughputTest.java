@@ -0,0 +1,85 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent.ScoreChange;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntConsumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Score updates per second on the live scoreboard against re-sorting every participant on
+ * each update, as the SQL-ordered scoreboard did. Run with mvn test -Pthroughput.
+ */
+@Tag("throughput")
+class LiveScoreboardThroughputTest {
+
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final int TOP_LIMIT = 10;
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 100_000})
+    void updatesFasterThanReSortingTheSession(int participants) {
+        Random random = new Random(participants);
+        List<LiveGameStateService.ParticipantState> states = new ArrayList<>();
+        for (long id = 1; id <= participants; id++) {
+            states.add(state(id, random.nextInt(participants * 10)));
+        }
+        LiveScoreboard scoreboard = new LiveScoreboard(states);
+        List<ScoreChange> changes = new ArrayList<>();
+        List<LiveScoreboard.Entry> top = new ArrayList<>(TOP_LIMIT);
+
+        // Each update: apply the new score, read the top rows and the mover's own standing
+        double treeRate = rate(200_000, update -> {
+            long participantId = 1 + random.nextInt(participants);
+            changes.clear();
+            scoreboard.apply(participantId, "Player " + participantId, random.nextInt(participants * 10),
+                TOP_LIMIT, changes);
+            top.clear();
+            scoreboard.snapshot(TOP_LIMIT, top);
+            scoreboard.standingOf(participantId);
+        });
+
+        List<LiveGameStateService.ParticipantState> rows = new ArrayList<>(states);
+        Comparator<LiveGameStateService.ParticipantState> byScore =
+            Comparator.comparingInt(LiveGameStateService.ParticipantState::totalScore).reversed();
+        double sortRate = rate(Math.max(20, 2_000_000 / participants), update -> {
+            int index = random.nextInt(participants);
+            rows.set(index, rows.get(index).withTotalScore(random.nextInt(participants * 10)));
+            List<LiveGameStateService.ParticipantState> sorted = new ArrayList<>(rows);
+            sorted.sort(byScore);
+        });
+
+        System.out.printf("%,7d participants: live scoreboard %,12.0f updates/s, re-sort %,12.0f updates/s%n",
+            participants, treeRate, sortRate);
+
+        assertThat(scoreboard.size()).isEqualTo(participants);
+        if (participants >= 1_000) {
+            assertThat(treeRate).isGreaterThan(sortRate);
+        }
+    }
+
+    // Runs a warm-up pass, then returns updates per second over the measured pass
+    private static double rate(int updates, IntConsumer update) {
+        for (int i = 0; i < updates / 4; i++) {
+            update.accept(i);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < updates; i++) {
+            update.accept(i);
+        }
+        return updates / ((System.nanoTime() - start) / 1e9);
+    }
+
+    private static LiveGameStateService.ParticipantState state(long participantId, int totalScore) {
+        return new LiveGameStateService.ParticipantState(participantId, SESSION_ID, "Player " + participantId,
+            totalScore, 0, 0, 0, null, null);
+    }
+}
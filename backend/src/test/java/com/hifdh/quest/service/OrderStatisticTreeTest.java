@@ -0,0 +1,123 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Checks the tree against a sorted list at small, medium and large-session sizes.
+ */
+class OrderStatisticTreeTest {
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 100_000})
+    void answersRankAndPositionQueriesLikeASortedList(int size) {
+        Random random = new Random(size);
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.reverseOrder());
+        List<Integer> expected = new ArrayList<>(size);
+
+        // Scores collide often, as they do on a real scoreboard
+        for (int i = 0; i < size; i++) {
+            int score = random.nextInt(Math.max(size / 4, 2));
+            tree.add(score);
+            expected.add(score);
+        }
+        expected.sort(Comparator.reverseOrder());
+        assertMatches(tree, expected, random);
+
+        // Move a tenth of the entries, as score updates do
+        for (int i = 0; i < Math.max(size / 10, 1); i++) {
+            Integer old = expected.remove(random.nextInt(expected.size()));
+            assertThat(tree.remove(old)).isTrue();
+            int score = random.nextInt(Math.max(size / 4, 2));
+            tree.add(score);
+            insertSorted(expected, score);
+        }
+        assertMatches(tree, expected, random);
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {10, 1_000, 100_000})
+    void visitsOnlyTheRequestedTopInOrder(int size) {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        for (int i = size - 1; i >= 0; i--) {
+            tree.add(i);
+        }
+
+        List<Integer> top = new ArrayList<>();
+        tree.forFirst(5, top::add);
+
+        assertThat(top).containsExactlyElementsOf(List.of(0, 1, 2, 3, 4).subList(0, Math.min(5, size)));
+    }
+
+    @Test
+    void removesOneOfSeveralEqualElements() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.add(5);
+        tree.add(5);
+        tree.add(7);
+
+        assertThat(tree.remove(5)).isTrue();
+        assertThat(tree.size()).isEqualTo(2);
+        assertThat(tree.rankOf(7)).isEqualTo(1);
+        assertThat(tree.remove(6)).isFalse();
+        assertThat(tree.size()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsPositionsOutsideTheTree() {
+        OrderStatisticTree<Integer> tree = new OrderStatisticTree<>(Comparator.naturalOrder());
+        tree.add(1);
+
+        assertThatThrownBy(() -> tree.get(1)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> tree.get(-1)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+
+    private static void assertMatches(OrderStatisticTree<Integer> tree, List<Integer> expected, Random random) {
+        assertThat(tree.size()).isEqualTo(expected.size());
+
+        List<Integer> inOrder = new ArrayList<>(expected.size());
+        tree.forFirst(Integer.MAX_VALUE, inOrder::add);
+        assertThat(inOrder).isEqualTo(expected);
+
+        for (int probe = 0; probe < 1_000; probe++) {
+            int index = random.nextInt(expected.size());
+            assertThat(tree.get(index)).isEqualTo(expected.get(index));
+
+            Integer value = expected.get(index);
+            assertThat(tree.rankOf(value)).isEqualTo(firstIndexOf(expected, value));
+        }
+        // A value not in the tree ranks after everything higher
+        assertThat(tree.rankOf(Integer.MAX_VALUE)).isZero();
+        assertThat(tree.rankOf(-1)).isEqualTo(expected.size());
+    }
+
+    // Position of the first element equal to value in a descending list
+    private static int firstIndexOf(List<Integer> descending, int value) {
+        int low = 0;
+        int high = descending.size();
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (descending.get(middle) > value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static void insertSorted(List<Integer> descending, int value) {
+        int index = Collections.binarySearch(descending, value, Comparator.reverseOrder());
+        descending.add(index >= 0 ? index : -index - 1, value);
+    }
+}
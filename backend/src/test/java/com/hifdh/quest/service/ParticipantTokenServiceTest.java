@@ -0,0 +1,50 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParticipantTokenServiceTest {
+
+    private static final String SECRET = "a-test-secret-that-is-long-enough-for-hmac-sha-256";
+    private static final UUID SESSION_ID = UUID.randomUUID();
+    private static final Long PARTICIPANT_ID = 42L;
+
+    private final ParticipantTokenService tokenService = new ParticipantTokenService(SECRET, 60_000, true);
+
+    @Test
+    void bindsTheParticipantAndSessionItWasIssuedFor() {
+        ParticipantPrincipal principal = tokenService.verify(tokenService.issue(SESSION_ID, PARTICIPANT_ID));
+
+        assertThat(principal.gameSessionId()).isEqualTo(SESSION_ID);
+        assertThat(principal.participantId()).isEqualTo(PARTICIPANT_ID);
+        assertThat(principal.getName()).isEqualTo("42");
+    }
+
+    @Test
+    void refusesATokenSignedWithAnotherKey() {
+        ParticipantTokenService otherInstance = new ParticipantTokenService(SECRET.replace('a', 'b'), 60_000, true);
+        String forged = otherInstance.issue(SESSION_ID, PARTICIPANT_ID);
+
+        assertThatThrownBy(() -> tokenService.verify(forged))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesAnExpiredToken() {
+        ParticipantTokenService expiring = new ParticipantTokenService(SECRET, -1_000, true);
+        String expired = expiring.issue(SESSION_ID, PARTICIPANT_ID);
+
+        assertThatThrownBy(() -> tokenService.verify(expired))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void refusesGarbage() {
+        assertThatThrownBy(() -> tokenService.verify("not-a-token"))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
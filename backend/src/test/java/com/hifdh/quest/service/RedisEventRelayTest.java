@@ -0,0 +1,116 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Round trip through the relay: what publish hands to Redis is fed back to onMessage, as the
+ * subscription of every instance would receive it. Redis itself is mocked; pub/sub ordering
+ * and delivery are Redis's own guarantees.
+ */
+class RedisEventRelayTest {
+
+    private static final byte[] PAYLOAD = "{\"type\":\"BUZZER_PRESSED\",\"seq\":7}".getBytes(StandardCharsets.UTF_8);
+
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    private final RedisConnection connection = mock(RedisConnection.class);
+    private final GameEventBroadcaster eventBroadcaster = mock(GameEventBroadcaster.class);
+    private final RedisEventRelay relay = new RedisEventRelay(redisTemplate, eventBroadcaster);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.execute(any(RedisCallback.class)))
+            .thenAnswer(invocation -> ((RedisCallback<?>) invocation.getArgument(0)).doInRedis(connection));
+    }
+
+    @Test
+    void relaysASessionEventToThatSessionsChannelAndBack() {
+        assertThat(relay.publish("/topic/game/abc/events", PAYLOAD)).isTrue();
+
+        Published published = published();
+        assertThat(published.channel()).isEqualTo("game:events:abc");
+
+        relay.onMessage(published.asMessage(), RedisEventRelay.CHANNEL_PATTERN.getBytes(StandardCharsets.UTF_8));
+
+        verify(eventBroadcaster).deliverLocally(eq("/topic/game/abc/events"), eq(PAYLOAD));
+    }
+
+    @Test
+    void relaysAUserDeliveryWithItsWebSocketSession() {
+        assertThat(relay.publishToUser("/user/ws-1/queue/replay", "ws-1", PAYLOAD)).isTrue();
+
+        Published published = published();
+        assertThat(published.channel()).isEqualTo(RedisEventRelay.USER_CHANNEL);
+
+        relay.onMessage(published.asMessage(), null);
+
+        verify(eventBroadcaster).deliverToUserLocally(eq("/user/ws-1/queue/replay"), eq("ws-1"), eq(PAYLOAD));
+    }
+
+    @Test
+    void relaysAUserDeliveryByPrincipalName() {
+        relay.publishToUser("/user/42/queue/player", null, PAYLOAD);
+
+        relay.onMessage(published().asMessage(), null);
+
+        verify(eventBroadcaster).deliverToUserLocally(eq("/user/42/queue/player"), eq(null), eq(PAYLOAD));
+    }
+
+    @Test
+    void leavesDestinationsOutsideSessionTopicsToTheCaller() {
+        assertThat(relay.publish("/topic/lobby", PAYLOAD)).isFalse();
+
+        verifyNoInteractions(redisTemplate);
+    }
+
+    @Test
+    void reportsAFailedPublishSoTheCallerDeliversLocally() {
+        when(connection.publish(any(byte[].class), any(byte[].class)))
+            .thenThrow(new RedisConnectionFailureException("down"));
+
+        assertThat(relay.publish("/topic/game/abc/events", PAYLOAD)).isFalse();
+        assertThat(relay.publishToUser("/user/42/queue/player", null, PAYLOAD)).isFalse();
+    }
+
+    @Test
+    void dropsAMessageWithoutADestination() {
+        relay.onMessage(new DefaultMessage("game:events:abc".getBytes(StandardCharsets.UTF_8), PAYLOAD), null);
+
+        verify(eventBroadcaster, never()).deliverLocally(any(), any());
+    }
+
+    private Published published() {
+        ArgumentCaptor<byte[]> channel = ArgumentCaptor.forClass(byte[].class);
+        ArgumentCaptor<byte[]> body = ArgumentCaptor.forClass(byte[].class);
+        verify(connection).publish(channel.capture(), body.capture());
+        return new Published(channel.getValue(), body.getValue());
+    }
+
+    private record Published(byte[] channelBytes, byte[] body) {
+
+        String channel() {
+            return new String(channelBytes, StandardCharsets.UTF_8);
+        }
+
+        DefaultMessage asMessage() {
+            return new DefaultMessage(channelBytes, body);
+        }
+    }
+}
@@ -0,0 +1,210 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.service.RoundBuzzArbiter.Contender;
+import com.hifdh.quest.service.RoundBuzzArbiter.PendingPress;
+import com.hifdh.quest.service.RoundBuzzArbiter.RankedPress;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RoundBuzzArbiterTest {
+
+    private static final int PLAYERS = 32;
+
+    @Test
+    void ranksAWindowByPressTimeNotArrivalOrder() {
+        RoundBuzzArbiter arbiter = arbiter(3, Set.of());
+        admitAndEnqueue(arbiter, 1L, 300);
+        admitAndEnqueue(arbiter, 2L, 100);
+        admitAndEnqueue(arbiter, 3L, 200);
+
+        List<RankedPress> ranked = arbiter.resolveWindow();
+
+        assertThat(ranked).extracting(press -> press.press().participantId()).containsExactly(2L, 3L, 1L);
+        assertThat(ranked).extracting(RankedPress::buzzRank).containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void givesPressesPastTheLastSlotRankZero() {
+        // All three are admitted while slots still look free; the window has only two
+        RoundBuzzArbiter arbiter = arbiter(2, Set.of());
+        admitAndEnqueue(arbiter, 1L, 30);
+        admitAndEnqueue(arbiter, 2L, 10);
+        admitAndEnqueue(arbiter, 3L, 20);
+
+        List<RankedPress> ranked = arbiter.resolveWindow();
+
+        assertThat(ranked).extracting(RankedPress::buzzRank).containsExactly(1, 2, 0);
+        assertThat(ranked.get(2).press().participantId()).isEqualTo(1L);
+        assertThat(ranked.get(2).accepted()).isFalse();
+        assertThatThrownBy(() -> arbiter.admit(4L)).hasMessage("Maximum buzzes reached for this round");
+    }
+
+    @Test
+    void admitsEachParticipantOnceUnderContention() throws Exception {
+        RoundBuzzArbiter arbiter = arbiter(PLAYERS, Set.of());
+        AtomicInteger admitted = new AtomicInteger();
+
+        race(PLAYERS, thread -> {
+            try {
+                arbiter.admit(7L);
+                admitted.incrementAndGet();
+            } catch (IllegalStateException e) {
+                assertThat(e).hasMessage("Player has already buzzed in this round");
+            }
+        });
+
+        assertThat(admitted).hasValue(1);
+    }
+
+    @Test
+    void handsOutEachSlotExactlyOnceUnderContention() throws Exception {
+        RoundBuzzArbiter arbiter = arbiter(3, Set.of());
+        Queue<Integer> ranks = new ConcurrentLinkedQueue<>();
+
+        race(PLAYERS, thread -> {
+            try {
+                ranks.add(arbiter.claim((long) thread + 1));
+            } catch (IllegalStateException e) {
+                assertThat(e).hasMessage("Maximum buzzes reached for this round");
+            }
+        });
+
+        assertThat(ranks).containsExactlyInAnyOrder(1, 2, 3);
+        // Participants who lost the race for a slot are not left marked as having buzzed
+        assertThat(arbiter.getBuzzedParticipants()).hasSize(3);
+    }
+
+    @Test
+    void opensOneWindowPerBurstAndRanksEveryPressInIt() throws Exception {
+        RoundBuzzArbiter arbiter = arbiter(PLAYERS, Set.of());
+        AtomicInteger windowsOpened = new AtomicInteger();
+
+        race(PLAYERS, thread -> {
+            long participantId = thread + 1;
+            arbiter.admit(participantId);
+            if (arbiter.enqueue(new PendingPress(participantId, null, 1_000 - thread))) {
+                windowsOpened.incrementAndGet();
+            }
+        });
+
+        assertThat(windowsOpened).hasValue(1);
+        List<RankedPress> ranked = arbiter.resolveWindow();
+        assertThat(ranked).hasSize(PLAYERS);
+        assertThat(ranked).extracting(RankedPress::buzzRank)
+            .containsExactlyElementsOf(IntStream.rangeClosed(1, PLAYERS).boxed().toList());
+        assertThat(ranked).extracting(press -> press.press().pressedAtMillis()).isSorted();
+
+        // The next press after resolution opens a new window
+        assertThat(arbiter.enqueue(new PendingPress(1L, null, 0))).isTrue();
+    }
+
+    @Test
+    void doesNotLosePressesEnqueuedWhileAWindowResolves() throws Exception {
+        RoundBuzzArbiter arbiter = arbiter(PLAYERS, Set.of());
+        Queue<RankedPress> ranked = new ConcurrentLinkedQueue<>();
+
+        race(PLAYERS, thread -> {
+            long participantId = thread + 1;
+            arbiter.admit(participantId);
+            if (arbiter.enqueue(new PendingPress(participantId, null, participantId))) {
+                ranked.addAll(arbiter.resolveWindow());
+            }
+        });
+        ranked.addAll(arbiter.resolveWindow());
+
+        assertThat(ranked).hasSize(PLAYERS);
+        assertThat(ranked).extracting(RankedPress::buzzRank).doesNotHaveDuplicates().allMatch(rank -> rank > 0);
+    }
+
+    @Test
+    void rejectsPressesItCannotAccept() {
+        Map<Long, Contender> contenders = contenders();
+        contenders.put(99L, new Contender("Blocked", true));
+        RoundBuzzArbiter arbiter = new RoundBuzzArbiter(1L, 1, UUID.randomUUID(), 3, contenders, Set.of(1L), false);
+
+        assertThatThrownBy(() -> arbiter.admit(1L)).hasMessage("Player has already buzzed in this round");
+        assertThatThrownBy(() -> arbiter.admit(99L)).hasMessage("Player is blocked from buzzing this round");
+        assertThatThrownBy(() -> arbiter.admit(1_000L))
+            .hasMessage("Participant does not belong to this game session");
+
+        arbiter.close();
+        assertThatThrownBy(() -> arbiter.admit(2L)).hasMessage("Cannot buzz - round has ended");
+    }
+
+    @Test
+    void admitsAParticipantAddedAfterTheRoundOpened() {
+        RoundBuzzArbiter arbiter = arbiter(3, Set.of());
+        assertThatThrownBy(() -> arbiter.claim(1_000L))
+            .hasMessage("Participant does not belong to this game session");
+
+        arbiter.addContender(1_000L, new Contender("Late", false));
+
+        assertThat(arbiter.claim(1_000L)).isEqualTo(1);
+        assertThat(arbiter.getParticipantName(1_000L)).isEqualTo("Late");
+    }
+
+    @Test
+    void countsPressesRecordedBeforeItWasLoaded() {
+        RoundBuzzArbiter arbiter = arbiter(3, Set.of(1L, 2L));
+
+        assertThat(arbiter.claim(3L)).isEqualTo(3);
+        assertThatThrownBy(() -> arbiter.admit(4L)).hasMessage("Maximum buzzes reached for this round");
+    }
+
+    private static RoundBuzzArbiter arbiter(int maxSlots, Set<Long> alreadyBuzzed) {
+        return new RoundBuzzArbiter(1L, 1, UUID.randomUUID(), maxSlots, contenders(), alreadyBuzzed, false);
+    }
+
+    private static Map<Long, Contender> contenders() {
+        Map<Long, Contender> contenders = new HashMap<>();
+        for (long id = 1; id <= PLAYERS; id++) {
+            contenders.put(id, new Contender("Player " + id, false));
+        }
+        return contenders;
+    }
+
+    private static void admitAndEnqueue(RoundBuzzArbiter arbiter, long participantId, long pressedAtMillis) {
+        arbiter.admit(participantId);
+        arbiter.enqueue(new PendingPress(participantId, null, pressedAtMillis));
+    }
+
+    // Runs the body on that many threads released at the same moment
+    private static void race(int threads, IntConsumer body) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Thread> started = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            int index = i;
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.accept(index);
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+            thread.start();
+            started.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : started) {
+            thread.join();
+        }
+        assertThat(failures).isEmpty();
+    }
+}
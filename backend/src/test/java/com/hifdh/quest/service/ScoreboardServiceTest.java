@@ -0,0 +1,101 @@
+package com.hifdh.quest.service;
+
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.model.GameSession;
+import com.hifdh.quest.repository.GameSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ScoreboardServiceTest {
+
+    private static final int PARTICIPANTS = 1_000;
+    private static final int TOP_LIMIT = 3;
+
+    private final UUID sessionId = UUID.randomUUID();
+    private final LiveGameStateService liveGameStateService = mock(LiveGameStateService.class);
+    private final GameSessionRepository sessionRepository = mock(GameSessionRepository.class);
+    private final SessionAudienceTracker audienceTracker = mock(SessionAudienceTracker.class);
+    private final ScoreboardService scoreboardService =
+        new ScoreboardService(liveGameStateService, sessionRepository, audienceTracker);
+
+    @BeforeEach
+    void setUp() {
+        // Participant n scores 10 * n, so participant 1000 leads
+        List<LiveGameStateService.ParticipantState> participants = new ArrayList<>();
+        for (long id = 1; id <= PARTICIPANTS; id++) {
+            participants.add(state(id, (int) (10 * id)));
+        }
+        when(liveGameStateService.getParticipants(sessionId)).thenReturn(participants);
+
+        GameSession session = new GameSession();
+        session.setScoreboardLimit(TOP_LIMIT);
+        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+    }
+
+    @Test
+    void sendsTheWholeScoreboardToASmallSession() {
+        ScoreboardUpdateEvent snapshot = scoreboardService.getSnapshot(sessionId);
+
+        assertThat(snapshot.getScores()).hasSize(PARTICIPANTS);
+        assertThat(snapshot.getLimit()).isNull();
+    }
+
+    @Test
+    void sendsOnlyTheTopToALargeSession() {
+        when(audienceTracker.isLargeSession(sessionId)).thenReturn(true);
+
+        ScoreboardUpdateEvent snapshot = scoreboardService.getSnapshot(sessionId);
+
+        assertThat(snapshot.getLimit()).isEqualTo(TOP_LIMIT);
+        assertThat(snapshot.getScores()).extracting(ScoreboardUpdateEvent.PlayerScore::getParticipantId)
+            .containsExactly(1_000L, 999L, 998L);
+        assertThat(snapshot.getScores()).extracting(ScoreboardUpdateEvent.PlayerScore::getRank)
+            .containsExactly(1, 2, 3);
+    }
+
+    @Test
+    void namesEveryScoreChangeInALargeSessionsDelta() {
+        when(audienceTracker.isLargeSession(sessionId)).thenReturn(true);
+
+        // Far below the top: still recorded, clients below the top rows just ignore it
+        ScoreboardDeltaEvent quiet = scoreboardService.recordScore(sessionId, state(5L, 100));
+        assertThat(quiet.getChanges()).extracting(ScoreboardDeltaEvent.ScoreChange::getParticipantId)
+            .containsExactly(5L);
+
+        // Into first place: only the climber; clients shift the top rows down themselves
+        ScoreboardDeltaEvent climb = scoreboardService.recordScore(sessionId, state(5L, 20_000));
+        assertThat(climb.getVersion()).isEqualTo(quiet.getVersion() + 1);
+        assertThat(climb.getChanges()).extracting(ScoreboardDeltaEvent.ScoreChange::getRank).containsExactly(1);
+
+        // Out of the top: the row that moves up into the last top place follows
+        ScoreboardDeltaEvent drop = scoreboardService.recordScore(sessionId, state(5L, 0));
+        assertThat(drop.getChanges()).extracting(ScoreboardDeltaEvent.ScoreChange::getParticipantId)
+            .containsExactly(5L, 998L);
+        assertThat(drop.getChanges()).extracting(ScoreboardDeltaEvent.ScoreChange::getRank)
+            .containsExactly(PARTICIPANTS, TOP_LIMIT);
+    }
+
+    @Test
+    void answersAnyPlayersStandingPrivately() {
+        ScoreboardUpdateEvent.PlayerScore standing = scoreboardService.getStanding(sessionId, 1L);
+
+        assertThat(standing.getRank()).isEqualTo(PARTICIPANTS);
+        assertThat(standing.getDenseRank()).isEqualTo(PARTICIPANTS);
+        assertThat(scoreboardService.getStanding(sessionId, 5_000L)).isNull();
+    }
+
+    private LiveGameStateService.ParticipantState state(long participantId, int totalScore) {
+        return new LiveGameStateService.ParticipantState(participantId, sessionId, "Player " + participantId,
+            totalScore, 0, 0, 0, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SessionAudienceTrackerTest {
+
+    private final UUID sessionId = UUID.randomUUID();
+    private final String topic = "/topic/game/" + sessionId + "/events";
+
+    @Test
+    void switchesToLargeSessionModeAtTheThresholdAndStaysThere() {
+        SessionAudienceTracker tracker = new SessionAudienceTracker(3, 10);
+
+        tracker.subscribed("c1", "s1", topic);
+        tracker.subscribed("c2", "s1", topic);
+        assertThat(tracker.isLargeSession(sessionId)).isFalse();
+
+        tracker.subscribed("c3", "s1", topic);
+        assertThat(tracker.isLargeSession(sessionId)).isTrue();
+
+        tracker.disconnected("c3");
+        tracker.unsubscribed("c2", "s1");
+        assertThat(tracker.getSubscriberCount(sessionId)).isEqualTo(1);
+        assertThat(tracker.isLargeSession(sessionId)).isTrue();
+
+        tracker.evictSession(sessionId);
+        assertThat(tracker.isLargeSession(sessionId)).isFalse();
+    }
+
+    @Test
+    void refusesSubscriptionsPastTheCap() {
+        SessionAudienceTracker tracker = new SessionAudienceTracker(0, 2);
+        tracker.subscribed("c1", "s1", topic);
+        tracker.subscribed("c2", "s1", topic);
+
+        assertThat(tracker.canSubscribe(topic)).isFalse();
+        assertThat(tracker.canSubscribe("/topic/game/" + UUID.randomUUID() + "/events")).isTrue();
+        assertThat(tracker.canSubscribe("/user/queue/player")).isTrue();
+
+        tracker.unsubscribed("c1", "s1");
+        assertThat(tracker.canSubscribe(topic)).isTrue();
+    }
+
+    @Test
+    void countsEachSubscriptionOnceAndIgnoresOtherDestinations() {
+        SessionAudienceTracker tracker = new SessionAudienceTracker(0, 10);
+
+        tracker.subscribed("c1", "s1", topic);
+        tracker.subscribed("c1", "s1", topic);
+        tracker.subscribed("c1", "s2", "/topic/game/" + sessionId + "/timer");
+        tracker.unsubscribed("c1", "unknown");
+
+        assertThat(tracker.getSubscriberCount(sessionId)).isEqualTo(1);
+
+        tracker.disconnected("c1");
+        tracker.disconnected("c1");
+        assertThat(tracker.getSubscriberCount(sessionId)).isZero();
+    }
+}
@@ -0,0 +1,133 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SessionCommandExecutorTest {
+
+    private final ExecutorService workers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void shutDown() {
+        workers.shutdownNow();
+    }
+
+    @Test
+    void runsOneSessionsCommandsOneAtATimeInSubmissionOrder() throws Exception {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 10_000);
+        UUID sessionId = UUID.randomUUID();
+        int submitters = 8;
+        int commandsPerSubmitter = 500;
+
+        AtomicInteger running = new AtomicInteger();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        // Deliberately unsynchronized: only the mailbox keeps it consistent
+        List<int[]> executed = new ArrayList<>();
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int submitter = 0; submitter < submitters; submitter++) {
+            int id = submitter;
+            Thread thread = new Thread(() -> {
+                awaitQuietly(start);
+                for (int n = 0; n < commandsPerSubmitter; n++) {
+                    int[] command = {id, n};
+                    executor.execute(sessionId, () -> {
+                        if (running.incrementAndGet() > 1) {
+                            overlapped.set(true);
+                        }
+                        executed.add(command);
+                        running.decrementAndGet();
+                    });
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        executor.call(sessionId, () -> null);
+
+        assertThat(overlapped).isFalse();
+        assertThat(executed).hasSize(submitters * commandsPerSubmitter);
+        int[] lastBySubmitter = new int[submitters];
+        Arrays.fill(lastBySubmitter, -1);
+        for (int[] command : executed) {
+            assertThat(command[1]).isGreaterThan(lastBySubmitter[command[0]]);
+            lastBySubmitter[command[0]] = command[1];
+        }
+    }
+
+    @Test
+    void runsDifferentSessionsInParallel() {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 10_000);
+        CountDownLatch release = new CountDownLatch(1);
+        executor.execute(UUID.randomUUID(), () -> awaitQuietly(release));
+
+        try {
+            assertThat(executor.call(UUID.randomUUID(), () -> "done")).isEqualTo("done");
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void rethrowsACommandsRuntimeException() {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 10_000);
+
+        assertThatThrownBy(() -> executor.call(UUID.randomUUID(), () -> {
+            throw new IllegalStateException("Round has ended");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("Round has ended");
+    }
+
+    @Test
+    void timesOutAndSkipsACommandStuckBehindABusyMailbox() throws Exception {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 50);
+        UUID sessionId = UUID.randomUUID();
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicBoolean ran = new AtomicBoolean();
+        executor.execute(sessionId, () -> awaitQuietly(release));
+
+        assertThatThrownBy(() -> executor.call(sessionId, () -> ran.getAndSet(true)))
+            .isInstanceOf(CommandTimeoutException.class);
+
+        release.countDown();
+        executor.call(sessionId, () -> null);
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    void keepsRunningAfterACommandFails() {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workers, 10_000);
+        UUID sessionId = UUID.randomUUID();
+        executor.execute(sessionId, () -> {
+            throw new IllegalStateException("boom");
+        });
+
+        assertThat(executor.call(sessionId, () -> 42)).isEqualTo(42);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
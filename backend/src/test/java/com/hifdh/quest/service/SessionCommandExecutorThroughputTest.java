@@ -0,0 +1,91 @@
+package com.hifdh.quest.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Commands per second through the mailboxes as the number of busy sessions grows.
+ * Run with mvn test -Pthroughput; the worker pool is sized like the default sessionCommandPool.
+ */
+@Tag("throughput")
+class SessionCommandExecutorThroughputTest {
+
+    private static final int COMMANDS = 400_000;
+
+    private final int workers = Runtime.getRuntime().availableProcessors();
+    private final ExecutorService workerPool = Executors.newFixedThreadPool(workers);
+
+    @AfterEach
+    void shutDown() {
+        workerPool.shutdownNow();
+    }
+
+    @Test
+    void keepsThroughputAsConcurrentSessionsGrow() {
+        SessionCommandExecutor executor = new SessionCommandExecutor(workerPool, 60_000);
+
+        // Warm up
+        run(executor, 16);
+
+        Map<Integer, Double> commandsPerSecond = new LinkedHashMap<>();
+        for (int sessions : new int[] {1, 4, 16, 64, 256}) {
+            commandsPerSecond.put(sessions, run(executor, sessions));
+        }
+
+        System.out.printf("Session mailboxes, %d workers:%n", workers);
+        commandsPerSecond.forEach((sessions, rate) ->
+            System.out.printf("  %4d sessions: %,12.0f commands/s%n", sessions, rate));
+
+        // Sessions never contend with each other, so more of them must not slow the pool down
+        double single = commandsPerSecond.get(1);
+        assertThat(commandsPerSecond.values()).allSatisfy(rate -> assertThat(rate).isGreaterThan(single * 0.5));
+    }
+
+    // Submits COMMANDS spread round-robin over the sessions and waits for all of them
+    private double run(SessionCommandExecutor executor, int sessionCount) {
+        List<UUID> sessions = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            sessions.add(UUID.randomUUID());
+        }
+        // Only touched on each session's mailbox
+        long[] state = new long[sessionCount];
+        int[] executed = new int[sessionCount];
+
+        long start = System.nanoTime();
+        for (int n = 0; n < COMMANDS; n++) {
+            int session = n % sessionCount;
+            executor.execute(sessions.get(session), () -> {
+                state[session] = work(state[session]);
+                executed[session]++;
+            });
+        }
+        for (UUID sessionId : sessions) {
+            executor.call(sessionId, () -> null);
+        }
+        long elapsed = System.nanoTime() - start;
+
+        assertThat(IntStream.of(executed).sum()).isEqualTo(COMMANDS);
+        return COMMANDS / (elapsed / 1e9);
+    }
+
+    // A small state change, like a buzz or a score update
+    private static long work(long seed) {
+        long value = seed;
+        for (int i = 0; i < 64; i++) {
+            value = value * 6364136223846793005L + 1442695040888963407L;
+        }
+        return value;
+    }
+}
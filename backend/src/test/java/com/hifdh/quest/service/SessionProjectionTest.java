@@ -0,0 +1,108 @@
+package com.hifdh.quest.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hifdh.quest.dto.websocket.ScoreboardDeltaEvent;
+import com.hifdh.quest.dto.websocket.ScoreboardUpdateEvent;
+import com.hifdh.quest.model.GameSession;
+import com.hifdh.quest.repository.GameSessionRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SessionProjectionTest {
+
+    private static final int PARTICIPANTS = 1_000;
+    private static final int TOP_LIMIT = 5;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final UUID sessionId = UUID.randomUUID();
+
+    @Test
+    void rebuildsEveryTotalOfALargeSessionFromItsStoredDeltas() {
+        ScoreboardService scoreboardService = largeSessionScoreboard();
+        SessionProjection projection = new SessionProjection(sessionId.toString());
+        Map<Long, Integer> totals = new HashMap<>();
+        Random random = new Random(11);
+
+        long seq = 0;
+        for (int update = 0; update < 5_000; update++) {
+            long participantId = 1 + random.nextInt(PARTICIPANTS);
+            int totalScore = random.nextInt(10_000);
+            totals.put(participantId, totalScore);
+
+            ScoreboardDeltaEvent delta = scoreboardService.recordScore(sessionId, state(participantId, totalScore));
+            projection.apply(++seq, delta.getType(), objectMapper.valueToTree(delta));
+        }
+
+        // Most of these players were never in the top rows clients are shown
+        totals.forEach((participantId, totalScore) ->
+            assertThat(projection.getParticipants().get(participantId).getTotalScore())
+                .as("total of participant %d", participantId)
+                .isEqualTo(totalScore));
+
+        List<Long> projectedTop = projection.scoreboard().subList(0, TOP_LIMIT).stream()
+            .map(SessionProjection.ParticipantView::getParticipantId)
+            .toList();
+        assertThat(projectedTop).isEqualTo(scoreboardService.getSnapshot(sessionId).getScores().stream()
+            .map(ScoreboardUpdateEvent.PlayerScore::getParticipantId)
+            .toList());
+        assertThat(projection.getScoreboardVersion()).isEqualTo(seq);
+    }
+
+    @Test
+    void ignoresEventsItHasAlreadyApplied() {
+        SessionProjection projection = new SessionProjection(sessionId.toString());
+        ScoreboardDeltaEvent delta = ScoreboardDeltaEvent.builder()
+            .sessionId(sessionId.toString())
+            .version(1L)
+            .changes(List.of(ScoreboardDeltaEvent.ScoreChange.builder()
+                .participantId(1L).participantName("Player 1").totalScore(10).rank(1).build()))
+            .build();
+        ScoreboardDeltaEvent older = ScoreboardDeltaEvent.builder()
+            .sessionId(sessionId.toString())
+            .version(0L)
+            .changes(List.of(ScoreboardDeltaEvent.ScoreChange.builder()
+                .participantId(1L).participantName("Player 1").totalScore(0).rank(1).build()))
+            .build();
+
+        projection.apply(2, delta.getType(), objectMapper.valueToTree(delta));
+        projection.apply(1, older.getType(), objectMapper.valueToTree(older));
+        projection.apply(2, older.getType(), objectMapper.valueToTree(older));
+
+        assertThat(projection.getSeq()).isEqualTo(2);
+        assertThat(projection.getParticipants().get(1L).getTotalScore()).isEqualTo(10);
+    }
+
+    private ScoreboardService largeSessionScoreboard() {
+        LiveGameStateService liveGameStateService = mock(LiveGameStateService.class);
+        GameSessionRepository sessionRepository = mock(GameSessionRepository.class);
+        SessionAudienceTracker audienceTracker = mock(SessionAudienceTracker.class);
+
+        List<LiveGameStateService.ParticipantState> participants = new ArrayList<>();
+        for (long id = 1; id <= PARTICIPANTS; id++) {
+            participants.add(state(id, 0));
+        }
+        when(liveGameStateService.getParticipants(sessionId)).thenReturn(participants);
+        GameSession session = new GameSession();
+        session.setScoreboardLimit(TOP_LIMIT);
+        when(sessionRepository.findById(sessionId)).thenReturn(Optional.of(session));
+        when(audienceTracker.isLargeSession(sessionId)).thenReturn(true);
+
+        return new ScoreboardService(liveGameStateService, sessionRepository, audienceTracker);
+    }
+
+    private LiveGameStateService.ParticipantState state(long participantId, int totalScore) {
+        return new LiveGameStateService.ParticipantState(participantId, sessionId, "Player " + participantId,
+            totalScore, 0, 0, 0, null, null);
+    }
+}
@@ -1,5 +1,5 @@
 import { useEffect, useRef, useState, useCallback } from 'react';
-import { Client, IMessage } from '@stomp/stompjs';
+import { Client } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
 import type {
   GameEvent,
@@ -8,7 +8,10 @@ import type {
   TimerStoppedEvent,
   AnswerValidatedEvent,
   ScoreboardUpdateEvent,
+  SessionSnapshotEvent,
+  PlayerPresenceEvent,
 } from './usePlayerWebSocket';
+import { createEventSequencer, subscribeToScoreboard } from './usePlayerWebSocket';
 
 export interface AdminWebSocketCallbacks {
   onRoundStarted?: (event: RoundStartedEvent) => void;
@@ -16,6 +19,7 @@ export interface AdminWebSocketCallbacks {
   onTimerStopped?: (event: TimerStoppedEvent) => void;
   onAnswerValidated?: (event: AnswerValidatedEvent) => void;
   onScoreboardUpdate?: (event: ScoreboardUpdateEvent) => void;
+  onPlayerPresence?: (event: PlayerPresenceEvent) => void;
   onError?: (error: string) => void;
 }
 
@@ -110,47 +114,59 @@ export function useAdminWebSocket(
       heartbeatOutgoing: 4000,
     });
 
+    let scoreboard: ReturnType<typeof subscribeToScoreboard> | null = null;
+
+    // Route to appropriate callback
+    const routeEvent = (event: GameEvent) => {
+      switch (event.type) {
+        case 'ROUND_STARTED':
+          callbacks.onRoundStarted?.(event as RoundStartedEvent);
+          break;
+        case 'BUZZER_PRESSED':
+          callbacks.onBuzzerPressed?.(event as BuzzerPressedEvent);
+          break;
+        case 'TIMER_STOPPED':
+          callbacks.onTimerStopped?.(event as TimerStoppedEvent);
+          break;
+        case 'ANSWER_VALIDATED':
+          callbacks.onAnswerValidated?.(event as AnswerValidatedEvent);
+          break;
+        case 'SCOREBOARD_UPDATE':
+        case 'SCOREBOARD_DELTA':
+          scoreboard?.handleEvent(event);
+          break;
+        case 'SESSION_SNAPSHOT':
+          scoreboard?.handleEvent((event as SessionSnapshotEvent).scoreboard);
+          break;
+        case 'PLAYER_DISCONNECTED':
+        case 'PLAYER_RECONNECTED':
+          callbacks.onPlayerPresence?.(event as PlayerPresenceEvent);
+          break;
+        default:
+          console.warn('⚠️ Unknown event type:', event.type);
+      }
+    };
+
+    const sequencer = createEventSequencer(client, sessionId, routeEvent);
+
     client.onConnect = () => {
       setIsConnected(true);
       setIsConnecting(false);
 
-      // Subscribe to game events
-      const topic = `/topic/game/${sessionId}/events`;
-
-      const eventsSubscription = client.subscribe(
-        topic,
-        (message: IMessage) => {
-          try {
-            const event: GameEvent = JSON.parse(message.body);
-
-            // Route to appropriate callback
-            switch (event.type) {
-              case 'ROUND_STARTED':
-                callbacks.onRoundStarted?.(event as RoundStartedEvent);
-                break;
-              case 'BUZZER_PRESSED':
-                callbacks.onBuzzerPressed?.(event as BuzzerPressedEvent);
-                break;
-              case 'TIMER_STOPPED':
-                callbacks.onTimerStopped?.(event as TimerStoppedEvent);
-                break;
-              case 'ANSWER_VALIDATED':
-                callbacks.onAnswerValidated?.(event as AnswerValidatedEvent);
-                break;
-              case 'SCOREBOARD_UPDATE':
-                callbacks.onScoreboardUpdate?.(event as ScoreboardUpdateEvent);
-                break;
-              default:
-                console.warn('⚠️ Unknown event type:', event.type);
-            }
-          } catch (error) {
-            console.error('❌ Error parsing game event:', error);
-            callbacks.onError?.('Failed to parse game event');
-          }
-        }
+      // Scoreboard snapshot plus deltas
+      scoreboard = subscribeToScoreboard(client, sessionId, (event) => {
+        callbacks.onScoreboardUpdate?.(event);
+      });
+      subscriptionsRef.current.push(...scoreboard.subscriptions);
+
+      // Subscribe to game events (live, and replayed after a reconnect)
+      subscriptionsRef.current.push(
+        client.subscribe(`/topic/game/${sessionId}/events`, sequencer.handleMessage),
+        client.subscribe('/user/queue/replay', sequencer.handleMessage)
       );
 
-      subscriptionsRef.current.push(eventsSubscription);
+      // Catch up on anything missed while disconnected
+      sequencer.resume();
     };
 
     client.onStompError = (frame) => {
@@ -1,12 +1,14 @@
 import { useEffect, useRef, useState, useCallback } from 'react';
-import { Client, IMessage } from '@stomp/stompjs';
+import { Client, IMessage, StompSubscription } from '@stomp/stompjs';
 import SockJS from 'sockjs-client';
+import type { GameSession } from '../types/game';
 
 // Game Event Types from backend
 export interface GameEvent {
   type: string;
   sessionId: string;
   timestamp: string;
+  seq?: number | null; // Per-session sequence number of events on /topic/game/{id}/events
 }
 
 export interface RoundStartedEvent extends GameEvent {
@@ -56,21 +58,37 @@ export interface AnswerValidatedEvent extends GameEvent {
   timeMultiplier: number;
   timeBonusPoints: number;
   buzzRankBonus: number;
-  adminBonusPoints: number; // Streak bonus
+  streakBonus: number;
+  adminBonusPoints: number;
   feedback: string | null;
 }
 
 export interface ScoreboardUpdateEvent extends GameEvent {
   type: 'SCOREBOARD_UPDATE';
+  version: number;
   scores: Array<{
     participantId: number;
     participantName: string;
     totalScore: number;
     rank: number | null;
+    denseRank?: number; // Equal scores share a rank; not carried by deltas
     roundsWon: number;
     isConnected: boolean;
     isBlockedNextRound: boolean;
   }>;
+  limit?: number | null; // Large sessions only keep the top rows
+}
+
+export interface ScoreboardDeltaEvent extends GameEvent {
+  type: 'SCOREBOARD_DELTA';
+  version: number;
+  changes: Array<{
+    participantId: number;
+    participantName: string;
+    totalScore: number;
+    rank: number;
+    previousRank: number | null;
+  }>;
 }
 
 export interface RoundEndedEvent extends GameEvent {
@@ -78,6 +96,225 @@ export interface RoundEndedEvent extends GameEvent {
   roundId: string;
 }
 
+export interface SessionSnapshotEvent extends GameEvent {
+  type: 'SESSION_SNAPSHOT';
+  session: GameSession;
+  currentRound: RoundStartedEvent | null;
+  scoreboard: ScoreboardUpdateEvent;
+}
+
+export interface PlayerPresenceEvent extends GameEvent {
+  type: 'PLAYER_DISCONNECTED' | 'PLAYER_RECONNECTED';
+  participantId: number;
+  participantName: string | null;
+}
+
+// Sent privately to the player whose turn it is to answer
+export interface AnswerTurnEvent extends GameEvent {
+  type: 'ANSWER_TURN';
+  participantId: number;
+  participantName: string;
+  buzzRank: number;
+  answerTimeoutSeconds: number;
+  allowTextAnswer: boolean;
+}
+
+// This player's own place; sent privately in large sessions
+export interface PlayerStandingEvent extends GameEvent {
+  type: 'PLAYER_STANDING';
+  participantId: number;
+  totalScore: number;
+  rank: number;
+  denseRank: number;
+}
+
+export interface ClockSyncEvent extends GameEvent {
+  type: 'CLOCK_SYNC';
+  serverTime: number;
+  offsetMillis: number | null;
+  rttMillis: number | null;
+}
+
+// Heartbeat interval; each heartbeat doubles as a clock-sync sample for buzz ordering
+const HEARTBEAT_INTERVAL_MS = 5000;
+
+// Apply a delta to a snapshot. Each change moves one participant from its previous to its new
+// rank; the rows in between shift by one place. Rows are held in rank order from the top.
+export function applyScoreboardDelta(
+  snapshot: ScoreboardUpdateEvent,
+  delta: ScoreboardDeltaEvent
+): ScoreboardUpdateEvent {
+  const scores = [...snapshot.scores];
+  delta.changes.forEach((change) => {
+    const index = scores.findIndex((score) => score.participantId === change.participantId);
+    const existing = index >= 0 ? scores.splice(index, 1)[0] : undefined;
+    // A large session only holds the top rows; a change below them is not shown
+    if (change.rank - 1 <= scores.length) {
+      scores.splice(change.rank - 1, 0, {
+        roundsWon: 0,
+        isConnected: true,
+        isBlockedNextRound: false,
+        ...existing,
+        participantId: change.participantId,
+        participantName: change.participantName,
+        totalScore: change.totalScore,
+        rank: change.rank,
+      });
+    }
+  });
+
+  const limit = snapshot.limit;
+  const ranked = scores.map((score, index) => ({ ...score, rank: index + 1 }));
+  return {
+    ...snapshot,
+    version: delta.version,
+    timestamp: delta.timestamp,
+    scores: limit ? ranked.slice(0, limit) : ranked,
+  };
+}
+
+// Copy scoreboard totals into a loaded game session
+export function withScoreboard(session: GameSession, scoreboard: ScoreboardUpdateEvent): GameSession {
+  const totals = new Map(scoreboard.scores.map((score) => [score.participantId, score.totalScore]));
+  return {
+    ...session,
+    participants: session.participants.map((participant) => ({
+      ...participant,
+      totalScore: totals.get(participant.id) ?? participant.totalScore,
+    })),
+  };
+}
+
+/**
+ * Versioned scoreboard stream: a snapshot on subscribe, then deltas from the events topic.
+ * A delta that skips a version triggers a resync; the fresh snapshot arrives on /user/queue/scoreboard.
+ */
+export function subscribeToScoreboard(
+  client: Client,
+  sessionId: string,
+  onScoreboard: (scoreboard: ScoreboardUpdateEvent) => void
+): { subscriptions: StompSubscription[]; handleEvent: (event: GameEvent) => void } {
+  let current: ScoreboardUpdateEvent | null = null;
+  let pending: ScoreboardDeltaEvent[] = [];
+
+  const requestResync = () => {
+    current = null;
+    client.publish({ destination: `/app/game/${sessionId}/scoreboard/resync`, body: '{}' });
+  };
+
+  const applyDelta = (delta: ScoreboardDeltaEvent) => {
+    if (!current) {
+      // Snapshot not there yet; hold the delta until it arrives
+      pending.push(delta);
+      return;
+    }
+    if (delta.version <= current.version) {
+      return;
+    }
+    if (delta.version !== current.version + 1) {
+      requestResync();
+      return;
+    }
+    current = applyScoreboardDelta(current, delta);
+    onScoreboard(current);
+  };
+
+  const applySnapshot = (message: IMessage) => {
+    try {
+      current = JSON.parse(message.body) as ScoreboardUpdateEvent;
+      onScoreboard(current);
+      const held = pending;
+      pending = [];
+      held.forEach(applyDelta);
+    } catch (error) {
+      console.error('Error parsing scoreboard snapshot:', error);
+    }
+  };
+
+  const subscriptions = [
+    client.subscribe(`/app/game/${sessionId}/scoreboard`, applySnapshot),
+    client.subscribe('/user/queue/scoreboard', applySnapshot),
+  ];
+
+  const handleEvent = (event: GameEvent) => {
+    if (event.type === 'SCOREBOARD_DELTA') {
+      applyDelta(event as ScoreboardDeltaEvent);
+    } else if (event.type === 'SCOREBOARD_UPDATE') {
+      current = event as ScoreboardUpdateEvent;
+      onScoreboard(current);
+    }
+  };
+
+  return { subscriptions, handleEvent };
+}
+
+// Close code the server uses for connections whose outbound queue fell too far behind
+const TOO_FAR_BEHIND_CLOSE_CODE = 4001;
+
+// Minimum time between two resume requests while a gap is being filled
+const RESUME_THROTTLE_MS = 1000;
+
+/**
+ * Puts the session's event stream back in sequence order.
+ * Duplicates are dropped; on a gap (or after a reconnect) the client asks the server to
+ * replay what it missed, and replayed events or a SESSION_SNAPSHOT arrive on /user/queue/replay.
+ */
+export function createEventSequencer(
+  client: Client,
+  sessionId: string,
+  onEvent: (event: GameEvent) => void
+): { handleMessage: (message: IMessage) => void; resume: () => void } {
+  let lastSeq = 0;
+  let lastResumeAt = 0;
+
+  const resume = () => {
+    if (!client.connected || Date.now() - lastResumeAt < RESUME_THROTTLE_MS) {
+      return;
+    }
+    lastResumeAt = Date.now();
+    client.publish({
+      destination: `/app/game/${sessionId}/resume`,
+      body: JSON.stringify({ sessionId, lastSeq }),
+    });
+  };
+
+  const handleMessage = (message: IMessage) => {
+    try {
+      const event: GameEvent = JSON.parse(message.body);
+
+      if (event.type === 'SESSION_SNAPSHOT') {
+        lastSeq = event.seq ?? lastSeq;
+        onEvent(event);
+        return;
+      }
+
+      if (event.seq != null) {
+        if (event.seq <= lastSeq) {
+          return; // Already seen (replay overlapping the live stream)
+        }
+        if (lastSeq > 0 && event.seq > lastSeq + 1) {
+          resume(); // Missed something; this event comes back with the replay
+          return;
+        }
+        lastSeq = event.seq;
+      }
+
+      onEvent(event);
+    } catch (error) {
+      console.error('Error parsing game event:', error);
+    }
+  };
+
+  return {
+    handleMessage,
+    resume: () => {
+      if (lastSeq > 0) {
+        resume();
+      }
+    },
+  };
+}
+
 export interface PlayerWebSocketCallbacks {
   onRoundStarted?: (event: RoundStartedEvent) => void;
   onBuzzerPressed?: (event: BuzzerPressedEvent) => void;
@@ -85,6 +322,10 @@ export interface PlayerWebSocketCallbacks {
   onAnswerValidated?: (event: AnswerValidatedEvent) => void;
   onScoreboardUpdate?: (event: ScoreboardUpdateEvent) => void;
   onRoundEnded?: (event: RoundEndedEvent) => void;
+  onSessionSnapshot?: (event: SessionSnapshotEvent) => void;
+  onPlayerPresence?: (event: PlayerPresenceEvent) => void;
+  onPlayerStanding?: (event: PlayerStandingEvent) => void;
+  onAnswerTurn?: (event: AnswerTurnEvent) => void;
   onError?: (error: string) => void;
 }
 
@@ -97,6 +338,8 @@ export function usePlayerWebSocket(
   const [isConnecting, setIsConnecting] = useState(false);
   const clientRef = useRef<Client | null>(null);
   const subscriptionsRef = useRef<Array<{ unsubscribe: () => void }>>([]);
+  // Last CLOCK_SYNC reply, echoed back with the next heartbeat
+  const clockSyncRef = useRef<{ serverTime: number; clientReceiveTime: number } | null>(null);
 
   // Send buzzer press
   const pressBuzzer = useCallback(
@@ -110,6 +353,7 @@ export function usePlayerWebSocket(
         sessionId,
         roundId,
         participantId,
+        clientTimestamp: new Date().toISOString(),
         clientElapsedSeconds,
       };
 
@@ -144,22 +388,33 @@ export function usePlayerWebSocket(
     [sessionId, participantId, isConnected]
   );
 
-  // Send heartbeat
-  const sendHeartbeat = useCallback(() => {
-    if (!clientRef.current || !isConnected) {
-      return;
-    }
+  // Send heartbeat (carries the echo of the last clock-sync reply)
+  const publishHeartbeat = useCallback(
+    (client: Client | null) => {
+      if (!client || !client.connected) {
+        return;
+      }
 
-    const message = {
-      sessionId,
-      participantId,
-    };
+      const lastSync = clockSyncRef.current;
+      const message = {
+        sessionId,
+        participantId,
+        echoServerTime: lastSync?.serverTime,
+        clientReceiveTime: lastSync?.clientReceiveTime,
+        clientSendTime: Date.now(),
+      };
 
-    clientRef.current.publish({
-      destination: '/app/player/heartbeat',
-      body: JSON.stringify(message),
-    });
-  }, [sessionId, participantId, isConnected]);
+      client.publish({
+        destination: '/app/player/heartbeat',
+        body: JSON.stringify(message),
+      });
+    },
+    [sessionId, participantId]
+  );
+
+  const sendHeartbeat = useCallback(() => {
+    publishHeartbeat(clientRef.current);
+  }, [publishHeartbeat]);
 
   // Setup WebSocket connection
   useEffect(() => {
@@ -168,54 +423,119 @@ export function usePlayerWebSocket(
     setIsConnecting(true);
 
     const wsUrl = import.meta.env.VITE_WS_URL || 'http://localhost:8080/ws';
+    // Issued when this player joined; binds the connection to them on the server
+    const participantToken = localStorage.getItem(`participant_token_${sessionId}`);
 
     const client = new Client({
       webSocketFactory: () => new SockJS(wsUrl) as any,
       reconnectDelay: 5000,
       heartbeatIncoming: 4000,
       heartbeatOutgoing: 4000,
+      // Identifies this connection to the server (player commands and presence tracking)
+      connectHeaders: {
+        'participant-id': String(participantId),
+        'game-session-id': sessionId,
+        ...(participantToken ? { 'participant-token': participantToken } : {}),
+      },
     });
 
+    let scoreboard: ReturnType<typeof subscribeToScoreboard> | null = null;
+
+    // Route to appropriate callback
+    const routeEvent = (event: GameEvent) => {
+      switch (event.type) {
+        case 'ROUND_STARTED':
+          callbacks.onRoundStarted?.(event as RoundStartedEvent);
+          break;
+        case 'BUZZER_PRESSED':
+          callbacks.onBuzzerPressed?.(event as BuzzerPressedEvent);
+          break;
+        case 'TIMER_STOPPED':
+          callbacks.onTimerStopped?.(event as TimerStoppedEvent);
+          break;
+        case 'ANSWER_VALIDATED':
+          callbacks.onAnswerValidated?.(event as AnswerValidatedEvent);
+          break;
+        case 'SCOREBOARD_UPDATE':
+        case 'SCOREBOARD_DELTA':
+          scoreboard?.handleEvent(event);
+          break;
+        case 'ROUND_ENDED':
+          callbacks.onRoundEnded?.(event as RoundEndedEvent);
+          break;
+        case 'SESSION_SNAPSHOT': {
+          const snapshot = event as SessionSnapshotEvent;
+          scoreboard?.handleEvent(snapshot.scoreboard);
+          callbacks.onSessionSnapshot?.(snapshot);
+          break;
+        }
+        case 'PLAYER_DISCONNECTED':
+        case 'PLAYER_RECONNECTED':
+          callbacks.onPlayerPresence?.(event as PlayerPresenceEvent);
+          break;
+      }
+    };
+
+    const sequencer = createEventSequencer(client, sessionId, routeEvent);
+
     client.onConnect = () => {
       setIsConnected(true);
       setIsConnecting(false);
 
-      // Subscribe to game events
-      const eventsSubscription = client.subscribe(
-        `/topic/game/${sessionId}/events`,
-        (message: IMessage) => {
+      // Scoreboard snapshot plus deltas
+      scoreboard = subscribeToScoreboard(client, sessionId, (event) => {
+        callbacks.onScoreboardUpdate?.(event);
+      });
+      subscriptionsRef.current.push(...scoreboard.subscriptions);
+
+      // Subscribe to game events (live, and replayed after a reconnect)
+      subscriptionsRef.current.push(
+        client.subscribe(`/topic/game/${sessionId}/events`, sequencer.handleMessage),
+        client.subscribe('/user/queue/replay', sequencer.handleMessage)
+      );
+
+      // Catch up on anything missed while disconnected
+      sequencer.resume();
+
+      // Clock-sync replies to our heartbeats
+      const clockSubscription = client.subscribe('/user/queue/clock', (message: IMessage) => {
+        try {
+          const event: ClockSyncEvent = JSON.parse(message.body);
+          clockSyncRef.current = { serverTime: event.serverTime, clientReceiveTime: Date.now() };
+        } catch (error) {
+          console.error('Error parsing clock sync:', error);
+        }
+      });
+
+      subscriptionsRef.current.push(clockSubscription);
+
+      // Private updates: answer turns, own standing in large sessions, and this player's errors
+      subscriptionsRef.current.push(
+        client.subscribe('/user/queue/player', (message: IMessage) => {
           try {
             const event: GameEvent = JSON.parse(message.body);
-
-            // Route to appropriate callback
-            switch (event.type) {
-              case 'ROUND_STARTED':
-                callbacks.onRoundStarted?.(event as RoundStartedEvent);
-                break;
-              case 'BUZZER_PRESSED':
-                callbacks.onBuzzerPressed?.(event as BuzzerPressedEvent);
-                break;
-              case 'TIMER_STOPPED':
-                callbacks.onTimerStopped?.(event as TimerStoppedEvent);
-                break;
-              case 'ANSWER_VALIDATED':
-                callbacks.onAnswerValidated?.(event as AnswerValidatedEvent);
-                break;
-              case 'SCOREBOARD_UPDATE':
-                callbacks.onScoreboardUpdate?.(event as ScoreboardUpdateEvent);
-                break;
-              case 'ROUND_ENDED':
-                callbacks.onRoundEnded?.(event as RoundEndedEvent);
-                break;
+            if (event.type === 'PLAYER_STANDING') {
+              callbacks.onPlayerStanding?.(event as PlayerStandingEvent);
+            } else if (event.type === 'ANSWER_TURN') {
+              callbacks.onAnswerTurn?.(event as AnswerTurnEvent);
             }
           } catch (error) {
-            console.error('Error parsing game event:', error);
-            callbacks.onError?.('Failed to parse game event');
+            console.error('Error parsing player update:', error);
           }
-        }
+        }),
+        client.subscribe('/user/queue/errors', (message: IMessage) => {
+          try {
+            const error: { type: string; message: string } = JSON.parse(message.body);
+            callbacks.onError?.(error.message);
+          } catch (error) {
+            console.error('Error parsing player error:', error);
+          }
+        })
       );
 
-      subscriptionsRef.current.push(eventsSubscription);
+      // Start a clock-sync exchange right away so the first buzz is already compensated
+      clockSyncRef.current = null;
+      publishHeartbeat(client);
     };
 
     client.onStompError = (frame) => {
@@ -225,7 +545,11 @@ export function usePlayerWebSocket(
       callbacks.onError?.(frame.headers['message'] || 'WebSocket error');
     };
 
-    client.onWebSocketClose = () => {
+    client.onWebSocketClose = (event: CloseEvent) => {
+      if (event?.code === TOO_FAR_BEHIND_CLOSE_CODE) {
+        // The server gave up on our backlog; the reconnect resumes from the last seq seen
+        console.warn('⚠️ Fell too far behind, reconnecting to resync');
+      }
       setIsConnected(false);
       setIsConnecting(false);
     };
@@ -233,10 +557,10 @@ export function usePlayerWebSocket(
     client.activate();
     clientRef.current = client;
 
-    // Heartbeat interval (every 30 seconds)
+    // Heartbeat interval
     const heartbeatInterval = setInterval(() => {
-      sendHeartbeat();
-    }, 30000);
+      publishHeartbeat(client);
+    }, HEARTBEAT_INTERVAL_MS);
 
     // Cleanup
     return () => {
@@ -10,6 +10,7 @@ import type {
   BuzzerPressedEvent,
   ScoreboardUpdateEvent,
 } from '../hooks/usePlayerWebSocket';
+import { withScoreboard } from '../hooks/usePlayerWebSocket';
 import BuzzerQueue from '../components/admin/BuzzerQueue';
 
 export default function AdminPage() {
@@ -59,12 +60,10 @@ export default function AdminPage() {
     setCurrentTurnParticipantId(undefined);
   }, []);
 
-  const handleScoreboardUpdate = useCallback((_event: ScoreboardUpdateEvent) => {
-    // Refresh game session to get updated scores
-    if (sessionId) {
-      loadGameSession();
-    }
-  }, [sessionId]);
+  const handleScoreboardUpdate = useCallback((event: ScoreboardUpdateEvent) => {
+    // Apply the latest scores without refetching the session
+    setGameSession((prev) => (prev ? withScoreboard(prev, event) : prev));
+  }, []);
 
   // Initialize admin WebSocket connection
   const { validateAnswer, endRound: wsEndRound, isConnected: wsConnected } = useAdminWebSocket(
@@ -28,7 +28,7 @@ export default function GameLobby() {
   }, [sessionId]);
 
   // Handle successful join
-  const handleJoinSuccess = (id: number, name: string) => {
+  const handleJoinSuccess = (id: number, name: string, token?: string) => {
     setParticipantId(id);
     setParticipantName(name);
 
@@ -36,6 +36,9 @@ export default function GameLobby() {
     if (sessionId) {
       localStorage.setItem(`participant_${sessionId}`, id.toString());
       localStorage.setItem(`participant_name_${sessionId}`, name);
+      if (token) {
+        localStorage.setItem(`participant_token_${sessionId}`, token);
+      }
     }
   };
 
@@ -47,6 +50,7 @@ export default function GameLobby() {
     if (sessionId) {
       localStorage.removeItem(`participant_${sessionId}`);
       localStorage.removeItem(`participant_name_${sessionId}`);
+      localStorage.removeItem(`participant_token_${sessionId}`);
     }
   };
 
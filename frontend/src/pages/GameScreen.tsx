@@ -10,6 +10,7 @@ import type {
   BuzzerPressedEvent,
   ScoreboardUpdateEvent,
 } from '../hooks/usePlayerWebSocket';
+import { withScoreboard } from '../hooks/usePlayerWebSocket';
 import BuzzerQueue from '../components/admin/BuzzerQueue';
 import AdminRoundControl from '../components/admin/AdminRoundControl';
 
@@ -49,12 +50,9 @@ export default function GameScreen() {
   }, []);
 
   const handleScoreboardUpdate = useCallback((event: ScoreboardUpdateEvent) => {
-    console.log('📥 Scoreboard update:', event);
-    // Reload game session to get updated scores
-    if (sessionId) {
-      loadGameSession();
-    }
-  }, [sessionId]);
+    // Apply the latest scores without refetching the session
+    setGameSession((prev) => (prev ? withScoreboard(prev, event) : prev));
+  }, []);
 
   // Admin WebSocket connection
   const { isConnected, startRound, validateAnswer } = useAdminWebSocket(
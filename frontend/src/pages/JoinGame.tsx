@@ -33,6 +33,9 @@ export default function JoinGame() {
       // Save participant info to localStorage so GameLobby can detect it
       localStorage.setItem(`participant_${sessionId}`, participant.id.toString());
       localStorage.setItem(`participant_name_${sessionId}`, participant.name);
+      if (participant.token) {
+        localStorage.setItem(`participant_token_${sessionId}`, participant.token);
+      }
 
       // Navigate to game screen after successful join
       navigate(`/game/${sessionId}`);
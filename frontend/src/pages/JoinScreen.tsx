@@ -4,7 +4,7 @@ import { Users, Gamepad2, Loader2 } from 'lucide-react';
 
 interface JoinScreenProps {
   sessionId: string;
-  onJoinSuccess: (participantId: number, participantName: string) => void;
+  onJoinSuccess: (participantId: number, participantName: string, participantToken?: string) => void;
 }
 
 export default function JoinScreen({ sessionId, onJoinSuccess }: JoinScreenProps) {
@@ -28,7 +28,7 @@ export default function JoinScreen({ sessionId, onJoinSuccess }: JoinScreenProps
       const participant = await apiService.addParticipant(sessionId, name.trim());
 
       // Success! Notify parent component
-      onJoinSuccess(participant.id, participant.name);
+      onJoinSuccess(participant.id, participant.name, participant.token);
     } catch (err: any) {
       console.error('Failed to join game:', err);
       setError(err.message || 'Failed to join game. Please try again.');
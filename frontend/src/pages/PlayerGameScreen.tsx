@@ -7,11 +7,14 @@ import { Trophy, Users, LogOut, Loader2, Wifi, WifiOff } from 'lucide-react';
 // Hooks
 import {
   usePlayerWebSocket,
+  withScoreboard,
   type RoundStartedEvent,
   type BuzzerPressedEvent,
   type TimerStoppedEvent,
   type AnswerValidatedEvent,
   type RoundEndedEvent,
+  type ScoreboardUpdateEvent,
+  type SessionSnapshotEvent,
 } from '../hooks/usePlayerWebSocket';
 import { useTimerSync } from '../hooks/useTimerSync';
 
@@ -68,6 +71,7 @@ export default function PlayerGameScreen({
     onAnswerValidated: handleAnswerValidated,
     onScoreboardUpdate: handleScoreboardUpdate,
     onRoundEnded: handleRoundEnded,
+    onSessionSnapshot: handleSessionSnapshot,
     onError: (error) => {
       console.error('WebSocket error:', error);
       setError(error);
@@ -148,9 +152,9 @@ export default function PlayerGameScreen({
     }
   }
 
-  function handleScoreboardUpdate() {
-    // Refresh game session from backend to get latest scores
-    loadGameSession();
+  function handleScoreboardUpdate(event: ScoreboardUpdateEvent) {
+    // Apply the latest scores without refetching the session
+    setGameSession((prev) => (prev ? withScoreboard(prev, event) : prev));
   }
 
   function handleRoundEnded(_event: RoundEndedEvent) {
@@ -177,6 +181,19 @@ export default function PlayerGameScreen({
     }
   }
 
+  function handleSessionSnapshot(event: SessionSnapshotEvent) {
+    // Too much was missed to replay; take the server's state as-is
+    setGameSession(event.session);
+
+    if (event.currentRound) {
+      if (event.currentRound.roundId !== currentRound?.roundId) {
+        handleRoundStarted(event.currentRound);
+      }
+    } else if (currentRound) {
+      handleRoundEnded({ type: 'ROUND_ENDED', sessionId, timestamp: event.timestamp, roundId: currentRound.roundId });
+    }
+  }
+
   // User Actions
   const handleBuzzerPress = useCallback(() => {
     if (!currentRound || buzzerState !== 'enabled') {
@@ -14,6 +14,7 @@ export interface Participant {
   totalScore: number;
   buzzerPressCount: number;
   isBlocked: boolean;
+  token?: string; // Participant token, only returned when joining
 }
 
 export interface GameSession {